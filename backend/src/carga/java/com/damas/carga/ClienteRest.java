@@ -0,0 +1,93 @@
+package com.damas.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Chamadas REST da API do jogo, com o token do jogador simulado
+ */
+class ClienteRest {
+
+    private final String url;
+    private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper json = new ObjectMapper();
+
+    ClienteRest(String url) {
+        this.url = url;
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    /**
+     * Cadastra o usuário e devolve o token
+     */
+    String cadastrar(String username) throws IOException, InterruptedException {
+        JsonNode resposta = enviar("/api/auth/register", null, Map.of(
+                "username", username,
+                "email", username + "@carga.local",
+                "senha", "carga-" + username,
+                "nomeCompleto", "Jogador de carga"));
+        return resposta.get("token").asText();
+    }
+
+    JsonNode criarPartida(String token, int tempoPartida) throws IOException, InterruptedException {
+        return enviar("/api/partidas", token, Map.of("tempoPartida", tempoPartida));
+    }
+
+    JsonNode entrarPartida(String token, long partidaId) throws IOException, InterruptedException {
+        return enviar("/api/partidas/" + partidaId + "/entrar", token, null);
+    }
+
+    JsonNode jogar(String token, long partidaId, int ply, int linhaOrigem, int colunaOrigem,
+                   int linhaDestino, int colunaDestino) throws IOException, InterruptedException {
+        return enviar("/api/partidas/" + partidaId + "/movimento", token, Map.of(
+                "ply", ply,
+                "linhaOrigem", linhaOrigem,
+                "colunaOrigem", colunaOrigem,
+                "linhaDestino", linhaDestino,
+                "colunaDestino", colunaDestino));
+    }
+
+    JsonNode desistir(String token, long partidaId) throws IOException, InterruptedException {
+        return enviar("/api/partidas/" + partidaId + "/desistir", token, null);
+    }
+
+    private JsonNode enviar(String caminho, String token, Object corpo) throws IOException, InterruptedException {
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(URI.create(url + caminho))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(corpo != null
+                        ? HttpRequest.BodyPublishers.ofByteArray(json.writeValueAsBytes(corpo))
+                        : HttpRequest.BodyPublishers.noBody());
+        if (token != null) {
+            requisicao.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<byte[]> resposta = cliente.send(requisicao.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (resposta.statusCode() != 200) {
+            throw new ErroApi(resposta.statusCode(), caminho);
+        }
+        return json.readTree(resposta.body());
+    }
+
+    /**
+     * Resposta diferente de 200
+     */
+    static class ErroApi extends IOException {
+        final int status;
+
+        ErroApi(int status, String caminho) {
+            super("HTTP " + status + " em " + caminho);
+            this.status = status;
+        }
+    }
+}
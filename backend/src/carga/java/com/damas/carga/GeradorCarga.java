@@ -0,0 +1,273 @@
+package com.damas.carga;
+
+import com.damas.JogoDamasApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de carga: cadastra usuários, cria partidas pela API REST e joga
+ * lances legais sorteados em várias partidas ao mesmo tempo, enquanto uma
+ * conexão STOMP de cada partida acompanha o tópico dos jogadores e,
+ * opcionalmente, conexões de espectadores acompanham todas as partidas. Mede
+ * a vazão de lances e a latência do lance até a chegada do delta dele pelo
+ * STOMP, para os jogadores e para o primeiro espectador.
+ *
+ * Sem {@code --url}, sobe a aplicação no próprio processo (H2 em memória,
+ * porta livre); os argumentos não reconhecidos vão para ela, por exemplo
+ * {@code damas.persistencia.intervalo-ms=100}.
+ *
+ * Uso: {@code GeradorCarga [opções]}, com ou sem o {@code --} na frente de cada opção
+ * <ul>
+ *   <li>{@code --url=http://host:porta} servidor já em execução;</li>
+ *   <li>{@code --partidas=50} partidas simultâneas (dois jogadores cada);</li>
+ *   <li>{@code --duracao=60} segundos de medição;</li>
+ *   <li>{@code --aquecimento=10} segundos antes da medição, descartados;</li>
+ *   <li>{@code --intervalo-ms=200} pausa entre a resposta de um lance e o próximo, por partida;</li>
+ *   <li>{@code --espectadores=0} conexões de espectadores, cada uma assistindo a todas as partidas;</li>
+ *   <li>{@code --threads=16} threads dos clientes.</li>
+ * </ul>
+ */
+public final class GeradorCarga implements ObservadorStomp.Receptor {
+
+    // Longo o bastante para nenhuma partida terminar por tempo durante o teste
+    static final int TEMPO_PARTIDA = 3600;
+
+    private final ClienteRest cliente;
+    private final long intervaloMs;
+    private final ScheduledExecutorService agendador;
+
+    // Instante de envio de cada lance ainda sem delta, por partida e número do lance
+    private final Map<Long, Long> enviados = new ConcurrentHashMap<>();
+    private final Map<Long, Long> enviadosEspectadores = new ConcurrentHashMap<>();
+    private boolean comEspectadores;
+
+    private volatile boolean medindo;
+    private volatile boolean parado;
+    private final AtomicLong lances = new AtomicLong();
+    private final AtomicLong erros = new AtomicLong();
+    private final AtomicLong partidasConcluidas = new AtomicLong();
+    private final Latencias latenciasRest = new Latencias();
+    private final Latencias latenciasDifusao = new Latencias();
+    private final Latencias latenciasEspectadores = new Latencias();
+    private volatile String ultimoErro;
+
+    private GeradorCarga(String url, long intervaloMs, int threads) {
+        this.cliente = new ClienteRest(url);
+        this.intervaloMs = intervaloMs;
+        AtomicInteger contador = new AtomicInteger();
+        this.agendador = Executors.newScheduledThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "carga-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opcoes = new HashMap<>();
+        List<String> argumentosServidor = new ArrayList<>();
+        for (String argumento : args) {
+            String[] partes = argumento.replaceFirst("^--", "").split("=", 2);
+            switch (partes[0]) {
+                case "url", "partidas", "duracao", "aquecimento", "intervalo-ms", "espectadores", "threads" ->
+                        opcoes.put(partes[0], partes.length > 1 ? partes[1] : "");
+                default -> argumentosServidor.add(argumento.startsWith("--") ? argumento : "--" + argumento);
+            }
+        }
+        int partidas = Integer.parseInt(opcoes.getOrDefault("partidas", "50"));
+        int duracao = Integer.parseInt(opcoes.getOrDefault("duracao", "60"));
+        int aquecimento = Integer.parseInt(opcoes.getOrDefault("aquecimento", "10"));
+        long intervaloMs = Long.parseLong(opcoes.getOrDefault("intervalo-ms", "200"));
+        int espectadores = Integer.parseInt(opcoes.getOrDefault("espectadores", "0"));
+        int threads = Integer.parseInt(opcoes.getOrDefault("threads", "16"));
+
+        ConfigurableApplicationContext servidor = null;
+        String url = opcoes.get("url");
+        if (url == null) {
+            argumentosServidor.add(0, "--server.port=0");
+            argumentosServidor.add(1, "--logging.level.root=WARN");
+            argumentosServidor.add(2, "--spring.profiles.default=dev"); // segredo JWT de desenvolvimento
+            servidor = SpringApplication.run(JogoDamasApplication.class, argumentosServidor.toArray(String[]::new));
+            url = "http://localhost:" + servidor.getEnvironment().getProperty("local.server.port");
+            System.out.println("Servidor local em " + url);
+        }
+
+        GeradorCarga carga = new GeradorCarga(url, intervaloMs, threads);
+        try {
+            carga.executar(partidas, espectadores, aquecimento, duracao);
+        } finally {
+            if (servidor != null) {
+                servidor.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private void executar(int partidas, int espectadores, int aquecimento, int duracao) throws Exception {
+        // Nomes únicos por execução, para rodar de novo contra o mesmo servidor
+        String prefixo = "c" + Long.toString(ThreadLocalRandom.current().nextLong(1L << 30), 36) + "_";
+        List<PartidaSimulada.Jogador> jogadores = cadastrar(prefixo, 2 * partidas + espectadores);
+        System.out.printf("%d usuários cadastrados%n", jogadores.size());
+
+        List<ObservadorStomp> observadores = new ArrayList<>();
+        List<ObservadorStomp> assistindo = new ArrayList<>();
+        for (int i = 0; i < espectadores; i++) {
+            assistindo.add(new ObservadorStomp(cliente.getUrl(), jogadores.get(2 * partidas + i).token(), this));
+        }
+        comEspectadores = espectadores > 0;
+        for (int i = 0; i < partidas; i++) {
+            PartidaSimulada.Jogador brancas = jogadores.get(2 * i);
+            ObservadorStomp observador = new ObservadorStomp(cliente.getUrl(), brancas.token(), this);
+            observadores.add(observador);
+            new PartidaSimulada(this, brancas, jogadores.get(2 * i + 1), observador, assistindo).iniciar();
+        }
+        observadores.addAll(assistindo);
+
+        acompanhar(aquecimento, "aquecimento");
+        lances.set(0);
+        erros.set(0);
+        partidasConcluidas.set(0);
+        medindo = true;
+        long inicio = System.nanoTime();
+        acompanhar(duracao, "medição");
+        medindo = false;
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        long medidos = lances.get();
+
+        parado = true;
+        agendador.shutdown();
+        agendador.awaitTermination(10, TimeUnit.SECONDS);
+        observadores.forEach(ObservadorStomp::fechar);
+
+        System.out.println();
+        System.out.printf("Partidas simultâneas: %d, intervalo entre lances: %d ms, espectadores: %d%n",
+                partidas, intervaloMs, espectadores);
+        System.out.printf("Lances: %d em %.1f s (%.1f lances/s), partidas concluídas: %d, erros: %d%n",
+                medidos, segundos, medidos / segundos, partidasConcluidas.get(), erros.get());
+        System.out.println("Latência do REST (envio até a resposta): " + latenciasRest.resumo());
+        System.out.println("Latência da difusão (envio até o delta no STOMP): " + latenciasDifusao.resumo());
+        if (comEspectadores) {
+            System.out.println("Latência até o primeiro espectador: " + latenciasEspectadores.resumo());
+        }
+        if (ultimoErro != null) {
+            System.out.println("Último erro: " + ultimoErro);
+        }
+    }
+
+    private List<PartidaSimulada.Jogador> cadastrar(String prefixo, int quantidade) throws Exception {
+        List<Callable<PartidaSimulada.Jogador>> cadastros = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            String username = prefixo + i;
+            cadastros.add(() -> new PartidaSimulada.Jogador(username, cliente.cadastrar(username)));
+        }
+        // Poucos cadastros de cada vez: o hash da senha é caro e com muitos juntos as requisições estouram o prazo
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<PartidaSimulada.Jogador> jogadores = new ArrayList<>();
+            for (Future<PartidaSimulada.Jogador> cadastro : executor.invokeAll(cadastros)) {
+                jogadores.add(cadastro.get());
+            }
+            return jogadores;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Mostra o progresso a cada 5 segundos durante a fase
+    private void acompanhar(int segundos, String fase) throws InterruptedException {
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        long anteriores = lances.get();
+        while (System.nanoTime() < fim) {
+            long espera = Math.min(TimeUnit.NANOSECONDS.toMillis(fim - System.nanoTime()), 5000);
+            Thread.sleep(Math.max(espera, 1));
+            long atuais = lances.get();
+            System.out.printf("[%s] %d lances (%.1f/s), %d erros, difusão %s%n", fase, atuais,
+                    (atuais - anteriores) * 1000.0 / Math.max(espera, 1), erros.get(), latenciasDifusao.resumo());
+            anteriores = atuais;
+        }
+    }
+
+    @Override
+    public void aoReceberLance(long partidaId, int sequencia, boolean espectador) {
+        Long envio = (espectador ? enviadosEspectadores : enviados).remove(chave(partidaId, sequencia));
+        if (envio != null && medindo) {
+            (espectador ? latenciasEspectadores : latenciasDifusao).registrar(System.nanoTime() - envio);
+        }
+    }
+
+    private static long chave(long partidaId, int ply) {
+        return partidaId << 16 | ply;
+    }
+
+    long enviando(long partidaId, int ply) {
+        long chave = chave(partidaId, ply);
+        long agora = System.nanoTime();
+        enviados.put(chave, agora);
+        if (comEspectadores) {
+            enviadosEspectadores.put(chave, agora);
+        }
+        return chave;
+    }
+
+    void descartarEnvio(long chave) {
+        enviados.remove(chave);
+        enviadosEspectadores.remove(chave);
+    }
+
+    // Lances da partida cujo delta não chegou (perdido ou ainda em trânsito ao trocar de partida)
+    void descartarEnvios(long partidaId) {
+        enviados.keySet().removeIf(chave -> chave >>> 16 == partidaId);
+        enviadosEspectadores.keySet().removeIf(chave -> chave >>> 16 == partidaId);
+    }
+
+    void lanceRespondido(long nanos) {
+        lances.incrementAndGet();
+        if (medindo) {
+            latenciasRest.registrar(nanos);
+        }
+    }
+
+    void partidaConcluida() {
+        partidasConcluidas.incrementAndGet();
+    }
+
+    void erro(Throwable erro) {
+        erros.incrementAndGet();
+        ultimoErro = erro.toString();
+    }
+
+    void agendar(Runnable tarefa, long atrasoMs) {
+        try {
+            agendador.schedule(tarefa, atrasoMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Teste encerrado
+        }
+    }
+
+    boolean isParado() {
+        return parado;
+    }
+
+    ClienteRest getCliente() {
+        return cliente;
+    }
+
+    long getIntervaloMs() {
+        return intervaloMs;
+    }
+}
@@ -0,0 +1,48 @@
+package com.damas.carga;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Amostras de latência em microssegundos, para os percentis do relatório.
+ * Guarda todas as amostras: um teste de alguns minutos tem poucos milhões.
+ */
+class Latencias {
+
+    private long[] amostras = new long[1 << 16];
+    private int tamanho;
+
+    synchronized void registrar(long nanos) {
+        if (tamanho == amostras.length) {
+            amostras = Arrays.copyOf(amostras, tamanho * 2);
+        }
+        amostras[tamanho++] = nanos / 1000;
+    }
+
+    synchronized int contar() {
+        return tamanho;
+    }
+
+    /**
+     * Resumo no formato "n=... p50=...ms p99=...ms p999=...ms max=...ms"
+     */
+    synchronized String resumo() {
+        if (tamanho == 0) {
+            return "n=0";
+        }
+        long[] ordenadas = Arrays.copyOf(amostras, tamanho);
+        Arrays.sort(ordenadas);
+        return String.format("n=%d p50=%s p99=%s p999=%s max=%s", tamanho,
+                ms(percentil(ordenadas, 0.50)), ms(percentil(ordenadas, 0.99)),
+                ms(percentil(ordenadas, 0.999)), ms(ordenadas[tamanho - 1]));
+    }
+
+    private static long percentil(long[] ordenadas, double fracao) {
+        int indice = (int) Math.ceil(fracao * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))];
+    }
+
+    private static String ms(long micros) {
+        return String.format(Locale.ROOT, "%.2fms", micros / 1000.0);
+    }
+}
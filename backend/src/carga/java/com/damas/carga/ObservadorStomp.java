@@ -0,0 +1,105 @@
+package com.damas.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Conexão STOMP que se inscreve nos tópicos das partidas simuladas, como
+ * jogador ou como espectador, e avisa a chegada de cada delta
+ */
+class ObservadorStomp {
+
+    /**
+     * Recebe os deltas das partidas
+     */
+    interface Receptor {
+        void aoReceberLance(long partidaId, int sequencia, boolean espectador);
+    }
+
+    private final WebSocketStompClient cliente;
+    private final StompSession sessao;
+    private final Receptor receptor;
+
+    ObservadorStomp(String url, String token, Receptor receptor) throws Exception {
+        this.receptor = receptor;
+        this.cliente = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        this.cliente.setMessageConverter(new MappingJackson2MessageConverter());
+        StompHeaders conexao = new StompHeaders();
+        conexao.add("Authorization", "Bearer " + token);
+        this.sessao = cliente.connectAsync(url + "/ws", new WebSocketHttpHeaders(), conexao, new StompSessionHandlerAdapter() {
+            @Override
+            public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                        byte[] payload, Throwable exception) {
+                System.err.println("Mensagem STOMP não tratada: " + exception);
+            }
+
+            @Override
+            public void handleTransportError(StompSession session, Throwable exception) {
+                System.err.println("Conexão STOMP perdida: " + exception);
+            }
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Inscreve no tópico da partida (o dos jogadores ou o dos espectadores) e
+     * pede o estado dela em /app/... O futuro completa quando o estado chega,
+     * com a inscrição do tópico já ativa: os lances enviados a partir daí
+     * chegam ao observador
+     */
+    CompletableFuture<StompSession.Subscription> inscrever(long partidaId, boolean espectador) {
+        String caminho = (espectador ? "espectadores/partida/" : "partida/") + partidaId;
+        StompSession.Subscription inscricao = sessao.subscribe("/topic/" + caminho,
+                new Tratador(atualizacao -> receber(atualizacao, espectador)));
+
+        CompletableFuture<StompSession.Subscription> inscrita = new CompletableFuture<>();
+        sessao.subscribe("/app/" + caminho, new Tratador(estado -> inscrita.complete(inscricao)));
+        return inscrita;
+    }
+
+    void fechar() {
+        if (sessao.isConnected()) {
+            sessao.disconnect();
+        }
+        cliente.stop();
+    }
+
+    private void receber(JsonNode atualizacao, boolean espectador) {
+        switch (atualizacao.path("tipo").asText()) {
+            case "LANCE" -> receptor.aoReceberLance(atualizacao.get("partidaId").asLong(),
+                    atualizacao.get("sequencia").asInt(), espectador);
+            case "LOTE" -> atualizacao.get("atualizacoes").forEach(item -> receber(item, espectador));
+            default -> {
+            }
+        }
+    }
+
+    // Entrega o corpo JSON de cada mensagem da inscrição
+    private record Tratador(Consumer<JsonNode> leitor) implements StompFrameHandler {
+
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return JsonNode.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            leitor.accept((JsonNode) payload);
+        }
+    }
+}
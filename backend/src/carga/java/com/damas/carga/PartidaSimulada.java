@@ -0,0 +1,171 @@
+package com.damas.carga;
+
+import com.damas.engine.Casas;
+import com.damas.engine.GeradorMovimentos;
+import com.damas.engine.ListaMovimentos;
+import com.damas.engine.Movimento;
+import com.damas.engine.Posicao;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Um par de jogadores simulados jogando partidas seguidas, em malha fechada:
+ * cada lance só é enviado depois da resposta do anterior e do intervalo
+ * configurado. A posição é mantida localmente para sortear lances legais e
+ * ressincronizada com o tabuleiro de cada resposta. Quando a partida termina
+ * ou um lance falha, o par começa outra.
+ */
+class PartidaSimulada {
+
+    /**
+     * Usuário cadastrado no servidor
+     */
+    record Jogador(String username, String token) {
+    }
+
+    private final GeradorCarga carga;
+    private final Jogador brancas; // quem cria a partida joga de brancas
+    private final Jogador pretas;
+    private final ObservadorStomp observador; // conexão das brancas: o tópico da partida é só dos jogadores
+    private final List<ObservadorStomp> espectadores;
+
+    // Só usados pela tarefa da vez no agendador, uma de cada vez
+    private final GeradorMovimentos gerador = new GeradorMovimentos();
+    private final ListaMovimentos legais = new ListaMovimentos();
+    private long partidaId;
+    private Posicao posicao;
+    private int ply;
+    private final List<StompSession.Subscription> inscricoes = new ArrayList<>();
+
+    PartidaSimulada(GeradorCarga carga, Jogador brancas, Jogador pretas, ObservadorStomp observador,
+                    List<ObservadorStomp> espectadores) {
+        this.carga = carga;
+        this.brancas = brancas;
+        this.pretas = pretas;
+        this.observador = observador;
+        this.espectadores = espectadores;
+    }
+
+    void iniciar() {
+        carga.agendar(this::novaPartida, 0);
+    }
+
+    private void novaPartida() {
+        if (carga.isParado()) {
+            return;
+        }
+        try {
+            JsonNode criada = carga.getCliente().criarPartida(brancas.token(), GeradorCarga.TEMPO_PARTIDA);
+            partidaId = criada.get("id").asLong();
+            carga.getCliente().entrarPartida(pretas.token(), partidaId);
+        } catch (IOException e) {
+            falhar(e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        posicao = Posicao.inicial();
+        ply = 0;
+
+        // Os lances começam depois das inscrições, para todos os deltas chegarem aos observadores
+        List<CompletableFuture<StompSession.Subscription>> inscrevendo = new ArrayList<>();
+        inscrevendo.add(observador.inscrever(partidaId, false));
+        for (ObservadorStomp espectador : espectadores) {
+            inscrevendo.add(espectador.inscrever(partidaId, true));
+        }
+        CompletableFuture.allOf(inscrevendo.toArray(CompletableFuture[]::new))
+                .orTimeout(10, TimeUnit.SECONDS)
+                .whenComplete((nada, erro) -> carga.agendar(() -> {
+                    // Guarda as inscrições que deram certo, para cancelar mesmo se alguma falhou
+                    inscrevendo.stream().filter(inscrita -> inscrita.isDone() && !inscrita.isCompletedExceptionally())
+                            .forEach(inscrita -> inscricoes.add(inscrita.join()));
+                    if (erro != null) {
+                        falhar(erro);
+                    } else {
+                        jogar();
+                    }
+                }, 0));
+    }
+
+    private void jogar() {
+        if (carga.isParado()) {
+            return;
+        }
+        int quantidade = gerador.gerar(posicao, legais);
+        if (quantidade == 0) {
+            // Sem lance legal: o servidor já deveria ter encerrado a partida
+            trocarPartida();
+            return;
+        }
+        long movimento = legais.get(ThreadLocalRandom.current().nextInt(quantidade));
+        int origem = Movimento.origem(movimento);
+        int destino = Movimento.destino(movimento);
+        Jogador daVez = posicao.isVezBrancas() ? brancas : pretas;
+        int proximo = ply + 1;
+
+        long chave = carga.enviando(partidaId, proximo);
+        long inicio = System.nanoTime();
+        JsonNode atualizacao;
+        try {
+            atualizacao = carga.getCliente().jogar(daVez.token(), partidaId, proximo,
+                    Casas.linha(origem), Casas.coluna(origem), Casas.linha(destino), Casas.coluna(destino));
+        } catch (IOException e) {
+            carga.descartarEnvio(chave);
+            falhar(e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        carga.lanceRespondido(System.nanoTime() - inicio);
+
+        // A resposta é só o delta do lance: o servidor aceitou o mesmo lance legal gerado aqui
+        posicao.aplicar(movimento);
+        ply = atualizacao.get("sequencia").asInt();
+
+        if (!"EM_ANDAMENTO".equals(atualizacao.get("status").asText())) {
+            carga.partidaConcluida();
+            trocarPartida();
+        } else {
+            carga.agendar(this::jogar, carga.getIntervaloMs());
+        }
+    }
+
+    // Desiste da partida atual (se ainda estiver em andamento) e começa outra
+    private void falhar(Throwable erro) {
+        carga.erro(erro);
+        if (partidaId != 0) {
+            try {
+                carga.getCliente().desistir(brancas.token(), partidaId);
+            } catch (IOException e) {
+                // Já encerrada
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        trocarPartida();
+    }
+
+    private void trocarPartida() {
+        for (StompSession.Subscription inscricao : inscricoes) {
+            try {
+                inscricao.unsubscribe();
+            } catch (RuntimeException e) {
+                // Sessão já fechada
+            }
+        }
+        inscricoes.clear();
+        carga.descartarEnvios(partidaId);
+        partidaId = 0;
+        carga.agendar(this::novaPartida, carga.getIntervaloMs());
+    }
+}
@@ -0,0 +1,44 @@
+package com.damas.carga;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatenciasTest {
+
+    @Test
+    void semAmostras() {
+        assertEquals("n=0", new Latencias().resumo());
+    }
+
+    @Test
+    void percentisPeloPostoMaisProximo() {
+        Latencias latencias = new Latencias();
+        // 1 a 1000 ms, fora de ordem
+        for (int i = 1000; i >= 1; i--) {
+            latencias.registrar(i * 1_000_000L);
+        }
+
+        assertEquals("n=1000 p50=500.00ms p99=990.00ms p999=999.00ms max=1000.00ms", latencias.resumo());
+    }
+
+    @Test
+    void amostraUnicaEmTodosOsPercentis() {
+        Latencias latencias = new Latencias();
+        latencias.registrar(1_234_000L);
+
+        assertEquals("n=1 p50=1.23ms p99=1.23ms p999=1.23ms max=1.23ms", latencias.resumo());
+    }
+
+    @Test
+    void guardaAmostrasAlemDaCapacidadeInicial() {
+        Latencias latencias = new Latencias();
+        for (int i = 0; i < 100_000; i++) {
+            latencias.registrar(1_000_000L);
+        }
+        latencias.registrar(50_000_000L);
+
+        assertEquals(100_001, latencias.contar());
+        assertTrue(latencias.resumo().endsWith("max=50.00ms"));
+    }
+}
@@ -0,0 +1,109 @@
+package com.damas.benchmark;
+
+import com.damas.engine.Casas;
+import com.damas.engine.ListaMovimentos;
+import com.damas.engine.Movimento;
+import com.damas.engine.Perft;
+import com.damas.engine.Posicao;
+import com.damas.engine.TabelaFinais;
+import com.damas.service.JogoDamasService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo das operações do motor por lance, na API int[][] e em bitboards
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MotorBenchmark {
+
+    private final JogoDamasService jogoDamasService = new JogoDamasService(new TabelaFinais());
+    private final ListaMovimentos lista = new ListaMovimentos();
+    private final Posicao copia = new Posicao();
+    private final Perft perft = new Perft(6);
+
+    private Posicao[] posicoes;
+    private long[] movimentos;
+    private int[][][] tabuleiros;
+    private int indice;
+
+    @Setup
+    public void preparar() {
+        PosicoesDeReferencia referencia = new PosicoesDeReferencia();
+        posicoes = referencia.posicoes;
+        movimentos = referencia.movimentos;
+        tabuleiros = new int[posicoes.length][][];
+        for (int i = 0; i < posicoes.length; i++) {
+            tabuleiros[i] = posicoes[i].paraMatriz();
+        }
+    }
+
+    private int proximo() {
+        indice = (indice + 1) & (PosicoesDeReferencia.QUANTIDADE - 1);
+        return indice;
+    }
+
+    @Benchmark
+    public int[][] criarNovoTabuleiro() {
+        return jogoDamasService.criarNovoTabuleiro();
+    }
+
+    @Benchmark
+    public Posicao criarPosicaoInicial() {
+        return jogoDamasService.criarPosicaoInicial();
+    }
+
+    @Benchmark
+    public boolean isMovimentoValidoMatriz() {
+        int i = proximo();
+        long movimento = movimentos[i];
+        return jogoDamasService.isMovimentoValido(tabuleiros[i],
+                Casas.linha(Movimento.origem(movimento)), Casas.coluna(Movimento.origem(movimento)),
+                Casas.linha(Movimento.destino(movimento)), Casas.coluna(Movimento.destino(movimento)),
+                posicoes[i].isVezBrancas());
+    }
+
+    @Benchmark
+    public long validarMovimento() {
+        int i = proximo();
+        long movimento = movimentos[i];
+        return jogoDamasService.validarMovimento(posicoes[i],
+                Casas.linha(Movimento.origem(movimento)), Casas.coluna(Movimento.origem(movimento)),
+                Casas.linha(Movimento.destino(movimento)), Casas.coluna(Movimento.destino(movimento)));
+    }
+
+    @Benchmark
+    public int gerarMovimentosLegais() {
+        return jogoDamasService.gerarMovimentosLegais(posicoes[proximo()], lista);
+    }
+
+    @Benchmark
+    public int[][] executarMovimentoMatriz() {
+        int i = proximo();
+        long movimento = movimentos[i];
+        return jogoDamasService.executarMovimento(tabuleiros[i],
+                Casas.linha(Movimento.origem(movimento)), Casas.coluna(Movimento.origem(movimento)),
+                Casas.linha(Movimento.destino(movimento)), Casas.coluna(Movimento.destino(movimento)),
+                posicoes[i].isVezBrancas());
+    }
+
+    @Benchmark
+    public long executarMovimento() {
+        int i = proximo();
+        copia.copiarDe(posicoes[i]);
+        jogoDamasService.executarMovimento(copia, movimentos[i]);
+        return copia.getHash();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long perft5() {
+        return perft.contar(Posicao.inicial(), 5);
+    }
+}
@@ -0,0 +1,38 @@
+package com.damas.benchmark;
+
+import com.damas.engine.GeradorMovimentos;
+import com.damas.engine.ListaMovimentos;
+import com.damas.engine.Posicao;
+
+import java.util.Random;
+
+/**
+ * Posições de meio de jogo geradas por partidas aleatórias com semente fixa,
+ * para que todas as execuções meçam exatamente o mesmo conjunto
+ */
+final class PosicoesDeReferencia {
+
+    static final int QUANTIDADE = 64;
+
+    final Posicao[] posicoes = new Posicao[QUANTIDADE];
+    final long[] movimentos = new long[QUANTIDADE];
+
+    PosicoesDeReferencia() {
+        Random random = new Random(20240401L);
+        GeradorMovimentos gerador = new GeradorMovimentos();
+        ListaMovimentos lista = new ListaMovimentos();
+        int gerados = 0;
+        while (gerados < QUANTIDADE) {
+            Posicao posicao = Posicao.inicial();
+            int lances = 10 + random.nextInt(30);
+            for (int i = 0; i < lances && gerador.gerar(posicao, lista) > 0; i++) {
+                posicao.aplicar(lista.get(random.nextInt(lista.tamanho())));
+            }
+            if (gerador.gerar(posicao, lista) > 0) {
+                posicoes[gerados] = posicao;
+                movimentos[gerados] = lista.get(random.nextInt(lista.tamanho()));
+                gerados++;
+            }
+        }
+    }
+}
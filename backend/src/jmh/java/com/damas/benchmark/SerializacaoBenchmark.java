@@ -0,0 +1,86 @@
+package com.damas.benchmark;
+
+import com.damas.engine.Posicao;
+import com.damas.engine.TabelaFinais;
+import com.damas.engine.TabuleiroCompacto;
+import com.damas.service.JogoDamasService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da conversão do tabuleiro entre o formato da API, o JSON antigo e o
+ * formato compacto armazenado na partida
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializacaoBenchmark {
+
+    private final JogoDamasService jogoDamasService = new JogoDamasService(new TabelaFinais());
+
+    private Posicao[] posicoes;
+    private int[][][] tabuleiros;
+    private String[] jsons;
+    private TabuleiroCompacto[] compactos;
+    private byte[][] binarios;
+    private int indice;
+
+    @Setup
+    public void preparar() {
+        posicoes = new PosicoesDeReferencia().posicoes;
+        tabuleiros = new int[posicoes.length][][];
+        jsons = new String[posicoes.length];
+        compactos = new TabuleiroCompacto[posicoes.length];
+        binarios = new byte[posicoes.length][];
+        for (int i = 0; i < posicoes.length; i++) {
+            tabuleiros[i] = posicoes[i].paraMatriz();
+            jsons[i] = jogoDamasService.tabuleiroParaJson(tabuleiros[i]);
+            compactos[i] = TabuleiroCompacto.de(posicoes[i]);
+            binarios[i] = compactos[i].paraBytes();
+        }
+    }
+
+    private int proximo() {
+        indice = (indice + 1) & (PosicoesDeReferencia.QUANTIDADE - 1);
+        return indice;
+    }
+
+    @Benchmark
+    public String tabuleiroParaJson() {
+        return jogoDamasService.tabuleiroParaJson(tabuleiros[proximo()]);
+    }
+
+    @Benchmark
+    public int[][] jsonParaTabuleiro() {
+        return jogoDamasService.jsonParaTabuleiro(jsons[proximo()]);
+    }
+
+    @Benchmark
+    public String posicaoParaJson() {
+        return jogoDamasService.posicaoParaJson(posicoes[proximo()]);
+    }
+
+    @Benchmark
+    public Posicao jsonParaPosicao() {
+        return jogoDamasService.jsonParaPosicao(jsons[proximo()], true);
+    }
+
+    @Benchmark
+    public byte[] posicaoParaBytes() {
+        return TabuleiroCompacto.de(posicoes[proximo()]).paraBytes();
+    }
+
+    @Benchmark
+    public Posicao bytesParaPosicao() {
+        return TabuleiroCompacto.deBytes(binarios[proximo()]).paraPosicao(true);
+    }
+
+    @Benchmark
+    public int[][] compactoParaMatriz() {
+        return compactos[proximo()].paraMatriz();
+    }
+}
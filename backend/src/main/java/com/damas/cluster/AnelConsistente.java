@@ -0,0 +1,49 @@
+package com.damas.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anel de hash consistente: cada nó ocupa vários pontos (nós virtuais) no
+ * anel de 64 bits, e uma chave pertence ao primeiro ponto à frente do hash
+ * dela. Entrar ou sair um nó só muda o dono das chaves vizinhas aos pontos dele.
+ */
+public final class AnelConsistente {
+
+    private final TreeMap<Long, String> pontos = new TreeMap<>();
+
+    public AnelConsistente(Collection<String> nos, int virtuaisPorNo) {
+        if (nos.isEmpty()) {
+            throw new IllegalArgumentException("O anel precisa de pelo menos um nó");
+        }
+        for (String no : nos) {
+            for (int i = 0; i < virtuaisPorNo; i++) {
+                pontos.put(misturar(fnv1a(no + "#" + i)), no);
+            }
+        }
+    }
+
+    public String dono(long chave) {
+        Map.Entry<Long, String> ponto = pontos.ceilingEntry(misturar(chave));
+        return ponto != null ? ponto.getValue() : pontos.firstEntry().getValue();
+    }
+
+    // FNV-1a de 64 bits, só para espalhar os nomes dos nós
+    private static long fnv1a(String texto) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : texto.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Finalizador do SplitMix64: ids sequenciais viram posições bem espalhadas no anel
+    private static long misturar(long x) {
+        x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+        x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+        return x ^ (x >>> 31);
+    }
+}
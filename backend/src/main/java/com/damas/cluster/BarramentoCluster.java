@@ -0,0 +1,17 @@
+package com.damas.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Canal entre os nós do cluster. Cada implementação entrega a mensagem
+ * publicada a todos os outros nós, na ordem de publicação de cada nó.
+ */
+public interface BarramentoCluster {
+
+    void publicar(MensagemCluster mensagem);
+
+    /**
+     * Registra quem trata as mensagens vindas dos outros nós
+     */
+    void inscrever(Consumer<MensagemCluster> receptor);
+}
@@ -0,0 +1,124 @@
+package com.damas.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Barramento por HTTP: cada mensagem é enviada por POST a cada um dos outros
+ * nós. Cada destino tem sua própria thread e fila, o que mantém a ordem das
+ * mensagens por nó e impede um nó lento de atrasar os outros ou os lances.
+ * Com a fila cheia ou o nó fora do ar a mensagem é descartada; os clientes se
+ * ressincronizam pela sequência das atualizações.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "damas.cluster.barramento", havingValue = "http")
+public class BarramentoHttp implements BarramentoCluster {
+
+    public static final String CAMINHO = "/interno/cluster/mensagens";
+    public static final String CABECALHO_SEGREDO = "X-Damas-Cluster-Segredo";
+
+    private final ObjectMapper objectMapper;
+    private final String segredo;
+    private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final Map<String, ExecutorService> envios;
+    private final Map<String, URI> enderecos;
+    private final List<Consumer<MensagemCluster>> receptores = new CopyOnWriteArrayList<>();
+
+    public BarramentoHttp(TopologiaCluster topologia, ObjectMapper objectMapper,
+                          @Value("${damas.cluster.segredo:}") String segredo,
+                          @Value("${damas.cluster.fila-envio:10000}") int filaEnvio) {
+        if (segredo.isBlank()) {
+            throw new IllegalStateException("damas.cluster.segredo é obrigatório com o barramento http");
+        }
+        this.objectMapper = objectMapper;
+        this.segredo = segredo;
+        this.enderecos = topologia.getOutrosNos().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, no -> URI.create(no.getValue() + CAMINHO)));
+        this.envios = enderecos.keySet().stream().collect(Collectors.toMap(no -> no, no ->
+                new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(filaEnvio),
+                        tarefa -> {
+                            Thread thread = new Thread(tarefa, "cluster-envio-" + no);
+                            thread.setDaemon(true);
+                            return thread;
+                        },
+                        (tarefa, executor) -> log.warn("Fila de envio para o nó {} cheia, mensagem descartada", no))));
+    }
+
+    @Override
+    public void publicar(MensagemCluster mensagem) {
+        byte[] corpo;
+        try {
+            corpo = objectMapper.writeValueAsBytes(mensagem);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar a mensagem do cluster", e);
+        }
+        envios.forEach((no, executor) -> executor.execute(() -> enviar(no, corpo)));
+    }
+
+    @Override
+    public void inscrever(Consumer<MensagemCluster> receptor) {
+        receptores.add(receptor);
+    }
+
+    /**
+     * Mensagem recebida de outro nó, já com o segredo conferido
+     */
+    public void receber(MensagemCluster mensagem) {
+        for (Consumer<MensagemCluster> receptor : receptores) {
+            receptor.accept(mensagem);
+        }
+    }
+
+    public boolean isSegredoValido(String recebido) {
+        return recebido != null && MessageDigest.isEqual(
+                segredo.getBytes(StandardCharsets.UTF_8),
+                recebido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void enviar(String no, byte[] corpo) {
+        HttpRequest requisicao = HttpRequest.newBuilder(enderecos.get(no))
+                .timeout(Duration.ofSeconds(2))
+                .header("Content-Type", "application/json")
+                .header(CABECALHO_SEGREDO, segredo)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(corpo))
+                .build();
+        try {
+            HttpResponse<Void> resposta = cliente.send(requisicao, HttpResponse.BodyHandlers.discarding());
+            if (resposta.statusCode() / 100 != 2) {
+                log.warn("Nó {} recusou a mensagem do cluster: HTTP {}", no, resposta.statusCode());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Falha ao enviar mensagem ao nó {}: {}", no, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        envios.values().forEach(ExecutorService::shutdown);
+    }
+}
@@ -0,0 +1,57 @@
+package com.damas.cluster;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Barramento dentro do processo: entrega as mensagens aos outros nós do mesmo
+ * grupo rodando na mesma JVM. É o padrão num nó só (não há a quem entregar)
+ * e permite testar vários nós num processo, sem rede.
+ */
+@Component
+@ConditionalOnProperty(name = "damas.cluster.barramento", havingValue = "local", matchIfMissing = true)
+public class BarramentoLocal implements BarramentoCluster {
+
+    private static final Map<String, List<BarramentoLocal>> GRUPOS = new ConcurrentHashMap<>();
+
+    private final String grupo;
+    private final List<Consumer<MensagemCluster>> receptores = new CopyOnWriteArrayList<>();
+
+    public BarramentoLocal(@Value("${damas.cluster.grupo:damas}") String grupo) {
+        this.grupo = grupo;
+        GRUPOS.computeIfAbsent(grupo, g -> new CopyOnWriteArrayList<>()).add(this);
+    }
+
+    @Override
+    public void publicar(MensagemCluster mensagem) {
+        for (BarramentoLocal outro : GRUPOS.getOrDefault(grupo, List.of())) {
+            if (outro != this) {
+                outro.receber(mensagem);
+            }
+        }
+    }
+
+    @Override
+    public void inscrever(Consumer<MensagemCluster> receptor) {
+        receptores.add(receptor);
+    }
+
+    private void receber(MensagemCluster mensagem) {
+        for (Consumer<MensagemCluster> receptor : receptores) {
+            receptor.accept(mensagem);
+        }
+    }
+
+    @PreDestroy
+    void sair() {
+        GRUPOS.getOrDefault(grupo, List.of()).remove(this);
+    }
+}
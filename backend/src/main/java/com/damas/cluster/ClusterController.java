@@ -0,0 +1,31 @@
+package com.damas.cluster;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Recebe as mensagens do barramento HTTP enviadas pelos outros nós
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "damas.cluster.barramento", havingValue = "http")
+public class ClusterController {
+
+    private final BarramentoHttp barramentoHttp;
+
+    @PostMapping(BarramentoHttp.CAMINHO)
+    public ResponseEntity<Void> receber(@RequestBody MensagemCluster mensagem,
+                                        @RequestHeader(value = BarramentoHttp.CABECALHO_SEGREDO, required = false) String segredo) {
+        if (!barramentoHttp.isSegredoValido(segredo)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        barramentoHttp.receber(mensagem);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.damas.cluster;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Encaminha ao nó dono da partida as requisições que dependem do estado dela
+ * em memória (lances, desistência, leitura da partida e dos lances, revisão
+ * das posições, que aproveita o cache de linhas do tempo do dono). Roda
+ * depois do Spring Security: o token já foi verificado aqui e é repassado
+ * como veio para o dono verificar de novo. A marca de requisição já
+ * encaminhada só vale acompanhada do segredo do cluster; sem ele, a
+ * requisição é tratada como vinda de fora.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EncaminhamentoPartidasFilter extends OncePerRequestFilter {
+
+    // Marca a requisição já encaminhada: o nó que a recebe a processa, mesmo se discordar do dono
+    public static final String CABECALHO_ENCAMINHADA = "X-Damas-Encaminhada";
+    public static final String CABECALHO_SEGREDO = BarramentoHttp.CABECALHO_SEGREDO;
+
+    private static final Pattern ROTAS_DO_DONO = Pattern.compile("^/api/partidas/(\\d+)(/(movimento|desistir|lances|posicao|replay))?$");
+    private static final List<String> CABECALHOS_REPASSADOS = List.of("Authorization", "Content-Type", "Accept");
+
+    private final TopologiaCluster topologia;
+    private final HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+
+    @Value("${damas.cluster.segredo:}")
+    private String segredo = "";
+
+    @PostConstruct
+    void conferirSegredo() {
+        if (topologia.isAtivo() && segredo.isBlank()) {
+            throw new IllegalStateException("damas.cluster.segredo é obrigatório com mais de um nó");
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !topologia.isAtivo() || isEncaminhadaPorOutroNo(request);
+    }
+
+    // Vinda de fora, a marca é ignorada: a requisição segue para o dono como qualquer outra
+    private boolean isEncaminhadaPorOutroNo(HttpServletRequest request) {
+        String recebido = request.getHeader(CABECALHO_SEGREDO);
+        return request.getHeader(CABECALHO_ENCAMINHADA) != null && recebido != null && MessageDigest.isEqual(
+                segredo.getBytes(StandardCharsets.UTF_8),
+                recebido.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Matcher rota = ROTAS_DO_DONO.matcher(request.getRequestURI());
+        if (!rota.matches()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        String dono = topologia.dono(Long.valueOf(rota.group(1)));
+        if (dono.equals(topologia.getNoLocal())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        encaminhar(dono, request, response);
+    }
+
+    private void encaminhar(String dono, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String consulta = request.getQueryString();
+        URI destino = URI.create(topologia.url(dono) + request.getRequestURI() + (consulta != null ? "?" + consulta : ""));
+        
+        HttpRequest.Builder requisicao = HttpRequest.newBuilder(destino)
+                .timeout(Duration.ofSeconds(10))
+                .header(CABECALHO_ENCAMINHADA, topologia.getNoLocal())
+                .header(CABECALHO_SEGREDO, segredo)
+                .method(request.getMethod(), HttpRequest.BodyPublishers.ofByteArray(request.getInputStream().readAllBytes()));
+        for (String nome : CABECALHOS_REPASSADOS) {
+            String valor = request.getHeader(nome);
+            if (valor != null) {
+                requisicao.header(nome, valor);
+            }
+        }
+        
+        HttpResponse<byte[]> resposta;
+        try {
+            resposta = cliente.send(requisicao.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor da partida indisponível");
+            return;
+        } catch (IOException e) {
+            log.warn("Falha ao encaminhar {} ao nó {}: {}", request.getRequestURI(), dono, e.getMessage());
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor da partida indisponível");
+            return;
+        }
+        
+        response.setStatus(resposta.statusCode());
+        resposta.headers().firstValue("Content-Type").ifPresent(response::setContentType);
+        response.getOutputStream().write(resposta.body());
+    }
+}
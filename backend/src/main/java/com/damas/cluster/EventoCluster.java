@@ -0,0 +1,9 @@
+package com.damas.cluster;
+
+/**
+ * Marca eventos da aplicação que todos os nós precisam receber (por exemplo,
+ * mudanças no lobby, que cada nó mantém em memória). Depois do commit, o
+ * evento é enviado aos outros nós e republicado lá.
+ */
+public interface EventoCluster {
+}
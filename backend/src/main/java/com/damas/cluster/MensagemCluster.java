@@ -0,0 +1,15 @@
+package com.damas.cluster;
+
+/**
+ * Mensagem trocada entre os nós pelo {@link BarramentoCluster}. O conteúdo já
+ * vai serializado em JSON, uma vez só, e é repassado como veio.
+ */
+public record MensagemCluster(Tipo tipo, String origem, String destino, Long usuarioId, String usuario,
+                              String classe, String conteudo) {
+
+    public enum Tipo {
+        TOPICO,  // mensagem STOMP para os inscritos do destino em todos os nós
+        USUARIO, // mensagem para as sessões de um usuário, onde ele estiver conectado
+        EVENTO   // evento da aplicação (ver EventoCluster), republicado em cada nó
+    }
+}
@@ -0,0 +1,140 @@
+package com.damas.cluster;
+
+import com.damas.service.RegistroSessoes;
+import com.damas.service.TransmissaoEspectadores;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Publica as mensagens STOMP para os clientes de todos os nós: entrega aos
+ * inscritos deste nó e repassa pelo {@link BarramentoCluster} aos outros, que
+ * entregam aos seus. O payload é serializado uma vez e vai adiante como JSON.
+ *
+ * Também leva aos outros nós os eventos marcados com {@link EventoCluster}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PublicadorMensagens {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final BarramentoCluster barramento;
+    private final TopologiaCluster topologia;
+    private final RegistroSessoes registroSessoes;
+    private final TransmissaoEspectadores transmissaoEspectadores;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    // Marca a republicação de um evento vindo de outro nó, para ele não voltar ao barramento
+    private static final ThreadLocal<Boolean> RECEBENDO = ThreadLocal.withInitial(() -> false);
+
+    @PostConstruct
+    void inscrever() {
+        barramento.inscrever(this::receber);
+    }
+
+    /**
+     * Envia ao destino (ex.: /topic/partida/1) em todos os nós
+     */
+    public void publicar(String destino, Object payload) {
+        String json = serializar(payload);
+        entregar(destino, json);
+        barramento.publicar(new MensagemCluster(MensagemCluster.Tipo.TOPICO, topologia.getNoLocal(),
+                destino, null, null, null, json));
+    }
+
+    /**
+     * Envia às sessões do usuário (ex.: /queue/eventos), em qualquer nó em que ele esteja conectado
+     */
+    public void enviarParaUsuario(Long usuarioId, String username, String destino, Object payload) {
+        String json = serializar(payload);
+        if (registroSessoes.isConectado(usuarioId)) {
+            entregarAoUsuario(username, destino, json);
+        }
+        barramento.publicar(new MensagemCluster(MensagemCluster.Tipo.USUARIO, topologia.getNoLocal(),
+                destino, usuarioId, username, null, json));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoPublicarEvento(EventoCluster evento) {
+        if (RECEBENDO.get()) {
+            return;
+        }
+        barramento.publicar(new MensagemCluster(MensagemCluster.Tipo.EVENTO, topologia.getNoLocal(),
+                null, null, null, evento.getClass().getName(), serializar(evento)));
+    }
+
+    private void receber(MensagemCluster mensagem) {
+        switch (mensagem.tipo()) {
+            case TOPICO -> entregar(mensagem.destino(), mensagem.conteudo());
+            case USUARIO -> {
+                if (registroSessoes.isConectado(mensagem.usuarioId())) {
+                    entregarAoUsuario(mensagem.usuario(), mensagem.destino(), mensagem.conteudo());
+                }
+            }
+            case EVENTO -> republicar(mensagem);
+        }
+    }
+
+    private void republicar(MensagemCluster mensagem) {
+        Object evento;
+        try {
+            Class<?> classe = Class.forName(mensagem.classe());
+            if (!EventoCluster.class.isAssignableFrom(classe)) {
+                log.warn("Evento do nó {} ignorado: {} não é um EventoCluster", mensagem.origem(), mensagem.classe());
+                return;
+            }
+            evento = objectMapper.readValue(mensagem.conteudo(), classe);
+        } catch (ClassNotFoundException | JsonProcessingException e) {
+            log.warn("Evento do nó {} ignorado: {}", mensagem.origem(), e.getMessage());
+            return;
+        }
+
+        RECEBENDO.set(true);
+        try {
+            eventPublisher.publishEvent(evento);
+        } finally {
+            RECEBENDO.set(false);
+        }
+    }
+
+    private void entregar(String destino, String json) {
+        messagingTemplate.send(destino, criarMensagem(json));
+        // Os espectadores deste nó recebem a mesma atualização depois, acumulada com as outras
+        transmissaoEspectadores.registrar(destino, json);
+    }
+
+    private void entregarAoUsuario(String username, String destino, String json) {
+        messagingTemplate.send("/user/" + StringUtils.replace(username, "/", "%2F") + destino, criarMensagem(json));
+    }
+
+    private Message<byte[]> criarMensagem(String json) {
+        SimpMessageHeaderAccessor cabecalhos = SimpMessageHeaderAccessor.create();
+        cabecalhos.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        cabecalhos.setLeaveMutable(true);
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), cabecalhos.getMessageHeaders());
+    }
+
+    private String serializar(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar a mensagem", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.damas.cluster;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Nós do cluster e dono de cada partida. A lista de nós é estática
+ * ({@code damas.cluster.nos}); vazia, a aplicação roda num nó só e toda
+ * partida é local.
+ */
+@Slf4j
+@Component
+public class TopologiaCluster {
+
+    @Value("${damas.cluster.no-id:local}")
+    private String noLocal = "local";
+
+    // Formato: id=url,id=url (ex.: no1=http://10.0.0.1:8080,no2=http://10.0.0.2:8080)
+    @Value("${damas.cluster.nos:}")
+    private String configuracaoNos = "";
+
+    @Value("${damas.cluster.nos-virtuais:128}")
+    private int nosVirtuais = 128;
+
+    private Map<String, String> urls = Map.of();
+    private AnelConsistente anel;
+
+    @PostConstruct
+    void inicializar() {
+        Map<String, String> nos = new LinkedHashMap<>();
+        for (String item : configuracaoNos.split(",")) {
+            String[] partes = item.trim().split("=", 2);
+            if (partes.length == 2 && !partes[0].isBlank()) {
+                nos.put(partes[0].trim(), partes[1].trim().replaceAll("/+$", ""));
+            }
+        }
+        if (nos.isEmpty()) {
+            return;
+        }
+        if (!nos.containsKey(noLocal)) {
+            throw new IllegalStateException("O nó " + noLocal + " não está em damas.cluster.nos");
+        }
+        urls = Collections.unmodifiableMap(nos);
+        anel = new AnelConsistente(nos.keySet(), nosVirtuais);
+        log.info("Cluster com {} nós; este é {}", nos.size(), noLocal);
+    }
+
+    public boolean isAtivo() {
+        return anel != null;
+    }
+
+    public String getNoLocal() {
+        return noLocal;
+    }
+
+    public String dono(Long partidaId) {
+        return anel == null ? noLocal : anel.dono(partidaId);
+    }
+
+    public boolean isLocal(Long partidaId) {
+        return anel == null || noLocal.equals(anel.dono(partidaId));
+    }
+
+    public String url(String no) {
+        return urls.get(no);
+    }
+
+    /**
+     * Os outros nós do cluster, com a URL de cada um
+     */
+    public Map<String, String> getOutrosNos() {
+        Map<String, String> outros = new LinkedHashMap<>(urls);
+        outros.remove(noLocal);
+        return outros;
+    }
+}
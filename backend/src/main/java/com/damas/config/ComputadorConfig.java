@@ -0,0 +1,75 @@
+package com.damas.config;
+
+import com.damas.engine.MotorBusca;
+import com.damas.engine.TabelaFinais;
+import com.damas.engine.TabelaTransposicao;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ComputadorConfig {
+
+    /**
+     * Pool dedicado e limitado para as buscas do computador, separado das
+     * threads que atendem as requisições dos jogadores humanos
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor computadorExecutor(
+            @Value("${damas.computador.threads:0}") int threads,
+            @Value("${damas.computador.fila:256}") int fila) {
+        int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila), fabrica("computador-busca-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Pool das threads auxiliares da busca paralela, separado do das buscas
+     * principais e sem fila: se não há thread livre na hora, a busca segue
+     * com menos auxiliares em vez de esperar atrás de outras buscas
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor auxiliaresBuscaExecutor(
+            @Value("${damas.computador.threads-auxiliares:0}") int threads) {
+        int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        return new ThreadPoolExecutor(0, tamanho, 30L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), fabrica("computador-auxiliar-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Tabela de finais compartilhada pelo motor e pela adjudicação; começa
+     * vazia e é carregada pelo {@link com.damas.service.FinaisService}
+     */
+    @Bean
+    public TabelaFinais tabelaFinais() {
+        return new TabelaFinais();
+    }
+
+    @Bean
+    public MotorBusca motorBusca(
+            @Qualifier("auxiliaresBuscaExecutor") ThreadPoolExecutor auxiliaresBuscaExecutor,
+            @Value("${damas.computador.tabela-bits:20}") int bitsTabela,
+            @Value("${damas.computador.threads-por-busca:2}") int threadsPorBusca,
+            TabelaFinais tabelaFinais) {
+        return new MotorBusca(new TabelaTransposicao(bitsTabela), auxiliaresBuscaExecutor, threadsPorBusca,
+                tabelaFinais);
+    }
+
+    private static ThreadFactory fabrica(String prefixo) {
+        AtomicInteger contador = new AtomicInteger();
+        return tarefa -> {
+            Thread thread = new Thread(tarefa, prefixo + contador.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.damas.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Modo de execução: threads de plataforma (padrão) ou threads virtuais, com
+ * {@code spring.threads.virtual.enabled=true} em Java 21+. No modo virtual o
+ * Spring Boot passa o Tomcat e as tarefas agendadas (a gravação das partidas)
+ * para threads virtuais, o {@link WebSocketConfig} faz o mesmo com os canais
+ * STOMP e aqui o acesso ao banco ganha um limite de conexões simultâneas.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class ExecucaoConfig {
+
+    private final Environment environment;
+
+    /**
+     * Sem pool de threads limitando as requisições, o limite passa a ser o do
+     * banco: o DataSource é envolvido por um {@link DataSourceLimitado}
+     */
+    @Bean
+    public static BeanPostProcessor limiteConexoesBanco(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof DataSourceLimitado
+                        || !Threading.VIRTUAL.isActive(environment)) {
+                    return bean;
+                }
+                int concorrencia = environment.getProperty("damas.banco.concorrencia", Integer.class, 0);
+                if (concorrencia <= 0) {
+                    concorrencia = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                }
+                long esperaMs = environment.getProperty("damas.banco.espera-ms", Long.class, 10000L);
+                log.info("Acesso ao banco limitado a {} conexões simultâneas", concorrencia);
+                return new DataSourceLimitado(dataSource, concorrencia, esperaMs);
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void informarModo() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Modo de execução: threads virtuais");
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("Threads virtuais exigem Java 21 (rodando em {}); usando threads de plataforma",
+                    JavaVersion.getJavaVersion());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.damas.config;
+
+import com.damas.service.ComputadorService;
+import com.damas.service.LobbyService;
+import com.damas.service.PartidasAtivasService;
+import com.damas.service.RankingService;
+import com.damas.service.RegistroSessoes;
+import com.damas.service.RelogioPartidas;
+import com.damas.service.TransmissaoEspectadores;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Medidores do estado da aplicação, lidos na hora da coleta (em
+ * /actuator/prometheus). As filas dos canais STOMP (clientInbound,
+ * clientOutbound, broker) já aparecem como executor.* pelo Spring Boot.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public MeterBinder metricasDamas(RegistroSessoes registroSessoes,
+                                     PartidasAtivasService partidasAtivasService,
+                                     RelogioPartidas relogioPartidas,
+                                     LobbyService lobbyService,
+                                     RankingService rankingService,
+                                     TransmissaoEspectadores transmissaoEspectadores,
+                                     ComputadorService computadorService,
+                                     @Qualifier("computadorExecutor") ThreadPoolExecutor computadorExecutor,
+                                     @Qualifier("auxiliaresBuscaExecutor") ThreadPoolExecutor auxiliaresBuscaExecutor) {
+        return registry -> {
+            Gauge.builder("damas.ws.sessoes", registroSessoes, RegistroSessoes::contarConexoes)
+                    .description("Sessões WebSocket autenticadas")
+                    .register(registry);
+            Gauge.builder("damas.ws.usuarios", registroSessoes, RegistroSessoes::contarUsuarios)
+                    .description("Usuários com ao menos uma sessão WebSocket")
+                    .register(registry);
+            Gauge.builder("damas.partidas.ativas", partidasAtivasService, PartidasAtivasService::contarPartidas)
+                    .description("Partidas em andamento em memória neste nó")
+                    .register(registry);
+            Gauge.builder("damas.relogio.pendentes", relogioPartidas, RelogioPartidas::getRelogiosPendentes)
+                    .description("Temporizadores de relógio agendados")
+                    .register(registry);
+            Gauge.builder("damas.lobby.partidas", lobbyService, lobby -> lobby.listar(null).size())
+                    .description("Partidas esperando adversário no lobby")
+                    .register(registry);
+            Gauge.builder("damas.ranking.jogadores", rankingService, RankingService::contarJogadores)
+                    .description("Jogadores no ranking em memória")
+                    .register(registry);
+            Gauge.builder("damas.espectadores", transmissaoEspectadores, TransmissaoEspectadores::contarEspectadores)
+                    .description("Inscrições de espectadores neste nó")
+                    .register(registry);
+            Gauge.builder("damas.computador.pendentes", computadorService, ComputadorService::contarPendentes)
+                    .description("Jogadas do computador esperando vaga no pool de busca")
+                    .register(registry);
+            new ExecutorServiceMetrics(computadorExecutor, "computadorExecutor", Tags.empty()).bindTo(registry);
+            new ExecutorServiceMetrics(auxiliaresBuscaExecutor, "auxiliaresBuscaExecutor", Tags.empty())
+                    .bindTo(registry);
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.damas.config;
+
+import com.damas.security.CustomUserDetailsService;
+import com.damas.security.JwtAuthenticationFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+@Configuration
+@EnableWebSecurity
+@RequiredArgsConstructor
+public class SecurityConfig {
+
+    private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final CustomUserDetailsService userDetailsService;
+
+    @Value("${management.server.port:-1}")
+    private int portaGerencia = -1;
+
+    @Value("${server.port:8080}")
+    private int portaAplicacao = 8080;
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .csrf(AbstractHttpConfigurer::disable)
+                .cors(Customizer.withDefaults())
+                // Sem sessão: cada requisição se autentica pelo token
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/auth/**", "/api/test/**", "/ws/**", "/error").permitAll()
+                        // Entre nós do cluster; autenticado pelo segredo compartilhado
+                        .requestMatchers("/interno/cluster/**").permitAll()
+                        // Verificação de saúde; o resto do actuator exige login
+                        .requestMatchers("/actuator/health/**").permitAll()
+                        // Coleta do Prometheus só na porta de gerência, que não fica exposta ao público
+                        .requestMatchers(naPortaDeGerencia("/actuator/prometheus")).permitAll()
+                        .anyRequest().authenticated())
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        
+        return http.build();
+    }
+
+    /**
+     * Requisições ao caminho que chegam pela porta de gerência
+     * (management.server.port). Se ela não é separada da porta da aplicação,
+     * nenhuma.
+     */
+    RequestMatcher naPortaDeGerencia(String caminho) {
+        AntPathRequestMatcher matcherCaminho = new AntPathRequestMatcher(caminho);
+        boolean portaPropria = portaGerencia > 0 && portaGerencia != portaAplicacao;
+        return request -> portaPropria && request.getLocalPort() == portaGerencia && matcherCaminho.matches(request);
+    }
+
+    // O filtro JWT roda só dentro da cadeia do Spring Security, não também como filtro do servlet
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration() {
+        FilterRegistrationBean<JwtAuthenticationFilter> registro = new FilterRegistrationBean<>(jwtAuthenticationFilter);
+        registro.setEnabled(false);
+        return registro;
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    // Usado só no login, que confere a senha no banco
+    @Bean
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        return new ProviderManager(provider);
+    }
+}
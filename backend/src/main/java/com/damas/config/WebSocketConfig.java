@@ -1,15 +1,26 @@
 package com.damas.config;
 
+import com.damas.security.StompAutenticacaoInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAutenticacaoInterceptor stompAutenticacaoInterceptor;
+    private final Environment environment;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Prefixo para mensagens destinadas ao cliente
@@ -17,6 +28,42 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         
         // Prefixo para mensagens destinadas ao servidor
         registry.setApplicationDestinationPrefixes("/app");
+        
+        // Mensagens individuais: /user/queue/... chega só às sessões do usuário
+        registry.setUserDestinationPrefix("/user");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Autentica o CONNECT com o token JWT antes de qualquer outra mensagem
+        registration.interceptors(stompAutenticacaoInterceptor);
+
+        // No modo virtual, o processamento das mensagens recebidas (que consulta o banco) roda em
+        // threads virtuais. O canal de saída continua no pool: com uma thread por mensagem os deltas
+        // de uma partida chegariam fora de ordem, e a opção de preservar a ordem do Spring travou as
+        // entregas com esse executor
+        if (Threading.VIRTUAL.isActive(environment)) {
+            registration.executor(executorVirtual("stomp-entrada-"));
+        }
+    }
+
+    // Uma thread virtual por mensagem, no lugar do pool padrão (2 x núcleos) dos canais
+    private static SimpleAsyncTaskExecutor executorVirtual(String prefixo) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(prefixo);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Limites de envio por sessão: um cliente lento acumula mensagens até o
+     * buffer encher ou um envio passar do tempo, e então é desconectado (ele
+     * se reconecta e recebe o estado de novo), em vez de segurar as threads
+     * do canal de saída e atrasar os outros
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(environment.getProperty("damas.ws.limite-envio-ms", Integer.class, 5000));
+        registration.setSendBufferSizeLimit(environment.getProperty("damas.ws.limite-buffer-kb", Integer.class, 256) * 1024);
     }
 
     @Override
@@ -0,0 +1,40 @@
+package com.damas.controller;
+
+import com.damas.dto.EntradaLobbyDTO;
+import com.damas.dto.FilaRequest;
+import com.damas.dto.PartidaDTO;
+import com.damas.security.UsuarioAutenticado;
+import com.damas.service.LobbyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/lobby")
+@RequiredArgsConstructor
+public class LobbyController {
+
+    private final LobbyService lobbyService;
+
+    @GetMapping
+    public ResponseEntity<List<EntradaLobbyDTO>> listar(@RequestParam(required = false) Integer tempo) {
+        return ResponseEntity.ok(lobbyService.listar(tempo));
+    }
+
+    // Entra na fila: devolve a partida em que o jogador foi pareado, ou a que ele abriu para esperar
+    @PostMapping("/fila")
+    public ResponseEntity<PartidaDTO> entrarNaFila(@RequestBody(required = false) FilaRequest request, @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        Integer tempo = request != null ? request.getTempoPartida() : null;
+        return ResponseEntity.ok(lobbyService.buscarPartida(usuario.getId(), tempo));
+    }
+
+    // Lista completa ao se inscrever em /app/lobby; as mudanças seguintes chegam em /topic/lobby
+    @SubscribeMapping("/lobby")
+    public List<EntradaLobbyDTO> estadoLobby() {
+        return lobbyService.listar(null);
+    }
+}
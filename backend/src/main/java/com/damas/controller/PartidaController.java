@@ -1,18 +1,33 @@
 package com.damas.controller;
 
+import com.damas.dto.AtualizacaoPartidaDTO;
+import com.damas.dto.FiltroPartidas;
+import com.damas.dto.LanceDTO;
 import com.damas.dto.MovimentoRequest;
 import com.damas.dto.NovaPartidaRequest;
+import com.damas.dto.PaginaDTO;
 import com.damas.dto.PartidaDTO;
-import com.damas.model.Partida;
+import com.damas.dto.PartidaResumoDTO;
+import com.damas.dto.PosicaoDTO;
+import com.damas.security.UsuarioAutenticado;
 import com.damas.service.PartidaService;
+import com.damas.service.ReproducaoService;
+import com.damas.service.TransmissaoEspectadores;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.security.core.Authentication;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/partidas")
@@ -20,20 +35,24 @@ import java.util.List;
 public class PartidaController {
 
     private final PartidaService partidaService;
+    private final TransmissaoEspectadores transmissaoEspectadores;
+    private final ReproducaoService reproducaoService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity<PartidaDTO> criarPartida(@RequestBody NovaPartidaRequest request, Authentication authentication) {
-        return ResponseEntity.ok(partidaService.criarPartida(request, authentication.getName()));
+    public ResponseEntity<PartidaDTO> criarPartida(@RequestBody NovaPartidaRequest request, @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        return ResponseEntity.ok(partidaService.criarPartida(request, usuario.getId()));
     }
 
     @GetMapping
-    public ResponseEntity<List<PartidaDTO>> listarMinhasPartidas(Authentication authentication) {
-        return ResponseEntity.ok(partidaService.listarPartidasDoUsuario(authentication.getName()));
+    public ResponseEntity<PaginaDTO<PartidaResumoDTO>> listarMinhasPartidas(FiltroPartidas filtro, @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        return ResponseEntity.ok(partidaService.listarPartidasDoUsuario(usuario.getId(), filtro));
     }
 
     @GetMapping("/aguardando")
-    public ResponseEntity<List<PartidaDTO>> listarPartidasAguardando() {
-        return ResponseEntity.ok(partidaService.listarPartidasAguardando());
+    public ResponseEntity<PaginaDTO<PartidaResumoDTO>> listarPartidasAguardando(
+            @RequestParam(required = false) Long antesDe, @RequestParam(defaultValue = "20") int tamanho) {
+        return ResponseEntity.ok(partidaService.listarPartidasAguardando(antesDe, tamanho));
     }
 
     @GetMapping("/{id}")
@@ -47,25 +66,58 @@ public class PartidaController {
     }
 
     @PostMapping("/{id}/entrar")
-    public ResponseEntity<PartidaDTO> entrarPartida(@PathVariable Long id, Authentication authentication) {
-        return ResponseEntity.ok(partidaService.entrarPartida(id, authentication.getName()));
+    public ResponseEntity<PartidaDTO> entrarPartida(@PathVariable Long id, @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        return ResponseEntity.ok(partidaService.entrarPartida(id, usuario.getId()));
+    }
+
+    @PostMapping("/{id}/cancelar")
+    public ResponseEntity<PartidaDTO> cancelarEspera(@PathVariable Long id, @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        return ResponseEntity.ok(partidaService.cancelarEspera(id, usuario.getId()));
     }
 
     @PostMapping("/{id}/movimento")
-    public ResponseEntity<PartidaDTO> realizarMovimento(@PathVariable Long id, @RequestBody MovimentoRequest request, Authentication authentication) {
-        return ResponseEntity.ok(partidaService.realizarMovimento(id, request, authentication.getName()));
+    public ResponseEntity<AtualizacaoPartidaDTO> realizarMovimento(@PathVariable Long id, @RequestBody MovimentoRequest request, @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        return ResponseEntity.ok(partidaService.realizarMovimento(id, request, usuario.getId()));
+    }
+
+    @GetMapping("/{id}/lances")
+    public ResponseEntity<List<LanceDTO>> listarLances(@PathVariable Long id, @RequestParam(defaultValue = "0") int desde) {
+        return ResponseEntity.ok(partidaService.listarLances(id, desde));
+    }
+
+    @GetMapping("/{id}/posicao")
+    public ResponseEntity<PosicaoDTO> obterPosicao(@PathVariable Long id, @RequestParam int ply) {
+        return ResponseEntity.ok(reproducaoService.obterPosicao(id, ply));
+    }
+
+    // Posições de cada lance do trecho, escritas num array JSON à medida que são calculadas. A escrita é
+    // feita aqui, na thread da requisição: uma resposta assíncrona passaria de novo pelos filtros de segurança
+    @GetMapping("/{id}/replay")
+    public void reproduzir(@PathVariable Long id, @RequestParam(defaultValue = "0") int desde,
+                           @RequestParam(required = false) Integer ate, HttpServletResponse response) throws IOException {
+        Stream<PosicaoDTO> posicoes = reproducaoService.reproduzir(id, desde, ate);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (SequenceWriter escritor = objectMapper.writer().writeValuesAsArray(response.getOutputStream())) {
+            for (Iterator<PosicaoDTO> iterador = posicoes.iterator(); iterador.hasNext(); ) {
+                escritor.write(iterador.next());
+            }
+        }
     }
 
     @PostMapping("/{id}/desistir")
-    public ResponseEntity<PartidaDTO> desistirPartida(@PathVariable Long id, Authentication authentication) {
-        return ResponseEntity.ok(partidaService.desistirPartida(id, authentication.getName()));
+    public ResponseEntity<PartidaDTO> desistirPartida(@PathVariable Long id, @AuthenticationPrincipal UsuarioAutenticado usuario) {
+        return ResponseEntity.ok(partidaService.desistirPartida(id, usuario.getId()));
     }
     
-    // WebSocket para notificações em tempo real
-    @MessageMapping("/partida.movimento")
-    @SendTo("/topic/partida")
-    public PartidaDTO notificarMovimento(MovimentoRequest request) {
-        Partida partida = partidaService.getPartidaById(request.getPartidaId());
-        return partidaService.converterParaDTO(partida);
+    // Estado completo ao se inscrever em /app/partida/{id}; as atualizações seguintes chegam como deltas em /topic/partida/{id}
+    @SubscribeMapping("/partida/{id}")
+    public AtualizacaoPartidaDTO estadoPartida(@DestinationVariable Long id) {
+        return partidaService.obterEstado(id);
+    }
+
+    // Estado completo para o espectador, em /app/espectadores/partida/{id}; os lotes seguintes chegam em /topic/espectadores/partida/{id}
+    @SubscribeMapping("/espectadores/partida/{id}")
+    public AtualizacaoPartidaDTO estadoParaEspectador(@DestinationVariable Long id) {
+        return transmissaoEspectadores.retrato(id, partidaService::obterEstado);
     }
-}
\ No newline at end of file
+}
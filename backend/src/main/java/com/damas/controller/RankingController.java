@@ -0,0 +1,36 @@
+package com.damas.controller;
+
+import com.damas.dto.ClassificacaoDTO;
+import com.damas.service.RankingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/usuarios/ranking")
+@RequiredArgsConstructor
+public class RankingController {
+
+    private final RankingService rankingService;
+
+    // Página do ranking a partir da posição "inicio" (1 = primeiro colocado)
+    @GetMapping
+    public ResponseEntity<List<ClassificacaoDTO>> listar(@RequestParam(defaultValue = "1") int inicio,
+                                                         @RequestParam(defaultValue = "20") int quantidade) {
+        return ResponseEntity.ok(rankingService.listar(inicio, quantidade));
+    }
+
+    @GetMapping("/{usuarioId}")
+    public ResponseEntity<ClassificacaoDTO> obterPosicao(@PathVariable Long usuarioId) {
+        return ResponseEntity.ok(rankingService.obterPosicao(usuarioId));
+    }
+
+    // O jogador e os que estão logo acima e abaixo dele
+    @GetMapping("/{usuarioId}/vizinhos")
+    public ResponseEntity<List<ClassificacaoDTO>> listarVizinhos(@PathVariable Long usuarioId,
+                                                                 @RequestParam(defaultValue = "5") int raio) {
+        return ResponseEntity.ok(rankingService.listarVizinhos(usuarioId, raio));
+    }
+}
@@ -0,0 +1,23 @@
+package com.damas.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Mensagem publicada em /topic/lobby quando uma partida entra ou sai do lobby
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AtualizacaoLobbyDTO {
+    private Tipo tipo;
+    private Long partidaId;
+    private EntradaLobbyDTO entrada; // ABERTA
+
+    public enum Tipo {
+        ABERTA, FECHADA
+    }
+}
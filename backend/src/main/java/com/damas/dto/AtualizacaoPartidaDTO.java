@@ -0,0 +1,43 @@
+package com.damas.dto;
+
+import com.damas.model.Partida;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Mensagem publicada em /topic/partida/{id}. A cada lance vai só o delta
+ * (LANCE); o estado completo (ESTADO) só é enviado na inscrição, na
+ * ressincronização ou quando os jogadores mudam. {@code sequencia} é o número
+ * de lances da partida depois da atualização: um salto indica mensagem perdida.
+ * Os espectadores recebem as atualizações acumuladas num LOTE.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AtualizacaoPartidaDTO {
+    private Tipo tipo;
+    private Long partidaId;
+    private int sequencia;
+    private LanceDTO lance; // LANCE
+    private boolean jogadorAtualBrancas;
+    private Integer tempoJogadorBrancas;
+    private Integer tempoJogadorPretas;
+    private Partida.StatusPartida status;
+    private Partida.ResultadoPartida resultado;
+    private PartidaDTO partida; // ESTADO
+    private List<AtualizacaoPartidaDTO> atualizacoes; // LOTE, em ordem
+
+    public enum Tipo {
+        LANCE, // um lance, possivelmente encerrando a partida
+        FIM, // fim sem lance (desistência ou tempo esgotado)
+        ESTADO, // estado completo
+        LOTE // várias atualizações seguidas, para os espectadores
+    }
+}
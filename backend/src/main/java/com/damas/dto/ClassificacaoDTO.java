@@ -0,0 +1,25 @@
+package com.damas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Linha do ranking: posição (a partir de 1) e pontuação Elo do jogador
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClassificacaoDTO {
+    private int posicao;
+    private Long usuarioId;
+    private String username;
+    private int elo;
+
+    /**
+     * Construtor usado pela projeção JPQL que carrega o ranking, ainda sem posição
+     */
+    public ClassificacaoDTO(Long usuarioId, String username, int elo) {
+        this(0, usuarioId, username, elo);
+    }
+}
@@ -0,0 +1,30 @@
+package com.damas.dto;
+
+import com.damas.model.Partida;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Partida aberta no lobby, esperando o segundo jogador
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EntradaLobbyDTO {
+    private Long id;
+    private String codigoPartida;
+    private PartidaResumoDTO.Jogador jogadorBrancas; // quem abriu a partida
+    private int elo; // Elo de quem abriu, usado na faixa
+    private int faixa;
+    private int tempoPartida; // controle de tempo, em segundos
+    private LocalDateTime dataInicio;
+
+    public Partida.StatusPartida getStatus() {
+        return Partida.StatusPartida.AGUARDANDO;
+    }
+}
@@ -0,0 +1,26 @@
+package com.damas.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento enviado só ao usuário, em /user/queue/eventos
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventoUsuarioDTO {
+    private Tipo tipo;
+    private Long partidaId;
+    private String mensagem;
+
+    public enum Tipo {
+        PARTIDA_INICIADA, // alguém entrou na partida que o usuário abriu
+        TEMPO_ACABANDO // o relógio do usuário está perto de zerar
+    }
+}
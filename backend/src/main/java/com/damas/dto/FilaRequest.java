@@ -0,0 +1,14 @@
+package com.damas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FilaRequest {
+    private Integer tempoPartida; // em segundos, null para o padrão de 10 minutos
+}
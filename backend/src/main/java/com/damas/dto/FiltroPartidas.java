@@ -0,0 +1,22 @@
+package com.damas.dto;
+
+import com.damas.model.Partida;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros e página da listagem de partidas do usuário (parâmetros da URL)
+ */
+@Data
+public class FiltroPartidas {
+    private String adversario; // username do outro jogador
+    private Partida.StatusPartida status;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime desde; // início da partida, inclusivo
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime ate; // início da partida, exclusivo
+    private Long antesDe; // cursor: id da última partida da página anterior
+    private int tamanho = 20;
+}
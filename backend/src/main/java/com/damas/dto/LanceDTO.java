@@ -0,0 +1,23 @@
+package com.damas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LanceDTO {
+    private int ply;
+    private int linhaOrigem;
+    private int colunaOrigem;
+    private int linhaDestino;
+    private int colunaDestino;
+    private int[][] capturas; // [linha, coluna] de cada peça capturada
+    private boolean promocao;
+    private LocalDateTime dataHora;
+}
@@ -15,4 +15,5 @@ public class MovimentoRequest {
     private int colunaOrigem;
     private int linhaDestino;
     private int colunaDestino;
+    private Integer ply; // número do lance esperado (opcional); se não bater, o lance é recusado
 }
\ No newline at end of file
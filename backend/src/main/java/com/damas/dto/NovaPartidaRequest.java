@@ -12,4 +12,6 @@ import lombok.NoArgsConstructor;
 public class NovaPartidaRequest {
     private boolean partidaPrivada;
     private Integer tempoPartida; // em segundos, null para sem limite
+    private Integer incremento; // segundos somados ao relógio a cada lance, null para nenhum
+    private boolean contraComputador; // o computador joga com as pretas
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.damas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem paginada por chave (keyset). Para a próxima página,
+ * repita a consulta com {@code antesDe = proximo}; null indica a última página.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> itens;
+    private Long proximo;
+}
@@ -21,9 +21,12 @@ public class PartidaDTO {
     private int[][] tabuleiro;
     private Partida.StatusPartida status;
     private UsuarioDTO vencedor;
+    private Partida.ResultadoPartida resultado;
     private boolean jogadorAtualBrancas;
     private Integer tempoJogadorBrancas;
     private Integer tempoJogadorPretas;
+    private Integer incremento; // segundos por lance
     private String codigoPartida;
+    private int totalLances;
     private String movimentoHistorico;
 }
\ No newline at end of file
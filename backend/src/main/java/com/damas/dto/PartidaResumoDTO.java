@@ -0,0 +1,60 @@
+package com.damas.dto;
+
+import com.damas.model.Partida;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha das listagens de partidas: só o que a lista mostra, sem tabuleiro
+ * nem histórico (esses vêm de GET /api/partidas/{id})
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PartidaResumoDTO {
+    private Long id;
+    private String codigoPartida;
+    private Jogador jogadorBrancas;
+    private Jogador jogadorPretas;
+    private Jogador vencedor;
+    private Partida.StatusPartida status;
+    private Partida.ResultadoPartida resultado;
+    private LocalDateTime dataInicio;
+    private LocalDateTime dataFim;
+    private int totalLances;
+
+    /**
+     * Construtor usado pela projeção JPQL, com as colunas planas
+     */
+    public PartidaResumoDTO(Long id, String codigoPartida,
+                            Long brancasId, String brancasUsername,
+                            Long pretasId, String pretasUsername,
+                            Partida.StatusPartida status, Partida.ResultadoPartida resultado,
+                            LocalDateTime dataInicio, LocalDateTime dataFim, int totalLances) {
+        this.id = id;
+        this.codigoPartida = codigoPartida;
+        this.jogadorBrancas = new Jogador(brancasId, brancasUsername);
+        this.jogadorPretas = pretasId != null ? new Jogador(pretasId, pretasUsername) : null;
+        if (resultado == Partida.ResultadoPartida.VITORIA_BRANCAS) {
+            this.vencedor = jogadorBrancas;
+        } else if (resultado == Partida.ResultadoPartida.VITORIA_PRETAS) {
+            this.vencedor = jogadorPretas;
+        }
+        this.status = status;
+        this.resultado = resultado;
+        this.dataInicio = dataInicio;
+        this.dataFim = dataFim;
+        this.totalLances = totalLances;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Jogador {
+        private Long id;
+        private String username;
+    }
+}
@@ -0,0 +1,22 @@
+package com.damas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Posição de uma partida depois de um lance, para rever a partida
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PosicaoDTO {
+    private Long partidaId;
+    private int ply; // 0 = posição inicial
+    private int totalLances;
+    private int[][] tabuleiro;
+    private boolean jogadorAtualBrancas;
+    private LanceDTO lance; // o lance que levou a esta posição; null na inicial
+}
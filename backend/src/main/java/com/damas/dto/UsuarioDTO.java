@@ -15,5 +15,5 @@ public class UsuarioDTO {
     private String nomeCompleto;
     private int partidasJogadas;
     private int partidasVencidas;
-    private int pontuacao;
+    private int elo;
 }
\ No newline at end of file
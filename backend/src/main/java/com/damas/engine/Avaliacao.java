@@ -0,0 +1,53 @@
+package com.damas.engine;
+
+/**
+ * Avaliação estática usada pela busca, em centésimos de peça e do ponto de
+ * vista de quem joga.
+ */
+public final class Avaliacao {
+
+    public static final int VALOR_HOMEM = 100;
+    public static final int VALOR_DAMA = 300;
+
+    private static final int BONUS_AVANCO = 3;
+    private static final int BONUS_RETAGUARDA = 8;
+    private static final int BONUS_CENTRO = 4;
+
+    // Casas das linhas 3 e 4 nas colunas centrais
+    private static final int CENTRO = (1 << Casas.indice(3, 2)) | (1 << Casas.indice(3, 4))
+            | (1 << Casas.indice(4, 3)) | (1 << Casas.indice(4, 5));
+
+    private static final int[] LINHA = new int[Casas.TAMANHO_TABULEIRO];
+
+    static {
+        for (int linha = 0; linha < Casas.TAMANHO_TABULEIRO; linha++) {
+            LINHA[linha] = 0xF << (linha * 4);
+        }
+    }
+
+    private Avaliacao() {
+    }
+
+    public static int avaliar(Posicao posicao) {
+        int homensBrancos = posicao.getHomensBrancos();
+        int homensPretos = posicao.getHomensPretos();
+
+        int valor = VALOR_HOMEM * (Integer.bitCount(homensBrancos) - Integer.bitCount(homensPretos))
+                + VALOR_DAMA * (Integer.bitCount(posicao.getDamasBrancas()) - Integer.bitCount(posicao.getDamasPretas()));
+
+        // Homens mais perto da promoção valem mais: brancas sobem, pretas descem
+        for (int linha = 1; linha < Casas.TAMANHO_TABULEIRO - 1; linha++) {
+            valor += BONUS_AVANCO * ((Casas.TAMANHO_TABULEIRO - 1 - linha) * Integer.bitCount(homensBrancos & LINHA[linha])
+                    - linha * Integer.bitCount(homensPretos & LINHA[linha]));
+        }
+
+        // Homens na linha de fundo impedem a promoção adversária
+        valor += BONUS_RETAGUARDA * (Integer.bitCount(homensBrancos & Casas.LINHA_PROMOCAO_PRETAS)
+                - Integer.bitCount(homensPretos & Casas.LINHA_PROMOCAO_BRANCAS));
+
+        valor += BONUS_CENTRO * (Integer.bitCount(posicao.getPecasBrancas() & CENTRO)
+                - Integer.bitCount(posicao.getPecasPretas() & CENTRO));
+
+        return posicao.isVezBrancas() ? valor : -valor;
+    }
+}
@@ -0,0 +1,41 @@
+package com.damas.engine;
+
+/**
+ * Mapeamento entre coordenadas (linha, coluna) do tabuleiro 8x8 e os índices
+ * 0..31 das casas jogáveis usados nos bitboards.
+ *
+ * A casa de índice i fica na linha i / 4; as casas jogáveis são as de soma
+ * (linha + coluna) ímpar, como em {@code JogoDamasService.criarNovoTabuleiro}.
+ */
+public final class Casas {
+
+    public static final int TAMANHO_TABULEIRO = 8;
+    public static final int TOTAL = 32;
+
+    // Linha 0 (promoção das brancas) e linha 7 (promoção das pretas)
+    public static final int LINHA_PROMOCAO_BRANCAS = 0x0000000F;
+    public static final int LINHA_PROMOCAO_PRETAS = 0xF0000000;
+
+    private Casas() {
+    }
+
+    /**
+     * Retorna o índice da casa ou -1 se a coordenada estiver fora do tabuleiro
+     * ou for uma casa branca
+     */
+    public static int indice(int linha, int coluna) {
+        if (linha < 0 || linha >= TAMANHO_TABULEIRO || coluna < 0 || coluna >= TAMANHO_TABULEIRO
+                || ((linha + coluna) & 1) == 0) {
+            return -1;
+        }
+        return (linha << 2) | (coluna >> 1);
+    }
+
+    public static int linha(int casa) {
+        return casa >> 2;
+    }
+
+    public static int coluna(int casa) {
+        return ((casa & 3) << 1) | (~(casa >> 2) & 1);
+    }
+}
@@ -0,0 +1,61 @@
+package com.damas.engine;
+
+/**
+ * Tabelas pré-calculadas de diagonais para cada casa jogável.
+ *
+ * {@code RAIOS[casa][direcao]} lista, em ordem de distância, as casas
+ * alcançadas andando da casa na direção indicada até a borda do tabuleiro.
+ */
+public final class Diagonais {
+
+    // Direções: linha diminui (para cima) ou aumenta (para baixo)
+    public static final int NOROESTE = 0;
+    public static final int NORDESTE = 1;
+    public static final int SUDOESTE = 2;
+    public static final int SUDESTE = 3;
+    public static final int DIRECOES = 4;
+
+    private static final int[] DELTA_LINHA = {-1, -1, 1, 1};
+    private static final int[] DELTA_COLUNA = {-1, 1, -1, 1};
+
+    /** Casas ao longo de cada diagonal, a partir da casa vizinha */
+    public static final int[][][] RAIOS = new int[Casas.TOTAL][DIRECOES][];
+
+    /** Casa vizinha em cada direção, ou -1 na borda */
+    public static final int[][] VIZINHA = new int[Casas.TOTAL][DIRECOES];
+
+    /** Casa logo após a vizinha em cada direção (destino de um salto de homem), ou -1 */
+    public static final int[][] SALTO = new int[Casas.TOTAL][DIRECOES];
+
+    static {
+        int[] buffer = new int[Casas.TAMANHO_TABULEIRO];
+        for (int casa = 0; casa < Casas.TOTAL; casa++) {
+            for (int direcao = 0; direcao < DIRECOES; direcao++) {
+                int tamanho = 0;
+                int linha = Casas.linha(casa) + DELTA_LINHA[direcao];
+                int coluna = Casas.coluna(casa) + DELTA_COLUNA[direcao];
+                int indice;
+                while ((indice = Casas.indice(linha, coluna)) >= 0) {
+                    buffer[tamanho++] = indice;
+                    linha += DELTA_LINHA[direcao];
+                    coluna += DELTA_COLUNA[direcao];
+                }
+                int[] raio = new int[tamanho];
+                System.arraycopy(buffer, 0, raio, 0, tamanho);
+                RAIOS[casa][direcao] = raio;
+                VIZINHA[casa][direcao] = tamanho > 0 ? raio[0] : -1;
+                SALTO[casa][direcao] = tamanho > 1 ? raio[1] : -1;
+            }
+        }
+    }
+
+    private Diagonais() {
+    }
+
+    /**
+     * Direções em que os homens de cada cor andam sem capturar
+     */
+    public static int primeiraDirecaoFrente(boolean brancas) {
+        return brancas ? NOROESTE : SUDOESTE;
+    }
+}
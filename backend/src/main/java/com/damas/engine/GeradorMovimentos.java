@@ -0,0 +1,199 @@
+package com.damas.engine;
+
+/**
+ * Gerador de todos os movimentos legais de uma posição, seguindo as regras
+ * brasileiras:
+ * <ul>
+ *   <li>a captura é obrigatória e deve tomar o maior número possível de peças
+ *       (lei da maioria);</li>
+ *   <li>homens andam uma casa para frente e capturam para frente e para trás;</li>
+ *   <li>damas são de longo alcance, tanto no movimento quanto na captura;</li>
+ *   <li>as peças capturadas só saem do tabuleiro ao final do lance e não podem
+ *       ser saltadas duas vezes;</li>
+ *   <li>o homem só é promovido se terminar o lance na última linha.</li>
+ * </ul>
+ *
+ * Cada sequência de captura completa vira um único movimento. A instância
+ * guarda estado durante a geração e não é thread-safe: use uma por thread.
+ */
+public final class GeradorMovimentos {
+
+    private ListaMovimentos lista;
+    private int adversarias;
+    private int vazias;
+    private int maiorCaptura;
+
+    /**
+     * Preenche a lista com os movimentos legais do jogador da vez e retorna
+     * a quantidade gerada
+     */
+    public int gerar(Posicao posicao, ListaMovimentos lista) {
+        lista.limpar();
+        gerarCapturas(posicao, lista);
+        if (lista.isVazia()) {
+            gerarMovimentosSimples(posicao, lista);
+        }
+        return lista.tamanho();
+    }
+
+    /**
+     * Indica se o jogador da vez tem algum movimento legal, sem gerar todos:
+     * basta uma peça com casa vizinha livre na direção em que anda (com
+     * captura disponível, ela é que será obrigatória). Só a posição
+     * bloqueada passa pela geração das capturas, que usa a lista.
+     */
+    public boolean temMovimento(Posicao posicao, ListaMovimentos lista) {
+        boolean brancas = posicao.isVezBrancas();
+        int homens = brancas ? posicao.getHomensBrancos() : posicao.getHomensPretos();
+        int damas = brancas ? posicao.getDamasBrancas() : posicao.getDamasPretas();
+        int livres = posicao.getVazias();
+        int primeiraDirecao = Diagonais.primeiraDirecaoFrente(brancas);
+
+        while (homens != 0) {
+            int origem = Integer.numberOfTrailingZeros(homens);
+            homens &= homens - 1;
+            for (int direcao = primeiraDirecao; direcao < primeiraDirecao + 2; direcao++) {
+                int destino = Diagonais.VIZINHA[origem][direcao];
+                if (destino >= 0 && (livres & (1 << destino)) != 0) {
+                    return true;
+                }
+            }
+        }
+        while (damas != 0) {
+            int origem = Integer.numberOfTrailingZeros(damas);
+            damas &= damas - 1;
+            for (int direcao = 0; direcao < Diagonais.DIRECOES; direcao++) {
+                int destino = Diagonais.VIZINHA[origem][direcao];
+                if (destino >= 0 && (livres & (1 << destino)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return gerarCapturas(posicao, lista) > 0;
+    }
+
+    /**
+     * Gera apenas as capturas obrigatórias (já filtradas pela lei da maioria)
+     */
+    public int gerarCapturas(Posicao posicao, ListaMovimentos lista) {
+        boolean brancas = posicao.isVezBrancas();
+        int homens = brancas ? posicao.getHomensBrancos() : posicao.getHomensPretos();
+        int damas = brancas ? posicao.getDamasBrancas() : posicao.getDamasPretas();
+
+        this.lista = lista;
+        this.adversarias = brancas ? posicao.getPecasPretas() : posicao.getPecasBrancas();
+        this.maiorCaptura = 0;
+        lista.limpar();
+
+        int ocupadas = posicao.getOcupadas();
+        while (homens != 0) {
+            int origem = Integer.numberOfTrailingZeros(homens);
+            homens &= homens - 1;
+            vazias = ~(ocupadas & ~(1 << origem));
+            capturarComHomem(origem, origem, 0);
+        }
+        while (damas != 0) {
+            int origem = Integer.numberOfTrailingZeros(damas);
+            damas &= damas - 1;
+            vazias = ~(ocupadas & ~(1 << origem));
+            capturarComDama(origem, origem, 0);
+        }
+
+        this.lista = null;
+        return lista.tamanho();
+    }
+
+    /**
+     * Gera os movimentos sem captura; só são legais quando não há captura disponível
+     */
+    public int gerarMovimentosSimples(Posicao posicao, ListaMovimentos lista) {
+        boolean brancas = posicao.isVezBrancas();
+        int homens = brancas ? posicao.getHomensBrancos() : posicao.getHomensPretos();
+        int damas = brancas ? posicao.getDamasBrancas() : posicao.getDamasPretas();
+        int livres = posicao.getVazias();
+        int primeiraDirecao = Diagonais.primeiraDirecaoFrente(brancas);
+
+        while (homens != 0) {
+            int origem = Integer.numberOfTrailingZeros(homens);
+            homens &= homens - 1;
+            for (int direcao = primeiraDirecao; direcao < primeiraDirecao + 2; direcao++) {
+                int destino = Diagonais.VIZINHA[origem][direcao];
+                if (destino >= 0 && (livres & (1 << destino)) != 0) {
+                    lista.adicionar(Movimento.criar(origem, destino, 0));
+                }
+            }
+        }
+        while (damas != 0) {
+            int origem = Integer.numberOfTrailingZeros(damas);
+            damas &= damas - 1;
+            for (int direcao = 0; direcao < Diagonais.DIRECOES; direcao++) {
+                for (int destino : Diagonais.RAIOS[origem][direcao]) {
+                    if ((livres & (1 << destino)) == 0) {
+                        break;
+                    }
+                    lista.adicionar(Movimento.criar(origem, destino, 0));
+                }
+            }
+        }
+        return lista.tamanho();
+    }
+
+    private void capturarComHomem(int origem, int casa, int capturadas) {
+        boolean continuou = false;
+        for (int direcao = 0; direcao < Diagonais.DIRECOES; direcao++) {
+            int destino = Diagonais.SALTO[casa][direcao];
+            if (destino < 0) {
+                continue;
+            }
+            int bitMeio = 1 << Diagonais.VIZINHA[casa][direcao];
+            if ((adversarias & ~capturadas & bitMeio) != 0 && (vazias & (1 << destino)) != 0) {
+                continuou = true;
+                capturarComHomem(origem, destino, capturadas | bitMeio);
+            }
+        }
+        if (!continuou && capturadas != 0) {
+            registrarCaptura(origem, casa, capturadas);
+        }
+    }
+
+    private void capturarComDama(int origem, int casa, int capturadas) {
+        boolean continuou = false;
+        for (int direcao = 0; direcao < Diagonais.DIRECOES; direcao++) {
+            int[] raio = Diagonais.RAIOS[casa][direcao];
+            int i = 0;
+            while (i < raio.length && (vazias & (1 << raio[i])) != 0) {
+                i++;
+            }
+            if (i >= raio.length - 1) {
+                continue;
+            }
+            int bitSaltada = 1 << raio[i];
+            if ((adversarias & ~capturadas & bitSaltada) == 0) {
+                continue; // Peça própria ou já capturada bloqueia a diagonal
+            }
+            for (int j = i + 1; j < raio.length && (vazias & (1 << raio[j])) != 0; j++) {
+                continuou = true;
+                capturarComDama(origem, raio[j], capturadas | bitSaltada);
+            }
+        }
+        if (!continuou && capturadas != 0) {
+            registrarCaptura(origem, casa, capturadas);
+        }
+    }
+
+    private void registrarCaptura(int origem, int destino, int capturadas) {
+        int quantidade = Integer.bitCount(capturadas);
+        if (quantidade < maiorCaptura) {
+            return;
+        }
+        if (quantidade > maiorCaptura) {
+            maiorCaptura = quantidade;
+            lista.limpar();
+        }
+        // Caminhos diferentes podem levar ao mesmo resultado
+        long movimento = Movimento.criar(origem, destino, capturadas);
+        if (!lista.contem(movimento)) {
+            lista.adicionar(movimento);
+        }
+    }
+}
@@ -0,0 +1,486 @@
+package com.damas.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gera a {@link TabelaFinais} por análise retrógrada. Os materiais são
+ * resolvidos do menor para o maior: capturas levam a materiais com menos
+ * peças e promoções a materiais com menos homens, já resolvidos; os lances
+ * simples levam ao material espelhado (cores trocadas), resolvido junto.
+ *
+ * Cada posição do par é gerada uma vez: os lances para materiais menores já
+ * têm valor, os outros são contados como pendentes. Os resultados saem em
+ * ordem de distância; cada posição resolvida desfaz os lances simples que
+ * levam a ela: quem chega a uma derrota vence com um lance a mais e quem fica
+ * sem pendentes, com todos os lances levando a vitórias do adversário, perde
+ * com a maior delas mais um. O que não se resolve é empate. A preparação e
+ * cada distância são divididas entre as threads.
+ *
+ * Uso: {@code GeradorTabelaFinais arquivo [peças] [threads]}
+ */
+public final class GeradorTabelaFinais {
+
+    private static final int PECAS_PADRAO = 4;
+    private static final int PARTES_POR_THREAD = 8;
+    private static final int NUNCA_PERDE = 0xFF;
+
+    private static final VarHandle BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int pecas;
+    private final int threads;
+    private final ExecutorService executor;
+
+    // Bloco de cada material já resolvido ou em resolução, por código
+    private final byte[][] tabelas = new byte[IndiceFinais.quantidadeCodigos()][];
+    private int maiorDistancia;
+
+    private GeradorTabelaFinais(int pecas, int threads, ExecutorService executor) {
+        this.pecas = pecas;
+        this.threads = threads;
+        this.executor = executor;
+    }
+
+    /**
+     * Resultado da geração, para registro
+     */
+    public record Estatisticas(int materiais, long posicoes, int maiorDistancia, long millis) {
+    }
+
+    /**
+     * Gera a tabela com as posições de até {@code pecas} peças e grava no
+     * arquivo (primeiro num temporário ao lado, trocado no fim)
+     *
+     * @param threads threads da geração; 0 usa todos os processadores
+     */
+    public static Estatisticas gerar(Path arquivo, int pecas, int threads) throws IOException {
+        if (pecas < 2 || pecas > IndiceFinais.PECAS_MAXIMAS) {
+            throw new IllegalArgumentException("Número de peças deve ser de 2 a " + IndiceFinais.PECAS_MAXIMAS);
+        }
+        int total = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(total, tarefa -> {
+            Thread thread = new Thread(tarefa, "finais-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long inicio = System.nanoTime();
+        try {
+            GeradorTabelaFinais gerador = new GeradorTabelaFinais(pecas, total, executor);
+            List<int[]> materiais = gerador.resolverTodos();
+            long posicoes = gerador.gravar(arquivo, materiais);
+            return new Estatisticas(materiais.size(), posicoes, gerador.maiorDistancia,
+                    (System.nanoTime() - inicio) / 1_000_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Uso: GeradorTabelaFinais arquivo [peças] [threads]");
+            System.exit(2);
+        }
+        Path arquivo = Path.of(args[0]);
+        int pecas = args.length > 1 ? Integer.parseInt(args[1]) : PECAS_PADRAO;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        Estatisticas estatisticas = gerar(arquivo, pecas, threads);
+        System.out.printf("%d materiais, %d posições, maior distância %d, em %.1f s: %s (%d bytes)%n",
+                estatisticas.materiais(), estatisticas.posicoes(), estatisticas.maiorDistancia(),
+                estatisticas.millis() / 1e3, arquivo, Files.size(arquivo));
+    }
+
+    // Materiais {homens e damas de quem joga, homens e damas do adversário}, em ordem de resolução
+    private List<int[]> resolverTodos() throws IOException {
+        List<int[]> materiais = new ArrayList<>();
+        for (int total = 2; total <= pecas; total++) {
+            for (int a = 0; a <= total; a++) {
+                for (int b = 0; a + b <= total; b++) {
+                    for (int c = 0; a + b + c <= total; c++) {
+                        int d = total - a - b - c;
+                        if (a + b > 0 && c + d > 0) {
+                            materiais.add(new int[]{a, b, c, d});
+                        }
+                    }
+                }
+            }
+        }
+        materiais.sort(Comparator.<int[]>comparingInt(m -> m[0] + m[1] + m[2] + m[3])
+                .thenComparingInt(m -> m[0] + m[2]));
+
+        for (int[] material : materiais) {
+            int codigo = codigo(material);
+            if (tabelas[codigo] != null) {
+                continue; // Resolvido junto com o espelhado
+            }
+            int[] espelhado = {material[2], material[3], material[0], material[1]};
+            int codigoEspelhado = codigo(espelhado);
+            tabelas[codigo] = novoBloco(material);
+            tabelas[codigoEspelhado] = novoBloco(espelhado);
+            resolver(codigo == codigoEspelhado ? new Par(material) : new Par(material, espelhado));
+        }
+        return materiais;
+    }
+
+    private void resolver(Par par) throws IOException {
+        List<Callable<Entradas[]>> partes = new ArrayList<>();
+        for (int lado = 0; lado < par.materiais.length; lado++) {
+            int ladoFinal = lado;
+            int tamanho = par.blocos[lado].length;
+            int quantidade = Math.min(tamanho, threads * PARTES_POR_THREAD);
+            for (int i = 0; i < quantidade; i++) {
+                int de = (int) ((long) tamanho * i / quantidade);
+                int ate = (int) ((long) tamanho * (i + 1) / quantidade);
+                partes.add(() -> new Tarefa(par).preparar(ladoFinal, de, ate));
+            }
+        }
+        Entradas[] distancias = new Entradas[TabelaFinais.DISTANCIA_MAXIMA + 2];
+        juntar(distancias, partes);
+
+        for (int distancia = 0; distancia < distancias.length; distancia++) {
+            Entradas entradas = distancias[distancia];
+            if (entradas == null) {
+                continue;
+            }
+            if (distancia > TabelaFinais.DISTANCIA_MAXIMA) {
+                throw new IllegalStateException("Distância acima de " + TabelaFinais.DISTANCIA_MAXIMA
+                        + " no material " + Arrays.toString(par.materiais[0]));
+            }
+            distancias[distancia] = null;
+            maiorDistancia = Math.max(maiorDistancia, distancia);
+            int distanciaFinal = distancia;
+            partes.clear();
+            int quantidade = Math.min(entradas.tamanho, threads * PARTES_POR_THREAD);
+            for (int i = 0; i < quantidade; i++) {
+                int de = (int) ((long) entradas.tamanho * i / quantidade);
+                int ate = (int) ((long) entradas.tamanho * (i + 1) / quantidade);
+                partes.add(() -> new Tarefa(par).propagar(entradas, de, ate, distanciaFinal));
+            }
+            juntar(distancias, partes);
+        }
+
+        // O que não venceu nem perdeu é empate
+        for (byte[] bloco : par.blocos) {
+            for (int i = 0; i < bloco.length; i++) {
+                if ((bloco[i] & 0xFF) == TabelaFinais.BYTE_DESCONHECIDO) {
+                    bloco[i] = (byte) TabelaFinais.BYTE_EMPATE;
+                }
+            }
+        }
+    }
+
+    // Executa as partes e junta as posições que cada uma agendou, por distância
+    private void juntar(Entradas[] distancias, List<Callable<Entradas[]>> partes) throws IOException {
+        try {
+            for (Future<Entradas[]> parte : executor.invokeAll(partes)) {
+                Entradas[] agendadas = parte.get();
+                for (int distancia = 0; distancia < agendadas.length; distancia++) {
+                    if (agendadas[distancia] != null) {
+                        if (distancias[distancia] == null) {
+                            distancias[distancia] = new Entradas();
+                        }
+                        distancias[distancia].adicionarTodas(agendadas[distancia]);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Geração da tabela de finais interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na geração da tabela de finais", e.getCause());
+        }
+    }
+
+    /**
+     * Material em resolução e o seu espelhado (o mesmo, se simétrico), com os
+     * lances pendentes e a distância de derrota já garantida pelos lances para
+     * materiais menores ({@link #NUNCA_PERDE} se algum deles não é vitória do
+     * adversário), por posição
+     */
+    private final class Par {
+
+        final int[][] materiais;
+        final byte[][] blocos;
+        final int[][] pendentes;
+        final byte[][] derrotas;
+
+        Par(int[]... materiais) {
+            this.materiais = materiais;
+            this.blocos = new byte[materiais.length][];
+            this.pendentes = new int[materiais.length][];
+            this.derrotas = new byte[materiais.length][];
+            for (int lado = 0; lado < materiais.length; lado++) {
+                blocos[lado] = tabelas[codigo(materiais[lado])];
+                pendentes[lado] = new int[blocos[lado].length];
+                derrotas[lado] = new byte[blocos[lado].length];
+            }
+        }
+
+        // Lado do par das posições depois de um lance simples
+        int outro(int lado) {
+            return materiais.length == 1 ? 0 : 1 - lado;
+        }
+    }
+
+    /**
+     * Uma parte da preparação ou de uma distância, com gerador e posições
+     * próprios. Cada posição é gravada uma vez só (troca atômica do byte
+     * desconhecido) e os pendentes são decrementados atomicamente; as
+     * posições agendadas voltam por distância, para serem juntadas.
+     */
+    private final class Tarefa {
+
+        private final Par par;
+        private final GeradorMovimentos gerador = new GeradorMovimentos();
+        private final ListaMovimentos movimentos = new ListaMovimentos();
+        private final Posicao filho = new Posicao();
+        private final Entradas[] agendadas = new Entradas[TabelaFinais.DISTANCIA_MAXIMA + 2];
+
+        Tarefa(Par par) {
+            this.par = par;
+        }
+
+        Entradas[] preparar(int lado, int de, int ate) {
+            int[] material = par.materiais[lado];
+            int codigoOutro = codigo(par.materiais[par.outro(lado)]);
+            byte[] bloco = par.blocos[lado];
+            for (int indice = de; indice < ate; indice++) {
+                Posicao posicao = IndiceFinais.posicao(material[0], material[1], material[2], material[3], indice);
+                if (posicao == null) {
+                    // Índice sem posição: nunca consultado
+                    bloco[indice] = (byte) TabelaFinais.BYTE_EMPATE;
+                    continue;
+                }
+                int quantidade = gerador.gerar(posicao, movimentos);
+                if (quantidade == 0) {
+                    agendar(0, indice, lado);
+                    continue;
+                }
+                int pendentes = 0;
+                int vitoria = Integer.MAX_VALUE;
+                int derrota = 0;
+                for (int i = 0; i < quantidade; i++) {
+                    filho.copiarDe(posicao);
+                    filho.aplicar(movimentos.get(i));
+                    int codigo = codigoFilho();
+                    if (codigo == codigoOutro) {
+                        pendentes++;
+                        continue;
+                    }
+                    int valor = valorFilho(codigo);
+                    if (TabelaFinais.isDerrota(valor)) {
+                        vitoria = Math.min(vitoria, valor + 1);
+                        derrota = NUNCA_PERDE;
+                    } else if (TabelaFinais.isVitoria(valor) && derrota != NUNCA_PERDE) {
+                        derrota = Math.max(derrota, valor + 1);
+                    } else {
+                        derrota = NUNCA_PERDE;
+                    }
+                }
+                par.pendentes[lado][indice] = pendentes;
+                par.derrotas[lado][indice] = (byte) derrota;
+                if (vitoria != Integer.MAX_VALUE) {
+                    agendar(vitoria, indice, lado);
+                } else if (pendentes == 0 && derrota != NUNCA_PERDE) {
+                    agendar(derrota, indice, lado);
+                }
+            }
+            return agendadas;
+        }
+
+        Entradas[] propagar(Entradas entradas, int de, int ate, int distancia) {
+            for (int i = de; i < ate; i++) {
+                int entrada = entradas.valores[i];
+                int lado = entrada & 1;
+                int indice = entrada >>> 1;
+                if (!BYTES.compareAndSet(par.blocos[lado], indice,
+                        (byte) TabelaFinais.BYTE_DESCONHECIDO, (byte) distancia)) {
+                    continue; // Já resolvida com distância menor
+                }
+                desfazerLances(lado, indice, distancia);
+            }
+            return agendadas;
+        }
+
+        /*
+         * Percorre as posições do outro lado do par com um lance simples
+         * legal até a posição resolvida. A posição é girada de volta para as
+         * pretas na vez: quem acabou de jogar são as brancas, e cada peça
+         * branca volta pelo caminho por onde pode ter vindo.
+         */
+        private void desfazerLances(int lado, int indice, int distancia) {
+            int[] material = par.materiais[lado];
+            Posicao resolvida = IndiceFinais.posicao(material[0], material[1], material[2], material[3], indice);
+            int homensBrancos = Integer.reverse(resolvida.getHomensPretos());
+            int damasBrancas = Integer.reverse(resolvida.getDamasPretas());
+            int homensPretos = Integer.reverse(resolvida.getHomensBrancos());
+            int damasPretas = Integer.reverse(resolvida.getDamasBrancas());
+            int vazias = ~(homensBrancos | damasBrancas | homensPretos | damasPretas);
+            int anterior = par.outro(lado);
+
+            int homens = homensBrancos;
+            int direcaoTras = Diagonais.primeiraDirecaoFrente(false);
+            while (homens != 0) {
+                int destino = Integer.numberOfTrailingZeros(homens);
+                homens &= homens - 1;
+                for (int direcao = direcaoTras; direcao < direcaoTras + 2; direcao++) {
+                    int origem = Diagonais.VIZINHA[destino][direcao];
+                    if (origem >= 0 && (vazias & (1 << origem)) != 0) {
+                        int movidos = homensBrancos & ~(1 << destino) | (1 << origem);
+                        verificarAnterior(anterior, new Posicao(movidos, homensPretos, damasBrancas, damasPretas, true),
+                                origem, destino, distancia);
+                    }
+                }
+            }
+            int damas = damasBrancas;
+            while (damas != 0) {
+                int destino = Integer.numberOfTrailingZeros(damas);
+                damas &= damas - 1;
+                for (int direcao = 0; direcao < Diagonais.DIRECOES; direcao++) {
+                    for (int origem : Diagonais.RAIOS[destino][direcao]) {
+                        if ((vazias & (1 << origem)) == 0) {
+                            break;
+                        }
+                        int movidas = damasBrancas & ~(1 << destino) | (1 << origem);
+                        verificarAnterior(anterior, new Posicao(homensBrancos, homensPretos, movidas, damasPretas, true),
+                                origem, destino, distancia);
+                    }
+                }
+            }
+        }
+
+        // Com o lance legal (sem captura obrigatória), a posição anterior vence ou perde um pendente
+        private void verificarAnterior(int lado, Posicao anterior, int origem, int destino, int distancia) {
+            int indice = IndiceFinais.indice(anterior.getHomensBrancos(), anterior.getDamasBrancas(),
+                    anterior.getHomensPretos(), anterior.getDamasPretas());
+            if ((par.blocos[lado][indice] & 0xFF) != TabelaFinais.BYTE_DESCONHECIDO) {
+                return;
+            }
+            gerador.gerar(anterior, movimentos);
+            if (!movimentos.contem(Movimento.criar(origem, destino, 0))) {
+                return;
+            }
+            if ((distancia & 1) == 0) {
+                agendar(distancia + 1, indice, lado);
+            } else if ((int) INTS.getAndAdd(par.pendentes[lado], indice, -1) == 1) {
+                int derrota = par.derrotas[lado][indice] & 0xFF;
+                if (derrota != NUNCA_PERDE) {
+                    agendar(Math.max(derrota, distancia + 1), indice, lado);
+                }
+            }
+        }
+
+        // Código do material depois do lance, com o adversário (pretas) normalizado para as brancas
+        private int codigoFilho() {
+            return IndiceFinais.codigo(Integer.bitCount(filho.getHomensPretos()),
+                    Integer.bitCount(filho.getDamasPretas()), Integer.bitCount(filho.getHomensBrancos()),
+                    Integer.bitCount(filho.getDamasBrancas()));
+        }
+
+        // Valor da posição depois do lance, num material já resolvido, para o adversário
+        private int valorFilho(int codigo) {
+            int homensProprios = Integer.reverse(filho.getHomensPretos());
+            int damasProprias = Integer.reverse(filho.getDamasPretas());
+            if ((homensProprios | damasProprias) == 0) {
+                return 0;
+            }
+            int indice = IndiceFinais.indice(homensProprios, damasProprias,
+                    Integer.reverse(filho.getHomensBrancos()), Integer.reverse(filho.getDamasBrancas()));
+            return TabelaFinais.decodificar(tabelas[codigo][indice] & 0xFF);
+        }
+
+        private void agendar(int distancia, int indice, int lado) {
+            if (agendadas[distancia] == null) {
+                agendadas[distancia] = new Entradas();
+            }
+            agendadas[distancia].adicionar(indice << 1 | lado);
+        }
+    }
+
+    /**
+     * Posições agendadas ({@code índice << 1 | lado do par})
+     */
+    private static final class Entradas {
+
+        int[] valores = new int[16];
+        int tamanho;
+
+        void adicionar(int valor) {
+            if (tamanho == valores.length) {
+                valores = Arrays.copyOf(valores, tamanho * 2);
+            }
+            valores[tamanho++] = valor;
+        }
+
+        void adicionarTodas(Entradas outras) {
+            if (tamanho + outras.tamanho > valores.length) {
+                valores = Arrays.copyOf(valores, Math.max(tamanho + outras.tamanho, tamanho * 2));
+            }
+            System.arraycopy(outras.valores, 0, valores, tamanho, outras.tamanho);
+            tamanho += outras.tamanho;
+        }
+    }
+
+    private byte[] novoBloco(int[] material) {
+        long tamanho = IndiceFinais.tamanho(material[0], material[1], material[2], material[3]);
+        if (tamanho > Integer.MAX_VALUE >> 1) {
+            throw new IllegalArgumentException("Material grande demais: " + Arrays.toString(material));
+        }
+        byte[] bloco = new byte[(int) tamanho];
+        Arrays.fill(bloco, (byte) TabelaFinais.BYTE_DESCONHECIDO);
+        return bloco;
+    }
+
+    private long gravar(Path arquivo, List<int[]> materiais) throws IOException {
+        Path pasta = arquivo.toAbsolutePath().getParent();
+        Files.createDirectories(pasta);
+        Path temporario = Files.createTempFile(pasta, arquivo.getFileName().toString(), ".tmp");
+        long posicoes = 0;
+        try {
+            try (DataOutputStream saida = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporario), 1 << 16))) {
+                saida.writeInt(TabelaFinais.ASSINATURA);
+                saida.writeInt(TabelaFinais.VERSAO);
+                saida.writeInt(pecas);
+                saida.writeInt(materiais.size());
+                long deslocamento = 16L + 16L * materiais.size();
+                for (int[] material : materiais) {
+                    int tamanho = tabelas[codigo(material)].length;
+                    saida.writeInt(codigo(material));
+                    saida.writeLong(deslocamento);
+                    saida.writeInt(tamanho);
+                    deslocamento += tamanho;
+                    posicoes += tamanho;
+                }
+                for (int[] material : materiais) {
+                    saida.write(tabelas[codigo(material)]);
+                }
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+        return posicoes;
+    }
+
+    private static int codigo(int[] material) {
+        return IndiceFinais.codigo(material[0], material[1], material[2], material[3]);
+    }
+}
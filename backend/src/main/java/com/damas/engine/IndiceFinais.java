@@ -0,0 +1,162 @@
+package com.damas.engine;
+
+/**
+ * Índice das posições de final na {@link TabelaFinais}. As posições são
+ * guardadas sempre com as brancas na vez; uma posição com as pretas na vez é
+ * girada 180 graus com as cores trocadas ({@link Integer#reverse(int)} em
+ * cada bitboard), o que preserva as regras.
+ *
+ * Cada material (homens e damas de cada cor) ocupa um bloco próprio. Dentro
+ * dele a posição é numerada pelo sistema combinatório: homens brancos entre
+ * as 28 casas fora da linha de promoção deles, homens pretos idem, damas
+ * brancas entre as casas que os homens deixaram livres e damas pretas entre
+ * as que sobraram. Homens brancos e pretos podem cair na mesma casa; esses
+ * índices são inválidos e ficam sem uso.
+ *
+ * Os métodos de consulta não alocam objetos.
+ */
+public final class IndiceFinais {
+
+    /** Maior número de peças suportado: os blocos precisam caber num índice int */
+    public static final int PECAS_MAXIMAS = 6;
+
+    // Casas onde pode haver homens: fora da própria linha de promoção
+    private static final int CASAS_HOMENS = Casas.TOTAL - 4;
+    private static final int REGIAO_HOMENS_BRANCOS = ~Casas.LINHA_PROMOCAO_BRANCAS;
+    private static final int DESLOCAMENTO_HOMENS_BRANCOS = 4;
+
+    private static final int[][] BINOMIAL = new int[Casas.TOTAL + 1][PECAS_MAXIMAS + 1];
+
+    static {
+        for (int n = 0; n <= Casas.TOTAL; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, PECAS_MAXIMAS); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k <= n - 1 ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private IndiceFinais() {
+    }
+
+    /**
+     * Código do material, usado para achar o bloco: homens e damas brancos e
+     * pretos, cada contagem de 0 a {@link #PECAS_MAXIMAS}
+     */
+    public static int codigo(int homensBrancos, int damasBrancas, int homensPretos, int damasPretas) {
+        int base = PECAS_MAXIMAS + 1;
+        return ((homensBrancos * base + damasBrancas) * base + homensPretos) * base + damasPretas;
+    }
+
+    public static int quantidadeCodigos() {
+        int base = PECAS_MAXIMAS + 1;
+        return base * base * base * base;
+    }
+
+    /**
+     * Quantidade de índices do bloco de um material (incluindo os inválidos)
+     */
+    public static long tamanho(int homensBrancos, int damasBrancas, int homensPretos, int damasPretas) {
+        int homens = homensBrancos + homensPretos;
+        return (long) BINOMIAL[CASAS_HOMENS][homensBrancos] * BINOMIAL[CASAS_HOMENS][homensPretos]
+                * BINOMIAL[Casas.TOTAL - homens][damasBrancas]
+                * BINOMIAL[Casas.TOTAL - homens - damasBrancas][damasPretas];
+    }
+
+    /**
+     * Índice da posição (brancas na vez) dentro do bloco do seu material
+     */
+    public static int indice(int homensBrancos, int damasBrancas, int homensPretos, int damasPretas) {
+        int quantidadeHomensBrancos = Integer.bitCount(homensBrancos);
+        int quantidadeHomensPretos = Integer.bitCount(homensPretos);
+        int quantidadeDamasBrancas = Integer.bitCount(damasBrancas);
+        int livres = Casas.TOTAL - quantidadeHomensBrancos - quantidadeHomensPretos;
+        int homens = homensBrancos | homensPretos;
+
+        int indice = posto(homensBrancos >>> DESLOCAMENTO_HOMENS_BRANCOS);
+        indice = indice * BINOMIAL[CASAS_HOMENS][quantidadeHomensPretos] + posto(homensPretos);
+        indice = indice * BINOMIAL[livres][quantidadeDamasBrancas] + postoEntreLivres(damasBrancas, homens);
+        indice = indice * BINOMIAL[livres - quantidadeDamasBrancas][Integer.bitCount(damasPretas)]
+                + postoEntreLivres(damasPretas, homens | damasBrancas);
+        return indice;
+    }
+
+    /**
+     * Posição (brancas na vez) de um índice do bloco, ou null se o índice é
+     * inválido (homens brancos e pretos na mesma casa)
+     */
+    static Posicao posicao(int quantidadeHomensBrancos, int quantidadeDamasBrancas,
+                           int quantidadeHomensPretos, int quantidadeDamasPretas, int indice) {
+        int livres = Casas.TOTAL - quantidadeHomensBrancos - quantidadeHomensPretos;
+        int combinacoesDamasPretas = BINOMIAL[livres - quantidadeDamasBrancas][quantidadeDamasPretas];
+        int combinacoesDamasBrancas = BINOMIAL[livres][quantidadeDamasBrancas];
+        int combinacoesHomensPretos = BINOMIAL[CASAS_HOMENS][quantidadeHomensPretos];
+
+        int postoDamasPretas = indice % combinacoesDamasPretas;
+        indice /= combinacoesDamasPretas;
+        int postoDamasBrancas = indice % combinacoesDamasBrancas;
+        indice /= combinacoesDamasBrancas;
+        int postoHomensPretos = indice % combinacoesHomensPretos;
+        int postoHomensBrancos = indice / combinacoesHomensPretos;
+
+        int homensBrancos = combinacao(postoHomensBrancos, quantidadeHomensBrancos) << DESLOCAMENTO_HOMENS_BRANCOS;
+        int homensPretos = combinacao(postoHomensPretos, quantidadeHomensPretos);
+        if ((homensBrancos & homensPretos) != 0 || (homensBrancos & ~REGIAO_HOMENS_BRANCOS) != 0) {
+            return null;
+        }
+        int homens = homensBrancos | homensPretos;
+        int damasBrancas = expandir(combinacao(postoDamasBrancas, quantidadeDamasBrancas), ~homens);
+        int damasPretas = expandir(combinacao(postoDamasPretas, quantidadeDamasPretas), ~(homens | damasBrancas));
+        return new Posicao(homensBrancos, homensPretos, damasBrancas, damasPretas, true);
+    }
+
+    // Posto de um conjunto de casas no sistema combinatório: soma de C(casa, i + 1) em ordem crescente
+    private static int posto(int casas) {
+        int posto = 0;
+        for (int i = 1; casas != 0; i++) {
+            posto += BINOMIAL[Integer.numberOfTrailingZeros(casas)][i];
+            casas &= casas - 1;
+        }
+        return posto;
+    }
+
+    // Posto das casas contando só as livres: cada casa desce o número de ocupadas abaixo dela
+    private static int postoEntreLivres(int casas, int ocupadas) {
+        int posto = 0;
+        for (int i = 1; casas != 0; i++) {
+            int casa = Integer.numberOfTrailingZeros(casas);
+            casas &= casas - 1;
+            posto += BINOMIAL[casa - Integer.bitCount(ocupadas & ((1 << casa) - 1))][i];
+        }
+        return posto;
+    }
+
+    // Conjunto de k casas com o posto dado (inverso de posto)
+    private static int combinacao(int posto, int k) {
+        int casas = 0;
+        int casa = Casas.TOTAL - 1;
+        for (int i = k; i >= 1; i--) {
+            while (BINOMIAL[casa][i] > posto) {
+                casa--;
+            }
+            casas |= 1 << casa;
+            posto -= BINOMIAL[casa][i];
+            casa--;
+        }
+        return casas;
+    }
+
+    // Espalha os bits de "compactas" pelas casas de "livres", na ordem (inverso de postoEntreLivres)
+    private static int expandir(int compactas, int livres) {
+        int casas = 0;
+        for (int i = 0; compactas != 0 && livres != 0; i++) {
+            int casa = Integer.numberOfTrailingZeros(livres);
+            livres &= livres - 1;
+            if ((compactas & (1 << i)) != 0) {
+                casas |= 1 << casa;
+                compactas &= ~(1 << i);
+            }
+        }
+        return casas;
+    }
+}
@@ -0,0 +1,57 @@
+package com.damas.engine;
+
+import java.util.Arrays;
+
+/**
+ * Lista reutilizável de movimentos codificados ({@link Movimento}).
+ * Pensada para ser alocada uma vez e limpa a cada geração.
+ */
+public final class ListaMovimentos {
+
+    private long[] movimentos;
+    private int tamanho;
+
+    public ListaMovimentos() {
+        this(64);
+    }
+
+    public ListaMovimentos(int capacidade) {
+        this.movimentos = new long[capacidade];
+    }
+
+    public void limpar() {
+        tamanho = 0;
+    }
+
+    public void adicionar(long movimento) {
+        if (tamanho == movimentos.length) {
+            movimentos = Arrays.copyOf(movimentos, movimentos.length * 2);
+        }
+        movimentos[tamanho++] = movimento;
+    }
+
+    public boolean contem(long movimento) {
+        for (int i = 0; i < tamanho; i++) {
+            if (movimentos[i] == movimento) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long get(int indice) {
+        return movimentos[indice];
+    }
+
+    public void set(int indice, long movimento) {
+        movimentos[indice] = movimento;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    public boolean isVazia() {
+        return tamanho == 0;
+    }
+}
@@ -0,0 +1,300 @@
+package com.damas.engine;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Busca alfa-beta (negamax) com aprofundamento iterativo e tabela de
+ * transposição, paralelizada no estilo "lazy SMP": threads auxiliares
+ * buscam a mesma raiz com pequenas variações e só contribuem preenchendo a
+ * tabela compartilhada; o resultado vem sempre da thread principal.
+ *
+ * As sequências de captura obrigatória são estendidas além da profundidade
+ * nominal, o que faz o papel da busca de quiescência. Posições com poucas
+ * peças saem da {@link TabelaFinais}, quando carregada, sem busca.
+ */
+public final class MotorBusca {
+
+    public static final int MATE = 30000;
+    public static final int PROFUNDIDADE_MAXIMA = 48;
+
+    private static final int PLY_MAXIMO = 128;
+    private static final int INFINITO = MATE + 1;
+    private static final int NOS_ENTRE_VERIFICACOES = 1023;
+
+    private final TabelaTransposicao tabela;
+    private final Executor executor;
+    private final int threadsPorBusca;
+    private final TabelaFinais finais;
+
+    /**
+     * @param executor        pool onde rodam as threads auxiliares; deve recusar
+     *                        as tarefas em vez de enfileirá-las, já que uma
+     *                        auxiliar atrasada não ajuda a busca
+     * @param threadsPorBusca total de threads por busca, incluindo a que chama
+     */
+    public MotorBusca(TabelaTransposicao tabela, Executor executor, int threadsPorBusca) {
+        this(tabela, executor, threadsPorBusca, new TabelaFinais());
+    }
+
+    /**
+     * @param finais tabela de finais consultada na raiz e nas folhas; pode
+     *               ser carregada depois
+     */
+    public MotorBusca(TabelaTransposicao tabela, Executor executor, int threadsPorBusca, TabelaFinais finais) {
+        this.tabela = tabela;
+        this.executor = executor;
+        this.threadsPorBusca = Math.max(1, threadsPorBusca);
+        this.finais = finais;
+    }
+
+    /**
+     * Procura o melhor movimento para quem joga na posição, respeitando o
+     * tempo dado. Retorna {@link Movimento#NENHUM} se não houver movimento legal.
+     */
+    public long melhorMovimento(Posicao raiz, long tempoMillis) {
+        return melhorMovimento(raiz, tempoMillis, PROFUNDIDADE_MAXIMA);
+    }
+
+    public long melhorMovimento(Posicao raiz, long tempoMillis, int profundidadeMaxima) {
+        ListaMovimentos legais = new ListaMovimentos();
+        new GeradorMovimentos().gerar(raiz, legais);
+        if (legais.tamanho() <= 1) {
+            return legais.isVazia() ? Movimento.NENHUM : legais.get(0);
+        }
+        long daTabelaFinais = finais.melhorMovimento(raiz);
+        if (daTabelaFinais != Movimento.NENHUM) {
+            return daTabelaFinais;
+        }
+
+        AtomicBoolean parar = new AtomicBoolean();
+        long prazo = System.nanoTime() + tempoMillis * 1_000_000L;
+
+        // O estado das auxiliares é alocado já na thread delas, só se o pool aceitar a tarefa;
+        // elas partem de uma cópia, já que podem começar depois que a chamada retornou
+        Posicao raizAuxiliares = raiz.copia();
+        for (int id = 1; id < threadsPorBusca; id++) {
+            int idAuxiliar = id;
+            try {
+                executor.execute(() -> new Busca(raizAuxiliares, parar, prazo, idAuxiliar).iterar(profundidadeMaxima));
+            } catch (RejectedExecutionException e) {
+                break; // Pool cheio: segue com menos threads
+            }
+        }
+
+        try {
+            return new Busca(raiz, parar, prazo, 0).iterar(profundidadeMaxima);
+        } finally {
+            parar.set(true);
+        }
+    }
+
+    /**
+     * Estado de uma thread de busca; posições e listas são pré-alocadas por ply
+     */
+    private final class Busca {
+
+        private final Posicao[] posicoes = new Posicao[PLY_MAXIMO + 1];
+        private final ListaMovimentos[] listas = new ListaMovimentos[PLY_MAXIMO];
+        private final GeradorMovimentos gerador = new GeradorMovimentos();
+        private final AtomicBoolean parar;
+        private final long prazo;
+        private final int id;
+        private long nos;
+        private boolean abortada;
+
+        Busca(Posicao raiz, AtomicBoolean parar, long prazo, int id) {
+            for (int i = 0; i < posicoes.length; i++) {
+                posicoes[i] = new Posicao();
+            }
+            for (int i = 0; i < listas.length; i++) {
+                listas[i] = new ListaMovimentos();
+            }
+            posicoes[0].copiarDe(raiz);
+            this.parar = parar;
+            this.prazo = prazo;
+            this.id = id;
+        }
+
+        long iterar(int profundidadeMaxima) {
+            ListaMovimentos raiz = listas[0];
+            gerador.gerar(posicoes[0], raiz);
+            // Threads auxiliares começam por outro movimento para explorar outras linhas
+            if (id > 0) {
+                rotacionar(raiz, id % raiz.tamanho());
+            }
+
+            long melhor = raiz.get(0);
+            // Auxiliares alternam profundidades pares e ímpares em relação à principal
+            for (int profundidade = 1 + (id & 1); profundidade <= profundidadeMaxima; profundidade++) {
+                long melhorDaIteracao = buscarRaiz(raiz, profundidade);
+                if (abortada) {
+                    break;
+                }
+                melhor = melhorDaIteracao;
+                long entrada = tabela.ler(posicoes[0].getHash());
+                if (entrada != TabelaTransposicao.VAZIA
+                        && Math.abs(TabelaTransposicao.valor(entrada)) >= MATE - PLY_MAXIMO) {
+                    break; // Resultado forçado encontrado
+                }
+            }
+            if (id == 0) {
+                parar.set(true);
+            }
+            return melhor;
+        }
+
+        private long buscarRaiz(ListaMovimentos raiz, int profundidade) {
+            int alfa = -INFINITO;
+            long melhor = raiz.get(0);
+            int indiceMelhor = 0;
+            for (int i = 0; i < raiz.tamanho(); i++) {
+                long movimento = raiz.get(i);
+                posicoes[1].copiarDe(posicoes[0]);
+                posicoes[1].aplicar(movimento);
+                int valor = -negamax(1, profundidade - 1, -INFINITO, -alfa);
+                if (abortada) {
+                    break;
+                }
+                if (valor > alfa) {
+                    alfa = valor;
+                    melhor = movimento;
+                    indiceMelhor = i;
+                }
+            }
+            if (!abortada) {
+                // O melhor movimento vai para a frente da próxima iteração
+                raiz.set(indiceMelhor, raiz.get(0));
+                raiz.set(0, melhor);
+                tabela.gravar(posicoes[0].getHash(), profundidade, paraTabela(alfa, 0),
+                        TabelaTransposicao.EXATO, melhor);
+            }
+            return melhor;
+        }
+
+        private int negamax(int ply, int profundidade, int alfa, int beta) {
+            if ((++nos & NOS_ENTRE_VERIFICACOES) == 0 && (parar.get() || System.nanoTime() > prazo)) {
+                abortada = true;
+            }
+            if (abortada) {
+                return 0;
+            }
+
+            Posicao posicao = posicoes[ply];
+            int resultado = finais.consultar(posicao);
+            if (resultado != TabelaFinais.FORA) {
+                return valorFinal(resultado, ply);
+            }
+            ListaMovimentos movimentos = listas[ply];
+            int quantidade = gerador.gerar(posicao, movimentos);
+            if (quantidade == 0) {
+                return -MATE + ply; // Sem movimentos: derrota
+            }
+            boolean captura = Movimento.isCaptura(movimentos.get(0));
+            if ((profundidade <= 0 && !captura) || ply >= PLY_MAXIMO - 1) {
+                return Avaliacao.avaliar(posicao);
+            }
+
+            long hash = posicao.getHash();
+            long entrada = tabela.ler(hash);
+            if (entrada != TabelaTransposicao.VAZIA) {
+                if (TabelaTransposicao.profundidade(entrada) >= profundidade) {
+                    int valor = daTabela(TabelaTransposicao.valor(entrada), ply);
+                    switch (TabelaTransposicao.tipo(entrada)) {
+                        case TabelaTransposicao.EXATO -> {
+                            return valor;
+                        }
+                        case TabelaTransposicao.LIMITE_INFERIOR -> alfa = Math.max(alfa, valor);
+                        default -> beta = Math.min(beta, valor);
+                    }
+                    if (alfa >= beta) {
+                        return valor;
+                    }
+                }
+                ordenarPrimeiro(movimentos, entrada);
+            }
+
+            int alfaOriginal = alfa;
+            int melhorValor = -INFINITO;
+            long melhorMovimento = Movimento.NENHUM;
+            Posicao filho = posicoes[ply + 1];
+            for (int i = 0; i < quantidade; i++) {
+                long movimento = movimentos.get(i);
+                filho.copiarDe(posicao);
+                filho.aplicar(movimento);
+                int valor = -negamax(ply + 1, profundidade - 1, -beta, -alfa);
+                if (abortada) {
+                    return 0;
+                }
+                if (valor > melhorValor) {
+                    melhorValor = valor;
+                    melhorMovimento = movimento;
+                    if (valor > alfa) {
+                        alfa = valor;
+                        if (alfa >= beta) {
+                            break;
+                        }
+                    }
+                }
+            }
+
+            int tipo = melhorValor <= alfaOriginal ? TabelaTransposicao.LIMITE_SUPERIOR
+                    : melhorValor >= beta ? TabelaTransposicao.LIMITE_INFERIOR
+                    : TabelaTransposicao.EXATO;
+            tabela.gravar(hash, profundidade, paraTabela(melhorValor, ply), tipo, melhorMovimento);
+            return melhorValor;
+        }
+
+        private void ordenarPrimeiro(ListaMovimentos movimentos, long entrada) {
+            for (int i = 1; i < movimentos.tamanho(); i++) {
+                long movimento = movimentos.get(i);
+                if (TabelaTransposicao.isMelhorMovimento(entrada, movimento)) {
+                    movimentos.set(i, movimentos.get(0));
+                    movimentos.set(0, movimento);
+                    return;
+                }
+            }
+        }
+
+        private void rotacionar(ListaMovimentos movimentos, int inicio) {
+            for (int i = 0; i < inicio; i++) {
+                long primeiro = movimentos.get(0);
+                for (int j = 1; j < movimentos.tamanho(); j++) {
+                    movimentos.set(j - 1, movimentos.get(j));
+                }
+                movimentos.set(movimentos.tamanho() - 1, primeiro);
+            }
+        }
+    }
+
+    // Resultado da tabela de finais como valor de mate, limitado à faixa que a tabela de transposição ajusta
+    private static int valorFinal(int resultado, int ply) {
+        if (resultado == TabelaFinais.EMPATE) {
+            return 0;
+        }
+        int distancia = Math.min(ply + resultado, PLY_MAXIMO - 1);
+        return TabelaFinais.isVitoria(resultado) ? MATE - distancia : -MATE + distancia;
+    }
+
+    // Valores de mate são guardados relativos à posição, não à raiz
+    private static int paraTabela(int valor, int ply) {
+        if (valor >= MATE - PLY_MAXIMO) {
+            return valor + ply;
+        }
+        if (valor <= -MATE + PLY_MAXIMO) {
+            return valor - ply;
+        }
+        return valor;
+    }
+
+    private static int daTabela(int valor, int ply) {
+        if (valor >= MATE - PLY_MAXIMO) {
+            return valor - ply;
+        }
+        if (valor <= -MATE + PLY_MAXIMO) {
+            return valor + ply;
+        }
+        return valor;
+    }
+}
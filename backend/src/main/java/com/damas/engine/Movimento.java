@@ -0,0 +1,37 @@
+package com.damas.engine;
+
+/**
+ * Codificação de um movimento em um único {@code long}, evitando alocação
+ * por lance.
+ *
+ * Bits 0-4: casa de origem; bits 5-9: casa de destino;
+ * bits 32-63: máscara das casas capturadas.
+ */
+public final class Movimento {
+
+    /** Valor reservado para "nenhum movimento" (origem = destino sem captura nunca é legal) */
+    public static final long NENHUM = 0L;
+
+    private Movimento() {
+    }
+
+    public static long criar(int origem, int destino, int capturadas) {
+        return ((long) capturadas << 32) | ((long) destino << 5) | origem;
+    }
+
+    public static int origem(long movimento) {
+        return (int) (movimento & 0x1F);
+    }
+
+    public static int destino(long movimento) {
+        return (int) ((movimento >>> 5) & 0x1F);
+    }
+
+    public static int capturadas(long movimento) {
+        return (int) (movimento >>> 32);
+    }
+
+    public static boolean isCaptura(long movimento) {
+        return capturadas(movimento) != 0;
+    }
+}
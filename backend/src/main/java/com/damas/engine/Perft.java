@@ -0,0 +1,113 @@
+package com.damas.engine;
+
+/**
+ * Perft: conta os caminhos de lances legais até uma profundidade. Serve de
+ * teste de regressão do gerador de movimentos, comparando com as contagens
+ * conhecidas a partir da posição inicial.
+ *
+ * Uso: {@code Perft [profundidade] [--dividir] [--verificar]}
+ * <ul>
+ *   <li>{@code --dividir} mostra a contagem abaixo de cada lance da raiz;</li>
+ *   <li>{@code --verificar} confere todas as profundidades até a pedida com
+ *       as contagens conhecidas e termina com código 1 se alguma divergir.</li>
+ * </ul>
+ */
+public final class Perft {
+
+    /** Contagens conhecidas a partir da posição inicial (regras brasileiras), por profundidade */
+    public static final long[] CONTAGENS_POSICAO_INICIAL = {
+            1L, 7L, 49L, 302L, 1469L, 7473L, 37628L, 187302L, 907830L, 4431766L, 21560022L
+    };
+
+    private static final int PROFUNDIDADE_PADRAO = 8;
+
+    private final Posicao[] posicoes;
+    private final ListaMovimentos[] listas;
+    private final GeradorMovimentos gerador = new GeradorMovimentos();
+
+    public Perft(int profundidadeMaxima) {
+        posicoes = new Posicao[profundidadeMaxima + 1];
+        listas = new ListaMovimentos[profundidadeMaxima + 1];
+        for (int i = 0; i <= profundidadeMaxima; i++) {
+            posicoes[i] = new Posicao();
+            listas[i] = new ListaMovimentos();
+        }
+    }
+
+    public long contar(Posicao posicao, int profundidade) {
+        posicoes[0].copiarDe(posicao);
+        return contar(0, profundidade);
+    }
+
+    private long contar(int ply, int profundidade) {
+        if (profundidade == 0) {
+            return 1;
+        }
+        ListaMovimentos movimentos = listas[ply];
+        int quantidade = gerador.gerar(posicoes[ply], movimentos);
+        if (profundidade == 1) {
+            return quantidade;
+        }
+        long total = 0;
+        Posicao filho = posicoes[ply + 1];
+        for (int i = 0; i < quantidade; i++) {
+            filho.copiarDe(posicoes[ply]);
+            filho.aplicar(movimentos.get(i));
+            total += contar(ply + 1, profundidade - 1);
+        }
+        return total;
+    }
+
+    public static void main(String[] args) {
+        int profundidade = PROFUNDIDADE_PADRAO;
+        boolean dividir = false;
+        boolean verificar = false;
+        for (String arg : args) {
+            switch (arg) {
+                case "--dividir" -> dividir = true;
+                case "--verificar" -> verificar = true;
+                default -> profundidade = Integer.parseInt(arg);
+            }
+        }
+
+        Perft perft = new Perft(profundidade);
+        Posicao inicial = Posicao.inicial();
+
+        if (dividir) {
+            ListaMovimentos raiz = new ListaMovimentos();
+            new GeradorMovimentos().gerar(inicial, raiz);
+            for (int i = 0; i < raiz.tamanho(); i++) {
+                long movimento = raiz.get(i);
+                Posicao filho = inicial.copia();
+                filho.aplicar(movimento);
+                System.out.printf("%s: %d%n", notacao(movimento), perft.contar(filho, profundidade - 1));
+            }
+        }
+
+        boolean divergiu = false;
+        for (int p = verificar ? 1 : profundidade; p <= profundidade; p++) {
+            long inicio = System.nanoTime();
+            long nos = perft.contar(inicial, p);
+            long nanos = System.nanoTime() - inicio;
+            String situacao = "";
+            if (verificar && p < CONTAGENS_POSICAO_INICIAL.length) {
+                boolean confere = nos == CONTAGENS_POSICAO_INICIAL[p];
+                divergiu |= !confere;
+                situacao = confere ? " ok" : " DIVERGENTE (esperado " + CONTAGENS_POSICAO_INICIAL[p] + ")";
+            }
+            System.out.printf("perft(%d) = %d em %.1f ms (%.1f Mnós/s)%s%n",
+                    p, nos, nanos / 1e6, nos * 1e3 / Math.max(1, nanos), situacao);
+        }
+
+        if (divergiu) {
+            System.exit(1);
+        }
+    }
+
+    private static String notacao(long movimento) {
+        int origem = Movimento.origem(movimento);
+        int destino = Movimento.destino(movimento);
+        return Casas.linha(origem) + "," + Casas.coluna(origem) + (Movimento.isCaptura(movimento) ? "x" : "-")
+                + Casas.linha(destino) + "," + Casas.coluna(destino);
+    }
+}
@@ -0,0 +1,258 @@
+package com.damas.engine;
+
+/**
+ * Posição do jogo de damas em bitboards: cada tipo de peça ocupa uma máscara
+ * de 32 bits, um bit por casa jogável (ver {@link Casas}).
+ *
+ * A classe é mutável de propósito: {@link #aplicar(long)} altera a posição
+ * no lugar, sem copiar o tabuleiro nem alocar objetos.
+ */
+public final class Posicao {
+
+    // Códigos de peça usados na representação int[][] do tabuleiro
+    public static final int VAZIO = 0;
+    public static final int PECA_BRANCA = 1;
+    public static final int PECA_PRETA = 2;
+    public static final int DAMA_BRANCA = 3;
+    public static final int DAMA_PRETA = 4;
+
+    private int homensBrancos;
+    private int homensPretos;
+    private int damasBrancas;
+    private int damasPretas;
+    private boolean vezBrancas;
+    private long hash;
+
+    public Posicao() {
+        this.vezBrancas = true;
+    }
+
+    public Posicao(int homensBrancos, int homensPretos, int damasBrancas, int damasPretas, boolean vezBrancas) {
+        this.homensBrancos = homensBrancos;
+        this.homensPretos = homensPretos;
+        this.damasBrancas = damasBrancas;
+        this.damasPretas = damasPretas;
+        this.vezBrancas = vezBrancas;
+        this.hash = Zobrist.calcular(homensBrancos, homensPretos, damasBrancas, damasPretas, vezBrancas);
+    }
+
+    /**
+     * Posição inicial: pretas nas linhas 0-2, brancas nas linhas 5-7, brancas jogam
+     */
+    public static Posicao inicial() {
+        return new Posicao(0xFFF00000, 0x00000FFF, 0, 0, true);
+    }
+
+    /**
+     * Converte a matriz usada pela API (0 = vazio, 1 = peça branca, 2 = peça preta,
+     * 3 = dama branca, 4 = dama preta)
+     */
+    public static Posicao deMatriz(int[][] tabuleiro, boolean vezBrancas) {
+        Posicao posicao = new Posicao();
+        posicao.vezBrancas = vezBrancas;
+        for (int casa = 0; casa < Casas.TOTAL; casa++) {
+            int bit = 1 << casa;
+            switch (tabuleiro[Casas.linha(casa)][Casas.coluna(casa)]) {
+                case PECA_BRANCA -> posicao.homensBrancos |= bit;
+                case PECA_PRETA -> posicao.homensPretos |= bit;
+                case DAMA_BRANCA -> posicao.damasBrancas |= bit;
+                case DAMA_PRETA -> posicao.damasPretas |= bit;
+                default -> {
+                }
+            }
+        }
+        posicao.hash = Zobrist.calcular(posicao.homensBrancos, posicao.homensPretos,
+                posicao.damasBrancas, posicao.damasPretas, vezBrancas);
+        return posicao;
+    }
+
+    public int[][] paraMatriz() {
+        int[][] tabuleiro = new int[Casas.TAMANHO_TABULEIRO][Casas.TAMANHO_TABULEIRO];
+        for (int casa = 0; casa < Casas.TOTAL; casa++) {
+            tabuleiro[Casas.linha(casa)][Casas.coluna(casa)] = pecaEm(casa);
+        }
+        return tabuleiro;
+    }
+
+    public int pecaEm(int casa) {
+        int bit = 1 << casa;
+        if ((homensBrancos & bit) != 0) {
+            return PECA_BRANCA;
+        }
+        if ((homensPretos & bit) != 0) {
+            return PECA_PRETA;
+        }
+        if ((damasBrancas & bit) != 0) {
+            return DAMA_BRANCA;
+        }
+        if ((damasPretas & bit) != 0) {
+            return DAMA_PRETA;
+        }
+        return VAZIO;
+    }
+
+    /**
+     * Aplica um movimento já validado: move a peça, remove as capturadas,
+     * promove quando um homem termina na última linha e passa a vez.
+     * O hash de Zobrist é atualizado incrementalmente.
+     */
+    public void aplicar(long movimento) {
+        int origem = Movimento.origem(movimento);
+        int destino = Movimento.destino(movimento);
+        int bitOrigem = 1 << origem;
+        int bitDestino = 1 << destino;
+        int capturadas = Movimento.capturadas(movimento);
+
+        if (vezBrancas) {
+            if ((homensBrancos & bitOrigem) != 0) {
+                homensBrancos &= ~bitOrigem;
+                hash ^= Zobrist.HOMEM_BRANCO[origem];
+                if ((bitDestino & Casas.LINHA_PROMOCAO_BRANCAS) != 0) {
+                    damasBrancas |= bitDestino;
+                    hash ^= Zobrist.DAMA_BRANCA[destino];
+                } else {
+                    homensBrancos |= bitDestino;
+                    hash ^= Zobrist.HOMEM_BRANCO[destino];
+                }
+            } else {
+                damasBrancas = (damasBrancas & ~bitOrigem) | bitDestino;
+                hash ^= Zobrist.DAMA_BRANCA[origem] ^ Zobrist.DAMA_BRANCA[destino];
+            }
+            if (capturadas != 0) {
+                hash ^= Zobrist.xorCasas(Zobrist.HOMEM_PRETO, homensPretos & capturadas)
+                        ^ Zobrist.xorCasas(Zobrist.DAMA_PRETA, damasPretas & capturadas);
+                homensPretos &= ~capturadas;
+                damasPretas &= ~capturadas;
+            }
+        } else {
+            if ((homensPretos & bitOrigem) != 0) {
+                homensPretos &= ~bitOrigem;
+                hash ^= Zobrist.HOMEM_PRETO[origem];
+                if ((bitDestino & Casas.LINHA_PROMOCAO_PRETAS) != 0) {
+                    damasPretas |= bitDestino;
+                    hash ^= Zobrist.DAMA_PRETA[destino];
+                } else {
+                    homensPretos |= bitDestino;
+                    hash ^= Zobrist.HOMEM_PRETO[destino];
+                }
+            } else {
+                damasPretas = (damasPretas & ~bitOrigem) | bitDestino;
+                hash ^= Zobrist.DAMA_PRETA[origem] ^ Zobrist.DAMA_PRETA[destino];
+            }
+            if (capturadas != 0) {
+                hash ^= Zobrist.xorCasas(Zobrist.HOMEM_BRANCO, homensBrancos & capturadas)
+                        ^ Zobrist.xorCasas(Zobrist.DAMA_BRANCA, damasBrancas & capturadas);
+                homensBrancos &= ~capturadas;
+                damasBrancas &= ~capturadas;
+            }
+        }
+
+        vezBrancas = !vezBrancas;
+        hash ^= Zobrist.VEZ_PRETAS;
+    }
+
+    /**
+     * Indica se o movimento é de dama e sem captura, isto é, se não zera a
+     * contagem para empate. Deve ser chamado antes de aplicar o movimento.
+     */
+    public boolean isLanceDeDamaSemCaptura(long movimento) {
+        int bitOrigem = 1 << Movimento.origem(movimento);
+        return Movimento.capturadas(movimento) == 0 && ((damasBrancas | damasPretas) & bitOrigem) != 0;
+    }
+
+    /**
+     * Indica se o movimento promove um homem a dama. Deve ser chamado antes
+     * de aplicar o movimento.
+     */
+    public boolean isPromocao(long movimento) {
+        int bitOrigem = 1 << Movimento.origem(movimento);
+        int bitDestino = 1 << Movimento.destino(movimento);
+        return vezBrancas
+                ? (homensBrancos & bitOrigem) != 0 && (bitDestino & Casas.LINHA_PROMOCAO_BRANCAS) != 0
+                : (homensPretos & bitOrigem) != 0 && (bitDestino & Casas.LINHA_PROMOCAO_PRETAS) != 0;
+    }
+
+    /**
+     * Copia o estado de outra posição para esta, sem alocar
+     */
+    public void copiarDe(Posicao outra) {
+        this.homensBrancos = outra.homensBrancos;
+        this.homensPretos = outra.homensPretos;
+        this.damasBrancas = outra.damasBrancas;
+        this.damasPretas = outra.damasPretas;
+        this.vezBrancas = outra.vezBrancas;
+        this.hash = outra.hash;
+    }
+
+    public Posicao copia() {
+        return new Posicao(homensBrancos, homensPretos, damasBrancas, damasPretas, vezBrancas);
+    }
+
+    public int getHomensBrancos() {
+        return homensBrancos;
+    }
+
+    public int getHomensPretos() {
+        return homensPretos;
+    }
+
+    public int getDamasBrancas() {
+        return damasBrancas;
+    }
+
+    public int getDamasPretas() {
+        return damasPretas;
+    }
+
+    public boolean isVezBrancas() {
+        return vezBrancas;
+    }
+
+    public void setVezBrancas(boolean vezBrancas) {
+        if (this.vezBrancas != vezBrancas) {
+            this.vezBrancas = vezBrancas;
+            this.hash ^= Zobrist.VEZ_PRETAS;
+        }
+    }
+
+    /**
+     * Hash de Zobrist de 64 bits da posição (peças e vez de jogar)
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    public int getPecasBrancas() {
+        return homensBrancos | damasBrancas;
+    }
+
+    public int getPecasPretas() {
+        return homensPretos | damasPretas;
+    }
+
+    public int getOcupadas() {
+        return homensBrancos | homensPretos | damasBrancas | damasPretas;
+    }
+
+    public int getVazias() {
+        return ~getOcupadas();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Posicao outra)) {
+            return false;
+        }
+        return homensBrancos == outra.homensBrancos && homensPretos == outra.homensPretos
+                && damasBrancas == outra.damasBrancas && damasPretas == outra.damasPretas
+                && vezBrancas == outra.vezBrancas;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash);
+    }
+}
@@ -0,0 +1,167 @@
+package com.damas.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Tabela de finais: resultado teórico (vitória, derrota ou empate) e
+ * distância até o fim de toda posição com poucas peças, gerada por
+ * {@link GeradorTabelaFinais}. O arquivo é mapeado em memória, fora do heap,
+ * e as consultas leem um byte dele sem alocar objetos; várias threads podem
+ * consultar ao mesmo tempo.
+ *
+ * O valor de uma posição é do ponto de vista de quem joga: a distância, em
+ * lances, até o fim com jogo perfeito dos dois lados. Distância ímpar é
+ * vitória (o último lance é de quem joga) e par é derrota; 0 é derrota já,
+ * sem movimentos. A tabela ignora as regras de empate por repetição e por
+ * lances de dama.
+ *
+ * Formato do arquivo: cabeçalho com {@link #ASSINATURA}, versão, número de
+ * peças e a lista de materiais (código de {@link IndiceFinais#codigo},
+ * deslocamento e tamanho do bloco), seguido dos blocos, um byte por índice.
+ */
+public final class TabelaFinais {
+
+    /** Posição fora da tabela (peças demais ou tabela não carregada) */
+    public static final int FORA = -1;
+    public static final int EMPATE = -2;
+
+    static final int ASSINATURA = 0x44414D46; // "DAMF"
+    static final int VERSAO = 1;
+    static final int BYTE_EMPATE = 0xFE;
+    static final int BYTE_DESCONHECIDO = 0xFF;
+    static final int DISTANCIA_MAXIMA = 253;
+
+    private volatile Dados dados;
+
+    /**
+     * Mapeia o arquivo gerado, substituindo a tabela carregada antes
+     */
+    public void carregar(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Tabela de finais maior que 2 GB: " + arquivo);
+            }
+            MappedByteBuffer mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            if (mapa.getInt() != ASSINATURA || mapa.getInt() != VERSAO) {
+                throw new IOException("Arquivo não é uma tabela de finais (versão " + VERSAO + "): " + arquivo);
+            }
+            int pecas = mapa.getInt();
+            int quantidade = mapa.getInt();
+            int[] deslocamentos = new int[IndiceFinais.quantidadeCodigos()];
+            Arrays.fill(deslocamentos, -1);
+            for (int i = 0; i < quantidade; i++) {
+                int codigo = mapa.getInt();
+                long deslocamento = mapa.getLong();
+                mapa.getInt(); // tamanho do bloco, conferido pelo limite do mapa
+                deslocamentos[codigo] = (int) deslocamento;
+            }
+            dados = new Dados(mapa, deslocamentos, pecas);
+        }
+    }
+
+    /**
+     * Número máximo de peças das posições da tabela (0 se não carregada)
+     */
+    public int getPecas() {
+        Dados atuais = dados;
+        return atuais == null ? 0 : atuais.pecas;
+    }
+
+    /**
+     * Valor da posição para quem joga: a distância até o fim (ímpar vence,
+     * par perde), {@link #EMPATE} ou {@link #FORA}
+     */
+    public int consultar(Posicao posicao) {
+        Dados atuais = dados;
+        if (atuais == null || Integer.bitCount(posicao.getOcupadas()) > atuais.pecas) {
+            return FORA;
+        }
+        // Normaliza para as brancas na vez: com as pretas, o tabuleiro gira e as cores trocam
+        int homensProprios, damasProprias, homensAdversarios, damasAdversarias;
+        if (posicao.isVezBrancas()) {
+            homensProprios = posicao.getHomensBrancos();
+            damasProprias = posicao.getDamasBrancas();
+            homensAdversarios = posicao.getHomensPretos();
+            damasAdversarias = posicao.getDamasPretas();
+        } else {
+            homensProprios = Integer.reverse(posicao.getHomensPretos());
+            damasProprias = Integer.reverse(posicao.getDamasPretas());
+            homensAdversarios = Integer.reverse(posicao.getHomensBrancos());
+            damasAdversarias = Integer.reverse(posicao.getDamasBrancas());
+        }
+        return atuais.valor(homensProprios, damasProprias, homensAdversarios, damasAdversarias);
+    }
+
+    /**
+     * Melhor movimento pela tabela: o que leva à vitória mais rápida, senão
+     * ao empate, senão à derrota mais demorada. Retorna
+     * {@link Movimento#NENHUM} se a posição não está na tabela ou não tem
+     * movimentos.
+     */
+    public long melhorMovimento(Posicao raiz) {
+        if (consultar(raiz) == FORA) {
+            return Movimento.NENHUM;
+        }
+        ListaMovimentos movimentos = new ListaMovimentos();
+        new GeradorMovimentos().gerar(raiz, movimentos);
+        Posicao filho = new Posicao();
+        long melhor = Movimento.NENHUM;
+        int melhorNota = Integer.MIN_VALUE;
+        for (int i = 0; i < movimentos.tamanho(); i++) {
+            filho.copiarDe(raiz);
+            filho.aplicar(movimentos.get(i));
+            int valor = consultar(filho);
+            if (valor == FORA) {
+                return Movimento.NENHUM; // Tabela substituída no meio da consulta
+            }
+            // O valor do filho é do adversário: a derrota dele é a nossa vitória
+            int nota = valor == EMPATE ? 0 : isDerrota(valor) ? 1000 - valor : -1000 + valor;
+            if (nota > melhorNota) {
+                melhorNota = nota;
+                melhor = movimentos.get(i);
+            }
+        }
+        return melhor;
+    }
+
+    public static boolean isVitoria(int valor) {
+        return valor >= 0 && (valor & 1) == 1;
+    }
+
+    public static boolean isDerrota(int valor) {
+        return valor >= 0 && (valor & 1) == 0;
+    }
+
+    /**
+     * Valor de um byte da tabela no formato de {@link #consultar(Posicao)}
+     */
+    static int decodificar(int valor) {
+        return valor == BYTE_EMPATE ? EMPATE : valor == BYTE_DESCONHECIDO ? FORA : valor;
+    }
+
+    /**
+     * Tabela mapeada e o deslocamento do bloco de cada material (-1 se ausente)
+     */
+    private record Dados(ByteBuffer mapa, int[] deslocamentos, int pecas) {
+
+        int valor(int homensProprios, int damasProprias, int homensAdversarios, int damasAdversarias) {
+            if ((homensProprios | damasProprias) == 0) {
+                return 0; // Sem peças: perdeu
+            }
+            int codigo = IndiceFinais.codigo(Integer.bitCount(homensProprios), Integer.bitCount(damasProprias),
+                    Integer.bitCount(homensAdversarios), Integer.bitCount(damasAdversarias));
+            int deslocamento = deslocamentos[codigo];
+            if (deslocamento < 0) {
+                return FORA;
+            }
+            int indice = IndiceFinais.indice(homensProprios, damasProprias, homensAdversarios, damasAdversarias);
+            return decodificar(mapa.get(deslocamento + indice) & 0xFF);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.damas.engine;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Hashes das posições ocorridas desde o último lance irreversível
+ * (movimento de homem ou captura) de uma partida.
+ *
+ * Depois de um lance irreversível nenhuma posição anterior pode se repetir,
+ * então a tabela só precisa guardar a janela atual e cabe em poucos bytes
+ * persistidos junto com a partida.
+ */
+public final class TabelaRepeticao {
+
+    /** Limite da janela; com a regra de lances de dama a janela nunca chega perto disso */
+    public static final int CAPACIDADE_MAXIMA = 128;
+
+    private long[] hashes;
+    private int tamanho;
+
+    public TabelaRepeticao() {
+        this.hashes = new long[16];
+    }
+
+    public static TabelaRepeticao deBytes(byte[] dados) {
+        TabelaRepeticao tabela = new TabelaRepeticao();
+        if (dados != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(dados);
+            while (buffer.remaining() >= Long.BYTES) {
+                tabela.adicionar(buffer.getLong());
+            }
+        }
+        return tabela;
+    }
+
+    public byte[] paraBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho * Long.BYTES);
+        for (int i = 0; i < tamanho; i++) {
+            buffer.putLong(hashes[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Registra a posição e retorna quantas vezes ela já ocorreu na janela,
+     * incluindo esta
+     */
+    public int registrar(long hash) {
+        int ocorrencias = 1;
+        for (int i = 0; i < tamanho; i++) {
+            if (hashes[i] == hash) {
+                ocorrencias++;
+            }
+        }
+        adicionar(hash);
+        return ocorrencias;
+    }
+
+    /**
+     * Descarta a janela após um lance irreversível
+     */
+    public void limpar() {
+        tamanho = 0;
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    private void adicionar(long hash) {
+        if (tamanho == CAPACIDADE_MAXIMA) {
+            System.arraycopy(hashes, 1, hashes, 0, tamanho - 1);
+            tamanho--;
+        } else if (tamanho == hashes.length) {
+            hashes = Arrays.copyOf(hashes, Math.min(hashes.length * 2, CAPACIDADE_MAXIMA));
+        }
+        hashes[tamanho++] = hash;
+    }
+}
@@ -0,0 +1,77 @@
+package com.damas.engine;
+
+/**
+ * Tabela de transposição compartilhada entre as threads de busca, sem travas.
+ *
+ * Cada entrada guarda os dados empacotados em um {@code long} e a chave
+ * gravada como {@code hash ^ dados}: uma escrita concorrente que misture
+ * metades de entradas diferentes simplesmente não confere na leitura.
+ */
+public final class TabelaTransposicao {
+
+    public static final int EXATO = 0;
+    public static final int LIMITE_INFERIOR = 1;
+    public static final int LIMITE_SUPERIOR = 2;
+
+    /** Retornado por {@link #ler(long)} quando não há entrada para a posição */
+    public static final long VAZIA = 0L;
+
+    private static final long BIT_VALIDA = 1L << 37;
+
+    private final long[] chaves;
+    private final long[] dados;
+    private final int mascara;
+
+    /**
+     * @param bits logaritmo na base 2 do número de entradas (16 bytes cada)
+     */
+    public TabelaTransposicao(int bits) {
+        int tamanho = 1 << bits;
+        this.chaves = new long[tamanho];
+        this.dados = new long[tamanho];
+        this.mascara = tamanho - 1;
+    }
+
+    public void gravar(long hash, int profundidade, int valor, int tipo, long melhorMovimento) {
+        int dica = melhorMovimento == Movimento.NENHUM
+                ? 0
+                : (Movimento.destino(melhorMovimento) << 5 | Movimento.origem(melhorMovimento)) + 1;
+        long entrada = (valor & 0xFFFFL)
+                | ((long) Math.max(0, Math.min(profundidade, 0xFF)) << 16)
+                | ((long) tipo << 24)
+                | ((long) dica << 26)
+                | BIT_VALIDA;
+        int indice = (int) hash & mascara;
+        chaves[indice] = hash ^ entrada;
+        dados[indice] = entrada;
+    }
+
+    public long ler(long hash) {
+        int indice = (int) hash & mascara;
+        long entrada = dados[indice];
+        if (entrada != VAZIA && (chaves[indice] ^ entrada) == hash) {
+            return entrada;
+        }
+        return VAZIA;
+    }
+
+    public static int valor(long entrada) {
+        return (short) (entrada & 0xFFFF);
+    }
+
+    public static int profundidade(long entrada) {
+        return (int) ((entrada >>> 16) & 0xFF);
+    }
+
+    public static int tipo(long entrada) {
+        return (int) ((entrada >>> 24) & 0x3);
+    }
+
+    /**
+     * Indica se o movimento é o melhor registrado na entrada (mesma origem e destino)
+     */
+    public static boolean isMelhorMovimento(long entrada, long movimento) {
+        int dica = (int) ((entrada >>> 26) & 0x7FF);
+        return dica != 0 && dica - 1 == (Movimento.destino(movimento) << 5 | Movimento.origem(movimento));
+    }
+}
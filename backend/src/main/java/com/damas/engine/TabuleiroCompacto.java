@@ -0,0 +1,46 @@
+package com.damas.engine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Forma imutável e persistível das peças de uma posição: os quatro bitboards
+ * em 16 bytes fixos. A vez de jogar fica fora, em {@code Partida.jogadorAtualBrancas}.
+ */
+public record TabuleiroCompacto(int homensBrancos, int homensPretos, int damasBrancas, int damasPretas) {
+
+    public static final int TAMANHO_BYTES = 4 * Integer.BYTES;
+
+    public static TabuleiroCompacto inicial() {
+        return de(Posicao.inicial());
+    }
+
+    public static TabuleiroCompacto de(Posicao posicao) {
+        return new TabuleiroCompacto(posicao.getHomensBrancos(), posicao.getHomensPretos(),
+                posicao.getDamasBrancas(), posicao.getDamasPretas());
+    }
+
+    public Posicao paraPosicao(boolean vezBrancas) {
+        return new Posicao(homensBrancos, homensPretos, damasBrancas, damasPretas, vezBrancas);
+    }
+
+    public int[][] paraMatriz() {
+        return paraPosicao(true).paraMatriz();
+    }
+
+    public byte[] paraBytes() {
+        return ByteBuffer.allocate(TAMANHO_BYTES)
+                .putInt(homensBrancos)
+                .putInt(homensPretos)
+                .putInt(damasBrancas)
+                .putInt(damasPretas)
+                .array();
+    }
+
+    public static TabuleiroCompacto deBytes(byte[] dados) {
+        if (dados.length != TAMANHO_BYTES) {
+            throw new IllegalArgumentException("Tabuleiro compacto deve ter " + TAMANHO_BYTES + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(dados);
+        return new TabuleiroCompacto(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+    }
+}
@@ -0,0 +1,57 @@
+package com.damas.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chaves de Zobrist para o hash de 64 bits das posições.
+ *
+ * A semente é fixa para que o hash de uma posição seja o mesmo entre
+ * reinícios do servidor, já que os hashes são persistidos com a partida.
+ */
+public final class Zobrist {
+
+    public static final long[] HOMEM_BRANCO = new long[Casas.TOTAL];
+    public static final long[] HOMEM_PRETO = new long[Casas.TOTAL];
+    public static final long[] DAMA_BRANCA = new long[Casas.TOTAL];
+    public static final long[] DAMA_PRETA = new long[Casas.TOTAL];
+    public static final long VEZ_PRETAS;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x6A6F676F64616D61L);
+        for (int casa = 0; casa < Casas.TOTAL; casa++) {
+            HOMEM_BRANCO[casa] = random.nextLong();
+            HOMEM_PRETO[casa] = random.nextLong();
+            DAMA_BRANCA[casa] = random.nextLong();
+            DAMA_PRETA[casa] = random.nextLong();
+        }
+        VEZ_PRETAS = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Calcula o hash do zero; usado apenas ao criar posições
+     */
+    public static long calcular(int homensBrancos, int homensPretos, int damasBrancas, int damasPretas,
+                                boolean vezBrancas) {
+        long hash = vezBrancas ? 0L : VEZ_PRETAS;
+        hash ^= xorCasas(HOMEM_BRANCO, homensBrancos);
+        hash ^= xorCasas(HOMEM_PRETO, homensPretos);
+        hash ^= xorCasas(DAMA_BRANCA, damasBrancas);
+        hash ^= xorCasas(DAMA_PRETA, damasPretas);
+        return hash;
+    }
+
+    /**
+     * XOR das chaves de todas as casas presentes na máscara
+     */
+    public static long xorCasas(long[] chaves, int mascara) {
+        long hash = 0L;
+        while (mascara != 0) {
+            hash ^= chaves[Integer.numberOfTrailingZeros(mascara)];
+            mascara &= mascara - 1;
+        }
+        return hash;
+    }
+}
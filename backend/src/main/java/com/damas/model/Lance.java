@@ -0,0 +1,49 @@
+package com.damas.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Um lance de uma partida, gravado uma única vez (append-only) em registro de
+ * largura fixa. As casas são os índices 0..31 dos bitboards.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "lances", uniqueConstraints = @UniqueConstraint(columnNames = {"partida_id", "ply"}))
+public class Lance {
+
+    // Sequência com alocação em blocos para que os INSERTs em lote usem batch JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lances_seq")
+    @SequenceGenerator(name = "lances_seq", sequenceName = "lances_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "partida_id", nullable = false)
+    private Long partidaId;
+
+    @Column(nullable = false)
+    private int ply; // 1 = primeiro lance das brancas
+
+    @Column(nullable = false)
+    private byte origem;
+
+    @Column(nullable = false)
+    private byte destino;
+
+    @Column(nullable = false)
+    private int capturadas; // máscara das casas capturadas
+
+    @Column(nullable = false)
+    private boolean promocao;
+
+    @Column(name = "data_hora", nullable = false)
+    private LocalDateTime dataHora;
+}
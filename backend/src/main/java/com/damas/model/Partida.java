@@ -1,5 +1,6 @@
 package com.damas.model;
 
+import com.damas.engine.TabuleiroCompacto;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,7 +12,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "partidas")
+@Table(name = "partidas", indexes = {
+        // Listagens paginadas por id, filtradas por jogador ou status
+        @Index(name = "idx_partidas_brancas", columnList = "jogador_brancas_id, id"),
+        @Index(name = "idx_partidas_pretas", columnList = "jogador_pretas_id, id"),
+        @Index(name = "idx_partidas_status", columnList = "status, id")
+})
 public class Partida {
 
     @Id
@@ -23,7 +29,7 @@ public class Partida {
     private Usuario jogadorBrancas;
     
     @ManyToOne
-    @JoinColumn(name = "jogador_pretas_id", nullable = false)
+    @JoinColumn(name = "jogador_pretas_id") // vazio enquanto a partida aguarda o segundo jogador
     private Usuario jogadorPretas;
     
     @Column(name = "data_inicio")
@@ -32,8 +38,9 @@ public class Partida {
     @Column(name = "data_fim")
     private LocalDateTime dataFim;
     
-    @Column(name = "estado_tabuleiro", columnDefinition = "TEXT")
-    private String estadoTabuleiro;
+    @Convert(converter = TabuleiroCompactoConverter.class)
+    @Column(name = "tabuleiro", length = TabuleiroCompacto.TAMANHO_BYTES)
+    private TabuleiroCompacto estadoTabuleiro;
     
     @Enumerated(EnumType.STRING)
     private StatusPartida status = StatusPartida.AGUARDANDO;
@@ -51,13 +58,35 @@ public class Partida {
     @Column(name = "tempo_jogador_pretas")
     private Integer tempoJogadorPretas = 600; // 10 minutos em segundos
     
+    @Column(name = "incremento_segundos")
+    private Integer incremento = 0; // somado ao relógio de quem joga a cada lance
+    
     @Column(name = "codigo_partida", unique = true)
     private String codigoPartida;
     
-    @Column(name = "movimento_historico", columnDefinition = "TEXT")
-    private String movimentoHistorico = "";
+    @Column(name = "privada")
+    private boolean privada = false; // partidas privadas não aparecem no lobby, só entram pelo código
+    
+    @Column(name = "total_lances")
+    private int totalLances = 0; // os lances ficam na tabela lances
+    
+    @Enumerated(EnumType.STRING)
+    private ResultadoPartida resultado;
+    
+    @Column(name = "lances_sem_captura")
+    private int lancesSemCaptura = 0; // lances seguidos só de damas, sem captura
+    
+    @Column(name = "posicoes_repeticao", length = 1024)
+    private byte[] posicoesRepeticao; // hashes desde o último lance irreversível
+    
+    @Version
+    private Long versao; // trava otimista: escritas concorrentes na mesma partida geram conflito
     
     public enum StatusPartida {
         AGUARDANDO, EM_ANDAMENTO, FINALIZADA, ABANDONADA
     }
+    
+    public enum ResultadoPartida {
+        VITORIA_BRANCAS, VITORIA_PRETAS, EMPATE
+    }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.damas.model;
+
+import com.damas.engine.TabuleiroCompacto;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Grava o tabuleiro da partida como 16 bytes binários
+ */
+@Converter
+public class TabuleiroCompactoConverter implements AttributeConverter<TabuleiroCompacto, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(TabuleiroCompacto tabuleiro) {
+        return tabuleiro != null ? tabuleiro.paraBytes() : null;
+    }
+
+    @Override
+    public TabuleiroCompacto convertToEntityAttribute(byte[] dados) {
+        return dados != null ? TabuleiroCompacto.deBytes(dados) : null;
+    }
+}
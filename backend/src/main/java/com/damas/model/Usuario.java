@@ -2,6 +2,7 @@ package com.damas.model;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -9,12 +10,15 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Data
+@Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
 @Table(name = "usuarios")
 public class Usuario {
     
+    public static final int ELO_INICIAL = 1200; // Elo de quem ainda não jogou
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -31,21 +35,38 @@ public class Usuario {
     @Column(name = "nome_completo")
     private String nomeCompleto;
     
+    @Builder.Default
     private int partidasJogadas = 0;
     
+    @Builder.Default
     private int partidasVencidas = 0;
     
-    private int pontuacao = 0;
+    // Coluna nova: a antiga (pontuacao) somava 10 por vitória e não é um Elo. O
+    // padrão no banco dá 1200 às contas que já existiam quando a coluna é criada
+    @Builder.Default
+    @Column(name = "elo", columnDefinition = "integer default " + ELO_INICIAL)
+    private int elo = ELO_INICIAL;
     
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "usuario_roles", joinColumns = @JoinColumn(name = "usuario_id"))
     @Column(name = "role")
+    @Builder.Default
     private Set<String> roles = new HashSet<>();
     
     @Column(nullable = false)
+    @Builder.Default
     private boolean ativo = true;
     
+    // Momento da desativação (epoch em ms): os tokens emitidos até ele não valem mais
+    @Column(name = "desativado_em")
+    private Long desativadoEm;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean computador = false; // jogador controlado pelo servidor
+    
     @Column(name = "data_cadastro")
+    @Builder.Default
     private java.time.LocalDateTime dataCadastro = java.time.LocalDateTime.now();
     
     @Column(name = "ultimo_acesso")
@@ -0,0 +1,12 @@
+package com.damas.repository;
+
+import com.damas.model.Lance;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface LanceRepository extends JpaRepository<Lance, Long> {
+    List<Lance> findByPartidaIdOrderByPly(Long partidaId);
+    
+    List<Lance> findByPartidaIdAndPlyGreaterThanOrderByPly(Long partidaId, int ply);
+}
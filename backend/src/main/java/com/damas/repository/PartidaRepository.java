@@ -1,10 +1,14 @@
 package com.damas.repository;
 
+import com.damas.dto.PartidaResumoDTO;
 import com.damas.model.Partida;
 import com.damas.model.Usuario;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,4 +22,35 @@ public interface PartidaRepository extends JpaRepository<Partida, Long> {
     
     @Query("SELECT p FROM Partida p WHERE p.status = 'AGUARDANDO'")
     List<Partida> findPartidasAguardando();
-}
\ No newline at end of file
+    
+    @Query("SELECT p.id FROM Partida p WHERE p.status = 'EM_ANDAMENTO'")
+    List<Long> findIdsEmAndamento();
+    
+    @Query("SELECT COUNT(p) > 0 FROM Partida p WHERE p.id = :partidaId "
+            + "AND (p.jogadorBrancas.id = :usuarioId OR p.jogadorPretas.id = :usuarioId)")
+    boolean isJogador(@Param("partidaId") Long partidaId, @Param("usuarioId") Long usuarioId);
+    
+    // Listagens por projeção, em ordem decrescente de id e paginadas por chave: "antesDe" é o último id da página anterior
+    String RESUMO = "SELECT new com.damas.dto.PartidaResumoDTO(p.id, p.codigoPartida, b.id, b.username, pr.id, pr.username, "
+            + "p.status, p.resultado, p.dataInicio, p.dataFim, p.totalLances) "
+            + "FROM Partida p JOIN p.jogadorBrancas b LEFT JOIN p.jogadorPretas pr ";
+    
+    @Query(RESUMO + "WHERE (b.id = :usuarioId OR pr.id = :usuarioId) "
+            + "AND (:adversario IS NULL OR (b.id = :usuarioId AND pr.username = :adversario) "
+            + "OR (pr.id = :usuarioId AND b.username = :adversario)) "
+            + "AND (:status IS NULL OR p.status = :status) "
+            + "AND (:desde IS NULL OR p.dataInicio >= :desde) "
+            + "AND (:ate IS NULL OR p.dataInicio < :ate) "
+            + "AND (:antesDe IS NULL OR p.id < :antesDe) "
+            + "ORDER BY p.id DESC")
+    List<PartidaResumoDTO> listarResumosDoJogador(@Param("usuarioId") Long usuarioId,
+                                                  @Param("adversario") String adversario,
+                                                  @Param("status") Partida.StatusPartida status,
+                                                  @Param("desde") LocalDateTime desde,
+                                                  @Param("ate") LocalDateTime ate,
+                                                  @Param("antesDe") Long antesDe,
+                                                  Limit limite);
+    
+    @Query(RESUMO + "WHERE p.status = 'AGUARDANDO' AND (:antesDe IS NULL OR p.id < :antesDe) ORDER BY p.id DESC")
+    List<PartidaResumoDTO> listarResumosAguardando(@Param("antesDe") Long antesDe, Limit limite);
+}
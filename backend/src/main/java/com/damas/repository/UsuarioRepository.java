@@ -1,8 +1,12 @@
 package com.damas.repository;
 
+import com.damas.dto.ClassificacaoDTO;
 import com.damas.model.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
@@ -10,4 +14,13 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
+    
+    // Jogadores que entram no ranking, sem ordem: a ordenação é feita em memória
+    @Query("SELECT new com.damas.dto.ClassificacaoDTO(u.id, u.username, u.elo) FROM Usuario u "
+            + "WHERE u.ativo = true AND u.computador = false")
+    List<ClassificacaoDTO> listarParaRanking();
+    
+    // Contas desativadas depois do limite: {id, desativadoEm}
+    @Query("SELECT u.id, u.desativadoEm FROM Usuario u WHERE u.desativadoEm > :limite")
+    List<Object[]> listarDesativadosDesde(@Param("limite") long limite);
 }
\ No newline at end of file
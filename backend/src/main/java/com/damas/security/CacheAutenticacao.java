@@ -0,0 +1,127 @@
+package com.damas.security;
+
+import com.damas.repository.UsuarioRepository;
+import com.damas.service.UsuarioDesativadoEvent;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Autenticação por token com cache dos usuários já verificados. Um token
+ * repetido (o cliente manda o mesmo em toda requisição) não é verificado de
+ * novo até {@code damas.auth.cache.ttl-ms} ou até expirar, o que vier antes.
+ *
+ * Como o token basta para autenticar, desativar um usuário exige invalidação
+ * explícita ({@link UsuarioDesativadoEvent}, que chega a todos os nós): os
+ * tokens dele emitidos até ali deixam de ser aceitos, estejam ou não no cache.
+ * O momento da desativação fica gravado no usuário e é recarregado na subida,
+ * para valer também num nó reiniciado ou que entra depois no cluster.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheAutenticacao {
+
+    private final JwtService jwtService;
+    private final UsuarioRepository usuarioRepository;
+
+    @Value("${damas.auth.cache.tamanho:10000}")
+    private int tamanhoMaximo = 10000; // 0 desliga o cache
+
+    @Value("${damas.auth.cache.ttl-ms:60000}")
+    private long ttl = 60000;
+
+    // Token -> usuário, em ordem de acesso para descartar o menos usado; protegido pelo próprio monitor
+    private final LinkedHashMap<String, Entrada> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entrada> maisAntiga) {
+            return size() > tamanhoMaximo;
+        }
+    };
+
+    // Usuário -> momento da invalidação; tokens emitidos até ele são recusados
+    private final ConcurrentHashMap<Long, Long> invalidados = new ConcurrentHashMap<>();
+
+    /**
+     * Recupera do banco as desativações cujos tokens ainda não venceram
+     */
+    @PostConstruct
+    void carregarDesativados() {
+        long limite = System.currentTimeMillis() - jwtService.getJwtExpiration();
+        for (Object[] desativado : usuarioRepository.listarDesativadosDesde(limite)) {
+            invalidados.merge((Long) desativado[0], (Long) desativado[1], Math::max);
+        }
+    }
+
+    /**
+     * Usuário do token, do cache ou verificado agora
+     *
+     * @throws JwtException se o token é inválido, expirou ou foi invalidado
+     */
+    public UsuarioAutenticado autenticar(String token) {
+        long agora = System.currentTimeMillis();
+        UsuarioAutenticado usuario = null;
+
+        if (tamanhoMaximo > 0) {
+            synchronized (cache) {
+                Entrada entrada = cache.get(token);
+                if (entrada != null) {
+                    if (entrada.validaAte() > agora) {
+                        usuario = entrada.usuario();
+                    } else {
+                        cache.remove(token);
+                    }
+                }
+            }
+        }
+
+        if (usuario == null) {
+            usuario = jwtService.parseToken(token);
+            if (tamanhoMaximo > 0) {
+                Entrada entrada = new Entrada(usuario, Math.min(agora + ttl, usuario.getExpiraEm()));
+                synchronized (cache) {
+                    cache.put(token, entrada);
+                }
+            }
+        }
+
+        Long invalidadoEm = invalidados.get(usuario.getId());
+        if (invalidadoEm != null && usuario.getEmitidoEm() <= invalidadoEm) {
+            throw new JwtException("Token invalidado");
+        }
+        return usuario;
+    }
+
+    /**
+     * Conta desativada, neste nó ou em outro: recusa os tokens do usuário
+     * emitidos até a desativação
+     */
+    @EventListener
+    public void aoDesativarUsuario(UsuarioDesativadoEvent evento) {
+        invalidar(evento.usuarioId(), evento.desativadoEm());
+    }
+
+    /**
+     * Recusa todos os tokens do usuário emitidos até {@code momento}
+     */
+    public void invalidar(Long usuarioId, long momento) {
+        invalidados.merge(usuarioId, momento, Math::max);
+
+        // Tokens emitidos antes do prazo de expiração já venceram por conta própria
+        long limite = System.currentTimeMillis() - jwtService.getJwtExpiration();
+        invalidados.values().removeIf(invalidadoEm -> invalidadoEm < limite);
+
+        synchronized (cache) {
+            cache.values().removeIf(entrada -> entrada.usuario().getId().equals(usuarioId));
+        }
+    }
+
+    private record Entrada(UsuarioAutenticado usuario, long validaAte) {
+    }
+}
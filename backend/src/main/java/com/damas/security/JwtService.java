@@ -1,80 +1,103 @@
 package com.damas.security;
 
+import com.damas.model.Usuario;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    // Claims com o necessário para autenticar sem ir ao banco
+    public static final String CLAIM_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+
     @Value("${jwt.secret}")
     private String secretKey;
     
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    // Chave e parser são imutáveis e thread-safe: montados uma vez, não a cada token
+    private Key signInKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    void inicializar() {
+        // Sem segredo configurado a aplicação não sobe: não há chave padrão conhecida
+        if (secretKey == null || secretKey.isBlank()) {
+            throw new IllegalStateException("jwt.secret não configurado: defina a variável de ambiente JWT_SECRET "
+                    + "(chave HS256 em Base64) ou rode com o perfil dev");
+        }
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parser.parseClaimsJws(token).getBody());
     }
 
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+    public long getJwtExpiration() {
+        return jwtExpiration;
     }
 
-    public String generateToken(
-            Map<String, Object> extraClaims,
-            UserDetails userDetails
-    ) {
+    public String generateToken(Usuario usuario) {
+        long agora = System.currentTimeMillis();
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setSubject(usuario.getUsername())
+                .claim(CLAIM_ID, usuario.getId())
+                .claim(CLAIM_ROLES, List.copyOf(usuario.getRoles()))
+                .setIssuedAt(new Date(agora))
+                .setExpiration(new Date(agora + jwtExpiration))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifica assinatura e expiração numa única leitura do token e monta o
+     * usuário a partir dos claims
+     *
+     * @throws JwtException se o token é inválido, expirou ou não tem os claims esperados
+     */
+    public UsuarioAutenticado parseToken(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        
+        Number id = claims.get(CLAIM_ID, Number.class);
+        if (id == null || claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new JwtException("Token sem a identificação do usuário");
+        }
+        
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        Object roles = claims.get(CLAIM_ROLES);
+        if (roles instanceof Collection<?> lista) {
+            for (Object role : lista) {
+                authorities.add(new SimpleGrantedAuthority("ROLE_" + role));
+            }
+        }
+        
+        long emitidoEm = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+        return new UsuarioAutenticado(id.longValue(), claims.getSubject(), List.copyOf(authorities),
+                emitidoEm, claims.getExpiration().getTime());
     }
-}
\ No newline at end of file
+}
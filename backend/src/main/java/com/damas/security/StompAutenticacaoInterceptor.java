@@ -0,0 +1,92 @@
+package com.damas.security;
+
+import com.damas.repository.PartidaRepository;
+import com.damas.service.RegistroSessoes;
+import com.damas.service.TransmissaoEspectadores;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Autentica as sessões STOMP no CONNECT, com o mesmo token JWT da API
+ * (cabeçalho {@code Authorization: Bearer ...} do frame). A sessão fica com o
+ * usuário como principal, o que habilita os destinos /user/queue/... dele.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAutenticacaoInterceptor implements ChannelInterceptor {
+
+    private static final String TOPICO_PARTIDA = "/topic/partida/";
+
+    private final CacheAutenticacao cacheAutenticacao;
+    private final RegistroSessoes registroSessoes;
+    private final PartidaRepository partidaRepository;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        switch (accessor.getCommand()) {
+            case CONNECT -> autenticar(accessor);
+            case SUBSCRIBE -> verificarInscricao(accessor);
+            default -> {
+            }
+        }
+        return message;
+    }
+
+    private void autenticar(StompHeaderAccessor accessor) {
+        String cabecalho = accessor.getFirstNativeHeader("Authorization");
+        if (cabecalho == null || !cabecalho.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Token de autenticação ausente");
+        }
+
+        UsuarioAutenticado usuario;
+        try {
+            usuario = cacheAutenticacao.autenticar(cabecalho.substring(7));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new MessageDeliveryException("Token de autenticação inválido");
+        }
+
+        if (!registroSessoes.registrar(usuario.getId(), accessor.getSessionId())) {
+            throw new MessageDeliveryException("Limite de conexões simultâneas atingido");
+        }
+
+        accessor.setUser(new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities()));
+    }
+
+    // As filas individuais só são acessadas por /user/queue/..., que o Spring resolve para a sessão do próprio usuário.
+    // O tópico de cada partida é só dos jogadores dela; quem assiste usa o tópico dos espectadores
+    private void verificarInscricao(StompHeaderAccessor accessor) {
+        String destino = accessor.getDestination();
+        if (destino != null && destino.startsWith("/queue/")) {
+            throw new MessageDeliveryException("Inscrição não permitida em " + destino);
+        }
+        if (destino != null && destino.startsWith(TOPICO_PARTIDA)) {
+            Long partidaId;
+            try {
+                partidaId = Long.valueOf(destino.substring(TOPICO_PARTIDA.length()));
+            } catch (NumberFormatException e) {
+                throw new MessageDeliveryException("Inscrição não permitida em " + destino);
+            }
+            if (!(accessor.getUser() instanceof Authentication autenticacao)
+                    || !(autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario)
+                    || !partidaRepository.isJogador(partidaId, usuario.getId())) {
+                throw new MessageDeliveryException("Só os jogadores se inscrevem em " + destino
+                        + "; espectadores acompanham a partida em " + TransmissaoEspectadores.TOPICO + partidaId);
+            }
+        }
+    }
+}
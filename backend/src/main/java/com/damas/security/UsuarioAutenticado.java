@@ -0,0 +1,35 @@
+package com.damas.security;
+
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Usuário autenticado montado só a partir dos claims do token, sem consultar
+ * o banco. É o principal das requisições autenticadas por JWT.
+ */
+@Getter
+public class UsuarioAutenticado implements AuthenticatedPrincipal {
+
+    private final Long id;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+    private final long emitidoEm; // epoch em ms (o token guarda segundos)
+    private final long expiraEm;
+
+    public UsuarioAutenticado(Long id, String username, List<GrantedAuthority> authorities,
+                              long emitidoEm, long expiraEm) {
+        this.id = id;
+        this.username = username;
+        this.authorities = authorities;
+        this.emitidoEm = emitidoEm;
+        this.expiraEm = expiraEm;
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -5,14 +5,16 @@ import com.damas.dto.AuthResponse;
 import com.damas.dto.RegisterRequest;
 import com.damas.model.Usuario;
 import com.damas.repository.UsuarioRepository;
+import com.damas.security.CacheAutenticacao;
 import com.damas.security.JwtService;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -25,7 +27,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
+    private final CacheAutenticacao cacheAutenticacao;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthResponse register(RegisterRequest request) {
         // Verificar se o usuário já existe
@@ -46,13 +49,10 @@ public class AuthService {
                 .dataCadastro(LocalDateTime.now())
                 .build();
         
-        usuarioRepository.save(usuario);
+        usuario = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new JogadorRankingEvent(usuario.getId(), usuario.getUsername(), usuario.getElo(), true));
         
-        var jwtToken = jwtService.generateToken(new org.springframework.security.core.userdetails.User(
-                usuario.getUsername(),
-                usuario.getSenha(),
-                Collections.emptyList()
-        ));
+        var jwtToken = jwtService.generateToken(usuario);
         
         return AuthResponse.builder()
                 .token(jwtToken)
@@ -78,12 +78,8 @@ public class AuthService {
         usuario.setUltimoAcesso(LocalDateTime.now());
         usuarioRepository.save(usuario);
         
-        // Gera o token JWT
-        var jwtToken = jwtService.generateToken(new org.springframework.security.core.userdetails.User(
-                usuario.getUsername(),
-                usuario.getSenha(),
-                Collections.emptyList()
-        ));
+        // Gera o token JWT, com id e papéis do usuário nos claims
+        var jwtToken = jwtService.generateToken(usuario);
         
         return AuthResponse.builder()
                 .token(jwtToken)
@@ -94,11 +90,26 @@ public class AuthService {
     
     public boolean validateToken(String token) {
         try {
-            String username = jwtService.extractUsername(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            return jwtService.isTokenValid(token, userDetails);
-        } catch (Exception e) {
+            cacheAutenticacao.autenticar(token);
+            return true;
+        } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
+    
+    /**
+     * Desativa a conta; os tokens já emitidos para ela deixam de valer na hora
+     */
+    @Transactional
+    public void desativarUsuario(Long usuarioId) {
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        long desativadoEm = System.currentTimeMillis();
+        usuario.setAtivo(false);
+        // Gravado para que um nó reiniciado ou novo também recuse os tokens já emitidos
+        usuario.setDesativadoEm(desativadoEm);
+        // Aplicado já neste nó e, depois do commit, levado aos outros
+        eventPublisher.publishEvent(new UsuarioDesativadoEvent(usuarioId, desativadoEm));
+        eventPublisher.publishEvent(new JogadorRankingEvent(usuario.getId(), usuario.getUsername(), usuario.getElo(), false));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.damas.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Variação de pontuação Elo no fim de uma partida
+ */
+@Component
+public class CalculoElo {
+
+    @Value("${damas.ranking.fator-k:32}")
+    private int fatorK = 32;
+
+    /**
+     * Pontos ganhos (ou perdidos, se negativo) pelo jogador A contra o B;
+     * o B varia o mesmo valor com o sinal trocado
+     *
+     * @param resultadoA 1 vitória, 0.5 empate, 0 derrota
+     */
+    public int variacao(int eloA, int eloB, double resultadoA) {
+        double esperadoA = 1.0 / (1.0 + Math.pow(10, (eloB - eloA) / 400.0));
+        return (int) Math.round(fatorK * (resultadoA - esperadoA));
+    }
+}
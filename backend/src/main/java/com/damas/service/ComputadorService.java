@@ -0,0 +1,184 @@
+package com.damas.service;
+
+import com.damas.dto.MovimentoRequest;
+import com.damas.engine.Casas;
+import com.damas.engine.MotorBusca;
+import com.damas.engine.Movimento;
+import com.damas.engine.Posicao;
+import com.damas.model.Usuario;
+import com.damas.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ComputadorService {
+
+    public static final String USERNAME = "computador";
+
+    // Número de lances que o computador espera ainda jogar ao dividir seu tempo
+    private static final int LANCES_ESPERADOS = 30;
+
+    // Profundidade usada nas jogadas que esperaram o pool de busca cheio
+    private static final int PROFUNDIDADE_EMERGENCIA = 2;
+
+    private final UsuarioRepository usuarioRepository;
+    private final PartidaService partidaService;
+    private final PartidasAtivasService partidasAtivasService;
+    private final TravasPartidas travasPartidas;
+    private final MotorBusca motorBusca;
+    private final ThreadPoolExecutor computadorExecutor;
+    private final MetricasPartidas metricas;
+
+    // Partidas cuja jogada o pool recusou, em ordem de chegada
+    private final Queue<Long> pendentes = new ConcurrentLinkedQueue<>();
+
+    @Value("${damas.computador.tempo-minimo-ms:100}")
+    private long tempoMinimoMillis = 100;
+
+    @Value("${damas.computador.tempo-maximo-ms:3000}")
+    private long tempoMaximoMillis = 3000;
+
+    /**
+     * Cria o usuário do computador na primeira inicialização
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void garantirUsuarioComputador() {
+        if (usuarioRepository.existsByUsername(USERNAME)) {
+            return;
+        }
+
+        Usuario computador = Usuario.builder()
+                .username(USERNAME)
+                .email(USERNAME + "@jogo-damas.local")
+                .senha(UUID.randomUUID().toString()) // não é um hash válido: ninguém faz login como computador
+                .nomeCompleto("Computador")
+                .computador(true)
+                .roles(Collections.singleton("COMPUTADOR"))
+                .dataCadastro(LocalDateTime.now())
+                .build();
+        usuarioRepository.save(computador);
+    }
+
+    /**
+     * Agenda a jogada do computador no pool dedicado, depois que o lance do
+     * humano foi aplicado
+     */
+    @EventListener
+    public void aoChegarVezDoComputador(VezDoComputadorEvent evento) {
+        try {
+            computadorExecutor.execute(() -> jogarEAgendarPendentes(evento.partidaId(), MotorBusca.PROFUNDIDADE_MAXIMA));
+        } catch (RejectedExecutionException e) {
+            // Pool cheio: a jogada fica pendente e roda no pool quando uma busca terminar,
+            // nunca na thread da requisição do humano
+            log.warn("Pool do computador cheio, adiando a jogada na partida {}", evento.partidaId());
+            pendentes.add(evento.partidaId());
+            agendarPendentes();
+        }
+    }
+
+    /**
+     * Quantidade de jogadas esperando vaga no pool
+     */
+    public int contarPendentes() {
+        return pendentes.size();
+    }
+
+    private void jogarEAgendarPendentes(Long partidaId, int profundidadeMaxima) {
+        try {
+            jogar(partidaId, profundidadeMaxima);
+        } finally {
+            agendarPendentes();
+        }
+    }
+
+    // Reenvia as jogadas adiadas até o pool recusar de novo; chamado também logo depois de
+    // adiar, para o caso de todas as buscas terem terminado enquanto a jogada era recusada
+    private void agendarPendentes() {
+        Long partidaId;
+        while ((partidaId = pendentes.poll()) != null) {
+            Long pendente = partidaId;
+            try {
+                // Quem esperou joga com busca rasa para o pool voltar ao normal
+                computadorExecutor.execute(() -> jogarEAgendarPendentes(pendente, PROFUNDIDADE_EMERGENCIA));
+            } catch (RejectedExecutionException e) {
+                pendentes.add(pendente);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Calcula o tempo de busca a partir do relógio restante das pretas
+     */
+    public long calcularTempoDeBusca(Integer tempoRestanteSegundos) {
+        if (tempoRestanteSegundos == null) {
+            return tempoMaximoMillis;
+        }
+        long tempo = tempoRestanteSegundos * 1000L / LANCES_ESPERADOS;
+        return Math.max(tempoMinimoMillis, Math.min(tempoMaximoMillis, tempo));
+    }
+
+    private void jogar(Long partidaId, int profundidadeMaxima) {
+        try {
+            PartidaAtiva partida = partidasAtivasService.obterSeCarregada(partidaId);
+            if (partida == null) {
+                return;
+            }
+            Usuario computador = partida.getJogadorPretas();
+            Posicao posicao;
+            Integer tempoRestante;
+            int ply;
+            ReentrantLock trava = travasPartidas.trava(partida.getId());
+            trava.lock();
+            try {
+                if (partida.isEncerrada() || partida.isDescartada() || partida.isJogadorAtualBrancas()
+                        || !computador.isComputador()) {
+                    return;
+                }
+                posicao = partida.getPosicao().copia();
+                tempoRestante = partida.getTempoJogadorPretas();
+                ply = partida.getTotalLances() + 1;
+            } finally {
+                trava.unlock();
+            }
+
+            // A busca roda fora da trava; o lance é validado de novo ao ser jogado
+            long inicioBusca = System.nanoTime();
+            long movimento = motorBusca.melhorMovimento(posicao, calcularTempoDeBusca(tempoRestante), profundidadeMaxima);
+            metricas.registrarBusca(inicioBusca);
+            if (movimento == Movimento.NENHUM) {
+                return;
+            }
+
+            // O lance passa pela mesma validação dos lances humanos
+            int origem = Movimento.origem(movimento);
+            int destino = Movimento.destino(movimento);
+            MovimentoRequest request = MovimentoRequest.builder()
+                    .partidaId(partidaId)
+                    .linhaOrigem(Casas.linha(origem))
+                    .colunaOrigem(Casas.coluna(origem))
+                    .linhaDestino(Casas.linha(destino))
+                    .colunaDestino(Casas.coluna(destino))
+                    .ply(ply)
+                    .build();
+            partidaService.realizarMovimento(partidaId, request, computador.getId());
+        } catch (RuntimeException e) {
+            log.error("Erro na jogada do computador na partida {}", partidaId, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.damas.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A operação foi feita sobre um estado da partida que já mudou
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflitoPartidaException extends RuntimeException {
+
+    public ConflitoPartidaException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,82 @@
+package com.damas.service;
+
+import com.damas.engine.GeradorTabelaFinais;
+import com.damas.engine.TabelaFinais;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Prepara a tabela de finais na subida: mapeia o arquivo, se existir, ou, se
+ * a geração estiver ligada, o gera numa thread à parte e mapeia no fim. Até
+ * lá (ou sem tabela) o motor busca e as partidas seguem sem adjudicação.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FinaisService {
+
+    private final TabelaFinais tabelaFinais;
+
+    @Value("${damas.finais.arquivo:dados/finais.db}")
+    private String arquivo = "dados/finais.db";
+
+    @Value("${damas.finais.pecas:4}")
+    private int pecas = 4;
+
+    // Desligada por padrão: a geração leva uns 12 s de CPU e, com um caminho relativo, se repete a
+    // cada diretório de trabalho novo
+    @Value("${damas.finais.gerar:false}")
+    private boolean gerar = false;
+
+    @Value("${damas.finais.threads:0}")
+    private int threads = 0; // 0 = todos os processadores
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preparar() {
+        if (arquivo == null || arquivo.isBlank()) {
+            log.info("Sem arquivo da tabela de finais configurado");
+            return;
+        }
+        Path caminho = Path.of(arquivo).toAbsolutePath();
+        if (Files.exists(caminho)) {
+            carregar(caminho);
+        } else if (gerar) {
+            Thread gerador = new Thread(() -> gerarECarregar(caminho), "finais-gerador");
+            gerador.setDaemon(true);
+            gerador.setPriority(Thread.MIN_PRIORITY);
+            gerador.start();
+        } else {
+            log.info("Tabela de finais {} não encontrada; geração desligada", caminho);
+        }
+    }
+
+    private void gerarECarregar(Path caminho) {
+        try {
+            log.info("Gerando a tabela de finais de até {} peças em {}", pecas, caminho);
+            GeradorTabelaFinais.Estatisticas estatisticas = GeradorTabelaFinais.gerar(caminho, pecas, threads);
+            log.info("Tabela de finais gerada: {} materiais, {} posições, maior distância {} lances, em {} ms",
+                    estatisticas.materiais(), estatisticas.posicoes(), estatisticas.maiorDistancia(),
+                    estatisticas.millis());
+            carregar(caminho);
+        } catch (IOException | RuntimeException e) {
+            log.error("Falha ao gerar a tabela de finais em {}", caminho, e);
+        }
+    }
+
+    private void carregar(Path caminho) {
+        try {
+            tabelaFinais.carregar(caminho);
+            log.info("Tabela de finais de até {} peças mapeada de {}", tabelaFinais.getPecas(), caminho);
+        } catch (IOException e) {
+            log.error("Falha ao mapear a tabela de finais {}", caminho, e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.damas.service;
+
+import com.damas.model.Lance;
+import com.damas.model.Partida;
+import com.damas.model.Usuario;
+import com.damas.repository.LanceRepository;
+import com.damas.repository.PartidaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Leitura e gravação do estado das partidas ativas no banco
+ */
+@Service
+@RequiredArgsConstructor
+public class GravacaoPartidasService {
+
+    private static final String ATUALIZAR_ESTATISTICAS = "UPDATE usuarios SET partidas_jogadas = partidas_jogadas + ?, "
+            + "partidas_vencidas = partidas_vencidas + ?, elo = elo + ? WHERE id = ?";
+
+    private final PartidaRepository partidaRepository;
+    private final LanceRepository lanceRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CalculoElo calculoElo;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public PartidaAtiva carregar(Long id) {
+        Partida partida = partidaRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Partida não encontrada"));
+
+        if (partida.getStatus() != Partida.StatusPartida.EM_ANDAMENTO) {
+            throw new RuntimeException("Esta partida não está em andamento");
+        }
+
+        return new PartidaAtiva(partida, lanceRepository.findByPartidaIdOrderByPly(id));
+    }
+
+    public List<Long> listarEmAndamento() {
+        return partidaRepository.findIdsEmAndamento();
+    }
+
+    /**
+     * Grava um lote de partidas numa única transação: um SELECT para as
+     * partidas, os INSERTs dos lances novos em batch e as estatísticas dos
+     * jogadores das partidas encerradas. Devolve a nova versão de cada
+     * partida; se alguma foi alterada por fora desde a última gravação, nada
+     * é gravado e a transação falha com conflito.
+     */
+    @Transactional
+    public Map<Long, Long> gravar(List<PartidaAtiva.EstadoPartida> estados) {
+        Map<Long, Partida> partidas = partidaRepository
+                .findAllById(estados.stream().map(PartidaAtiva.EstadoPartida::id).toList())
+                .stream()
+                .collect(Collectors.toMap(Partida::getId, Function.identity()));
+
+        List<Lance> novosLances = new ArrayList<>();
+        Map<Long, Estatisticas> estatisticas = new TreeMap<>();
+        for (PartidaAtiva.EstadoPartida estado : estados) {
+            Partida partida = partidas.get(estado.id());
+            if (partida == null || !Objects.equals(partida.getVersao(), estado.versao())) {
+                throw new ConflitoPartidaException("A partida " + estado.id() + " foi alterada fora da memória");
+            }
+            aplicarEstado(partida, estado, estatisticas);
+            // Cópias: as instâncias em memória continuam sem id se a transação falhar
+            for (Lance lance : estado.novosLances()) {
+                novosLances.add(Lance.builder()
+                        .partidaId(lance.getPartidaId())
+                        .ply(lance.getPly())
+                        .origem(lance.getOrigem())
+                        .destino(lance.getDestino())
+                        .capturadas(lance.getCapturadas())
+                        .promocao(lance.isPromocao())
+                        .dataHora(lance.getDataHora())
+                        .build());
+            }
+        }
+        lanceRepository.saveAll(novosLances);
+
+        // O flush explícito aplica o @Version agora, para devolver as novas versões
+        try {
+            partidaRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflitoPartidaException("Partida alterada durante a gravação: " + e.getMessage());
+        }
+        gravarEstatisticas(estatisticas);
+        return partidas.values().stream().collect(Collectors.toMap(Partida::getId, Partida::getVersao));
+    }
+
+    private void aplicarEstado(Partida partida, PartidaAtiva.EstadoPartida estado, Map<Long, Estatisticas> estatisticas) {
+        partida.setEstadoTabuleiro(estado.tabuleiro());
+        partida.setJogadorAtualBrancas(estado.vezBrancas());
+        partida.setTotalLances(estado.totalLances());
+        partida.setLancesSemCaptura(estado.lancesSemCaptura());
+        partida.setPosicoesRepeticao(estado.posicoesRepeticao());
+        partida.setTempoJogadorBrancas(estado.tempoJogadorBrancas());
+        partida.setTempoJogadorPretas(estado.tempoJogadorPretas());
+
+        // O fim da partida (e as estatísticas) só é aplicado uma vez, mesmo se o estado for regravado
+        if (estado.status() != Partida.StatusPartida.EM_ANDAMENTO
+                && partida.getStatus() == Partida.StatusPartida.EM_ANDAMENTO) {
+            partida.setStatus(estado.status());
+            partida.setResultado(estado.resultado());
+            partida.setDataFim(estado.dataFim());
+            encerrarPartida(partida, estado.resultado(), estatisticas);
+        }
+    }
+
+    // Define o vencedor (null em caso de empate) e acumula as estatísticas dos jogadores
+    private void encerrarPartida(Partida partida, Partida.ResultadoPartida resultado, Map<Long, Estatisticas> estatisticas) {
+        Usuario jogadorBrancas = partida.getJogadorBrancas();
+        Usuario jogadorPretas = partida.getJogadorPretas();
+
+        Usuario vencedor = null;
+        if (resultado == Partida.ResultadoPartida.VITORIA_BRANCAS) {
+            vencedor = jogadorBrancas;
+        } else if (resultado == Partida.ResultadoPartida.VITORIA_PRETAS) {
+            vencedor = jogadorPretas;
+        }
+        partida.setVencedor(vencedor);
+
+        Estatisticas brancas = estatisticas.computeIfAbsent(jogadorBrancas.getId(), id -> new Estatisticas(jogadorBrancas));
+        Estatisticas pretas = estatisticas.computeIfAbsent(jogadorPretas.getId(), id -> new Estatisticas(jogadorPretas));
+        brancas.jogadas++;
+        pretas.jogadas++;
+        if (vencedor != null) {
+            (vencedor == jogadorBrancas ? brancas : pretas).vencidas++;
+        }
+
+        // Pontuação Elo: o que um jogador ganha o outro perde. Conta as partidas
+        // do mesmo jogador que já terminaram neste lote
+        double resultadoBrancas = resultado == Partida.ResultadoPartida.VITORIA_BRANCAS ? 1
+                : resultado == Partida.ResultadoPartida.VITORIA_PRETAS ? 0 : 0.5;
+        int variacao = calculoElo.variacao(brancas.elo(), pretas.elo(), resultadoBrancas);
+        brancas.variacao += variacao;
+        pretas.variacao -= variacao;
+    }
+
+    /**
+     * Soma as estatísticas no banco com incrementos atômicos, uma linha por
+     * jogador do lote, num único batch JDBC. As entidades Usuario carregadas
+     * com as partidas não são alteradas: um read-modify-write nelas perderia
+     * as partidas do mesmo jogador encerradas em paralelo. A ordem por id
+     * evita deadlock entre lotes que atualizam os mesmos jogadores.
+     */
+    private void gravarEstatisticas(Map<Long, Estatisticas> estatisticas) {
+        if (estatisticas.isEmpty()) {
+            return;
+        }
+        List<Object[]> parametros = new ArrayList<>(estatisticas.size());
+        for (Estatisticas jogador : estatisticas.values()) {
+            parametros.add(new Object[]{jogador.jogadas, jogador.vencidas, jogador.variacao, jogador.usuario.getId()});
+        }
+        jdbcTemplate.batchUpdate(ATUALIZAR_ESTATISTICAS, parametros);
+
+        // O ranking em memória é atualizado depois do commit
+        for (Estatisticas jogador : estatisticas.values()) {
+            if (jogador.variacao != 0 && !jogador.usuario.isComputador()) {
+                eventPublisher.publishEvent(new PontuacaoAlteradaEvent(jogador.usuario.getId(),
+                        jogador.usuario.getUsername(), jogador.variacao));
+            }
+        }
+    }
+
+    // Variação acumulada de um jogador no lote
+    private static final class Estatisticas {
+        final Usuario usuario;
+        int jogadas;
+        int vencidas;
+        int variacao;
+
+        Estatisticas(Usuario usuario) {
+            this.usuario = usuario;
+        }
+
+        int elo() {
+            return usuario.getElo() + variacao;
+        }
+    }
+}
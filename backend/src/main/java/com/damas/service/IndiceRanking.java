@@ -0,0 +1,205 @@
+package com.damas.service;
+
+import com.damas.dto.ClassificacaoDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Jogadores ordenados por pontuação (maior primeiro; empates por id) numa
+ * árvore de ordem estatística: uma treap em que cada nó guarda o tamanho da
+ * sua subárvore. Inserir, remover, a posição de um jogador e o k-ésimo
+ * custam O(log n); listar q jogadores a partir de uma posição, O(log n + q).
+ *
+ * Não é thread-safe: quem usa ({@link RankingService}) controla o acesso.
+ */
+class IndiceRanking {
+
+    private static final class No {
+        final long usuarioId;
+        final String username;
+        final int elo;
+        final int prioridade;
+        No esquerda;
+        No direita;
+        int tamanho = 1;
+
+        No(long usuarioId, String username, int elo, int prioridade) {
+            this.usuarioId = usuarioId;
+            this.username = username;
+            this.elo = elo;
+            this.prioridade = prioridade;
+        }
+    }
+
+    private final Map<Long, No> nos = new HashMap<>();
+    private final SplittableRandom aleatorio = new SplittableRandom();
+    private No raiz;
+
+    int tamanho() {
+        return nos.size();
+    }
+
+    /**
+     * Elo do jogador no índice, ou null se ele não está no ranking
+     */
+    Integer elo(long usuarioId) {
+        No no = nos.get(usuarioId);
+        return no != null ? no.elo : null;
+    }
+
+    /**
+     * Insere o jogador ou troca o Elo dele
+     */
+    void definir(long usuarioId, String username, int elo) {
+        remover(usuarioId);
+        No no = new No(usuarioId, username, elo, aleatorio.nextInt());
+        nos.put(usuarioId, no);
+        No[] partes = dividir(raiz, no);
+        raiz = juntar(juntar(partes[0], no), partes[1]);
+    }
+
+    void remover(long usuarioId) {
+        No no = nos.remove(usuarioId);
+        if (no != null) {
+            raiz = remover(raiz, no);
+        }
+    }
+
+    /**
+     * Posição do jogador, a partir de 0, ou -1 se ele não está no ranking
+     */
+    int posicao(long usuarioId) {
+        No alvo = nos.get(usuarioId);
+        if (alvo == null) {
+            return -1;
+        }
+        int posicao = 0;
+        No no = raiz;
+        while (no != null) {
+            int comparacao = comparar(alvo, no);
+            if (comparacao < 0) {
+                no = no.esquerda;
+            } else if (comparacao > 0) {
+                posicao += tamanho(no.esquerda) + 1;
+                no = no.direita;
+            } else {
+                return posicao + tamanho(no.esquerda);
+            }
+        }
+        throw new IllegalStateException("Jogador " + usuarioId + " no mapa mas não na árvore");
+    }
+
+    /**
+     * Até {@code quantidade} jogadores a partir da posição {@code inicio} (a partir de 0)
+     */
+    List<ClassificacaoDTO> listar(int inicio, int quantidade) {
+        List<ClassificacaoDTO> lista = new ArrayList<>(Math.max(0, Math.min(quantidade, tamanho() - inicio)));
+        if (inicio < 0 || inicio >= tamanho() || quantidade <= 0) {
+            return lista;
+        }
+
+        // Desce até o nó da posição inicial guardando os ancestrais que vêm depois dele
+        Deque<No> pilha = new ArrayDeque<>();
+        No no = raiz;
+        int k = inicio;
+        while (no != null) {
+            int esquerda = tamanho(no.esquerda);
+            if (k < esquerda) {
+                pilha.push(no);
+                no = no.esquerda;
+            } else if (k == esquerda) {
+                pilha.push(no);
+                break;
+            } else {
+                k -= esquerda + 1;
+                no = no.direita;
+            }
+        }
+
+        // Segue em ordem a partir dele
+        int posicao = inicio;
+        while (!pilha.isEmpty() && lista.size() < quantidade) {
+            No atual = pilha.pop();
+            lista.add(new ClassificacaoDTO(++posicao, atual.usuarioId, atual.username, atual.elo));
+            for (No filho = atual.direita; filho != null; filho = filho.esquerda) {
+                pilha.push(filho);
+            }
+        }
+        return lista;
+    }
+
+    void limpar() {
+        nos.clear();
+        raiz = null;
+    }
+
+    // Maior pontuação primeiro; no empate, o id menor
+    private static int comparar(No a, No b) {
+        int comparacao = Integer.compare(b.elo, a.elo);
+        return comparacao != 0 ? comparacao : Long.compare(a.usuarioId, b.usuarioId);
+    }
+
+    private static int tamanho(No no) {
+        return no != null ? no.tamanho : 0;
+    }
+
+    private static void recalcular(No no) {
+        no.tamanho = 1 + tamanho(no.esquerda) + tamanho(no.direita);
+    }
+
+    // Separa os nós que vêm antes da chave dos que vêm depois
+    private static No[] dividir(No no, No chave) {
+        if (no == null) {
+            return new No[2];
+        }
+        if (comparar(no, chave) < 0) {
+            No[] partes = dividir(no.direita, chave);
+            no.direita = partes[0];
+            recalcular(no);
+            partes[0] = no;
+            return partes;
+        }
+        No[] partes = dividir(no.esquerda, chave);
+        no.esquerda = partes[1];
+        recalcular(no);
+        partes[1] = no;
+        return partes;
+    }
+
+    // Junta duas árvores em que todos os nós de a vêm antes dos de b
+    private static No juntar(No a, No b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.prioridade > b.prioridade) {
+            a.direita = juntar(a.direita, b);
+            recalcular(a);
+            return a;
+        }
+        b.esquerda = juntar(a, b.esquerda);
+        recalcular(b);
+        return b;
+    }
+
+    private static No remover(No no, No alvo) {
+        if (no == alvo) {
+            return juntar(no.esquerda, no.direita);
+        }
+        if (comparar(alvo, no) < 0) {
+            no.esquerda = remover(no.esquerda, alvo);
+        } else {
+            no.direita = remover(no.direita, alvo);
+        }
+        recalcular(no);
+        return no;
+    }
+}
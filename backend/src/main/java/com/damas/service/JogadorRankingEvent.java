@@ -0,0 +1,9 @@
+package com.damas.service;
+
+import com.damas.cluster.EventoCluster;
+
+/**
+ * Um jogador entrou no ranking (cadastro) ou saiu dele (conta desativada)
+ */
+public record JogadorRankingEvent(Long usuarioId, String username, int elo, boolean ativo) implements EventoCluster {
+}
@@ -1,10 +1,17 @@
 package com.damas.service;
 
+import com.damas.engine.Casas;
+import com.damas.engine.GeradorMovimentos;
+import com.damas.engine.ListaMovimentos;
+import com.damas.engine.Movimento;
+import com.damas.engine.Posicao;
+import com.damas.engine.TabelaFinais;
 import com.damas.model.Partida;
 import com.damas.model.Usuario;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -15,6 +22,24 @@ public class JogoDamasService {
 
     private static final int TAMANHO_TABULEIRO = 8;
     
+    // ObjectMapper é thread-safe depois de configurado; criar um por chamada custa caro
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    // Gerador e lista reaproveitados por thread para validar sem alocar
+    private static final ThreadLocal<GeradorMovimentos> GERADOR = ThreadLocal.withInitial(GeradorMovimentos::new);
+    private static final ThreadLocal<ListaMovimentos> MOVIMENTOS = ThreadLocal.withInitial(ListaMovimentos::new);
+    
+    private static final int OCORRENCIAS_PARA_EMPATE = 3;
+    
+    private final TabelaFinais tabelaFinais;
+    
+    // Lances (de cada jogador somados) só de damas e sem captura que encerram a partida empatada
+    @Value("${damas.empate.lances-de-dama:40}")
+    private int limiteLancesDeDama = 40;
+    
+    @Value("${damas.finais.adjudicar:true}")
+    private boolean adjudicar = true;
+    
     // 0 = vazio, 1 = peça branca, 2 = peça preta, 3 = dama branca, 4 = dama preta
     
     /**
@@ -49,12 +74,12 @@ public class JogoDamasService {
     }
     
     /**
-     * Converte o tabuleiro para formato JSON para armazenar no banco de dados
+     * Converte o tabuleiro para formato JSON (formato antigo de armazenamento,
+     * usado hoje só na migração para o tabuleiro compacto)
      */
     public String tabuleiroParaJson(int[][] tabuleiro) {
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            return mapper.writeValueAsString(tabuleiro);
+            return MAPPER.writeValueAsString(tabuleiro);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Erro ao converter tabuleiro para JSON", e);
         }
@@ -64,147 +89,74 @@ public class JogoDamasService {
      * Converte o JSON do banco de dados de volta para o formato do tabuleiro
      */
     public int[][] jsonParaTabuleiro(String json) {
-        ObjectMapper mapper = new ObjectMapper();
         try {
-            return mapper.readValue(json, int[][].class);
+            return MAPPER.readValue(json, int[][].class);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Erro ao converter JSON para tabuleiro", e);
         }
     }
     
+    /**
+     * Cria a posição inicial do jogo em bitboards
+     */
+    public Posicao criarPosicaoInicial() {
+        return Posicao.inicial();
+    }
+    
+    /**
+     * Converte o JSON do formato antigo diretamente para uma posição
+     */
+    public Posicao jsonParaPosicao(String json, boolean vezBrancas) {
+        return Posicao.deMatriz(jsonParaTabuleiro(json), vezBrancas);
+    }
+    
+    /**
+     * Converte uma posição para o JSON do formato antigo
+     */
+    public String posicaoParaJson(Posicao posicao) {
+        return tabuleiroParaJson(posicao.paraMatriz());
+    }
+    
     /**
      * Verifica se um movimento é válido
      */
     public boolean isMovimentoValido(int[][] tabuleiro, int linhaOrigem, int colunaOrigem, 
                                     int linhaDestino, int colunaDestino, boolean jogadorBranco) {
-        // Verificar se a posição de origem contém uma peça do jogador atual
-        int peca = tabuleiro[linhaOrigem][colunaOrigem];
-        
-        // Verifica se a peça pertence ao jogador atual
-        if (jogadorBranco && (peca != 1 && peca != 3)) {
-            return false;
-        }
-        if (!jogadorBranco && (peca != 2 && peca != 4)) {
-            return false;
-        }
-        
-        // Verifica se o destino está vazio
-        if (tabuleiro[linhaDestino][colunaDestino] != 0) {
-            return false;
-        }
-        
-        // Verificar se é um movimento diagonal
-        int distanciaLinha = Math.abs(linhaDestino - linhaOrigem);
-        int distanciaColuna = Math.abs(colunaDestino - colunaOrigem);
-        
-        if (distanciaLinha != distanciaColuna) {
-            return false;
-        }
-        
-        // Para peças normais (não damas)
-        if (peca == 1 || peca == 2) {
-            // Verifica a direção do movimento (peças só podem se mover para frente)
-            if (peca == 1 && linhaDestino >= linhaOrigem) {
-                return false; // Peças brancas só podem mover para cima
-            }
-            if (peca == 2 && linhaDestino <= linhaOrigem) {
-                return false; // Peças pretas só podem mover para baixo
-            }
-            
-            // Movimento simples (1 casa)
-            if (distanciaLinha == 1) {
-                return true;
-            }
-            
-            // Movimento de captura (2 casas)
-            if (distanciaLinha == 2) {
-                // Calcula a posição da peça a ser capturada
-                int linhaMeio = (linhaOrigem + linhaDestino) / 2;
-                int colunaMeio = (colunaOrigem + colunaDestino) / 2;
-                
-                int pecaMeio = tabuleiro[linhaMeio][colunaMeio];
-                
-                // Verifica se há uma peça adversária no meio
-                if (jogadorBranco && (pecaMeio == 2 || pecaMeio == 4)) {
-                    return true; // Peça branca capturando peça preta
-                }
-                if (!jogadorBranco && (pecaMeio == 1 || pecaMeio == 3)) {
-                    return true; // Peça preta capturando peça branca
-                }
-            }
-        }
-        
-        // Para damas
-        if (peca == 3 || peca == 4) {
-            // Movimento simples (qualquer número de casas na diagonal)
-            if (isCaminhoLivre(tabuleiro, linhaOrigem, colunaOrigem, linhaDestino, colunaDestino)) {
-                return true;
-            }
-            
-            // Movimento de captura
-            List<int[]> pecasCapturadas = encontrarPecasCapturadas(tabuleiro, linhaOrigem, colunaOrigem, 
-                                                                   linhaDestino, colunaDestino, jogadorBranco);
-            return pecasCapturadas.size() == 1;
-        }
-        
-        return false;
+        Posicao posicao = Posicao.deMatriz(tabuleiro, jogadorBranco);
+        return validarMovimento(posicao, linhaOrigem, colunaOrigem, linhaDestino, colunaDestino) != Movimento.NENHUM;
     }
     
     /**
-     * Verifica se o caminho está livre para movimento de dama
+     * Valida um movimento do jogador da vez e retorna sua codificação
+     * ({@link Movimento}), ou {@link Movimento#NENHUM} se não estiver entre
+     * os movimentos legais da posição. Uma sequência de capturas é informada
+     * pela casa de origem e pela casa final; se mais de uma sequência legal
+     * ligar as duas casas, a primeira gerada é usada.
      */
-    private boolean isCaminhoLivre(int[][] tabuleiro, int linhaOrigem, int colunaOrigem, 
-                                  int linhaDestino, int colunaDestino) {
-        int incrementoLinha = Integer.compare(linhaDestino, linhaOrigem);
-        int incrementoColuna = Integer.compare(colunaDestino, colunaOrigem);
-        
-        int linha = linhaOrigem + incrementoLinha;
-        int coluna = colunaOrigem + incrementoColuna;
+    public long validarMovimento(Posicao posicao, int linhaOrigem, int colunaOrigem, 
+                                 int linhaDestino, int colunaDestino) {
+        int origem = Casas.indice(linhaOrigem, colunaOrigem);
+        int destino = Casas.indice(linhaDestino, colunaDestino);
+        if (origem < 0 || destino < 0) {
+            return Movimento.NENHUM;
+        }
         
-        while (linha != linhaDestino && coluna != colunaDestino) {
-            if (tabuleiro[linha][coluna] != 0) {
-                return false;
+        ListaMovimentos legais = MOVIMENTOS.get();
+        GERADOR.get().gerar(posicao, legais);
+        for (int i = 0; i < legais.tamanho(); i++) {
+            long movimento = legais.get(i);
+            if (Movimento.origem(movimento) == origem && Movimento.destino(movimento) == destino) {
+                return movimento;
             }
-            linha += incrementoLinha;
-            coluna += incrementoColuna;
         }
-        
-        return true;
+        return Movimento.NENHUM;
     }
     
     /**
-     * Encontra peças adversárias que seriam capturadas em um movimento
+     * Lista todos os movimentos legais do jogador da vez
      */
-    private List<int[]> encontrarPecasCapturadas(int[][] tabuleiro, int linhaOrigem, int colunaOrigem,
-                                                int linhaDestino, int colunaDestino, boolean jogadorBranco) {
-        List<int[]> pecasCapturadas = new ArrayList<>();
-        
-        int incrementoLinha = Integer.compare(linhaDestino, linhaOrigem);
-        int incrementoColuna = Integer.compare(colunaDestino, colunaOrigem);
-        
-        int linha = linhaOrigem + incrementoLinha;
-        int coluna = colunaOrigem + incrementoColuna;
-        
-        while (linha != linhaDestino && coluna != colunaDestino) {
-            int peca = tabuleiro[linha][coluna];
-            
-            if (peca != 0) {
-                boolean pecaAdversaria = (jogadorBranco && (peca == 2 || peca == 4)) || 
-                                         (!jogadorBranco && (peca == 1 || peca == 3));
-                
-                if (pecaAdversaria) {
-                    pecasCapturadas.add(new int[]{linha, coluna});
-                } else {
-                    // Peça própria no caminho, captura inválida
-                    return Collections.emptyList();
-                }
-            }
-            
-            linha += incrementoLinha;
-            coluna += incrementoColuna;
-        }
-        
-        return pecasCapturadas;
+    public int gerarMovimentosLegais(Posicao posicao, ListaMovimentos lista) {
+        return GERADOR.get().gerar(posicao, lista);
     }
     
     /**
@@ -212,97 +164,121 @@ public class JogoDamasService {
      */
     public int[][] executarMovimento(int[][] tabuleiro, int linhaOrigem, int colunaOrigem, 
                                    int linhaDestino, int colunaDestino, boolean jogadorBranco) {
-        // Copia o tabuleiro para não modificar o original
-        int[][] novoTabuleiro = new int[TAMANHO_TABULEIRO][TAMANHO_TABULEIRO];
-        for (int i = 0; i < TAMANHO_TABULEIRO; i++) {
-            System.arraycopy(tabuleiro[i], 0, novoTabuleiro[i], 0, TAMANHO_TABULEIRO);
+        Posicao posicao = Posicao.deMatriz(tabuleiro, jogadorBranco);
+        long movimento = validarMovimento(posicao, linhaOrigem, colunaOrigem, linhaDestino, colunaDestino);
+        if (movimento == Movimento.NENHUM) {
+            throw new IllegalArgumentException("Movimento inválido");
         }
-        
-        // Obtém a peça a ser movida
-        int peca = novoTabuleiro[linhaOrigem][colunaOrigem];
-        
-        // Move a peça
-        novoTabuleiro[linhaDestino][colunaDestino] = peca;
-        novoTabuleiro[linhaOrigem][colunaOrigem] = 0;
-        
-        // Captura peças adversárias (se houver)
-        if (peca == 1 || peca == 2) {
-            // Para peças normais
-            if (Math.abs(linhaDestino - linhaOrigem) == 2) {
-                int linhaMeio = (linhaOrigem + linhaDestino) / 2;
-                int colunaMeio = (colunaOrigem + colunaDestino) / 2;
-                novoTabuleiro[linhaMeio][colunaMeio] = 0; // Remove a peça capturada
-            }
-        } else {
-            // Para damas
-            List<int[]> pecasCapturadas = encontrarPecasCapturadas(tabuleiro, linhaOrigem, colunaOrigem, 
-                                                                 linhaDestino, colunaDestino, jogadorBranco);
-            for (int[] posicao : pecasCapturadas) {
-                novoTabuleiro[posicao[0]][posicao[1]] = 0; // Remove a peça capturada
-            }
-        }
-        
-        // Verifica promoção para dama (quando uma peça chega ao lado oposto do tabuleiro)
-        if (peca == 1 && linhaDestino == 0) {
-            novoTabuleiro[linhaDestino][colunaDestino] = 3; // Promove peça branca para dama
-        } else if (peca == 2 && linhaDestino == TAMANHO_TABULEIRO - 1) {
-            novoTabuleiro[linhaDestino][colunaDestino] = 4; // Promove peça preta para dama
-        }
-        
-        return novoTabuleiro;
+        posicao.aplicar(movimento);
+        return posicao.paraMatriz();
     }
     
     /**
-     * Verifica se o jogo acabou (um jogador não tem mais peças ou não pode mais se mover)
+     * Executa um movimento já validado, alterando a posição no lugar
      */
+    public void executarMovimento(Posicao posicao, long movimento) {
+        posicao.aplicar(movimento);
+    }
+    
+    /**
+     * Verifica o fim do jogo sempre com as brancas na vez
+     *
+     * @deprecated um bloqueio das pretas passa despercebido; use
+     * {@link #isJogoAcabou(int[][], boolean)} com o jogador da vez
+     */
+    @Deprecated
     public boolean isJogoAcabou(int[][] tabuleiro) {
-        boolean temPecasBrancas = false;
-        boolean temPecasPretas = false;
-        
-        // Verifica se ambos os jogadores têm peças
-        for (int linha = 0; linha < TAMANHO_TABULEIRO; linha++) {
-            for (int coluna = 0; coluna < TAMANHO_TABULEIRO; coluna++) {
-                int peca = tabuleiro[linha][coluna];
-                if (peca == 1 || peca == 3) {
-                    temPecasBrancas = true;
-                } else if (peca == 2 || peca == 4) {
-                    temPecasPretas = true;
-                }
-                
-                if (temPecasBrancas && temPecasPretas) {
-                    return false; // O jogo continua se ambos têm peças
-                }
-            }
-        }
-        
-        return true; // O jogo acabou se um dos jogadores não tem mais peças
+        return isJogoAcabou(tabuleiro, true);
     }
     
     /**
-     * Determina o vencedor quando o jogo acabou
+     * Verifica se o jogo acabou (um jogador não tem mais peças ou o jogador
+     * da vez não pode mais se mover)
      */
+    public boolean isJogoAcabou(int[][] tabuleiro, boolean jogadorBranco) {
+        return isJogoAcabou(Posicao.deMatriz(tabuleiro, jogadorBranco));
+    }
+    
+    /**
+     * Fim de jogo depois de um lance: um lado sem peças ou o jogador da vez
+     * sem movimento legal. As peças saem das máscaras de bits e o bloqueio é
+     * verificado sem gerar todos os movimentos.
+     */
+    public boolean isJogoAcabou(Posicao posicao) {
+        return posicao.getPecasBrancas() == 0 || posicao.getPecasPretas() == 0 || !temMovimento(posicao);
+    }
+    
+    /**
+     * Determina o vencedor sempre com as brancas na vez
+     *
+     * @deprecated um bloqueio das pretas passa despercebido; use
+     * {@link #determinarVencedor(int[][], boolean, Usuario, Usuario)} com o jogador da vez
+     */
+    @Deprecated
     public Usuario determinarVencedor(int[][] tabuleiro, Usuario jogadorBrancas, Usuario jogadorPretas) {
-        boolean temPecasBrancas = false;
-        boolean temPecasPretas = false;
-        
-        for (int linha = 0; linha < TAMANHO_TABULEIRO; linha++) {
-            for (int coluna = 0; coluna < TAMANHO_TABULEIRO; coluna++) {
-                int peca = tabuleiro[linha][coluna];
-                if (peca == 1 || peca == 3) {
-                    temPecasBrancas = true;
-                } else if (peca == 2 || peca == 4) {
-                    temPecasPretas = true;
-                }
-            }
-        }
+        return determinarVencedor(tabuleiro, true, jogadorBrancas, jogadorPretas);
+    }
+    
+    /**
+     * Determina o vencedor quando o jogo acabou, com o jogador da vez
+     */
+    public Usuario determinarVencedor(int[][] tabuleiro, boolean jogadorBranco,
+                                      Usuario jogadorBrancas, Usuario jogadorPretas) {
+        return determinarVencedor(Posicao.deMatriz(tabuleiro, jogadorBranco), jogadorBrancas, jogadorPretas);
+    }
+    
+    /**
+     * Vencedor da posição final: quem ainda tem peças, ou, com os dois lados
+     * com peças, o adversário do jogador da vez bloqueado. Null se o jogo não acabou.
+     */
+    public Usuario determinarVencedor(Posicao posicao, Usuario jogadorBrancas, Usuario jogadorPretas) {
+        boolean temPecasBrancas = posicao.getPecasBrancas() != 0;
+        boolean temPecasPretas = posicao.getPecasPretas() != 0;
         
         if (temPecasBrancas && !temPecasPretas) {
             return jogadorBrancas;
         } else if (!temPecasBrancas && temPecasPretas) {
             return jogadorPretas;
+        } else if (temPecasBrancas && !temMovimento(posicao)) {
+            // Sem movimento legal perde quem está na vez
+            return posicao.isVezBrancas() ? jogadorPretas : jogadorBrancas;
         }
         
-        return null; // Empate ou jogo ainda não acabou
+        return null; // Jogo ainda não acabou
+    }
+    
+    private boolean temMovimento(Posicao posicao) {
+        return GERADOR.get().temMovimento(posicao, MOVIMENTOS.get());
+    }
+    
+    /**
+     * Verifica as condições de empate após um lance: a mesma posição repetida
+     * três vezes ou o limite de lances seguidos só de damas sem captura
+     */
+    public boolean isEmpate(int ocorrenciasPosicao, int lancesSemCaptura) {
+        return ocorrenciasPosicao >= OCORRENCIAS_PARA_EMPATE || lancesSemCaptura >= limiteLancesDeDama;
+    }
+    
+    /**
+     * Resultado da posição pela tabela de finais, ou null se ela não decide:
+     * posição fora da tabela ou vitória longa demais para acontecer antes do
+     * empate por lances de dama. A tabela ignora essa regra, então só
+     * adjudica a vitória que termina dentro dos lances que ainda restam.
+     */
+    public Partida.ResultadoPartida adjudicar(Posicao posicao, int lancesSemCaptura) {
+        if (!adjudicar) {
+            return null;
+        }
+        int valor = tabelaFinais.consultar(posicao);
+        if (valor == TabelaFinais.EMPATE) {
+            return Partida.ResultadoPartida.EMPATE;
+        }
+        if (valor == TabelaFinais.FORA || valor > limiteLancesDeDama - lancesSemCaptura) {
+            return null;
+        }
+        // Valor do ponto de vista de quem joga
+        boolean vencemBrancas = TabelaFinais.isVitoria(valor) == posicao.isVezBrancas();
+        return vencemBrancas ? Partida.ResultadoPartida.VITORIA_BRANCAS : Partida.ResultadoPartida.VITORIA_PRETAS;
     }
     
     /**
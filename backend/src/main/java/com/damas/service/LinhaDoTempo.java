@@ -0,0 +1,112 @@
+package com.damas.service;
+
+import com.damas.engine.Movimento;
+import com.damas.engine.Posicao;
+import com.damas.engine.TabuleiroCompacto;
+import com.damas.model.Lance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lances de uma partida com retratos do tabuleiro a cada {@code intervalo}
+ * lances. A posição depois de qualquer lance sai do retrato anterior mais no
+ * máximo {@code intervalo - 1} lances aplicados, sem refazer a partida desde
+ * o começo. Imutável: lances novos geram outra linha do tempo
+ * ({@link #estender(List)}), que aproveita os retratos desta.
+ */
+public final class LinhaDoTempo {
+
+    private final int intervalo;
+    private final List<Lance> lances;
+    private final long[] movimentos; // movimentos[i] = lance de ply i + 1
+    private final TabuleiroCompacto[] retratos; // retratos[i] = tabuleiro depois do lance i * intervalo
+
+    private LinhaDoTempo(int intervalo, List<Lance> lances, long[] movimentos, TabuleiroCompacto[] retratos) {
+        this.intervalo = intervalo;
+        this.lances = lances;
+        this.movimentos = movimentos;
+        this.retratos = retratos;
+    }
+
+    /**
+     * Linha do tempo de uma partida a partir da posição inicial
+     *
+     * @param lances lances da partida, em ordem de ply
+     */
+    public static LinhaDoTempo de(List<Lance> lances, int intervalo) {
+        LinhaDoTempo vazia = new LinhaDoTempo(intervalo, List.of(), new long[0],
+                new TabuleiroCompacto[]{TabuleiroCompacto.inicial()});
+        return vazia.estender(lances);
+    }
+
+    /**
+     * Linha do tempo com os lances seguintes aos desta: só eles são aplicados
+     *
+     * @param novos lances a partir do ply {@link #getTotalLances()} + 1
+     */
+    public LinhaDoTempo estender(List<Lance> novos) {
+        if (novos.isEmpty()) {
+            return this;
+        }
+        int total = movimentos.length + novos.size();
+        long[] todosMovimentos = new long[total];
+        System.arraycopy(movimentos, 0, todosMovimentos, 0, movimentos.length);
+        TabuleiroCompacto[] todosRetratos = new TabuleiroCompacto[total / intervalo + 1];
+        System.arraycopy(retratos, 0, todosRetratos, 0, retratos.length);
+
+        Posicao posicao = posicao(movimentos.length);
+        for (int ply = movimentos.length + 1; ply <= total; ply++) {
+            Lance lance = novos.get(ply - movimentos.length - 1);
+            if (lance.getPly() != ply) {
+                throw new IllegalStateException("Lance " + lance.getPly() + " fora de ordem, esperado " + ply);
+            }
+            long movimento = Movimento.criar(lance.getOrigem(), lance.getDestino(), lance.getCapturadas());
+            todosMovimentos[ply - 1] = movimento;
+            posicao.aplicar(movimento);
+            if (ply % intervalo == 0) {
+                todosRetratos[ply / intervalo] = TabuleiroCompacto.de(posicao);
+            }
+        }
+
+        List<Lance> todosLances = new ArrayList<>(total);
+        todosLances.addAll(lances);
+        todosLances.addAll(novos);
+        return new LinhaDoTempo(intervalo, Collections.unmodifiableList(todosLances), todosMovimentos, todosRetratos);
+    }
+
+    /**
+     * Posição depois do lance {@code ply} (0 = posição inicial), numa cópia nova
+     */
+    public Posicao posicao(int ply) {
+        if (ply < 0 || ply > movimentos.length) {
+            throw new IndexOutOfBoundsException("Lance " + ply + " fora da partida (0 a " + movimentos.length + ")");
+        }
+        int base = ply / intervalo * intervalo;
+        // As brancas jogam os lances ímpares: depois de um número par de lances a vez é delas
+        Posicao posicao = retratos[ply / intervalo].paraPosicao(base % 2 == 0);
+        for (int i = base; i < ply; i++) {
+            posicao.aplicar(movimentos[i]);
+        }
+        return posicao;
+    }
+
+    /**
+     * Lance de número {@code ply}, de 1 a {@link #getTotalLances()}
+     */
+    public Lance lance(int ply) {
+        return lances.get(ply - 1);
+    }
+
+    /**
+     * Movimento do lance {@code ply}, no formato de {@link Movimento}
+     */
+    public long movimento(int ply) {
+        return movimentos[ply - 1];
+    }
+
+    public int getTotalLances() {
+        return movimentos.length;
+    }
+}
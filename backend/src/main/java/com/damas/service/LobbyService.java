@@ -0,0 +1,283 @@
+package com.damas.service;
+
+import com.damas.dto.AtualizacaoLobbyDTO;
+import com.damas.dto.EntradaLobbyDTO;
+import com.damas.dto.NovaPartidaRequest;
+import com.damas.dto.PartidaDTO;
+import com.damas.dto.PartidaResumoDTO;
+import com.damas.model.Partida;
+import com.damas.model.Usuario;
+import com.damas.repository.PartidaRepository;
+import com.damas.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lobby em memória: partidas públicas esperando o segundo jogador, indexadas
+ * por controle de tempo e faixa de pontuação. As mudanças são publicadas em
+ * /topic/lobby, e quem se inscreve em /app/lobby recebe a lista completa uma
+ * vez, no lugar de consultar o banco periodicamente.
+ *
+ * Entrar na fila ({@link #buscarPartida}) é pedir um adversário: se há uma
+ * partida compatível aberta, o jogador entra nela; senão, abre a sua e espera
+ * no lobby até alguém ser pareado com ele.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LobbyService {
+
+    // Controle de tempo das partidas criadas sem tempo definido (o padrão de Partida)
+    private static final int TEMPO_PADRAO = 600;
+
+    // Partidas candidatas tentadas antes de desistir e abrir uma nova
+    private static final int TENTATIVAS_PAREAMENTO = 3;
+
+    private final PartidaService partidaService;
+    private final PartidaRepository partidaRepository;
+    private final UsuarioRepository usuarioRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${damas.lobby.largura-faixa:100}")
+    private int larguraFaixa = 100;
+
+    @Value("${damas.lobby.faixas-tolerancia:2}")
+    private int faixasTolerancia = 2;
+
+    // tempo -> faixa -> partidas em ordem de chegada; protegidos pela trava
+    private final Map<Integer, NavigableMap<Integer, LinkedHashMap<Long, EntradaLobbyDTO>>> indice = new HashMap<>();
+    private final Map<Long, EntradaLobbyDTO> entradas = new HashMap<>();
+    private final ReentrantLock trava = new ReentrantLock();
+
+    // Cópia imutável para as leituras, que são muito mais frequentes que as mudanças
+    private volatile List<EntradaLobbyDTO> instantaneo = List.of();
+
+    // Um pareamento por vez em cada controle de tempo, para dois jogadores
+    // chegando juntos não abrirem duas partidas em vez de jogar entre si
+    private final ConcurrentHashMap<Integer, ReentrantLock> travasPareamento = new ConcurrentHashMap<>();
+
+    /**
+     * Reconstrói o lobby a partir das partidas que já esperavam no banco
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        for (Partida partida : partidaRepository.findPartidasAguardando()) {
+            if (!partida.isPrivada()) {
+                adicionar(criarEntrada(partida), false);
+            }
+        }
+    }
+
+    public List<EntradaLobbyDTO> listar(Integer tempoPartida) {
+        List<EntradaLobbyDTO> lista = instantaneo;
+        if (tempoPartida == null) {
+            return lista;
+        }
+        return lista.stream().filter(entrada -> entrada.getTempoPartida() == tempoPartida).toList();
+    }
+
+    /**
+     * Pareia o jogador com a partida aberta mais antiga do mesmo controle de
+     * tempo, na faixa dele ou nas vizinhas; se não houver, abre uma partida
+     */
+    public PartidaDTO buscarPartida(Long usuarioId, Integer tempoPartida) {
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        int tempo = tempoPartida != null ? tempoPartida : TEMPO_PADRAO;
+        int faixa = calcularFaixa(usuario.getElo());
+
+        ReentrantLock pareamento = travasPareamento.computeIfAbsent(tempo, t -> new ReentrantLock());
+        pareamento.lock();
+        try {
+            // Quem já espera neste controle de tempo continua na mesma partida
+            EntradaLobbyDTO propria = buscarPropria(tempo, usuarioId);
+            if (propria != null) {
+                return partidaService.obterPartida(propria.getId());
+            }
+
+            for (int tentativa = 0; tentativa < TENTATIVAS_PAREAMENTO; tentativa++) {
+                EntradaLobbyDTO adversario = reservarAdversario(tempo, faixa, usuarioId);
+                if (adversario == null) {
+                    break;
+                }
+                try {
+                    return partidaService.entrarPartida(adversario.getId(), usuarioId);
+                } catch (RuntimeException e) {
+                    // Alguém entrou por fora ou a partida foi cancelada; tenta a próxima
+                    log.debug("Partida {} não está mais disponível: {}", adversario.getId(), e.getMessage());
+                }
+            }
+
+            return partidaService.criarPartida(NovaPartidaRequest.builder().tempoPartida(tempo).build(), usuarioId);
+        } finally {
+            pareamento.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAbrirPartida(PartidaAbertaEvent evento) {
+        EntradaLobbyDTO entrada = evento.entrada();
+        entrada.setFaixa(calcularFaixa(entrada.getElo()));
+        adicionar(entrada, true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoFecharPartida(PartidaFechadaEvent evento) {
+        remover(evento.partidaId());
+    }
+
+    private int calcularFaixa(int elo) {
+        return Math.floorDiv(elo, larguraFaixa);
+    }
+
+    private EntradaLobbyDTO criarEntrada(Partida partida) {
+        Usuario criador = partida.getJogadorBrancas();
+        return EntradaLobbyDTO.builder()
+                .id(partida.getId())
+                .codigoPartida(partida.getCodigoPartida())
+                .jogadorBrancas(new PartidaResumoDTO.Jogador(criador.getId(), criador.getUsername()))
+                .elo(criador.getElo())
+                .faixa(calcularFaixa(criador.getElo()))
+                .tempoPartida(partida.getTempoJogadorBrancas() != null ? partida.getTempoJogadorBrancas() : TEMPO_PADRAO)
+                .dataInicio(partida.getDataInicio())
+                .build();
+    }
+
+    private void adicionar(EntradaLobbyDTO entrada, boolean notificar) {
+        trava.lock();
+        try {
+            if (entradas.putIfAbsent(entrada.getId(), entrada) != null) {
+                return;
+            }
+            indice.computeIfAbsent(entrada.getTempoPartida(), t -> new TreeMap<>())
+                    .computeIfAbsent(entrada.getFaixa(), f -> new LinkedHashMap<>())
+                    .put(entrada.getId(), entrada);
+            instantaneo = List.copyOf(entradas.values());
+        } finally {
+            trava.unlock();
+        }
+
+        if (notificar) {
+            messagingTemplate.convertAndSend("/topic/lobby",
+                    new AtualizacaoLobbyDTO(AtualizacaoLobbyDTO.Tipo.ABERTA, entrada.getId(), entrada));
+        }
+    }
+
+    private void remover(Long partidaId) {
+        trava.lock();
+        try {
+            if (!removerDoIndice(partidaId)) {
+                return;
+            }
+        } finally {
+            trava.unlock();
+        }
+
+        messagingTemplate.convertAndSend("/topic/lobby",
+                new AtualizacaoLobbyDTO(AtualizacaoLobbyDTO.Tipo.FECHADA, partidaId, null));
+    }
+
+    // Chamado com a trava do lobby
+    private boolean removerDoIndice(Long partidaId) {
+        EntradaLobbyDTO entrada = entradas.remove(partidaId);
+        if (entrada == null) {
+            return false;
+        }
+        NavigableMap<Integer, LinkedHashMap<Long, EntradaLobbyDTO>> faixas = indice.get(entrada.getTempoPartida());
+        LinkedHashMap<Long, EntradaLobbyDTO> daFaixa = faixas.get(entrada.getFaixa());
+        daFaixa.remove(partidaId);
+        if (daFaixa.isEmpty()) {
+            faixas.remove(entrada.getFaixa());
+            if (faixas.isEmpty()) {
+                indice.remove(entrada.getTempoPartida());
+            }
+        }
+        instantaneo = List.copyOf(entradas.values());
+        return true;
+    }
+
+    private EntradaLobbyDTO buscarPropria(int tempo, Long usuarioId) {
+        trava.lock();
+        try {
+            NavigableMap<Integer, LinkedHashMap<Long, EntradaLobbyDTO>> faixas = indice.get(tempo);
+            if (faixas == null) {
+                return null;
+            }
+            for (LinkedHashMap<Long, EntradaLobbyDTO> daFaixa : faixas.values()) {
+                for (EntradaLobbyDTO entrada : daFaixa.values()) {
+                    if (entrada.getJogadorBrancas().getId().equals(usuarioId)) {
+                        return entrada;
+                    }
+                }
+            }
+            return null;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Retira do lobby a partida mais antiga de outro jogador, procurando da
+     * faixa do jogador para as vizinhas (0, -1, +1, -2, +2...)
+     */
+    private EntradaLobbyDTO reservarAdversario(int tempo, int faixa, Long usuarioId) {
+        EntradaLobbyDTO reservada = null;
+        trava.lock();
+        try {
+            NavigableMap<Integer, LinkedHashMap<Long, EntradaLobbyDTO>> faixas = indice.get(tempo);
+            if (faixas == null) {
+                return null;
+            }
+            for (int distancia = 0; distancia <= faixasTolerancia && reservada == null; distancia++) {
+                reservada = primeiraDeOutro(faixas.get(faixa - distancia), usuarioId);
+                if (reservada == null && distancia > 0) {
+                    reservada = primeiraDeOutro(faixas.get(faixa + distancia), usuarioId);
+                }
+            }
+            if (reservada != null) {
+                removerDoIndice(reservada.getId());
+            }
+        } finally {
+            trava.unlock();
+        }
+
+        if (reservada != null) {
+            messagingTemplate.convertAndSend("/topic/lobby",
+                    new AtualizacaoLobbyDTO(AtualizacaoLobbyDTO.Tipo.FECHADA, reservada.getId(), null));
+        }
+        return reservada;
+    }
+
+    private EntradaLobbyDTO primeiraDeOutro(LinkedHashMap<Long, EntradaLobbyDTO> daFaixa, Long usuarioId) {
+        if (daFaixa == null) {
+            return null;
+        }
+        Iterator<EntradaLobbyDTO> iterador = daFaixa.values().iterator();
+        while (iterador.hasNext()) {
+            EntradaLobbyDTO entrada = iterador.next();
+            if (!entrada.getJogadorBrancas().getId().equals(usuarioId)) {
+                return entrada;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+package com.damas.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Medidores do caminho quente das partidas, criados uma vez para não
+ * procurá-los no registro a cada lance. As durações são medidas com
+ * {@link System#nanoTime()}: cada fase começa onde a anterior terminou.
+ */
+@Component
+public class MetricasPartidas {
+
+    /**
+     * Fases de um lance, na ordem em que acontecem
+     */
+    public enum Fase {
+        CARREGAR,   // esperar a trava e obter a partida em memória (ou carregá-la do banco)
+        VALIDAR,    // vez, sequência e legalidade do lance
+        APLICAR,    // executar o lance, repetição, fim de jogo e relógio
+        SERIALIZAR, // montar o DTO de resposta e o delta
+        GRAVAR,     // gravação síncrona, só quando o lance encerra a partida
+        PUBLICAR    // envio do delta aos inscritos (e aos outros nós)
+    }
+
+    private final Map<Fase, Timer> fases = new EnumMap<>(Fase.class);
+    private final Counter lances;
+    private final Map<String, Counter> encerradas = new ConcurrentHashMap<>();
+    private final Timer gravacaoLote;
+    private final DistributionSummary tamanhoLote;
+    private final Timer buscaComputador;
+    private final MeterRegistry registry;
+
+    public MetricasPartidas(MeterRegistry registry) {
+        this.registry = registry;
+        for (Fase fase : Fase.values()) {
+            fases.put(fase, Timer.builder("damas.lance.fase")
+                    .description("Duração de cada fase do processamento de um lance")
+                    .tag("fase", fase.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        lances = Counter.builder("damas.lances")
+                .description("Lances aceitos")
+                .register(registry);
+        gravacaoLote = Timer.builder("damas.persistencia.lote")
+                .description("Gravação de um lote de partidas (write-behind)")
+                .publishPercentileHistogram()
+                .register(registry);
+        tamanhoLote = DistributionSummary.builder("damas.persistencia.lote.partidas")
+                .description("Partidas por lote gravado")
+                .register(registry);
+        buscaComputador = Timer.builder("damas.computador.busca")
+                .description("Busca do melhor lance pelo motor")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Registra a fase que começou em {@code inicio} e devolve o instante atual,
+     * início da próxima fase
+     */
+    public long registrar(Fase fase, long inicio) {
+        long agora = System.nanoTime();
+        fases.get(fase).record(agora - inicio, TimeUnit.NANOSECONDS);
+        return agora;
+    }
+
+    public void contarLance() {
+        lances.increment();
+    }
+
+    /**
+     * Conta uma partida encerrada pelo motivo dado (lance, empate, adjudicacao, desistencia, tempo)
+     */
+    public void contarEncerrada(String motivo) {
+        encerradas.computeIfAbsent(motivo, m -> Counter.builder("damas.partidas.encerradas")
+                .description("Partidas encerradas, por motivo")
+                .tag("motivo", m)
+                .register(registry)).increment();
+    }
+
+    public void registrarGravacaoLote(long inicio, int partidas) {
+        gravacaoLote.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        tamanhoLote.record(partidas);
+    }
+
+    public void registrarBusca(long inicio) {
+        buscaComputador.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,212 @@
+package com.damas.service;
+
+import com.damas.engine.Casas;
+import com.damas.engine.Movimento;
+import com.damas.engine.Posicao;
+import com.damas.engine.TabuleiroCompacto;
+import com.damas.model.Lance;
+import com.damas.model.Usuario;
+import com.damas.repository.LanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Migra, em lotes e na subida da aplicação, partidas gravadas nos formatos
+ * antigos. Cada migração só roda se a coluna antiga ainda existir:
+ * <ul>
+ *   <li>estado_tabuleiro (JSON int[][] em TEXT) para a coluna binária tabuleiro;</li>
+ *   <li>movimento_historico ("lo,co:ld,cd;" em TEXT) para a tabela lances;</li>
+ *   <li>usuarios.pontuacao (10 pontos por vitória) é guardada como
+ *   pontuacao_legada: o Elo fica na coluna elo, criada com 1200 para todas
+ *   as contas.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MigracaoLegadoService {
+
+    private static final int TAMANHO_LOTE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JogoDamasService jogoDamasService;
+    private final LanceRepository lanceRepository;
+
+    @Order(0)
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrar() {
+        if (existeColuna("partidas", "estado_tabuleiro")) {
+            migrarTabuleirosJson();
+        }
+        if (existeColuna("partidas", "movimento_historico")) {
+            migrarHistoricosTexto();
+        }
+        if (existeColuna("usuarios", "pontuacao")) {
+            guardarPontuacaoLegada();
+        }
+    }
+
+    private void migrarTabuleirosJson() {
+        int total = 0;
+        List<Object[]> lote;
+        do {
+            lote = jdbcTemplate.query(
+                    "SELECT id, estado_tabuleiro FROM partidas "
+                            + "WHERE tabuleiro IS NULL AND estado_tabuleiro IS NOT NULL LIMIT " + TAMANHO_LOTE,
+                    (rs, i) -> new Object[]{converterTabuleiro(rs.getString(2)), rs.getLong(1)});
+            if (!lote.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE partidas SET tabuleiro = ?, estado_tabuleiro = NULL WHERE id = ?", lote);
+                total += lote.size();
+            }
+        } while (lote.size() == TAMANHO_LOTE);
+
+        if (total > 0) {
+            log.info("{} partidas migradas do tabuleiro JSON para o formato compacto", total);
+        }
+    }
+
+    private void migrarHistoricosTexto() {
+        int total = 0;
+        int ignorados = 0;
+        List<Object[]> lote;
+        do {
+            lote = jdbcTemplate.query(
+                    "SELECT id, movimento_historico, data_inicio FROM partidas "
+                            + "WHERE movimento_historico IS NOT NULL AND movimento_historico <> '' LIMIT " + TAMANHO_LOTE,
+                    (rs, i) -> new Object[]{rs.getLong(1), rs.getString(2), rs.getTimestamp(3)});
+            for (Object[] partida : lote) {
+                ignorados += migrarHistorico((Long) partida[0], (String) partida[1], (Timestamp) partida[2]);
+            }
+            total += lote.size();
+        } while (lote.size() == TAMANHO_LOTE);
+
+        if (total > 0) {
+            log.info("{} históricos de partida migrados para a tabela de lances", total);
+        }
+        if (ignorados > 0) {
+            log.warn("{} lances ilegíveis ou fora do tabuleiro ignorados na migração dos históricos", ignorados);
+        }
+    }
+
+    /**
+     * A pontuação antiga não vira Elo: todos recomeçam em 1200 pelo padrão da
+     * coluna elo. A coluna antiga é NOT NULL sem padrão e, como está, impediria
+     * o cadastro de novos usuários; ela é renomeada e passa a aceitar nulo, sem
+     * perder os valores. Apagá-la fica a cargo do operador (ver o README).
+     */
+    private void guardarPontuacaoLegada() {
+        Integer contas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM usuarios", Integer.class);
+        jdbcTemplate.execute("ALTER TABLE usuarios RENAME COLUMN pontuacao TO pontuacao_legada");
+        jdbcTemplate.execute("ALTER TABLE usuarios ALTER COLUMN pontuacao_legada DROP NOT NULL");
+        log.info("Pontuação antiga guardada em usuarios.pontuacao_legada: {} contas recomeçam com Elo {}",
+                contas, Usuario.ELO_INICIAL);
+    }
+
+    /**
+     * Refaz a partida a partir da posição inicial para recuperar capturas e
+     * promoções. Lances que não passam nas regras atuais (partidas jogadas
+     * com a validação antiga) são gravados sem essas informações. Lances
+     * ilegíveis ou com casas fora do tabuleiro são ignorados: um histórico
+     * corrompido não pode impedir a aplicação de subir.
+     *
+     * @return quantos lances foram ignorados
+     */
+    private int migrarHistorico(Long partidaId, String historico, Timestamp dataInicio) {
+        LocalDateTime dataHora = dataInicio != null ? dataInicio.toLocalDateTime() : LocalDateTime.now();
+        Posicao posicao = Posicao.inicial();
+        boolean reproduzindo = true;
+        List<Lance> lances = new ArrayList<>();
+        int ignorados = 0;
+
+        for (String texto : historico.split(";")) {
+            String[] casas = texto.trim().split("[,:]");
+            if (casas.length != 4) {
+                continue;
+            }
+            int linhaOrigem, colunaOrigem, linhaDestino, colunaDestino;
+            try {
+                linhaOrigem = Integer.parseInt(casas[0].trim());
+                colunaOrigem = Integer.parseInt(casas[1].trim());
+                linhaDestino = Integer.parseInt(casas[2].trim());
+                colunaDestino = Integer.parseInt(casas[3].trim());
+            } catch (NumberFormatException e) {
+                ignorados++;
+                reproduzindo = false;
+                continue;
+            }
+            int origem = Casas.indice(linhaOrigem, colunaOrigem);
+            int destino = Casas.indice(linhaDestino, colunaDestino);
+            if (origem < 0 || destino < 0) {
+                ignorados++;
+                reproduzindo = false;
+                continue;
+            }
+
+            long movimento = reproduzindo
+                    ? jogoDamasService.validarMovimento(posicao, linhaOrigem, colunaOrigem, linhaDestino, colunaDestino)
+                    : Movimento.NENHUM;
+            int capturadas = 0;
+            boolean promocao = false;
+            if (movimento != Movimento.NENHUM) {
+                capturadas = Movimento.capturadas(movimento);
+                promocao = posicao.isPromocao(movimento);
+                posicao.aplicar(movimento);
+            } else {
+                reproduzindo = false;
+            }
+
+            lances.add(Lance.builder()
+                    .partidaId(partidaId)
+                    .ply(lances.size() + 1)
+                    .origem((byte) origem)
+                    .destino((byte) destino)
+                    .capturadas(capturadas)
+                    .promocao(promocao)
+                    .dataHora(dataHora)
+                    .build());
+        }
+
+        // Pelo repositório: o id vem da sequência da entidade, alocada em blocos
+        lanceRepository.saveAll(lances);
+        jdbcTemplate.update("UPDATE partidas SET total_lances = ?, movimento_historico = NULL WHERE id = ?",
+                lances.size(), partidaId);
+        if (ignorados > 0) {
+            log.warn("Partida {}: {} lances do histórico antigo ignorados", partidaId, ignorados);
+        }
+        return ignorados;
+    }
+
+    private byte[] converterTabuleiro(String json) {
+        Posicao posicao = Posicao.deMatriz(jogoDamasService.jsonParaTabuleiro(json), true);
+        return TabuleiroCompacto.de(posicao).paraBytes();
+    }
+
+    private boolean existeColuna(String tabela, String coluna) {
+        Boolean existe = jdbcTemplate.execute((ConnectionCallback<Boolean>) conexao -> {
+            DatabaseMetaData metaData = conexao.getMetaData();
+            // O nome pode estar em minúsculas (PostgreSQL) ou maiúsculas (H2)
+            for (String[] nomes : new String[][]{{tabela, coluna}, {tabela.toUpperCase(), coluna.toUpperCase()}}) {
+                try (ResultSet colunas = metaData.getColumns(null, null, nomes[0], nomes[1])) {
+                    if (colunas.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(existe);
+    }
+}
@@ -0,0 +1,28 @@
+package com.damas.service;
+
+import com.damas.cluster.PublicadorMensagens;
+import com.damas.dto.EventoUsuarioDTO;
+import com.damas.model.Usuario;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mensagens individuais, entregues só nas sessões WebSocket do usuário em vez
+ * de publicadas num tópico para todos
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificacaoService {
+
+    public static final String FILA_EVENTOS = "/queue/eventos";
+
+    private final PublicadorMensagens publicadorMensagens;
+
+    public void enviar(Usuario usuario, EventoUsuarioDTO evento) {
+        if (usuario.isComputador()) {
+            return;
+        }
+        // O usuário pode estar conectado a outro nó do cluster
+        publicadorMensagens.enviarParaUsuario(usuario.getId(), usuario.getUsername(), FILA_EVENTOS, evento);
+    }
+}
@@ -0,0 +1,10 @@
+package com.damas.service;
+
+import com.damas.cluster.EventoCluster;
+import com.damas.dto.EntradaLobbyDTO;
+
+/**
+ * Uma partida pública passou a esperar o segundo jogador
+ */
+public record PartidaAbertaEvent(EntradaLobbyDTO entrada) implements EventoCluster {
+}
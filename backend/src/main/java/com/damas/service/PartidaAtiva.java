@@ -0,0 +1,273 @@
+package com.damas.service;
+
+import com.damas.engine.Posicao;
+import com.damas.engine.TabelaRepeticao;
+import com.damas.engine.TabuleiroCompacto;
+import com.damas.model.Lance;
+import com.damas.model.Partida;
+import com.damas.model.Usuario;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Estado em memória de uma partida em andamento. Os lances são aplicados aqui
+ * e gravados no banco depois, em lotes, pelo {@link PartidasAtivasService}.
+ *
+ * O estado do jogo é protegido pela trava da partida em {@link TravasPartidas};
+ * a gravação, pela {@link #travaGravacao}, que é sempre adquirida antes dela.
+ *
+ * O relógio guarda o tempo de cada jogador no início da vez atual; o do
+ * jogador da vez é descontado do tempo passado desde então. Ao ser carregada,
+ * a vez recomeça: o tempo com a partida fora da memória (servidor reiniciando)
+ * não é descontado.
+ */
+@Getter
+public class PartidaAtiva {
+
+    private final Long id;
+    private final String codigoPartida;
+    private final LocalDateTime dataInicio;
+    private final Usuario jogadorBrancas;
+    private final Usuario jogadorPretas;
+    private final Posicao posicao;
+    private final TabelaRepeticao repeticoes;
+    private final List<Lance> lances;
+
+    @Setter
+    private int lancesSemCaptura;
+
+    // Relógio, em milissegundos (null = partida sem limite de tempo)
+    @Getter(AccessLevel.NONE)
+    private Long restanteBrancas;
+    @Getter(AccessLevel.NONE)
+    private Long restantePretas;
+    private final int incremento; // segundos somados ao relógio de quem joga (Fischer)
+    @Getter(AccessLevel.NONE)
+    private long inicioDaVez = System.currentTimeMillis();
+    @Getter(AccessLevel.NONE)
+    private boolean avisoBrancas;
+    @Getter(AccessLevel.NONE)
+    private boolean avisoPretas;
+    @Getter(AccessLevel.NONE)
+    @Setter
+    private RodaTemporizadores.Temporizador temporizador;
+
+    private Partida.StatusPartida status = Partida.StatusPartida.EM_ANDAMENTO;
+    private Partida.ResultadoPartida resultado;
+    private LocalDateTime dataFim;
+
+    // Controle da gravação assíncrona
+    @Getter(AccessLevel.NONE)
+    private final ReentrantLock travaGravacao = new ReentrantLock();
+    @Getter(AccessLevel.NONE)
+    private volatile long alteracoes;
+    @Getter(AccessLevel.NONE)
+    private volatile long alteracoesGravadas;
+    @Getter(AccessLevel.NONE)
+    private int lancesGravados;
+    @Getter(AccessLevel.NONE)
+    private Long versao; // @Version da última gravação, para detectar escritas de fora
+    private volatile boolean descartada;
+
+    /**
+     * Monta o estado a partir da partida gravada e dos seus lances
+     */
+    public PartidaAtiva(Partida partida, List<Lance> lances) {
+        this.id = partida.getId();
+        this.codigoPartida = partida.getCodigoPartida();
+        this.dataInicio = partida.getDataInicio();
+        this.jogadorBrancas = partida.getJogadorBrancas();
+        this.jogadorPretas = partida.getJogadorPretas();
+        this.posicao = partida.getEstadoTabuleiro().paraPosicao(partida.isJogadorAtualBrancas());
+        this.repeticoes = TabelaRepeticao.deBytes(partida.getPosicoesRepeticao());
+        this.lances = new ArrayList<>(lances);
+        this.restanteBrancas = partida.getTempoJogadorBrancas() != null ? partida.getTempoJogadorBrancas() * 1000L : null;
+        this.restantePretas = partida.getTempoJogadorPretas() != null ? partida.getTempoJogadorPretas() * 1000L : null;
+        this.incremento = partida.getIncremento() != null ? partida.getIncremento() : 0;
+        this.lancesSemCaptura = partida.getLancesSemCaptura();
+        this.lancesGravados = lances.size();
+        this.versao = partida.getVersao();
+    }
+
+    public boolean isJogadorAtualBrancas() {
+        return posicao.isVezBrancas();
+    }
+
+    public boolean isEncerrada() {
+        return status != Partida.StatusPartida.EM_ANDAMENTO;
+    }
+
+    public int getTotalLances() {
+        return lances.size();
+    }
+
+    public Usuario getVencedor() {
+        if (resultado == Partida.ResultadoPartida.VITORIA_BRANCAS) {
+            return jogadorBrancas;
+        }
+        if (resultado == Partida.ResultadoPartida.VITORIA_PRETAS) {
+            return jogadorPretas;
+        }
+        return null;
+    }
+
+    public void adicionarLance(Lance lance) {
+        lances.add(lance);
+    }
+
+    public boolean isComRelogio() {
+        return restanteBrancas != null && restantePretas != null;
+    }
+
+    /**
+     * Tempo que resta ao jogador da vez, em milissegundos; zero ou negativo se acabou
+     */
+    public long tempoRestanteDaVez(long agora) {
+        long restante = isJogadorAtualBrancas() ? restanteBrancas : restantePretas;
+        return restante - (agora - inicioDaVez);
+    }
+
+    /**
+     * Desconta o tempo do lance do jogador da vez, soma o incremento e começa
+     * a vez do outro. Chamado antes de o lance ser aplicado, só se o jogador
+     * ainda tinha tempo em {@code agora}: sem tempo, a partida acaba e o lance
+     * não é aceito.
+     */
+    public void registrarTempoDoLance(long agora) {
+        if (!isComRelogio()) {
+            return;
+        }
+        long restante = tempoRestanteDaVez(agora);
+        if (restante <= 0) {
+            throw new IllegalStateException("Lance registrado depois de o tempo acabar");
+        }
+        restante += incremento * 1000L;
+        if (isJogadorAtualBrancas()) {
+            restanteBrancas = restante;
+        } else {
+            restantePretas = restante;
+        }
+        inicioDaVez = agora;
+    }
+
+    public Integer getTempoJogadorBrancas() {
+        return emSegundos(restanteBrancas, isJogadorAtualBrancas());
+    }
+
+    public Integer getTempoJogadorPretas() {
+        return emSegundos(restantePretas, !isJogadorAtualBrancas());
+    }
+
+    // O relógio de quem joga corre até a partida acabar
+    private Integer emSegundos(Long restante, boolean daVez) {
+        if (restante == null) {
+            return null;
+        }
+        long tempo = daVez && !isEncerrada() ? restante - (System.currentTimeMillis() - inicioDaVez) : restante;
+        return (int) (Math.max(tempo, 0) / 1000);
+    }
+
+    public boolean isAvisoEnviado() {
+        return isJogadorAtualBrancas() ? avisoBrancas : avisoPretas;
+    }
+
+    /**
+     * Registra o aviso de pouco tempo do jogador da vez, enviado uma vez por partida
+     */
+    public void marcarAvisoEnviado() {
+        if (isJogadorAtualBrancas()) {
+            avisoBrancas = true;
+        } else {
+            avisoPretas = true;
+        }
+    }
+
+    public void cancelarTemporizador() {
+        if (temporizador != null) {
+            temporizador.cancelar();
+            temporizador = null;
+        }
+    }
+
+    public void encerrar(Partida.StatusPartida status, Partida.ResultadoPartida resultado) {
+        // Para o relógio de quem estava jogando
+        if (isComRelogio() && !isEncerrada()) {
+            long agora = System.currentTimeMillis();
+            long restante = Math.max(tempoRestanteDaVez(agora), 0);
+            if (isJogadorAtualBrancas()) {
+                restanteBrancas = restante;
+            } else {
+                restantePretas = restante;
+            }
+            inicioDaVez = agora;
+        }
+        cancelarTemporizador();
+        this.status = status;
+        this.resultado = resultado;
+        this.dataFim = LocalDateTime.now();
+    }
+
+    /**
+     * Registra que o estado mudou e precisa ser gravado. Chamado com a trava da partida
+     */
+    public void marcarAlterada() {
+        alteracoes++;
+    }
+
+    public boolean isAlterada() {
+        return alteracoes != alteracoesGravadas;
+    }
+
+    /**
+     * Marca a partida como inválida: o banco foi alterado por fora e esta
+     * cópia não pode mais ser gravada
+     */
+    void descartar() {
+        descartada = true;
+        cancelarTemporizador();
+    }
+
+    ReentrantLock getTravaGravacao() {
+        return travaGravacao;
+    }
+
+    /**
+     * Copia o que ainda não foi gravado. Chamado com a trava de gravação e a da partida
+     */
+    EstadoPartida capturarEstado() {
+        return new EstadoPartida(id, TabuleiroCompacto.de(posicao), posicao.isVezBrancas(), lances.size(),
+                lancesSemCaptura, isEncerrada() ? null : repeticoes.paraBytes(),
+                segundosGravados(restanteBrancas), segundosGravados(restantePretas), status, resultado, dataFim,
+                List.copyOf(lances.subList(lancesGravados, lances.size())), versao, alteracoes);
+    }
+
+    // Tempo no início da vez, arredondado para cima para a gravação não tirar tempo de ninguém
+    private static Integer segundosGravados(Long restante) {
+        return restante != null ? (int) ((Math.max(restante, 0) + 999) / 1000) : null;
+    }
+
+    /**
+     * Marca o estado capturado como gravado. Chamado com a trava de gravação
+     */
+    void confirmarGravacao(EstadoPartida estado, Long novaVersao) {
+        lancesGravados += estado.novosLances().size();
+        versao = novaVersao;
+        alteracoesGravadas = estado.alteracao();
+    }
+
+    /**
+     * Fotografia imutável do estado a gravar
+     */
+    public record EstadoPartida(Long id, TabuleiroCompacto tabuleiro, boolean vezBrancas, int totalLances,
+                                int lancesSemCaptura, byte[] posicoesRepeticao,
+                                Integer tempoJogadorBrancas, Integer tempoJogadorPretas,
+                                Partida.StatusPartida status, Partida.ResultadoPartida resultado, LocalDateTime dataFim,
+                                List<Lance> novosLances, Long versao, long alteracao) {
+    }
+}
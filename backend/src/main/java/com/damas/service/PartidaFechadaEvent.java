@@ -0,0 +1,9 @@
+package com.damas.service;
+
+import com.damas.cluster.EventoCluster;
+
+/**
+ * Uma partida deixou de esperar o segundo jogador (alguém entrou ou ela foi cancelada)
+ */
+public record PartidaFechadaEvent(Long partidaId) implements EventoCluster {
+}
@@ -0,0 +1,9 @@
+package com.damas.service;
+
+import com.damas.cluster.EventoCluster;
+
+/**
+ * A partida passou a ter os dois jogadores e o relógio das brancas começou a correr
+ */
+public record PartidaIniciadaEvent(Long partidaId) implements EventoCluster {
+}
@@ -1,31 +1,52 @@
 package com.damas.service;
 
+import com.damas.cluster.PublicadorMensagens;
 import com.damas.dto.*;
+import com.damas.engine.Casas;
+import com.damas.engine.Movimento;
+import com.damas.engine.Posicao;
+import com.damas.engine.TabelaRepeticao;
+import com.damas.engine.TabuleiroCompacto;
+import com.damas.model.Lance;
 import com.damas.model.Partida;
 import com.damas.model.Usuario;
+import com.damas.repository.LanceRepository;
 import com.damas.repository.PartidaRepository;
 import com.damas.repository.UsuarioRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class PartidaService {
 
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
     private final PartidaRepository partidaRepository;
+    private final LanceRepository lanceRepository;
     private final UsuarioRepository usuarioRepository;
     private final JogoDamasService jogoDamasService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final PartidasAtivasService partidasAtivasService;
+    private final TravasPartidas travasPartidas;
+    private final NotificacaoService notificacaoService;
+    private final PublicadorMensagens publicadorMensagens;
+    private final RelogioPartidas relogioPartidas;
+    private final MetricasPartidas metricas;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
-    public PartidaDTO criarPartida(NovaPartidaRequest request, String username) {
-        Usuario usuario = usuarioRepository.findByUsername(username)
+    public PartidaDTO criarPartida(NovaPartidaRequest request, Long usuarioId) {
+        Usuario usuario = usuarioRepository.findById(usuarioId)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
         // Cria uma nova partida
@@ -33,16 +54,30 @@ public class PartidaService {
         partida.setJogadorBrancas(usuario);
         partida.setStatus(Partida.StatusPartida.AGUARDANDO);
         partida.setDataInicio(LocalDateTime.now());
+        partida.setPrivada(request.isPartidaPrivada());
         
         // Gera o tabuleiro inicial
-        int[][] tabuleiro = jogoDamasService.criarNovoTabuleiro();
-        partida.setEstadoTabuleiro(jogoDamasService.tabuleiroParaJson(tabuleiro));
+        partida.setEstadoTabuleiro(TabuleiroCompacto.de(jogoDamasService.criarPosicaoInicial()));
+        
+        // Contra o computador a partida começa imediatamente, com o computador nas pretas
+        if (request.isContraComputador()) {
+            Usuario computador = usuarioRepository.findByUsername(ComputadorService.USERNAME)
+                    .orElseThrow(() -> new RuntimeException("Computador indisponível"));
+            partida.setJogadorPretas(computador);
+            partida.setStatus(Partida.StatusPartida.EM_ANDAMENTO);
+        }
         
         // Define o tempo da partida, se fornecido
         if (request.getTempoPartida() != null) {
             partida.setTempoJogadorBrancas(request.getTempoPartida());
             partida.setTempoJogadorPretas(request.getTempoPartida());
         }
+        if (request.getIncremento() != null) {
+            if (request.getIncremento() < 0) {
+                throw new RuntimeException("Incremento inválido");
+            }
+            partida.setIncremento(request.getIncremento());
+        }
         
         // Gera código único para a partida
         partida.setCodigoPartida(jogoDamasService.gerarCodigoPartida());
@@ -50,34 +85,77 @@ public class PartidaService {
         // Salva a partida
         partida = partidaRepository.save(partida);
         
+        // Partidas públicas esperando adversário entram no lobby depois do commit
+        if (partida.getStatus() == Partida.StatusPartida.AGUARDANDO && !partida.isPrivada()) {
+            eventPublisher.publishEvent(new PartidaAbertaEvent(criarEntradaLobby(partida, usuario)));
+        } else if (partida.getStatus() == Partida.StatusPartida.EM_ANDAMENTO) {
+            eventPublisher.publishEvent(new PartidaIniciadaEvent(partida.getId()));
+        }
+        
         return converterParaDTO(partida);
     }
 
-    @Transactional(readOnly = true)
-    public List<PartidaDTO> listarPartidasDoUsuario(String username) {
-        Usuario usuario = usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+    /**
+     * Cancela uma partida que ainda espera o segundo jogador; só quem a criou pode cancelar
+     */
+    @Transactional
+    public PartidaDTO cancelarEspera(Long id, Long usuarioId) {
+        Partida partida = partidaRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Partida não encontrada"));
         
-        return partidaRepository.findByJogadorBrancasOrJogadorPretas(usuario, usuario)
-                .stream()
-                .map(this::converterParaDTO)
-                .collect(Collectors.toList());
+        if (!partida.getJogadorBrancas().getId().equals(usuarioId)) {
+            throw new RuntimeException("Só quem criou a partida pode cancelá-la");
+        }
+        if (partida.getStatus() != Partida.StatusPartida.AGUARDANDO) {
+            throw new RuntimeException("Esta partida já está em andamento ou finalizada");
+        }
+        
+        partida.setStatus(Partida.StatusPartida.ABANDONADA);
+        partida.setDataFim(LocalDateTime.now());
+        try {
+            partida = partidaRepository.saveAndFlush(partida);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflitoPartidaException("Outro jogador entrou nesta partida");
+        }
+        
+        eventPublisher.publishEvent(new PartidaFechadaEvent(partida.getId()));
+        
+        return converterParaDTO(partida);
     }
 
     @Transactional(readOnly = true)
-    public List<PartidaDTO> listarPartidasAguardando() {
-        return partidaRepository.findPartidasAguardando()
-                .stream()
-                .map(this::converterParaDTO)
-                .collect(Collectors.toList());
+    public PaginaDTO<PartidaResumoDTO> listarPartidasDoUsuario(Long usuarioId, FiltroPartidas filtro) {
+        int tamanho = limitarTamanhoPagina(filtro.getTamanho());
+        List<PartidaResumoDTO> resumos = partidaRepository.listarResumosDoJogador(usuarioId,
+                filtro.getAdversario(), filtro.getStatus(), filtro.getDesde(), filtro.getAte(),
+                filtro.getAntesDe(), Limit.of(tamanho + 1));
+        return criarPagina(resumos, tamanho);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDTO<PartidaResumoDTO> listarPartidasAguardando(Long antesDe, int tamanho) {
+        tamanho = limitarTamanhoPagina(tamanho);
+        return criarPagina(partidaRepository.listarResumosAguardando(antesDe, Limit.of(tamanho + 1)), tamanho);
     }
 
     @Transactional(readOnly = true)
     public PartidaDTO obterPartida(Long id) {
+        // Partidas em andamento são lidas da memória, que está à frente do banco
+        PartidaAtiva partidaAtiva = partidasAtivasService.obterSeCarregada(id);
+        if (partidaAtiva != null) {
+            ReentrantLock trava = travasPartidas.trava(partidaAtiva.getId());
+            trava.lock();
+            try {
+                return converterParaDTOCompleto(partidaAtiva);
+            } finally {
+                trava.unlock();
+            }
+        }
+        
         Partida partida = partidaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Partida não encontrada"));
         
-        return converterParaDTO(partida);
+        return converterParaDTOCompleto(partida);
     }
 
     @Transactional(readOnly = true)
@@ -85,11 +163,11 @@ public class PartidaService {
         Partida partida = partidaRepository.findByCodigoPartida(codigoPartida)
                 .orElseThrow(() -> new RuntimeException("Partida não encontrada"));
         
-        return converterParaDTO(partida);
+        return converterParaDTOCompleto(partida);
     }
 
     @Transactional
-    public PartidaDTO entrarPartida(Long id, String username) {
+    public PartidaDTO entrarPartida(Long id, Long usuarioId) {
         Partida partida = partidaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Partida não encontrada"));
         
@@ -97,169 +175,412 @@ public class PartidaService {
             throw new RuntimeException("Esta partida já está em andamento ou finalizada");
         }
         
-        Usuario usuario = usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-        
-        if (partida.getJogadorBrancas().equals(usuario)) {
+        if (partida.getJogadorBrancas().getId().equals(usuarioId)) {
             throw new RuntimeException("Você já está nesta partida");
         }
         
+        Usuario usuario = usuarioRepository.findById(usuarioId)
+                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        
         // Adiciona o jogador à partida
         partida.setJogadorPretas(usuario);
         partida.setStatus(Partida.StatusPartida.EM_ANDAMENTO);
         
-        partida = partidaRepository.save(partida);
+        // Dois jogadores entrando ao mesmo tempo: o @Version deixa só o primeiro gravar
+        try {
+            partida = partidaRepository.saveAndFlush(partida);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflitoPartidaException("Outro jogador entrou nesta partida");
+        }
+        eventPublisher.publishEvent(new PartidaFechadaEvent(partida.getId()));
+        eventPublisher.publishEvent(new PartidaIniciadaEvent(partida.getId()));
         
-        // Notifica os jogadores sobre o início da partida
-        PartidaDTO partidaDTO = converterParaDTO(partida);
-        messagingTemplate.convertAndSend("/topic/partida/" + partida.getId(), partidaDTO);
+        // Notifica os jogadores sobre o início da partida: os jogadores mudaram, vai o estado completo
+        PartidaDTO partidaDTO = converterParaDTOCompleto(partida);
+        notificar(criarAtualizacaoEstado(partidaDTO));
+        
+        // Quem abriu a partida pode estar em outra tela: recebe o aviso na fila dele
+        notificacaoService.enviar(partida.getJogadorBrancas(), EventoUsuarioDTO.builder()
+                .tipo(EventoUsuarioDTO.Tipo.PARTIDA_INICIADA)
+                .partidaId(partida.getId())
+                .mensagem(usuario.getUsername() + " entrou na sua partida")
+                .build());
         
         return partidaDTO;
     }
 
-    @Transactional
-    public PartidaDTO realizarMovimento(Long id, MovimentoRequest request, String username) {
-        Partida partida = partidaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Partida não encontrada"));
-        
-        if (partida.getStatus() != Partida.StatusPartida.EM_ANDAMENTO) {
-            throw new RuntimeException("Esta partida não está em andamento");
-        }
-        
-        Usuario usuario = usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-        
-        // Verifica se é a vez do jogador
-        boolean isJogadorBrancas = partida.getJogadorBrancas().equals(usuario);
-        boolean isJogadorPretas = partida.getJogadorPretas().equals(usuario);
-        
-        if (!isJogadorBrancas && !isJogadorPretas) {
-            throw new RuntimeException("Você não é um jogador desta partida");
+    /**
+     * Aplica o lance na partida em memória; o banco é atualizado depois, em
+     * lote, exceto quando o lance encerra a partida. Retorna o mesmo delta
+     * publicado no tópico da partida, sem o tabuleiro nem o histórico
+     */
+    public AtualizacaoPartidaDTO realizarMovimento(Long id, MovimentoRequest request, Long usuarioId) {
+        PartidaAtiva partida = null;
+        AtualizacaoPartidaDTO atualizacao;
+        AtualizacaoPartidaDTO fimPorTempo = null;
+        String motivoEncerramento = null;
+        
+        // Os lances de uma partida são processados um de cada vez, na trava dela
+        long inicioFase = System.nanoTime();
+        ReentrantLock trava = travasPartidas.trava(id);
+        trava.lock();
+        try {
+            partida = obterPartidaAtiva(id);
+            inicioFase = metricas.registrar(MetricasPartidas.Fase.CARREGAR, inicioFase);
+            
+            // O tempo pode ter acabado antes de a roda de temporizadores disparar o prazo.
+            // Conferido na trava, com o mesmo instante que desconta o tempo do lance: um
+            // lance atrasado encerra a partida em vez de ser aceito
+            long agora = System.currentTimeMillis();
+            if (isTempoEsgotado(partida, agora)) {
+                fimPorTempo = encerrarPorTempo(partida);
+                throw new RuntimeException("O tempo acabou e a partida foi encerrada");
+            }
+            
+            // Repetição do mesmo lance (clique duplo, reenvio) ou lance feito sobre um estado antigo
+            if (request.getPly() != null && request.getPly() != partida.getTotalLances() + 1) {
+                throw new ConflitoPartidaException("Lance fora de sequência: a partida está no lance "
+                        + partida.getTotalLances());
+            }
+            
+            // Verifica se é a vez do jogador
+            boolean isJogadorBrancas = partida.getJogadorBrancas().getId().equals(usuarioId);
+            boolean isJogadorPretas = partida.getJogadorPretas().getId().equals(usuarioId);
+            
+            if (!isJogadorBrancas && !isJogadorPretas) {
+                throw new RuntimeException("Você não é um jogador desta partida");
+            }
+            
+            if ((partida.isJogadorAtualBrancas() && !isJogadorBrancas) || 
+                (!partida.isJogadorAtualBrancas() && !isJogadorPretas)) {
+                throw new RuntimeException("Não é sua vez de jogar");
+            }
+            
+            Posicao posicao = partida.getPosicao();
+            
+            // Verifica se o movimento é válido
+            long movimentoValidado = jogoDamasService.validarMovimento(
+                    posicao, 
+                    request.getLinhaOrigem(), 
+                    request.getColunaOrigem(), 
+                    request.getLinhaDestino(), 
+                    request.getColunaDestino());
+            if (movimentoValidado == Movimento.NENHUM) {
+                throw new RuntimeException("Movimento inválido");
+            }
+            inicioFase = metricas.registrar(MetricasPartidas.Fase.VALIDAR, inicioFase);
+            
+            // Para o relógio de quem jogou (com o incremento) e começa a vez do outro
+            partida.registrarTempoDoLance(agora);
+            
+            // Executa o movimento; a posição já troca a vez de jogar
+            boolean lanceDeDamaSemCaptura = posicao.isLanceDeDamaSemCaptura(movimentoValidado);
+            boolean promocao = posicao.isPromocao(movimentoValidado);
+            jogoDamasService.executarMovimento(posicao, movimentoValidado);
+            
+            // Registra o movimento no histórico, gravado depois junto com o estado
+            Lance lance = Lance.builder()
+                    .partidaId(partida.getId())
+                    .ply(partida.getTotalLances() + 1)
+                    .origem((byte) Movimento.origem(movimentoValidado))
+                    .destino((byte) Movimento.destino(movimentoValidado))
+                    .capturadas(Movimento.capturadas(movimentoValidado))
+                    .promocao(promocao)
+                    .dataHora(LocalDateTime.now())
+                    .build();
+            partida.adicionarLance(lance);
+            
+            // Atualiza a contagem de lances de dama e a tabela de repetição;
+            // movimentos de homem e capturas tornam as posições anteriores irrepetíveis
+            TabelaRepeticao repeticoes = partida.getRepeticoes();
+            if (lanceDeDamaSemCaptura) {
+                partida.setLancesSemCaptura(partida.getLancesSemCaptura() + 1);
+            } else {
+                partida.setLancesSemCaptura(0);
+                repeticoes.limpar();
+            }
+            int ocorrencias = repeticoes.registrar(posicao.getHash());
+            
+            // Verifica se o jogo acabou
+            if (jogoDamasService.isJogoAcabou(posicao)) {
+                Usuario vencedor = jogoDamasService.determinarVencedor(posicao, 
+                                                                    partida.getJogadorBrancas(),
+                                                                    partida.getJogadorPretas());
+                partida.encerrar(Partida.StatusPartida.FINALIZADA, calcularResultado(partida, vencedor));
+                motivoEncerramento = vencedor == null ? "empate" : "lance";
+            } else if (jogoDamasService.isEmpate(ocorrencias, partida.getLancesSemCaptura())) {
+                partida.encerrar(Partida.StatusPartida.FINALIZADA, Partida.ResultadoPartida.EMPATE);
+                motivoEncerramento = "empate";
+            } else {
+                // Final resolvido pela tabela: a partida termina com o resultado teórico
+                Partida.ResultadoPartida adjudicado = jogoDamasService.adjudicar(posicao, partida.getLancesSemCaptura());
+                if (adjudicado != null) {
+                    partida.encerrar(Partida.StatusPartida.FINALIZADA, adjudicado);
+                    motivoEncerramento = "adjudicacao";
+                }
+            }
+            partida.marcarAlterada();
+            relogioPartidas.agendar(partida);
+            inicioFase = metricas.registrar(MetricasPartidas.Fase.APLICAR, inicioFase);
+            
+            atualizacao = criarAtualizacao(partida, AtualizacaoPartidaDTO.Tipo.LANCE, converterLanceParaDTO(lance));
+            inicioFase = metricas.registrar(MetricasPartidas.Fase.SERIALIZAR, inicioFase);
+        } finally {
+            trava.unlock();
+            if (fimPorTempo != null) {
+                anunciarFimPorTempo(partida, fimPorTempo);
+            }
         }
+        metricas.contarLance();
         
-        if ((partida.isJogadorAtualBrancas() && !isJogadorBrancas) || 
-            (!partida.isJogadorAtualBrancas() && !isJogadorPretas)) {
-            throw new RuntimeException("Não é sua vez de jogar");
+        // O fim da partida é gravado antes de ser anunciado
+        if (motivoEncerramento != null) {
+            partidasAtivasService.gravarAgora(partida);
+            inicioFase = metricas.registrar(MetricasPartidas.Fase.GRAVAR, inicioFase);
+            metricas.contarEncerrada(motivoEncerramento);
         }
         
-        // Converte o estado do tabuleiro de JSON para matriz
-        int[][] tabuleiro = jogoDamasService.jsonParaTabuleiro(partida.getEstadoTabuleiro());
+        // Notifica os jogadores só com o lance, não com a partida inteira
+        notificar(atualizacao);
+        metricas.registrar(MetricasPartidas.Fase.PUBLICAR, inicioFase);
         
-        // Verifica se o movimento é válido
-        if (!jogoDamasService.isMovimentoValido(
-                tabuleiro, 
-                request.getLinhaOrigem(), 
-                request.getColunaOrigem(), 
-                request.getLinhaDestino(), 
-                request.getColunaDestino(),
-                partida.isJogadorAtualBrancas())) {
-            throw new RuntimeException("Movimento inválido");
+        // Se agora é a vez do computador, a jogada dele é agendada
+        if (!atualizacao.isJogadorAtualBrancas() && atualizacao.getStatus() == Partida.StatusPartida.EM_ANDAMENTO
+                && partida.getJogadorPretas().isComputador()) {
+            eventPublisher.publishEvent(new VezDoComputadorEvent(partida.getId()));
         }
         
-        // Executa o movimento
-        int[][] novoTabuleiro = jogoDamasService.executarMovimento(
-                tabuleiro, 
-                request.getLinhaOrigem(), 
-                request.getColunaOrigem(), 
-                request.getLinhaDestino(), 
-                request.getColunaDestino(),
-                partida.isJogadorAtualBrancas());
-        
-        // Salva o novo estado do tabuleiro
-        partida.setEstadoTabuleiro(jogoDamasService.tabuleiroParaJson(novoTabuleiro));
-        
-        // Registra o movimento no histórico
-        String movimento = request.getLinhaOrigem() + "," + request.getColunaOrigem() + ":" +
-                          request.getLinhaDestino() + "," + request.getColunaDestino() + ";";
-        partida.setMovimentoHistorico(partida.getMovimentoHistorico() + movimento);
-        
-        // Troca o jogador atual
-        partida.setJogadorAtualBrancas(!partida.isJogadorAtualBrancas());
-        
-        // Verifica se o jogo acabou
-        if (jogoDamasService.isJogoAcabou(novoTabuleiro)) {
-            partida.setStatus(Partida.StatusPartida.FINALIZADA);
-            partida.setDataFim(LocalDateTime.now());
+        return atualizacao;
+    }
+
+    public PartidaDTO desistirPartida(Long id, Long usuarioId) {
+        PartidaAtiva partida;
+        PartidaDTO partidaDTO;
+        AtualizacaoPartidaDTO atualizacao;
+        
+        ReentrantLock trava = travasPartidas.trava(id);
+        trava.lock();
+        try {
+            partida = obterPartidaAtiva(id);
             
-            // Determina o vencedor
-            Usuario vencedor = jogoDamasService.determinarVencedor(novoTabuleiro, 
-                                                                partida.getJogadorBrancas(),
-                                                                partida.getJogadorPretas());
-            partida.setVencedor(vencedor);
+            boolean isJogadorBrancas = partida.getJogadorBrancas().getId().equals(usuarioId);
+            boolean isJogadorPretas = partida.getJogadorPretas().getId().equals(usuarioId);
             
-            // Atualiza estatísticas do vencedor
-            if (vencedor != null) {
-                vencedor.setPartidasVencidas(vencedor.getPartidasVencidas() + 1);
-                vencedor.setPontuacao(vencedor.getPontuacao() + 10);
-                usuarioRepository.save(vencedor);
+            if (!isJogadorBrancas && !isJogadorPretas) {
+                throw new RuntimeException("Você não é um jogador desta partida");
             }
             
-            // Atualiza estatísticas de ambos os jogadores
-            Usuario jogadorBrancas = partida.getJogadorBrancas();
-            jogadorBrancas.setPartidasJogadas(jogadorBrancas.getPartidasJogadas() + 1);
-            usuarioRepository.save(jogadorBrancas);
+            // Marca a partida como abandonada, com o outro jogador como vencedor
+            partida.encerrar(Partida.StatusPartida.ABANDONADA, isJogadorBrancas
+                    ? Partida.ResultadoPartida.VITORIA_PRETAS
+                    : Partida.ResultadoPartida.VITORIA_BRANCAS);
+            partida.marcarAlterada();
             
-            Usuario jogadorPretas = partida.getJogadorPretas();
-            jogadorPretas.setPartidasJogadas(jogadorPretas.getPartidasJogadas() + 1);
-            usuarioRepository.save(jogadorPretas);
+            partidaDTO = converterParaDTOCompleto(partida);
+            atualizacao = criarAtualizacao(partida, AtualizacaoPartidaDTO.Tipo.FIM, null);
+        } finally {
+            trava.unlock();
         }
         
-        partida = partidaRepository.save(partida);
+        // Grava o fim da partida e as estatísticas dos jogadores
+        partidasAtivasService.gravarAgora(partida);
+        metricas.contarEncerrada("desistencia");
         
-        // Notifica os jogadores sobre a atualização da partida
-        PartidaDTO partidaDTO = converterParaDTO(partida);
-        messagingTemplate.convertAndSend("/topic/partida/" + partida.getId(), partidaDTO);
+        // Notifica os jogadores sobre o fim da partida
+        notificar(atualizacao);
         
         return partidaDTO;
     }
-
-    @Transactional
-    public PartidaDTO desistirPartida(Long id, String username) {
-        Partida partida = partidaRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Partida não encontrada"));
-        
-        if (partida.getStatus() != Partida.StatusPartida.EM_ANDAMENTO) {
-            throw new RuntimeException("Esta partida não está em andamento");
+    
+    /**
+     * Um prazo do relógio venceu: encerra a partida se o tempo do jogador da
+     * vez acabou, ou o avisa de que está acabando e agenda o próximo prazo
+     */
+    @EventListener
+    public void aoVencerPrazo(PrazoRelogioEvent evento) {
+        if (encerrarSeTempoEsgotado(evento.partidaId())) {
+            return;
         }
-        
-        Usuario usuario = usuarioRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
-        
-        boolean isJogadorBrancas = partida.getJogadorBrancas().equals(usuario);
-        boolean isJogadorPretas = partida.getJogadorPretas().equals(usuario);
-        
-        if (!isJogadorBrancas && !isJogadorPretas) {
-            throw new RuntimeException("Você não é um jogador desta partida");
+        PartidaAtiva partida = partidasAtivasService.obterSeCarregada(evento.partidaId());
+        if (partida == null) {
+            return;
         }
         
-        // Marca a partida como finalizada
-        partida.setStatus(Partida.StatusPartida.ABANDONADA);
-        partida.setDataFim(LocalDateTime.now());
-        
-        // Define o outro jogador como vencedor
-        if (isJogadorBrancas) {
-            partida.setVencedor(partida.getJogadorPretas());
-        } else {
-            partida.setVencedor(partida.getJogadorBrancas());
+        Usuario avisar = null;
+        ReentrantLock trava = travasPartidas.trava(partida.getId());
+        trava.lock();
+        try {
+            if (partida.isEncerrada() || partida.isDescartada()) {
+                return;
+            }
+            if (relogioPartidas.isHoraDoAviso(partida, partida.tempoRestanteDaVez(System.currentTimeMillis()))) {
+                partida.marcarAvisoEnviado();
+                avisar = partida.isJogadorAtualBrancas() ? partida.getJogadorBrancas() : partida.getJogadorPretas();
+            }
+            relogioPartidas.agendar(partida);
+        } finally {
+            trava.unlock();
         }
         
-        // Atualiza estatísticas dos jogadores
-        Usuario vencedor = partida.getVencedor();
-        vencedor.setPartidasVencidas(vencedor.getPartidasVencidas() + 1);
-        vencedor.setPontuacao(vencedor.getPontuacao() + 10);
-        vencedor.setPartidasJogadas(vencedor.getPartidasJogadas() + 1);
-        usuarioRepository.save(vencedor);
+        if (avisar != null) {
+            notificacaoService.enviar(avisar, EventoUsuarioDTO.builder()
+                    .tipo(EventoUsuarioDTO.Tipo.TEMPO_ACABANDO)
+                    .partidaId(partida.getId())
+                    .mensagem("Seu tempo está acabando")
+                    .build());
+        }
+    }
+    
+    /**
+     * Encerra a partida em memória cujo jogador da vez ficou sem tempo, com
+     * vitória do outro, e anuncia o resultado
+     *
+     * @return se a partida foi encerrada agora
+     */
+    private boolean encerrarSeTempoEsgotado(Long id) {
+        PartidaAtiva partida = partidasAtivasService.obterSeCarregada(id);
+        if (partida == null) {
+            return false;
+        }
         
-        usuario.setPartidasJogadas(usuario.getPartidasJogadas() + 1);
-        usuarioRepository.save(usuario);
+        AtualizacaoPartidaDTO atualizacao;
+        ReentrantLock trava = travasPartidas.trava(id);
+        trava.lock();
+        try {
+            if (partida.isEncerrada() || partida.isDescartada()
+                    || !isTempoEsgotado(partida, System.currentTimeMillis())) {
+                return false;
+            }
+            atualizacao = encerrarPorTempo(partida);
+        } finally {
+            trava.unlock();
+        }
         
-        partida = partidaRepository.save(partida);
+        anunciarFimPorTempo(partida, atualizacao);
+        return true;
+    }
+    
+    private boolean isTempoEsgotado(PartidaAtiva partida, long agora) {
+        return partida.isComRelogio() && partida.tempoRestanteDaVez(agora) <= 0;
+    }
+    
+    // Vitória de quem não está na vez; chamado com a trava da partida
+    private AtualizacaoPartidaDTO encerrarPorTempo(PartidaAtiva partida) {
+        partida.encerrar(Partida.StatusPartida.FINALIZADA, partida.isJogadorAtualBrancas()
+                ? Partida.ResultadoPartida.VITORIA_PRETAS
+                : Partida.ResultadoPartida.VITORIA_BRANCAS);
+        partida.marcarAlterada();
+        return criarAtualizacao(partida, AtualizacaoPartidaDTO.Tipo.FIM, null);
+    }
+    
+    // Grava e anuncia o fim por tempo; chamado fora da trava da partida
+    private void anunciarFimPorTempo(PartidaAtiva partida, AtualizacaoPartidaDTO atualizacao) {
+        partidasAtivasService.gravarAgora(partida);
+        metricas.contarEncerrada("tempo");
+        notificar(atualizacao);
+    }
+    
+    private EntradaLobbyDTO criarEntradaLobby(Partida partida, Usuario criador) {
+        return EntradaLobbyDTO.builder()
+                .id(partida.getId())
+                .codigoPartida(partida.getCodigoPartida())
+                .jogadorBrancas(new PartidaResumoDTO.Jogador(criador.getId(), criador.getUsername()))
+                .elo(criador.getElo())
+                .tempoPartida(partida.getTempoJogadorBrancas())
+                .dataInicio(partida.getDataInicio())
+                .build();
+    }
+    
+    private int limitarTamanhoPagina(int tamanho) {
+        return Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+    }
+    
+    // A consulta traz um item a mais só para saber se existe próxima página
+    private PaginaDTO<PartidaResumoDTO> criarPagina(List<PartidaResumoDTO> resumos, int tamanho) {
+        Long proximo = null;
+        if (resumos.size() > tamanho) {
+            resumos = resumos.subList(0, tamanho);
+            proximo = resumos.get(tamanho - 1).getId();
+        }
         
-        // Notifica os jogadores sobre o fim da partida
-        PartidaDTO partidaDTO = converterParaDTO(partida);
-        messagingTemplate.convertAndSend("/topic/partida/" + partida.getId(), partidaDTO);
+        // O número de lances das partidas em memória está à frente do banco
+        for (PartidaResumoDTO resumo : resumos) {
+            PartidaAtiva partidaAtiva = partidasAtivasService.obterSeCarregada(resumo.getId());
+            if (partidaAtiva != null) {
+                ReentrantLock trava = travasPartidas.trava(partidaAtiva.getId());
+                trava.lock();
+                try {
+                    resumo.setTotalLances(partidaAtiva.getTotalLances());
+                } finally {
+                    trava.unlock();
+                }
+            }
+        }
+        return new PaginaDTO<>(resumos, proximo);
+    }
+    
+    /**
+     * Estado completo da partida, enviado a quem se inscreve no tópico dela ou
+     * precisa se ressincronizar depois de perder uma atualização
+     */
+    @Transactional(readOnly = true)
+    public AtualizacaoPartidaDTO obterEstado(Long id) {
+        return criarAtualizacaoEstado(obterPartida(id));
+    }
+    
+    // Delta de um lance (ou do fim da partida); chamado com a trava da partida
+    private AtualizacaoPartidaDTO criarAtualizacao(PartidaAtiva partida, AtualizacaoPartidaDTO.Tipo tipo, LanceDTO lance) {
+        return AtualizacaoPartidaDTO.builder()
+                .tipo(tipo)
+                .partidaId(partida.getId())
+                .sequencia(partida.getTotalLances())
+                .lance(lance)
+                .jogadorAtualBrancas(partida.isJogadorAtualBrancas())
+                .tempoJogadorBrancas(partida.getTempoJogadorBrancas())
+                .tempoJogadorPretas(partida.getTempoJogadorPretas())
+                .status(partida.getStatus())
+                .resultado(partida.getResultado())
+                .build();
+    }
+    
+    private AtualizacaoPartidaDTO criarAtualizacaoEstado(PartidaDTO partidaDTO) {
+        return AtualizacaoPartidaDTO.builder()
+                .tipo(AtualizacaoPartidaDTO.Tipo.ESTADO)
+                .partidaId(partidaDTO.getId())
+                .sequencia(partidaDTO.getTotalLances())
+                .jogadorAtualBrancas(partidaDTO.isJogadorAtualBrancas())
+                .tempoJogadorBrancas(partidaDTO.getTempoJogadorBrancas())
+                .tempoJogadorPretas(partidaDTO.getTempoJogadorPretas())
+                .status(partidaDTO.getStatus())
+                .resultado(partidaDTO.getResultado())
+                .partida(partidaDTO)
+                .build();
+    }
+    
+    private void notificar(AtualizacaoPartidaDTO atualizacao) {
+        publicadorMensagens.publicar("/topic/partida/" + atualizacao.getPartidaId(), atualizacao);
+    }
+    
+    // Partida em andamento na memória; chamado com a trava da partida
+    private PartidaAtiva obterPartidaAtiva(Long id) {
+        PartidaAtiva partida = partidasAtivasService.obter(id);
         
-        return partidaDTO;
+        if (partida.isDescartada()) {
+            throw new ConflitoPartidaException("A partida foi alterada por outra operação, recarregue-a");
+        }
+        if (partida.isEncerrada()) {
+            throw new RuntimeException("Esta partida não está em andamento");
+        }
+        return partida;
+    }
+    
+    private Partida.ResultadoPartida calcularResultado(PartidaAtiva partida, Usuario vencedor) {
+        if (vencedor == null) {
+            return Partida.ResultadoPartida.EMPATE;
+        }
+        return vencedor == partida.getJogadorBrancas()
+                ? Partida.ResultadoPartida.VITORIA_BRANCAS
+                : Partida.ResultadoPartida.VITORIA_PRETAS;
     }
 
     // Método para buscar partida pelo ID
@@ -270,10 +591,21 @@ public class PartidaService {
 
     // Método para converter uma Partida em PartidaDTO
     public PartidaDTO converterParaDTO(Partida partida) {
-        // Converte o tabuleiro de JSON para matriz
+        PartidaAtiva partidaAtiva = partidasAtivasService.obterSeCarregada(partida.getId());
+        if (partidaAtiva != null) {
+            ReentrantLock trava = travasPartidas.trava(partidaAtiva.getId());
+            trava.lock();
+            try {
+                return converterParaDTO(partidaAtiva);
+            } finally {
+                trava.unlock();
+            }
+        }
+        
+        // Converte o tabuleiro compacto para a matriz da API
         int[][] tabuleiro = null;
         if (partida.getEstadoTabuleiro() != null) {
-            tabuleiro = jogoDamasService.jsonParaTabuleiro(partida.getEstadoTabuleiro());
+            tabuleiro = partida.getEstadoTabuleiro().paraMatriz();
         }
         
         return PartidaDTO.builder()
@@ -285,11 +617,119 @@ public class PartidaService {
                 .tabuleiro(tabuleiro)
                 .status(partida.getStatus())
                 .vencedor(partida.getVencedor() != null ? converterUsuarioParaDTO(partida.getVencedor()) : null)
+                .resultado(partida.getResultado())
                 .jogadorAtualBrancas(partida.isJogadorAtualBrancas())
                 .tempoJogadorBrancas(partida.getTempoJogadorBrancas())
                 .tempoJogadorPretas(partida.getTempoJogadorPretas())
+                .incremento(partida.getIncremento())
                 .codigoPartida(partida.getCodigoPartida())
-                .movimentoHistorico(partida.getMovimentoHistorico())
+                .totalLances(partida.getTotalLances())
+                .build();
+    }
+
+    // Converte a partida incluindo o histórico de lances (só para a visão de uma partida)
+    public PartidaDTO converterParaDTOCompleto(Partida partida) {
+        PartidaAtiva partidaAtiva = partidasAtivasService.obterSeCarregada(partida.getId());
+        if (partidaAtiva != null) {
+            ReentrantLock trava = travasPartidas.trava(partidaAtiva.getId());
+            trava.lock();
+            try {
+                return converterParaDTOCompleto(partidaAtiva);
+            } finally {
+                trava.unlock();
+            }
+        }
+        
+        PartidaDTO partidaDTO = converterParaDTO(partida);
+        if (partida.getTotalLances() > 0) {
+            partidaDTO.setMovimentoHistorico(formatarHistorico(lanceRepository.findByPartidaIdOrderByPly(partida.getId())));
+        } else {
+            partidaDTO.setMovimentoHistorico("");
+        }
+        return partidaDTO;
+    }
+
+    // Converte uma partida em memória; chamado com o monitor da partida
+    private PartidaDTO converterParaDTO(PartidaAtiva partida) {
+        return PartidaDTO.builder()
+                .id(partida.getId())
+                .jogadorBrancas(converterUsuarioParaDTO(partida.getJogadorBrancas()))
+                .jogadorPretas(converterUsuarioParaDTO(partida.getJogadorPretas()))
+                .dataInicio(partida.getDataInicio())
+                .dataFim(partida.getDataFim())
+                .tabuleiro(partida.getPosicao().paraMatriz())
+                .status(partida.getStatus())
+                .vencedor(converterUsuarioParaDTO(partida.getVencedor()))
+                .resultado(partida.getResultado())
+                .jogadorAtualBrancas(partida.isJogadorAtualBrancas())
+                .tempoJogadorBrancas(partida.getTempoJogadorBrancas())
+                .tempoJogadorPretas(partida.getTempoJogadorPretas())
+                .incremento(partida.getIncremento())
+                .codigoPartida(partida.getCodigoPartida())
+                .totalLances(partida.getTotalLances())
+                .build();
+    }
+
+    private PartidaDTO converterParaDTOCompleto(PartidaAtiva partida) {
+        PartidaDTO partidaDTO = converterParaDTO(partida);
+        partidaDTO.setMovimentoHistorico(formatarHistorico(partida.getLances()));
+        return partidaDTO;
+    }
+
+    @Transactional(readOnly = true)
+    public List<LanceDTO> listarLances(Long id, int desdePly) {
+        PartidaAtiva partidaAtiva = partidasAtivasService.obterSeCarregada(id);
+        if (partidaAtiva != null) {
+            ReentrantLock trava = travasPartidas.trava(partidaAtiva.getId());
+            trava.lock();
+            try {
+                List<Lance> lances = partidaAtiva.getLances();
+                return lances.subList(Math.min(Math.max(desdePly, 0), lances.size()), lances.size())
+                        .stream()
+                        .map(PartidaService::converterLanceParaDTO)
+                        .collect(Collectors.toList());
+            } finally {
+                trava.unlock();
+            }
+        }
+        
+        return lanceRepository.findByPartidaIdAndPlyGreaterThanOrderByPly(id, desdePly)
+                .stream()
+                .map(PartidaService::converterLanceParaDTO)
+                .collect(Collectors.toList());
+    }
+
+    // Histórico no formato "lo,co:ld,cd;" esperado pelo frontend
+    private String formatarHistorico(List<Lance> lances) {
+        StringBuilder historico = new StringBuilder(lances.size() * 8);
+        for (Lance lance : lances) {
+            historico.append(Casas.linha(lance.getOrigem())).append(',').append(Casas.coluna(lance.getOrigem()))
+                    .append(':')
+                    .append(Casas.linha(lance.getDestino())).append(',').append(Casas.coluna(lance.getDestino()))
+                    .append(';');
+        }
+        return historico.toString();
+    }
+
+    // Também usado pela revisão das partidas (ReproducaoService)
+    static LanceDTO converterLanceParaDTO(Lance lance) {
+        int capturadas = lance.getCapturadas();
+        int[][] capturas = new int[Integer.bitCount(capturadas)][];
+        for (int i = 0; capturadas != 0; i++) {
+            int casa = Integer.numberOfTrailingZeros(capturadas);
+            capturadas &= capturadas - 1;
+            capturas[i] = new int[]{Casas.linha(casa), Casas.coluna(casa)};
+        }
+        
+        return LanceDTO.builder()
+                .ply(lance.getPly())
+                .linhaOrigem(Casas.linha(lance.getOrigem()))
+                .colunaOrigem(Casas.coluna(lance.getOrigem()))
+                .linhaDestino(Casas.linha(lance.getDestino()))
+                .colunaDestino(Casas.coluna(lance.getDestino()))
+                .capturas(capturas)
+                .promocao(lance.isPromocao())
+                .dataHora(lance.getDataHora())
                 .build();
     }
 
@@ -305,7 +745,7 @@ public class PartidaService {
                 .nomeCompleto(usuario.getNomeCompleto())
                 .partidasJogadas(usuario.getPartidasJogadas())
                 .partidasVencidas(usuario.getPartidasVencidas())
-                .pontuacao(usuario.getPontuacao())
+                .elo(usuario.getElo())
                 .build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,246 @@
+package com.damas.service;
+
+import com.damas.cluster.TopologiaCluster;
+import com.damas.model.Partida;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Partidas em andamento mantidas em memória. Os lances são aplicados nelas
+ * sem acessar o banco; a gravação acontece em lotes a cada
+ * {@code damas.persistencia.intervalo-ms} (write-behind), e de forma síncrona
+ * quando a partida termina, antes de o resultado ser anunciado.
+ *
+ * As partidas em andamento de que este nó é dono ficam todas em memória,
+ * desde o início, para o relógio delas correr aqui ({@link RelogioPartidas}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PartidasAtivasService {
+
+    private final GravacaoPartidasService gravacaoPartidasService;
+    private final TravasPartidas travasPartidas;
+    private final RelogioPartidas relogioPartidas;
+    private final TopologiaCluster topologia;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MetricasPartidas metricas;
+
+    private final ConcurrentHashMap<Long, PartidaAtiva> partidas = new ConcurrentHashMap<>();
+
+    @Value("${damas.persistencia.lote:200}")
+    private int tamanhoLote = 200;
+
+    /**
+     * Partida em andamento, carregada do banco no primeiro acesso. A carga
+     * acontece dentro do computeIfAbsent para que uma partida recém-encerrada
+     * (removida só depois de gravada) nunca volte à memória com estado antigo.
+     */
+    public PartidaAtiva obter(Long id) {
+        return partidas.computeIfAbsent(id, this::carregar);
+    }
+
+    // Ninguém mais vê a partida antes de ela entrar no mapa: o relógio é armado sem a trava
+    private PartidaAtiva carregar(Long id) {
+        PartidaAtiva partida = gravacaoPartidasService.carregar(id);
+        relogioPartidas.agendar(partida);
+        return partida;
+    }
+
+    /**
+     * Carrega as partidas em andamento deste nó, que voltam a ter o relógio correndo
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregarEmAndamento() {
+        int carregadas = 0;
+        for (Long id : gravacaoPartidasService.listarEmAndamento()) {
+            if (topologia.isLocal(id)) {
+                carregarSeEmAndamento(id);
+                carregadas++;
+            }
+        }
+        if (carregadas > 0) {
+            log.info("{} partidas em andamento carregadas", carregadas);
+        }
+    }
+
+    /**
+     * Partida recém-iniciada: o dono a carrega para o relógio começar a correr
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoIniciarPartida(PartidaIniciadaEvent evento) {
+        if (topologia.isLocal(evento.partidaId())) {
+            carregarSeEmAndamento(evento.partidaId());
+        }
+    }
+
+    private void carregarSeEmAndamento(Long id) {
+        try {
+            PartidaAtiva partida = obter(id);
+            // O relógio do computador também corre: se era a vez dele, ele volta a jogar
+            if (!partida.isJogadorAtualBrancas() && partida.getJogadorPretas().isComputador()) {
+                eventPublisher.publishEvent(new VezDoComputadorEvent(id));
+            }
+        } catch (RuntimeException e) {
+            // Já terminou (ou foi cancelada) entre o evento e a carga
+            log.debug("Partida {} não carregada: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Partida em memória, ou null se ela não está carregada
+     */
+    public PartidaAtiva obterSeCarregada(Long id) {
+        return partidas.get(id);
+    }
+
+    public int contarPartidas() {
+        return partidas.size();
+    }
+
+    /**
+     * Grava a partida imediatamente, esperando uma gravação em lote em curso.
+     * Partidas encerradas saem da memória depois de gravadas.
+     */
+    public void gravarAgora(PartidaAtiva partida) {
+        partida.getTravaGravacao().lock();
+        try {
+            if (partida.isAlterada()) {
+                PartidaAtiva.EstadoPartida estado;
+                ReentrantLock trava = travasPartidas.trava(partida.getId());
+                trava.lock();
+                try {
+                    estado = partida.capturarEstado();
+                } finally {
+                    trava.unlock();
+                }
+                try {
+                    Map<Long, Long> versoes = gravacaoPartidasService.gravar(List.of(estado));
+                    confirmarGravacao(partida, estado, versoes.get(partida.getId()));
+                } catch (ConflitoPartidaException e) {
+                    descartar(partida, e);
+                    throw e;
+                }
+            } else if (partida.isEncerrada()) {
+                partidas.remove(partida.getId(), partida);
+            }
+        } finally {
+            partida.getTravaGravacao().unlock();
+        }
+    }
+
+    /**
+     * Grava em lotes as partidas alteradas desde a última passagem. Partidas
+     * sendo gravadas por outra thread ficam para a próxima.
+     */
+    @Scheduled(initialDelayString = "${damas.persistencia.intervalo-ms:500}",
+            fixedDelayString = "${damas.persistencia.intervalo-ms:500}")
+    public void descarregar() {
+        List<PartidaAtiva> lote = new ArrayList<>(tamanhoLote);
+        List<PartidaAtiva.EstadoPartida> estados = new ArrayList<>(tamanhoLote);
+
+        for (PartidaAtiva partida : partidas.values()) {
+            if (!partida.isAlterada() || !partida.getTravaGravacao().tryLock()) {
+                continue;
+            }
+            lote.add(partida);
+            ReentrantLock trava = travasPartidas.trava(partida.getId());
+            trava.lock();
+            try {
+                estados.add(partida.capturarEstado());
+            } finally {
+                trava.unlock();
+            }
+            if (lote.size() == tamanhoLote) {
+                gravarLote(lote, estados);
+                lote.clear();
+                estados.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            gravarLote(lote, estados);
+        }
+    }
+
+    @PreDestroy
+    public void gravarTodas() {
+        for (PartidaAtiva partida : partidas.values()) {
+            try {
+                gravarAgora(partida);
+            } catch (RuntimeException e) {
+                log.error("Não foi possível gravar a partida {} ao encerrar a aplicação", partida.getId(), e);
+            }
+        }
+    }
+
+    // Recebe as partidas com a trava de gravação adquirida e a libera no final
+    private void gravarLote(List<PartidaAtiva> lote, List<PartidaAtiva.EstadoPartida> estados) {
+        try {
+            try {
+                long inicio = System.nanoTime();
+                Map<Long, Long> versoes = gravacaoPartidasService.gravar(estados);
+                metricas.registrarGravacaoLote(inicio, estados.size());
+                for (int i = 0; i < lote.size(); i++) {
+                    confirmarGravacao(lote.get(i), estados.get(i), versoes.get(estados.get(i).id()));
+                }
+            } catch (RuntimeException e) {
+                // Uma partida com problema não pode impedir a gravação das outras
+                log.warn("Falha ao gravar lote de {} partidas, gravando uma a uma", lote.size(), e);
+                for (int i = 0; i < lote.size(); i++) {
+                    try {
+                        Map<Long, Long> versoes = gravacaoPartidasService.gravar(List.of(estados.get(i)));
+                        confirmarGravacao(lote.get(i), estados.get(i), versoes.get(estados.get(i).id()));
+                    } catch (ConflitoPartidaException conflito) {
+                        descartar(lote.get(i), conflito);
+                    } catch (RuntimeException erroPartida) {
+                        log.error("Falha ao gravar a partida {}", estados.get(i).id(), erroPartida);
+                    }
+                }
+            }
+        } finally {
+            for (PartidaAtiva partida : lote) {
+                partida.getTravaGravacao().unlock();
+            }
+        }
+    }
+
+    private void confirmarGravacao(PartidaAtiva partida, PartidaAtiva.EstadoPartida estado, Long versao) {
+        partida.confirmarGravacao(estado, versao);
+        if (estado.status() != Partida.StatusPartida.EM_ANDAMENTO && !partida.isAlterada()) {
+            partidas.remove(partida.getId(), partida);
+        }
+    }
+
+    /**
+     * O banco foi alterado por fora: a cópia em memória é abandonada e o
+     * próximo acesso recarrega a partida. Quem ainda tiver a cópia antiga
+     * recebe conflito ao tentar jogar nela.
+     */
+    private void descartar(PartidaAtiva partida, ConflitoPartidaException conflito) {
+        log.warn("Conflito ao gravar a partida {}, descartando o estado em memória: {}",
+                partida.getId(), conflito.getMessage());
+        ReentrantLock trava = travasPartidas.trava(partida.getId());
+        trava.lock();
+        try {
+            partida.descartar();
+            partidas.remove(partida.getId(), partida);
+        } finally {
+            trava.unlock();
+        }
+    }
+}
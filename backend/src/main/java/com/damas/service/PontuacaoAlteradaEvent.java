@@ -0,0 +1,9 @@
+package com.damas.service;
+
+import com.damas.cluster.EventoCluster;
+
+/**
+ * A pontuação de um jogador mudou em {@code variacao} pontos no fim de uma partida
+ */
+public record PontuacaoAlteradaEvent(Long usuarioId, String username, int variacao) implements EventoCluster {
+}
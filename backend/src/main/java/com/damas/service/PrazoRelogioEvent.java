@@ -0,0 +1,8 @@
+package com.damas.service;
+
+/**
+ * O temporizador do relógio de uma partida venceu: o jogador da vez está com
+ * pouco tempo ou o tempo dele acabou
+ */
+public record PrazoRelogioEvent(Long partidaId) {
+}
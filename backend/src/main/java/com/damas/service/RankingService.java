@@ -0,0 +1,131 @@
+package com.damas.service;
+
+import com.damas.dto.ClassificacaoDTO;
+import com.damas.repository.UsuarioRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranking dos jogadores em memória, montado a partir do banco na
+ * inicialização e atualizado pelos eventos de fim de partida, em vez de
+ * ordenar a tabela de usuários a cada consulta. O computador e as contas
+ * desativadas ficam de fora.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RankingService {
+
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
+    private final UsuarioRepository usuarioRepository;
+
+    private final IndiceRanking indice = new IndiceRanking();
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        List<ClassificacaoDTO> jogadores = usuarioRepository.listarParaRanking();
+        trava.writeLock().lock();
+        try {
+            indice.limpar();
+            for (ClassificacaoDTO jogador : jogadores) {
+                indice.definir(jogador.getUsuarioId(), jogador.getUsername(), jogador.getElo());
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+        log.info("Ranking carregado com {} jogadores", jogadores.size());
+    }
+
+    /**
+     * Os {@code quantidade} jogadores a partir da posição {@code inicio} (a partir de 1)
+     */
+    public List<ClassificacaoDTO> listar(int inicio, int quantidade) {
+        quantidade = Math.max(1, Math.min(quantidade, TAMANHO_MAXIMO_PAGINA));
+        trava.readLock().lock();
+        try {
+            return indice.listar(Math.max(inicio, 1) - 1, quantidade);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public ClassificacaoDTO obterPosicao(Long usuarioId) {
+        trava.readLock().lock();
+        try {
+            int posicao = indice.posicao(usuarioId);
+            if (posicao < 0) {
+                throw new RuntimeException("Jogador fora do ranking");
+            }
+            return indice.listar(posicao, 1).get(0);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * O jogador e até {@code raio} jogadores acima e abaixo dele
+     */
+    public List<ClassificacaoDTO> listarVizinhos(Long usuarioId, int raio) {
+        raio = Math.max(0, Math.min(raio, TAMANHO_MAXIMO_PAGINA / 2));
+        trava.readLock().lock();
+        try {
+            int posicao = indice.posicao(usuarioId);
+            if (posicao < 0) {
+                throw new RuntimeException("Jogador fora do ranking");
+            }
+            int inicio = Math.max(0, posicao - raio);
+            return indice.listar(inicio, posicao - inicio + raio + 1);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    public int contarJogadores() {
+        trava.readLock().lock();
+        try {
+            return indice.tamanho();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarPontuacao(PontuacaoAlteradaEvent evento) {
+        trava.writeLock().lock();
+        try {
+            // As variações são somadas, então a ordem em que chegam não importa
+            Integer atual = indice.elo(evento.usuarioId());
+            if (atual != null) {
+                indice.definir(evento.usuarioId(), evento.username(), atual + evento.variacao());
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void aoAlterarJogador(JogadorRankingEvent evento) {
+        trava.writeLock().lock();
+        try {
+            if (evento.ativo()) {
+                indice.definir(evento.usuarioId(), evento.username(), evento.elo());
+            } else {
+                indice.remover(evento.usuarioId());
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.damas.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessões WebSocket abertas de cada usuário. A sessão é registrada no CONNECT
+ * do STOMP, já autenticado, e sai no fechamento da conexão; acima de
+ * {@code damas.ws.conexoes-por-usuario} sessões simultâneas o CONNECT é recusado.
+ */
+@Component
+public class RegistroSessoes {
+
+    @Value("${damas.ws.conexoes-por-usuario:5}")
+    private int maximoPorUsuario = 5;
+
+    private final ConcurrentHashMap<Long, Set<String>> sessoesPorUsuario = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> usuarioDaSessao = new ConcurrentHashMap<>();
+
+    /**
+     * Registra a sessão do usuário, se ele ainda está abaixo do limite
+     *
+     * @return false se o usuário já tem o máximo de conexões abertas
+     */
+    public boolean registrar(Long usuarioId, String sessaoId) {
+        boolean[] aceita = {false};
+        sessoesPorUsuario.compute(usuarioId, (id, sessoes) -> {
+            if (sessoes == null) {
+                sessoes = ConcurrentHashMap.newKeySet();
+            }
+            if (sessoes.contains(sessaoId) || sessoes.size() < maximoPorUsuario) {
+                sessoes.add(sessaoId);
+                aceita[0] = true;
+            }
+            return sessoes;
+        });
+        if (aceita[0]) {
+            usuarioDaSessao.put(sessaoId, usuarioId);
+        }
+        return aceita[0];
+    }
+
+    public void remover(String sessaoId) {
+        Long usuarioId = usuarioDaSessao.remove(sessaoId);
+        if (usuarioId == null) {
+            return;
+        }
+        sessoesPorUsuario.computeIfPresent(usuarioId, (id, sessoes) -> {
+            sessoes.remove(sessaoId);
+            return sessoes.isEmpty() ? null : sessoes;
+        });
+    }
+
+    @EventListener
+    public void aoDesconectar(SessionDisconnectEvent evento) {
+        remover(evento.getSessionId());
+    }
+
+    public boolean isConectado(Long usuarioId) {
+        return sessoesPorUsuario.containsKey(usuarioId);
+    }
+
+    public int contarConexoes(Long usuarioId) {
+        Set<String> sessoes = sessoesPorUsuario.get(usuarioId);
+        return sessoes == null ? 0 : sessoes.size();
+    }
+
+    public int contarConexoes() {
+        return usuarioDaSessao.size();
+    }
+
+    public int contarUsuarios() {
+        return sessoesPorUsuario.size();
+    }
+}
@@ -0,0 +1,84 @@
+package com.damas.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Relógios das partidas em andamento neste nó. Cada partida tem no máximo um
+ * temporizador na {@link RodaTemporizadores}, apontando para o próximo prazo
+ * do jogador da vez: o aviso de pouco tempo ou o fim do tempo. Quando ele
+ * vence, um {@link PrazoRelogioEvent} é publicado e o {@link PartidaService}
+ * confere o relógio de fato, com a trava da partida.
+ */
+@Component
+@RequiredArgsConstructor
+public class RelogioPartidas {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${damas.relogio.tique-ms:50}")
+    private long tiqueMs = 50;
+
+    @Value("${damas.relogio.baldes:1024}")
+    private int numeroBaldes = 1024;
+
+    @Value("${damas.relogio.threads:2}")
+    private int threads = 2;
+
+    @Value("${damas.relogio.aviso-ms:10000}")
+    private long avisoMillis = 10000; // 0 desliga o aviso de pouco tempo
+
+    private ExecutorService executor;
+    private RodaTemporizadores roda;
+
+    @PostConstruct
+    void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, tarefa -> {
+            Thread thread = new Thread(tarefa, "relogio-prazos-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        roda = new RodaTemporizadores("relogio-roda", tiqueMs, numeroBaldes, executor);
+    }
+
+    @PreDestroy
+    void parar() {
+        roda.parar();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Troca o temporizador da partida pelo do próximo prazo do jogador da vez.
+     * Chamado com a trava da partida, depois de cada mudança de vez.
+     */
+    public void agendar(PartidaAtiva partida) {
+        partida.cancelarTemporizador();
+        if (partida.isEncerrada() || !partida.isComRelogio()) {
+            return;
+        }
+        long restante = partida.tempoRestanteDaVez(System.currentTimeMillis());
+        long atraso = restante > avisoMillis && !partida.isAvisoEnviado() ? restante - avisoMillis : restante;
+        Long id = partida.getId();
+        partida.setTemporizador(roda.agendar(atraso, () -> eventPublisher.publishEvent(new PrazoRelogioEvent(id))));
+    }
+
+    /**
+     * O jogador da vez deve ser avisado de que o tempo dele está acabando
+     */
+    public boolean isHoraDoAviso(PartidaAtiva partida, long restante) {
+        return avisoMillis > 0 && restante <= avisoMillis && !partida.isAvisoEnviado();
+    }
+
+    public int getRelogiosPendentes() {
+        return roda.getPendentes();
+    }
+}
@@ -0,0 +1,155 @@
+package com.damas.service;
+
+import com.damas.dto.PosicaoDTO;
+import com.damas.engine.Posicao;
+import com.damas.model.Lance;
+import com.damas.model.Partida;
+import com.damas.repository.LanceRepository;
+import com.damas.repository.PartidaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Revisão de partidas: a posição depois de qualquer lance e a sequência de
+ * posições de um trecho da partida. As linhas do tempo
+ * ({@link LinhaDoTempo}) das partidas revistas há pouco ficam num cache LRU;
+ * a de uma partida em andamento é estendida só com os lances novos, e a de
+ * uma partida encerrada não volta ao banco enquanto estiver no cache.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReproducaoService {
+
+    private final PartidaRepository partidaRepository;
+    private final LanceRepository lanceRepository;
+    private final PartidasAtivasService partidasAtivasService;
+    private final TravasPartidas travasPartidas;
+
+    @Value("${damas.replay.intervalo-retratos:16}")
+    private int intervaloRetratos = 16;
+
+    @Value("${damas.replay.cache.tamanho:256}")
+    private int tamanhoCache = 256; // partidas
+
+    // Partida -> linha do tempo, em ordem de acesso para descartar a menos usada; protegido pelo próprio monitor
+    private final LinkedHashMap<Long, Entrada> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entrada> maisAntiga) {
+            return size() > tamanhoCache;
+        }
+    };
+
+    /**
+     * Posição depois do lance {@code ply} (0 = posição inicial)
+     */
+    @Transactional(readOnly = true)
+    public PosicaoDTO obterPosicao(Long id, int ply) {
+        LinhaDoTempo linha = linhaDoTempo(id);
+        verificarLance(linha, ply);
+        return converterParaDTO(id, linha, ply, linha.posicao(ply));
+    }
+
+    /**
+     * Posições depois de cada lance de {@code desde} a {@code ate} (até o
+     * último, se nulo). A primeira sai da linha do tempo e cada uma das
+     * seguintes custa um lance aplicado; a sequência deve ser percorrida uma
+     * vez, em ordem.
+     */
+    @Transactional(readOnly = true)
+    public Stream<PosicaoDTO> reproduzir(Long id, int desde, Integer ate) {
+        LinhaDoTempo linha = linhaDoTempo(id);
+        int ultimo = ate != null ? ate : linha.getTotalLances();
+        verificarLance(linha, desde);
+        verificarLance(linha, ultimo);
+
+        Posicao posicao = linha.posicao(desde);
+        return IntStream.rangeClosed(desde, ultimo).mapToObj(ply -> {
+            if (ply > desde) {
+                posicao.aplicar(linha.movimento(ply));
+            }
+            return converterParaDTO(id, linha, ply, posicao);
+        });
+    }
+
+    // Linha do tempo atualizada da partida: do cache, estendida com os lances novos ou montada agora
+    private LinhaDoTempo linhaDoTempo(Long id) {
+        Entrada entrada;
+        synchronized (cache) {
+            entrada = cache.get(id);
+        }
+        if (entrada != null && entrada.encerrada()) {
+            return entrada.linha();
+        }
+        int conhecidos = entrada != null ? entrada.linha().getTotalLances() : 0;
+
+        List<Lance> novos;
+        boolean encerrada;
+        PartidaAtiva partidaAtiva = partidasAtivasService.obterSeCarregada(id);
+        if (partidaAtiva != null) {
+            // Partidas em andamento são lidas da memória, que está à frente do banco
+            ReentrantLock trava = travasPartidas.trava(id);
+            trava.lock();
+            try {
+                List<Lance> lances = partidaAtiva.getLances();
+                novos = new ArrayList<>(lances.subList(Math.min(conhecidos, lances.size()), lances.size()));
+                encerrada = isEncerrada(partidaAtiva.getStatus());
+            } finally {
+                trava.unlock();
+            }
+        } else {
+            Partida partida = partidaRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Partida não encontrada"));
+            novos = partida.getTotalLances() > conhecidos
+                    ? lanceRepository.findByPartidaIdAndPlyGreaterThanOrderByPly(id, conhecidos)
+                    : List.of();
+            encerrada = isEncerrada(partida.getStatus());
+        }
+
+        LinhaDoTempo linha = entrada != null
+                ? entrada.linha().estender(novos)
+                : LinhaDoTempo.de(novos, intervaloRetratos);
+        synchronized (cache) {
+            // Outra requisição pode ter guardado uma linha mais longa enquanto esta era montada
+            Entrada atual = cache.get(id);
+            if (atual == null || atual.linha().getTotalLances() <= linha.getTotalLances()) {
+                cache.put(id, new Entrada(linha, encerrada));
+            }
+        }
+        return linha;
+    }
+
+    // Partida encerrada não recebe mais lances: a linha do tempo dela não muda
+    private static boolean isEncerrada(Partida.StatusPartida status) {
+        return status == Partida.StatusPartida.FINALIZADA || status == Partida.StatusPartida.ABANDONADA;
+    }
+
+    private static void verificarLance(LinhaDoTempo linha, int ply) {
+        if (ply < 0 || ply > linha.getTotalLances()) {
+            throw new RuntimeException("Lance " + ply + " fora da partida (0 a " + linha.getTotalLances() + ")");
+        }
+    }
+
+    private static PosicaoDTO converterParaDTO(Long id, LinhaDoTempo linha, int ply, Posicao posicao) {
+        return PosicaoDTO.builder()
+                .partidaId(id)
+                .ply(ply)
+                .totalLances(linha.getTotalLances())
+                .tabuleiro(posicao.paraMatriz())
+                .jogadorAtualBrancas(posicao.isVezBrancas())
+                .lance(ply > 0 ? PartidaService.converterLanceParaDTO(linha.lance(ply)) : null)
+                .build();
+    }
+
+    private record Entrada(LinhaDoTempo linha, boolean encerrada) {
+    }
+}
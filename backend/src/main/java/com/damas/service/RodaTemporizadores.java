@@ -0,0 +1,236 @@
+package com.damas.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Roda de temporizadores (hashed timing wheel). Os prazos caem em baldes
+ * conforme o tique em que vencem; uma única thread avança um balde por tique
+ * e dispara os vencidos. Agendar e cancelar custam O(1) e não dependem de
+ * quantos temporizadores estão pendentes, ao contrário de uma fila de
+ * prioridade ou de uma tarefa agendada por prazo.
+ *
+ * A precisão é de um tique: um temporizador dispara até {@code tiqueMs}
+ * depois do prazo. As tarefas rodam no executor recebido, não na thread da
+ * roda, para uma tarefa lenta não atrasar as outras.
+ */
+@Slf4j
+public class RodaTemporizadores {
+
+    private final long tiqueNanos;
+    private final int mascara;
+    private final Balde[] baldes;
+    private final Executor executor;
+    private final Thread thread;
+
+    // Agendamentos e cancelamentos feitos por outras threads, aplicados pela thread da roda a cada tique
+    private final Queue<Temporizador> novos = new ConcurrentLinkedQueue<>();
+    private final Queue<Temporizador> cancelados = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendentes = new AtomicInteger();
+
+    private final long inicio;
+    private volatile boolean parada;
+
+    /**
+     * @param numeroBaldes arredondado para a próxima potência de 2
+     */
+    public RodaTemporizadores(String nome, long tiqueMs, int numeroBaldes, Executor executor) {
+        if (tiqueMs <= 0 || numeroBaldes <= 0) {
+            throw new IllegalArgumentException("Tique e número de baldes precisam ser positivos");
+        }
+        int tamanho = Integer.highestOneBit(numeroBaldes - 1) << 1;
+        this.tiqueNanos = TimeUnit.MILLISECONDS.toNanos(tiqueMs);
+        this.mascara = Math.max(tamanho, 1) - 1;
+        this.baldes = new Balde[mascara + 1];
+        for (int i = 0; i < baldes.length; i++) {
+            baldes[i] = new Balde();
+        }
+        this.executor = executor;
+        this.inicio = System.nanoTime();
+        this.thread = new Thread(this::girar, nome);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Agenda a tarefa para daqui a {@code atrasoMs}. Pode ser chamado de qualquer thread.
+     */
+    public Temporizador agendar(long atrasoMs, Runnable tarefa) {
+        if (parada) {
+            throw new RejectedExecutionException("Roda de temporizadores parada");
+        }
+        long prazo = System.nanoTime() - inicio + TimeUnit.MILLISECONDS.toNanos(Math.max(atrasoMs, 0));
+        Temporizador temporizador = new Temporizador(prazo, tarefa);
+        pendentes.incrementAndGet();
+        novos.add(temporizador);
+        return temporizador;
+    }
+
+    /**
+     * Temporizadores agendados que ainda não dispararam nem foram cancelados
+     */
+    public int getPendentes() {
+        return pendentes.get();
+    }
+
+    public void parar() {
+        parada = true;
+        thread.interrupt();
+    }
+
+    private void girar() {
+        long tique = 0;
+        while (!parada) {
+            long espera = (tique + 1) * tiqueNanos - (System.nanoTime() - inicio);
+            if (espera > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(espera);
+                } catch (InterruptedException e) {
+                    if (parada) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            removerCancelados();
+            distribuirNovos(tique);
+            baldes[(int) (tique & mascara)].expirar();
+            tique++;
+        }
+    }
+
+    private void removerCancelados() {
+        Temporizador temporizador;
+        while ((temporizador = cancelados.poll()) != null) {
+            if (temporizador.balde != null) {
+                temporizador.balde.remover(temporizador);
+            }
+        }
+    }
+
+    // Coloca os temporizadores recém-agendados no balde do tique em que vencem
+    private void distribuirNovos(long tiqueAtual) {
+        // Limite por tique para uma rajada de agendamentos não atrasar a roda
+        for (int i = 0; i < 100_000; i++) {
+            Temporizador temporizador = novos.poll();
+            if (temporizador == null) {
+                return;
+            }
+            if (temporizador.cancelado) {
+                continue;
+            }
+            long tiqueDoPrazo = temporizador.prazo / tiqueNanos;
+            temporizador.voltas = (tiqueDoPrazo - tiqueAtual) / baldes.length;
+            // Prazos já vencidos vão para o balde atual e disparam neste tique
+            baldes[(int) (Math.max(tiqueDoPrazo, tiqueAtual) & mascara)].adicionar(temporizador);
+        }
+    }
+
+    private void disparar(Temporizador temporizador) {
+        if (!temporizador.encerrado.compareAndSet(false, true)) {
+            return; // cancelado agora há pouco
+        }
+        pendentes.decrementAndGet();
+        try {
+            executor.execute(temporizador.tarefa);
+        } catch (RuntimeException e) {
+            log.error("Não foi possível executar um temporizador vencido", e);
+        }
+    }
+
+    /**
+     * Um prazo agendado; {@link #cancelar()} impede o disparo se ele ainda não aconteceu
+     */
+    public final class Temporizador {
+
+        private final long prazo; // nanos desde o início da roda
+        private final Runnable tarefa;
+        private final AtomicBoolean encerrado = new AtomicBoolean(); // disparado ou cancelado
+        private volatile boolean cancelado;
+
+        // Só usados pela thread da roda
+        private long voltas;
+        private Balde balde;
+        private Temporizador anterior;
+        private Temporizador proximo;
+
+        private Temporizador(long prazo, Runnable tarefa) {
+            this.prazo = prazo;
+            this.tarefa = tarefa;
+        }
+
+        public void cancelar() {
+            if (!encerrado.compareAndSet(false, true)) {
+                return;
+            }
+            cancelado = true;
+            pendentes.decrementAndGet();
+            cancelados.add(this);
+        }
+
+        public boolean isCancelado() {
+            return cancelado;
+        }
+    }
+
+    // Lista duplamente encadeada, para remover um cancelado em O(1); só usada pela thread da roda
+    private final class Balde {
+
+        private Temporizador primeiro;
+        private Temporizador ultimo;
+
+        void adicionar(Temporizador temporizador) {
+            temporizador.balde = this;
+            temporizador.anterior = ultimo;
+            if (ultimo == null) {
+                primeiro = temporizador;
+            } else {
+                ultimo.proximo = temporizador;
+            }
+            ultimo = temporizador;
+        }
+
+        void remover(Temporizador temporizador) {
+            if (temporizador.balde != this) {
+                return;
+            }
+            if (temporizador.anterior == null) {
+                primeiro = temporizador.proximo;
+            } else {
+                temporizador.anterior.proximo = temporizador.proximo;
+            }
+            if (temporizador.proximo == null) {
+                ultimo = temporizador.anterior;
+            } else {
+                temporizador.proximo.anterior = temporizador.anterior;
+            }
+            temporizador.balde = null;
+            temporizador.anterior = null;
+            temporizador.proximo = null;
+        }
+
+        // Dispara os que venceram nesta volta; os outros esperam a próxima
+        void expirar() {
+            Temporizador temporizador = primeiro;
+            while (temporizador != null) {
+                Temporizador seguinte = temporizador.proximo;
+                if (temporizador.cancelado) {
+                    remover(temporizador);
+                } else if (temporizador.voltas <= 0) {
+                    remover(temporizador);
+                    disparar(temporizador);
+                } else {
+                    temporizador.voltas--;
+                }
+                temporizador = seguinte;
+            }
+        }
+    }
+}
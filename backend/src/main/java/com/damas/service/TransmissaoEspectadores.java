@@ -0,0 +1,239 @@
+package com.damas.service;
+
+import com.damas.dto.AtualizacaoPartidaDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Transmissão das partidas para os espectadores, em
+ * /topic/espectadores/partida/{id}, separada do tópico dos jogadores. As
+ * atualizações de cada partida assistida neste nó são acumuladas e enviadas
+ * juntas a cada {@code damas.espectadores.intervalo-ms}: por mais lances que
+ * sejam jogados no intervalo, cada espectador recebe no máximo uma mensagem
+ * por partida. Quem chega recebe o retrato da partida, guardado até a próxima
+ * atualização, e a partir dele os lotes; um salto na sequência (lote
+ * truncado) é coberto pelo cliente buscando a partida. A transmissão tem
+ * thread própria: as tarefas agendadas da aplicação dividem a thread do
+ * broker STOMP, e a gravação das partidas atrasaria os lotes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransmissaoEspectadores {
+
+    public static final String TOPICO = "/topic/espectadores/partida/";
+    private static final String TOPICO_JOGADORES = "/topic/partida/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${damas.espectadores.intervalo-ms:200}")
+    private long intervaloMs = 200;
+
+    @Value("${damas.espectadores.lote-maximo:50}")
+    private int loteMaximo = 50;
+
+    private ScheduledExecutorService agendador;
+
+    private final ConcurrentHashMap<Long, Transmissao> transmissoes = new ConcurrentHashMap<>();
+
+    // Inscrições de espectador de cada sessão (id da inscrição -> partida), para o UNSUBSCRIBE e a desconexão
+    private final ConcurrentHashMap<String, Map<String, Long>> inscricoes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void iniciar() {
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "espectadores");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(this::transmitir, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void parar() {
+        agendador.shutdownNow();
+    }
+
+    /**
+     * Recebe uma mensagem publicada no tópico dos jogadores; só é guardada se
+     * a partida tem espectadores neste nó
+     */
+    public void registrar(String destino, String json) {
+        Long partidaId = partidaDoDestino(destino, TOPICO_JOGADORES);
+        Transmissao transmissao = partidaId == null ? null : transmissoes.get(partidaId);
+        if (transmissao == null) {
+            return;
+        }
+        AtualizacaoPartidaDTO atualizacao;
+        try {
+            atualizacao = objectMapper.readValue(json, AtualizacaoPartidaDTO.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Atualização da partida {} ignorada na transmissão: {}", partidaId, e.getMessage());
+            return;
+        }
+        synchronized (transmissao) {
+            transmissao.versao++;
+            transmissao.retrato = null;
+            transmissao.pendentes.add(atualizacao);
+            // Lote grande demais: as mais antigas saem e o cliente se ressincroniza pelo salto na sequência
+            while (transmissao.pendentes.size() > loteMaximo) {
+                transmissao.pendentes.poll();
+            }
+        }
+    }
+
+    /**
+     * Estado completo para quem começa a assistir. Enquanto a partida não
+     * muda, todos os que chegam recebem o mesmo retrato, sem voltar à partida.
+     */
+    public AtualizacaoPartidaDTO retrato(Long partidaId, Function<Long, AtualizacaoPartidaDTO> carregar) {
+        Transmissao transmissao = transmissoes.get(partidaId);
+        if (transmissao == null) {
+            return carregar.apply(partidaId);
+        }
+        long versao;
+        synchronized (transmissao) {
+            if (transmissao.retrato != null) {
+                return transmissao.retrato;
+            }
+            versao = transmissao.versao;
+        }
+        AtualizacaoPartidaDTO retrato = carregar.apply(partidaId);
+        synchronized (transmissao) {
+            // Só guarda se nenhuma atualização chegou durante a leitura
+            if (transmissao.versao == versao) {
+                transmissao.retrato = retrato;
+            }
+        }
+        return retrato;
+    }
+
+    /**
+     * Envia a cada partida assistida as atualizações acumuladas desde a última
+     * passagem: uma sozinha vai como está, várias vão num LOTE
+     */
+    void transmitir() {
+        try {
+            transmitirPendentes();
+        } catch (RuntimeException e) {
+            // Uma falha não pode cancelar as próximas passagens do agendador
+            log.error("Falha ao transmitir aos espectadores", e);
+        }
+    }
+
+    private void transmitirPendentes() {
+        for (Map.Entry<Long, Transmissao> entrada : transmissoes.entrySet()) {
+            List<AtualizacaoPartidaDTO> atualizacoes;
+            Transmissao transmissao = entrada.getValue();
+            synchronized (transmissao) {
+                if (transmissao.pendentes.isEmpty()) {
+                    continue;
+                }
+                atualizacoes = new ArrayList<>(transmissao.pendentes);
+                transmissao.pendentes.clear();
+            }
+            AtualizacaoPartidaDTO mensagem = atualizacoes.size() == 1 ? atualizacoes.get(0)
+                    : AtualizacaoPartidaDTO.builder()
+                    .tipo(AtualizacaoPartidaDTO.Tipo.LOTE)
+                    .partidaId(entrada.getKey())
+                    .sequencia(atualizacoes.get(atualizacoes.size() - 1).getSequencia())
+                    .atualizacoes(atualizacoes)
+                    .build();
+            messagingTemplate.convertAndSend(TOPICO + entrada.getKey(), mensagem);
+        }
+    }
+
+    @EventListener
+    public void aoInscrever(SessionSubscribeEvent evento) {
+        SimpMessageHeaderAccessor cabecalhos = SimpMessageHeaderAccessor.wrap(evento.getMessage());
+        Long partidaId = partidaDoDestino(cabecalhos.getDestination(), TOPICO);
+        if (partidaId == null || cabecalhos.getSessionId() == null || cabecalhos.getSubscriptionId() == null) {
+            return;
+        }
+        inscricoes.computeIfAbsent(cabecalhos.getSessionId(), sessao -> new ConcurrentHashMap<>())
+                .put(cabecalhos.getSubscriptionId(), partidaId);
+        transmissoes.compute(partidaId, (id, transmissao) -> {
+            if (transmissao == null) {
+                transmissao = new Transmissao();
+            }
+            transmissao.espectadores++;
+            return transmissao;
+        });
+    }
+
+    @EventListener
+    public void aoCancelarInscricao(SessionUnsubscribeEvent evento) {
+        SimpMessageHeaderAccessor cabecalhos = SimpMessageHeaderAccessor.wrap(evento.getMessage());
+        Map<String, Long> daSessao = cabecalhos.getSessionId() == null ? null : inscricoes.get(cabecalhos.getSessionId());
+        if (daSessao != null && cabecalhos.getSubscriptionId() != null) {
+            Long partidaId = daSessao.remove(cabecalhos.getSubscriptionId());
+            if (partidaId != null) {
+                sair(partidaId);
+            }
+        }
+    }
+
+    @EventListener
+    public void aoDesconectar(SessionDisconnectEvent evento) {
+        Map<String, Long> daSessao = inscricoes.remove(evento.getSessionId());
+        if (daSessao != null) {
+            daSessao.values().forEach(this::sair);
+        }
+    }
+
+    public int contarEspectadores() {
+        int total = 0;
+        for (Transmissao transmissao : transmissoes.values()) {
+            total += transmissao.espectadores;
+        }
+        return total;
+    }
+
+    // O último espectador a sair leva junto o que estava acumulado para a partida
+    private void sair(Long partidaId) {
+        transmissoes.computeIfPresent(partidaId, (id, transmissao) ->
+                --transmissao.espectadores > 0 ? transmissao : null);
+    }
+
+    private static Long partidaDoDestino(String destino, String prefixo) {
+        if (destino == null || !destino.startsWith(prefixo)) {
+            return null;
+        }
+        try {
+            return Long.valueOf(destino.substring(prefixo.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Estado da transmissão de uma partida; os campos além de espectadores são acessados com o objeto travado
+    private static final class Transmissao {
+        int espectadores; // alterado só dentro do compute do mapa
+        long versao;
+        AtualizacaoPartidaDTO retrato;
+        final ArrayDeque<AtualizacaoPartidaDTO> pendentes = new ArrayDeque<>();
+    }
+}
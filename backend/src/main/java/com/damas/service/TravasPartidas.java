@@ -0,0 +1,38 @@
+package com.damas.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Travas por partida distribuídas em faixas (lock striping). Todas as
+ * operações sobre uma partida passam pela mesma trava, o que as serializa
+ * sem uma trava global e com memória fixa, qualquer que seja o número de
+ * partidas. Partidas diferentes só disputam a trava quando caem na mesma faixa.
+ *
+ * São {@link ReentrantLock}s, e não {@code synchronized}, para não prender a
+ * thread de plataforma quando a thread que espera é virtual.
+ */
+@Component
+public class TravasPartidas {
+
+    private final ReentrantLock[] travas;
+    private final int mascara;
+
+    public TravasPartidas(@Value("${damas.partidas.travas:1024}") int quantidade) {
+        // Arredonda para potência de 2 para escolher a faixa com uma máscara
+        int tamanho = Integer.highestOneBit(Math.max(1, quantidade - 1)) << 1;
+        travas = new ReentrantLock[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            travas[i] = new ReentrantLock();
+        }
+        mascara = tamanho - 1;
+    }
+
+    public ReentrantLock trava(Long partidaId) {
+        // Espalha ids sequenciais pelas faixas (hash de Fibonacci)
+        long espalhado = partidaId * 0x9E3779B97F4A7C15L;
+        return travas[(int) (espalhado >>> 32) & mascara];
+    }
+}
@@ -0,0 +1,10 @@
+package com.damas.service;
+
+import com.damas.cluster.EventoCluster;
+
+/**
+ * A conta foi desativada em {@code desativadoEm} (epoch em ms): os tokens do
+ * usuário emitidos até ali deixam de valer em todos os nós
+ */
+public record UsuarioDesativadoEvent(Long usuarioId, long desativadoEm) implements EventoCluster {
+}
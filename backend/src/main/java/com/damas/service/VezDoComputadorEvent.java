@@ -0,0 +1,7 @@
+package com.damas.service;
+
+/**
+ * Publicado quando um lance deixa a vez com o computador; tratado após o commit
+ */
+public record VezDoComputadorEvent(Long partidaId) {
+}
@@ -0,0 +1,77 @@
+package com.damas.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnelConsistenteTest {
+
+    private static final int CHAVES = 30_000;
+
+    @Test
+    void donoNaoDependeDaOrdemDosNos() {
+        AnelConsistente anel = new AnelConsistente(List.of("no1", "no2", "no3"), 128);
+        AnelConsistente invertido = new AnelConsistente(List.of("no3", "no2", "no1"), 128);
+
+        for (long chave = 1; chave <= 1_000; chave++) {
+            assertEquals(anel.dono(chave), invertido.dono(chave));
+            assertTrue(List.of("no1", "no2", "no3").contains(anel.dono(chave)));
+        }
+    }
+
+    @Test
+    void nosVirtuaisEspalhamAsChavesPorIgual() {
+        Map<String, Integer> porNo = contar(new AnelConsistente(List.of("no1", "no2", "no3", "no4"), 128));
+
+        assertEquals(4, porNo.size());
+        for (int chaves : porNo.values()) {
+            // Parte justa: 25% de cada
+            assertTrue(chaves > CHAVES * 0.18 && chaves < CHAVES * 0.32, porNo.toString());
+        }
+    }
+
+    @Test
+    void noNovoSoTomaChavesDosOutros() {
+        AnelConsistente antes = new AnelConsistente(List.of("no1", "no2", "no3"), 128);
+        AnelConsistente depois = new AnelConsistente(List.of("no1", "no2", "no3", "no4"), 128);
+
+        int movidas = 0;
+        for (long chave = 1; chave <= CHAVES; chave++) {
+            if (!antes.dono(chave).equals(depois.dono(chave))) {
+                assertEquals("no4", depois.dono(chave));
+                movidas++;
+            }
+        }
+        // Só as que passam a ser dele: perto de um quarto, não uma redistribuição geral
+        assertTrue(movidas > CHAVES * 0.15 && movidas < CHAVES * 0.35, String.valueOf(movidas));
+    }
+
+    @Test
+    void noRemovidoSoEntregaAsChavesDele() {
+        AnelConsistente antes = new AnelConsistente(List.of("no1", "no2", "no3"), 128);
+        AnelConsistente depois = new AnelConsistente(List.of("no1", "no2"), 128);
+
+        for (long chave = 1; chave <= CHAVES; chave++) {
+            if (!antes.dono(chave).equals("no3")) {
+                assertEquals(antes.dono(chave), depois.dono(chave));
+            }
+        }
+    }
+
+    @Test
+    void anelSemNosERecusado() {
+        assertThrows(IllegalArgumentException.class, () -> new AnelConsistente(List.of(), 128));
+    }
+
+    private static Map<String, Integer> contar(AnelConsistente anel) {
+        Map<String, Integer> porNo = new HashMap<>();
+        for (long chave = 1; chave <= CHAVES; chave++) {
+            porNo.merge(anel.dono(chave), 1, Integer::sum);
+        }
+        return porNo;
+    }
+}
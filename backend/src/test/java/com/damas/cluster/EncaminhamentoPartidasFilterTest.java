@@ -0,0 +1,185 @@
+package com.damas.cluster;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// O outro nó é um servidor HTTP de verdade que só registra o que recebeu
+class EncaminhamentoPartidasFilterTest {
+
+    private static final String SEGREDO = "segredo-de-teste";
+
+    private HttpServer outroNo;
+    private final AtomicReference<String> caminhoRecebido = new AtomicReference<>();
+    private final AtomicReference<String> metodoRecebido = new AtomicReference<>();
+    private final AtomicReference<String> corpoRecebido = new AtomicReference<>();
+    private final AtomicReference<Headers> cabecalhosRecebidos = new AtomicReference<>();
+
+    private TopologiaCluster topologia;
+    private EncaminhamentoPartidasFilter filtro;
+
+    @BeforeEach
+    void subirOutroNo() throws Exception {
+        outroNo = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        outroNo.createContext("/", troca -> {
+            caminhoRecebido.set(troca.getRequestURI().toString());
+            metodoRecebido.set(troca.getRequestMethod());
+            corpoRecebido.set(new String(troca.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            cabecalhosRecebidos.set(troca.getRequestHeaders());
+            byte[] resposta = "{\"dono\":\"no2\"}".getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", "application/json");
+            troca.sendResponseHeaders(201, resposta.length);
+            troca.getResponseBody().write(resposta);
+            troca.close();
+        });
+        outroNo.start();
+
+        topologia = topologia("no1=http://127.0.0.1:1,no2=http://127.0.0.1:" + outroNo.getAddress().getPort());
+        filtro = filtro(topologia, SEGREDO);
+    }
+
+    @AfterEach
+    void derrubarOutroNo() {
+        outroNo.stop(0);
+    }
+
+    @Test
+    void rotaDePartidaDeOutroNoVaiAoDonoComOsCabecalhos() throws Exception {
+        long partida = partidaDo("no2");
+        MockHttpServletRequest request = requisicao("POST", "/api/partidas/" + partida + "/movimento");
+        request.setQueryString("origem=1");
+        request.addHeader("Authorization", "Bearer abc");
+        request.addHeader("Cookie", "nao=repassar");
+        request.setContentType("application/json");
+        request.setContent("{\"lance\":1}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain cadeia = new MockFilterChain();
+
+        filtro.doFilter(request, response, cadeia);
+
+        assertNull(cadeia.getRequest());
+        assertEquals("/api/partidas/" + partida + "/movimento?origem=1", caminhoRecebido.get());
+        assertEquals("POST", metodoRecebido.get());
+        assertEquals("{\"lance\":1}", corpoRecebido.get());
+        Headers cabecalhos = cabecalhosRecebidos.get();
+        assertEquals("Bearer abc", cabecalhos.getFirst("Authorization"));
+        assertEquals("application/json", cabecalhos.getFirst("Content-Type"));
+        assertNull(cabecalhos.getFirst("Cookie"));
+        assertEquals("no1", cabecalhos.getFirst(EncaminhamentoPartidasFilter.CABECALHO_ENCAMINHADA));
+        assertEquals(SEGREDO, cabecalhos.getFirst(EncaminhamentoPartidasFilter.CABECALHO_SEGREDO));
+
+        assertEquals(201, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("{\"dono\":\"no2\"}", response.getContentAsString());
+    }
+
+    @Test
+    void partidaDoProprioNoSegueAdiante() throws Exception {
+        MockFilterChain cadeia = new MockFilterChain();
+
+        filtro.doFilter(requisicao("GET", "/api/partidas/" + partidaDo("no1")), new MockHttpServletResponse(), cadeia);
+
+        assertNotNull(cadeia.getRequest());
+        assertNull(caminhoRecebido.get());
+    }
+
+    @Test
+    void rotasQueNaoDependemDoDonoNaoSaoEncaminhadas() throws Exception {
+        long partida = partidaDo("no2");
+        for (String caminho : new String[]{"/api/partidas", "/api/partidas/" + partida + "/convite",
+                "/api/partidas/abc", "/api/ranking"}) {
+            MockFilterChain cadeia = new MockFilterChain();
+            filtro.doFilter(requisicao("GET", caminho), new MockHttpServletResponse(), cadeia);
+            assertNotNull(cadeia.getRequest(), caminho);
+        }
+        assertNull(caminhoRecebido.get());
+    }
+
+    @Test
+    void marcaDeEncaminhadaSemOSegredoEIgnorada() throws Exception {
+        long partida = partidaDo("no2");
+        MockHttpServletRequest semSegredo = requisicao("GET", "/api/partidas/" + partida);
+        semSegredo.addHeader(EncaminhamentoPartidasFilter.CABECALHO_ENCAMINHADA, "no2");
+        MockHttpServletRequest segredoErrado = requisicao("GET", "/api/partidas/" + partida + "/lances");
+        segredoErrado.addHeader(EncaminhamentoPartidasFilter.CABECALHO_ENCAMINHADA, "no2");
+        segredoErrado.addHeader(EncaminhamentoPartidasFilter.CABECALHO_SEGREDO, "chute");
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{semSegredo, segredoErrado}) {
+            MockFilterChain cadeia = new MockFilterChain();
+            caminhoRecebido.set(null);
+            filtro.doFilter(request, new MockHttpServletResponse(), cadeia);
+            assertNull(cadeia.getRequest());
+            assertEquals(request.getRequestURI(), caminhoRecebido.get());
+        }
+    }
+
+    @Test
+    void requisicaoEncaminhadaComOSegredoEProcessadaAqui() throws Exception {
+        MockHttpServletRequest request = requisicao("GET", "/api/partidas/" + partidaDo("no2"));
+        request.addHeader(EncaminhamentoPartidasFilter.CABECALHO_ENCAMINHADA, "no2");
+        request.addHeader(EncaminhamentoPartidasFilter.CABECALHO_SEGREDO, SEGREDO);
+        MockFilterChain cadeia = new MockFilterChain();
+
+        filtro.doFilter(request, new MockHttpServletResponse(), cadeia);
+
+        assertNotNull(cadeia.getRequest());
+        assertNull(caminhoRecebido.get());
+    }
+
+    @Test
+    void donoForaDoArRespondeIndisponivel() throws Exception {
+        long partida = partidaDo("no2");
+        outroNo.stop(0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(requisicao("GET", "/api/partidas/" + partida), response, new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+    }
+
+    @Test
+    void clusterSemSegredoNaoSobe() {
+        assertThrows(IllegalStateException.class, () -> filtro(topologia, ""));
+    }
+
+    private long partidaDo(String no) {
+        for (long id = 1; ; id++) {
+            if (topologia.dono(id).equals(no)) {
+                return id;
+            }
+        }
+    }
+
+    private static TopologiaCluster topologia(String nos) {
+        TopologiaCluster topologia = new TopologiaCluster();
+        ReflectionTestUtils.setField(topologia, "noLocal", "no1");
+        ReflectionTestUtils.setField(topologia, "configuracaoNos", nos);
+        topologia.inicializar();
+        return topologia;
+    }
+
+    private static EncaminhamentoPartidasFilter filtro(TopologiaCluster topologia, String segredo) {
+        EncaminhamentoPartidasFilter filtro = new EncaminhamentoPartidasFilter(topologia);
+        ReflectionTestUtils.setField(filtro, "segredo", segredo);
+        filtro.conferirSegredo();
+        return filtro;
+    }
+
+    private static MockHttpServletRequest requisicao(String metodo, String caminho) {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, caminho);
+        request.setServletPath(caminho);
+        return request;
+    }
+}
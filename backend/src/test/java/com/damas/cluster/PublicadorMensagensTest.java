@@ -0,0 +1,126 @@
+package com.damas.cluster;
+
+import com.damas.dto.MovimentoRequest;
+import com.damas.dto.NovaPartidaRequest;
+import com.damas.model.Usuario;
+import com.damas.repository.UsuarioRepository;
+import com.damas.security.CacheAutenticacao;
+import com.damas.security.JwtService;
+import com.damas.service.AuthService;
+import com.damas.service.PartidaService;
+import com.damas.service.UsuarioDesativadoEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class PublicadorMensagensTest {
+
+    @Autowired
+    private PartidaService partidaService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private CacheAutenticacao cacheAutenticacao;
+
+    // Outro nó do mesmo grupo, na mesma JVM: recebe na hora o que este nó publica
+    private BarramentoLocal outroNo;
+    private final List<MensagemCluster> recebidas = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void entrarNoGrupo() {
+        outroNo = new BarramentoLocal("damas");
+        outroNo.inscrever(recebidas::add);
+    }
+
+    @AfterEach
+    void sairDoGrupo() {
+        outroNo.sair();
+    }
+
+    @Test
+    void lanceVaiAosInscritosSoComoDelta() throws Exception {
+        Usuario brancas = criarUsuario();
+        Usuario pretas = criarUsuario();
+        Long id = partidaService.criarPartida(new NovaPartidaRequest(), brancas.getId()).getId();
+        partidaService.entrarPartida(id, pretas.getId());
+        recebidas.clear();
+
+        partidaService.realizarMovimento(id, MovimentoRequest.builder()
+                .linhaOrigem(5).colunaOrigem(2).linhaDestino(4).colunaDestino(3).ply(1).build(), brancas.getId());
+
+        List<MensagemCluster> doTopico = recebidas.stream()
+                .filter(mensagem -> mensagem.tipo() == MensagemCluster.Tipo.TOPICO)
+                .filter(mensagem -> ("/topic/partida/" + id).equals(mensagem.destino()))
+                .toList();
+        assertEquals(1, doTopico.size());
+        JsonNode atualizacao = objectMapper.readTree(doTopico.get(0).conteudo());
+        assertEquals("LANCE", atualizacao.get("tipo").asText());
+        assertEquals(1, atualizacao.get("sequencia").asInt());
+        assertEquals(5, atualizacao.get("lance").get("linhaOrigem").asInt());
+        assertEquals(3, atualizacao.get("lance").get("colunaDestino").asInt());
+        assertFalse(atualizacao.has("partida"));
+        assertFalse(atualizacao.has("tabuleiro"));
+    }
+
+    @Test
+    void desativacaoDeContaChegaAosOutrosNos() throws Exception {
+        Usuario usuario = criarUsuario();
+
+        authService.desativarUsuario(usuario.getId());
+
+        MensagemCluster evento = recebidas.stream()
+                .filter(mensagem -> mensagem.tipo() == MensagemCluster.Tipo.EVENTO)
+                .filter(mensagem -> UsuarioDesativadoEvent.class.getName().equals(mensagem.classe()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(usuario.getId(), objectMapper.readTree(evento.conteudo()).get("usuarioId").asLong());
+    }
+
+    @Test
+    void desativacaoVindaDeOutroNoRecusaOsTokensNesteNo() throws Exception {
+        Usuario usuario = criarUsuario();
+        String token = jwtService.generateToken(usuario);
+        assertEquals(usuario.getId(), cacheAutenticacao.autenticar(token).getId());
+
+        long emitidoEm = jwtService.parseToken(token).getEmitidoEm();
+        outroNo.publicar(new MensagemCluster(MensagemCluster.Tipo.EVENTO, "outro", null, null, null,
+                UsuarioDesativadoEvent.class.getName(),
+                objectMapper.writeValueAsString(new UsuarioDesativadoEvent(usuario.getId(), emitidoEm))));
+
+        assertThrows(JwtException.class, () -> cacheAutenticacao.autenticar(token));
+    }
+
+    private Usuario criarUsuario() {
+        String username = "u" + UUID.randomUUID().toString().substring(0, 8);
+        return usuarioRepository.save(Usuario.builder()
+                .username(username)
+                .email(username + "@teste.local")
+                .senha("x")
+                .build());
+    }
+}
@@ -0,0 +1,96 @@
+package com.damas.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DataSourceLimitadoTest {
+
+    private DataSource pool;
+
+    @BeforeEach
+    void criarPool() throws SQLException {
+        pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocacao -> mock(Connection.class));
+    }
+
+    @Test
+    void recusaConexaoAlemDoLimiteAteUmaSerFechada() throws SQLException {
+        DataSourceLimitado dataSource = new DataSourceLimitado(pool, 2, 0);
+        Connection primeira = dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        primeira.close();
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    void fecharDuasVezesDevolveUmaPermissao() throws SQLException {
+        DataSourceLimitado dataSource = new DataSourceLimitado(pool, 2, 0);
+        Connection primeira = dataSource.getConnection();
+        dataSource.getConnection();
+
+        primeira.close();
+        primeira.close();
+
+        dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+    }
+
+    @Test
+    void falhaDoPoolDevolveAPermissao() throws SQLException {
+        DataSourceLimitado dataSource = new DataSourceLimitado(pool, 1, 0);
+        when(pool.getConnection()).thenThrow(new SQLException("falha")).thenAnswer(invocacao -> mock(Connection.class));
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertNotNull(dataSource.getConnection());
+    }
+
+    @Test
+    void conexaoRepassaAsChamadasEFechaADoPool() throws SQLException {
+        Connection real = mock(Connection.class);
+        when(real.getAutoCommit()).thenReturn(true);
+        when(pool.getConnection()).thenReturn(real);
+        DataSourceLimitado dataSource = new DataSourceLimitado(pool, 1, 0);
+
+        Connection conexao = dataSource.getConnection();
+        assertTrue(conexao.getAutoCommit());
+        conexao.close();
+        conexao.close();
+
+        verify(real, times(1)).close();
+    }
+
+    @Test
+    void esperaNaFilaAteUmaConexaoSerDevolvida() throws Exception {
+        DataSourceLimitado dataSource = new DataSourceLimitado(pool, 1, TimeUnit.MINUTES.toMillis(1));
+        Connection primeira = dataSource.getConnection();
+
+        CompletableFuture<Connection> segunda = CompletableFuture.supplyAsync(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (dataSource.getAguardando() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(segunda.isDone());
+
+        primeira.close();
+        assertNotNull(segunda.get(1, TimeUnit.MINUTES));
+        assertEquals(0, dataSource.getAguardando());
+    }
+}
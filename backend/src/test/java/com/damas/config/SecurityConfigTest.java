@@ -0,0 +1,64 @@
+package com.damas.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class SecurityConfigTest {
+
+    @Autowired
+    private WebApplicationContext contexto;
+
+    @Test
+    void prometheusNaPortaDaAplicacaoExigeLogin() throws Exception {
+        MockMvc mvc = MockMvcBuilders.webAppContextSetup(contexto).apply(springSecurity()).build();
+
+        mvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void coletaAbertaSoNaPortaDeGerenciaSeparada() {
+        RequestMatcher matcher = securityConfig(9090, 8080).naPortaDeGerencia("/actuator/prometheus");
+
+        assertTrue(matcher.matches(requisicao(9090, "/actuator/prometheus")));
+        assertFalse(matcher.matches(requisicao(8080, "/actuator/prometheus")));
+        assertFalse(matcher.matches(requisicao(9090, "/actuator/metrics")));
+    }
+
+    @Test
+    void semPortaDeGerenciaSeparadaNenhumaRequisicaoEAberta() {
+        RequestMatcher mesmaPorta = securityConfig(8080, 8080).naPortaDeGerencia("/actuator/prometheus");
+        RequestMatcher semPorta = securityConfig(-1, 8080).naPortaDeGerencia("/actuator/prometheus");
+
+        assertFalse(mesmaPorta.matches(requisicao(8080, "/actuator/prometheus")));
+        assertFalse(semPorta.matches(requisicao(8080, "/actuator/prometheus")));
+    }
+
+    private static SecurityConfig securityConfig(int portaGerencia, int portaAplicacao) {
+        SecurityConfig config = new SecurityConfig(null, null);
+        ReflectionTestUtils.setField(config, "portaGerencia", portaGerencia);
+        ReflectionTestUtils.setField(config, "portaAplicacao", portaAplicacao);
+        return config;
+    }
+
+    private static MockHttpServletRequest requisicao(int porta, String caminho) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", caminho);
+        request.setServletPath(caminho);
+        request.setLocalPort(porta);
+        return request;
+    }
+}
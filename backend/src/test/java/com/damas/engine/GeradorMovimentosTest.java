@@ -0,0 +1,181 @@
+package com.damas.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeradorMovimentosTest {
+
+    private final GeradorMovimentos gerador = new GeradorMovimentos();
+    private final ListaMovimentos lista = new ListaMovimentos();
+
+    @Test
+    void posicaoInicialTemSeteLancesSimples() {
+        assertEquals(7, gerador.gerar(Posicao.inicial(), lista));
+        for (int i = 0; i < lista.tamanho(); i++) {
+            assertFalse(Movimento.isCaptura(lista.get(i)));
+            assertEquals(5, Casas.linha(Movimento.origem(lista.get(i))));
+        }
+    }
+
+    @Test
+    void capturaEObrigatoria() {
+        Posicao posicao = posicao(
+                "........",
+                "........",
+                "........",
+                "........",
+                "...p....",
+                "..b.....",
+                "......b.",
+                "........");
+        assertEquals(1, gerador.gerar(posicao, lista));
+        assertEquals(movimento(5, 2, 3, 4, casa(4, 3)), lista.get(0));
+    }
+
+    @Test
+    void homemCapturaParaTras() {
+        Posicao posicao = posicao(
+                "........",
+                "........",
+                "........",
+                "..b.....",
+                "...p....",
+                "........",
+                "........",
+                "........");
+        assertEquals(1, gerador.gerar(posicao, lista));
+        assertEquals(movimento(3, 2, 5, 4, casa(4, 3)), lista.get(0));
+    }
+
+    @Test
+    void leiDaMaioriaFicaComASequenciaMaisLonga() {
+        Posicao posicao = posicao(
+                "........",
+                "........",
+                "........",
+                "....p...",
+                "........",
+                "..p..p..",
+                ".b......",
+                "......b.");
+        assertEquals(1, gerador.gerar(posicao, lista));
+        long movimento = lista.get(0);
+        assertEquals(casa(6, 1), Movimento.origem(movimento));
+        assertEquals(casa(2, 5), Movimento.destino(movimento));
+        assertEquals((1 << casa(5, 2)) | (1 << casa(3, 4)), Movimento.capturadas(movimento));
+    }
+
+    @Test
+    void damaCapturaALongaDistanciaECaiEmQualquerCasaLivre() {
+        Posicao posicao = posicao(
+                "........",
+                "........",
+                "........",
+                "........",
+                "...p....",
+                "........",
+                "........",
+                "B.......");
+        assertEquals(4, gerador.gerar(posicao, lista));
+        for (int i = 0; i < lista.tamanho(); i++) {
+            assertEquals(1 << casa(4, 3), Movimento.capturadas(lista.get(i)));
+            assertEquals(casa(7, 0), Movimento.origem(lista.get(i)));
+        }
+        assertTrue(lista.contem(movimento(7, 0, 0, 7, casa(4, 3))));
+    }
+
+    @Test
+    void damaAndaQuantasCasasQuiserNaDiagonal() {
+        Posicao posicao = posicao(
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                "..B.....",
+                "........",
+                ".......p");
+        // De (5,2): noroeste até (3,0), nordeste até (0,7), sudoeste até (7,0), sudeste até (7,4)
+        assertEquals(2 + 5 + 2 + 2, gerador.gerar(posicao, lista));
+        assertTrue(lista.contem(Movimento.criar(casa(5, 2), casa(0, 7), 0)));
+    }
+
+    @Test
+    void promocaoSoNoFimDoLance() {
+        Posicao posicao = posicao(
+                "........",
+                "..p.p...",
+                ".b......",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........");
+        assertEquals(1, gerador.gerar(posicao, lista));
+        long movimento = lista.get(0);
+        assertEquals(casa(2, 5), Movimento.destino(movimento));
+        posicao.aplicar(movimento);
+        assertEquals(Posicao.PECA_BRANCA, posicao.pecaEm(casa(2, 5)));
+        assertEquals(0, posicao.getPecasPretas());
+    }
+
+    @Test
+    void semPecasNaoHaMovimentos() {
+        Posicao posicao = posicao(
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                ".p......");
+        assertEquals(0, gerador.gerar(posicao, lista));
+    }
+
+    @Test
+    void bloqueioConferidoParaQuemEstaNaVez() {
+        // O homem preto não anda nem captura: (4,3) cobre o salto sobre (3,2)
+        Posicao vezBrancas = posicao(
+                "........",
+                "........",
+                ".p......",
+                "b.b.....",
+                "...b....",
+                "........",
+                "........",
+                "........");
+        Posicao vezPretas = new Posicao(vezBrancas.getHomensBrancos(), vezBrancas.getHomensPretos(),
+                vezBrancas.getDamasBrancas(), vezBrancas.getDamasPretas(), false);
+
+        assertTrue(gerador.temMovimento(vezBrancas, lista));
+        assertFalse(gerador.temMovimento(vezPretas, lista));
+        assertEquals(0, gerador.gerar(vezPretas, lista));
+    }
+
+    // Linhas de cima (0) para baixo (7): b/p homens, B/P damas, brancas na vez
+    static Posicao posicao(String... linhas) {
+        int[][] tabuleiro = new int[Casas.TAMANHO_TABULEIRO][Casas.TAMANHO_TABULEIRO];
+        for (int linha = 0; linha < linhas.length; linha++) {
+            for (int coluna = 0; coluna < linhas[linha].length(); coluna++) {
+                tabuleiro[linha][coluna] = switch (linhas[linha].charAt(coluna)) {
+                    case 'b' -> Posicao.PECA_BRANCA;
+                    case 'p' -> Posicao.PECA_PRETA;
+                    case 'B' -> Posicao.DAMA_BRANCA;
+                    case 'P' -> Posicao.DAMA_PRETA;
+                    default -> Posicao.VAZIO;
+                };
+            }
+        }
+        return Posicao.deMatriz(tabuleiro, true);
+    }
+
+    static int casa(int linha, int coluna) {
+        return Casas.indice(linha, coluna);
+    }
+
+    static long movimento(int linhaOrigem, int colunaOrigem, int linhaDestino, int colunaDestino, int capturada) {
+        return Movimento.criar(casa(linhaOrigem, colunaOrigem), casa(linhaDestino, colunaDestino), 1 << capturada);
+    }
+}
@@ -0,0 +1,38 @@
+package com.damas.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceFinaisTest {
+
+    @Test
+    void indiceDaPosicaoDeCadaIndiceValidoEOProprioIndice() {
+        int[][] materiais = {{1, 0, 1, 0}, {0, 1, 0, 1}, {1, 1, 0, 1}, {2, 0, 1, 0}, {0, 2, 1, 0}, {1, 0, 0, 2}};
+        for (int[] material : materiais) {
+            long tamanho = IndiceFinais.tamanho(material[0], material[1], material[2], material[3]);
+            int validos = 0;
+            for (int indice = 0; indice < tamanho; indice++) {
+                Posicao posicao = IndiceFinais.posicao(material[0], material[1], material[2], material[3], indice);
+                if (posicao == null) {
+                    continue;
+                }
+                validos++;
+                assertEquals(material[0], Integer.bitCount(posicao.getHomensBrancos()));
+                assertEquals(material[1], Integer.bitCount(posicao.getDamasBrancas()));
+                assertEquals(material[2], Integer.bitCount(posicao.getHomensPretos()));
+                assertEquals(material[3], Integer.bitCount(posicao.getDamasPretas()));
+                assertEquals(0, posicao.getHomensBrancos() & Casas.LINHA_PROMOCAO_BRANCAS);
+                assertEquals(indice, IndiceFinais.indice(posicao.getHomensBrancos(), posicao.getDamasBrancas(),
+                        posicao.getHomensPretos(), posicao.getDamasPretas()));
+            }
+            assertTrue(validos > 0);
+        }
+    }
+
+    @Test
+    void codigosDistintosPorMaterial() {
+        assertNotEquals(IndiceFinais.codigo(1, 0, 0, 1), IndiceFinais.codigo(0, 1, 1, 0));
+        assertTrue(IndiceFinais.codigo(6, 6, 6, 6) < IndiceFinais.quantidadeCodigos());
+    }
+}
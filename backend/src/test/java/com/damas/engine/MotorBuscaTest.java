@@ -0,0 +1,92 @@
+package com.damas.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.damas.engine.GeradorMovimentosTest.casa;
+import static com.damas.engine.GeradorMovimentosTest.posicao;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorBuscaTest {
+
+    // Recusa as auxiliares: a busca fica numa thread só e o resultado não depende do agendamento
+    private static final Executor RECUSA = tarefa -> {
+        throw new RejectedExecutionException();
+    };
+
+    private final MotorBusca motor = new MotorBusca(new TabelaTransposicao(16), RECUSA, 2);
+
+    @Test
+    void semMovimentosRetornaNenhum() {
+        Posicao posicao = posicao(
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                ".p......");
+        assertEquals(Movimento.NENHUM, motor.melhorMovimento(posicao, 10_000, 4));
+    }
+
+    @Test
+    void unicoMovimentoLegalSaiSemBusca() {
+        Posicao posicao = posicao(
+                "........",
+                "........",
+                "........",
+                "........",
+                "...p....",
+                "..b.....",
+                "......b.",
+                "........");
+        long movimento = motor.melhorMovimento(posicao, 10_000, 4);
+        assertEquals(casa(3, 4), Movimento.destino(movimento));
+    }
+
+    @Test
+    void naoEntregaPecaDeGraca() {
+        // (4,3) para (3,2) deixa a preta capturar; os outros lances não perdem material
+        Posicao posicao = posicao(
+                ".p......",
+                "........",
+                "...p....",
+                "........",
+                "...b.b..",
+                "........",
+                "........",
+                "........");
+        long movimento = motor.melhorMovimento(posicao, 10_000, 4);
+        assertNotEquals(Movimento.criar(casa(4, 3), casa(3, 2), 0), movimento);
+        assertTrue(legal(posicao, movimento));
+    }
+
+    @Test
+    void buscaDevolveLanceLegalComAuxiliaresRecusadas() {
+        Posicao inicial = Posicao.inicial();
+        assertTrue(legal(inicial, motor.melhorMovimento(inicial, 10_000, 3)));
+    }
+
+    @Test
+    void auxiliaresSaoEnviadasAoPoolSemRodarNaChamada() {
+        List<Runnable> enviadas = new ArrayList<>();
+        MotorBusca comAuxiliares = new MotorBusca(new TabelaTransposicao(16), enviadas::add, 3);
+        Posicao inicial = Posicao.inicial();
+        assertTrue(legal(inicial, comAuxiliares.melhorMovimento(inicial, 10_000, 3)));
+        assertEquals(2, enviadas.size());
+        // Rodadas depois do fim da busca, param logo e não mexem na raiz de quem chamou
+        enviadas.forEach(Runnable::run);
+        assertEquals(Posicao.inicial(), inicial);
+    }
+
+    private static boolean legal(Posicao posicao, long movimento) {
+        ListaMovimentos lista = new ListaMovimentos();
+        new GeradorMovimentos().gerar(posicao, lista);
+        return lista.contem(movimento);
+    }
+}
@@ -0,0 +1,27 @@
+package com.damas.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    private static final int PROFUNDIDADE = 8;
+
+    @Test
+    void contagensDaPosicaoInicial() {
+        Perft perft = new Perft(PROFUNDIDADE);
+        for (int profundidade = 0; profundidade <= PROFUNDIDADE; profundidade++) {
+            assertEquals(Perft.CONTAGENS_POSICAO_INICIAL[profundidade], perft.contar(Posicao.inicial(), profundidade),
+                    "profundidade " + profundidade);
+        }
+    }
+
+    @Test
+    void contarNaoAlteraAPosicao() {
+        Posicao inicial = Posicao.inicial();
+        new Perft(4).contar(inicial, 4);
+        assertEquals(Posicao.inicial(), inicial);
+        assertEquals(Posicao.inicial().getHash(), inicial.getHash());
+    }
+}
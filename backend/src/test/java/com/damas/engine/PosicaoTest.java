@@ -0,0 +1,102 @@
+package com.damas.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PosicaoTest {
+
+    @Test
+    void casasIdaEVolta() {
+        for (int casa = 0; casa < Casas.TOTAL; casa++) {
+            assertEquals(casa, Casas.indice(Casas.linha(casa), Casas.coluna(casa)));
+            assertEquals(1, (Casas.linha(casa) + Casas.coluna(casa)) % 2);
+        }
+        assertEquals(-1, Casas.indice(0, 0));
+        assertEquals(-1, Casas.indice(-1, 1));
+        assertEquals(-1, Casas.indice(7, 8));
+    }
+
+    @Test
+    void movimentoGuardaOrigemDestinoECapturadas() {
+        long movimento = Movimento.criar(31, 0, 0x80000001);
+        assertEquals(31, Movimento.origem(movimento));
+        assertEquals(0, Movimento.destino(movimento));
+        assertEquals(0x80000001, Movimento.capturadas(movimento));
+        assertTrue(Movimento.isCaptura(movimento));
+        assertFalse(Movimento.isCaptura(Movimento.criar(20, 16, 0)));
+    }
+
+    @Test
+    void posicaoInicialTemDozePecasDeCadaLado() {
+        Posicao inicial = Posicao.inicial();
+        assertEquals(12, Integer.bitCount(inicial.getPecasBrancas()));
+        assertEquals(12, Integer.bitCount(inicial.getPecasPretas()));
+        assertTrue(inicial.isVezBrancas());
+
+        int[][] tabuleiro = inicial.paraMatriz();
+        assertEquals(Posicao.PECA_PRETA, tabuleiro[0][1]);
+        assertEquals(Posicao.VAZIO, tabuleiro[0][0]);
+        assertEquals(Posicao.VAZIO, tabuleiro[3][0]);
+        assertEquals(Posicao.PECA_BRANCA, tabuleiro[7][0]);
+    }
+
+    @Test
+    void matrizIdaEVolta() {
+        int[][] tabuleiro = new int[8][8];
+        tabuleiro[0][1] = Posicao.DAMA_BRANCA;
+        tabuleiro[2][3] = Posicao.PECA_PRETA;
+        tabuleiro[5][4] = Posicao.PECA_BRANCA;
+        tabuleiro[7][6] = Posicao.DAMA_PRETA;
+
+        Posicao posicao = Posicao.deMatriz(tabuleiro, false);
+        assertFalse(posicao.isVezBrancas());
+        assertArrayEquals(tabuleiro, posicao.paraMatriz());
+        assertEquals(Posicao.DAMA_BRANCA, posicao.pecaEm(Casas.indice(0, 1)));
+        assertEquals(posicao, posicao.copia());
+    }
+
+    @Test
+    void aplicarMoveAPecaEPassaAVez() {
+        Posicao posicao = Posicao.inicial();
+        int origem = Casas.indice(5, 0);
+        int destino = Casas.indice(4, 1);
+        posicao.aplicar(Movimento.criar(origem, destino, 0));
+
+        assertEquals(Posicao.VAZIO, posicao.pecaEm(origem));
+        assertEquals(Posicao.PECA_BRANCA, posicao.pecaEm(destino));
+        assertFalse(posicao.isVezBrancas());
+    }
+
+    @Test
+    void aplicarRemoveCapturadasEPromove() {
+        int[][] tabuleiro = new int[8][8];
+        tabuleiro[2][1] = Posicao.PECA_BRANCA;
+        tabuleiro[1][2] = Posicao.PECA_PRETA;
+        tabuleiro[6][1] = Posicao.PECA_PRETA;
+        Posicao posicao = Posicao.deMatriz(tabuleiro, true);
+
+        int capturada = Casas.indice(1, 2);
+        posicao.aplicar(Movimento.criar(Casas.indice(2, 1), Casas.indice(0, 3), 1 << capturada));
+
+        assertEquals(Posicao.DAMA_BRANCA, posicao.pecaEm(Casas.indice(0, 3)));
+        assertEquals(Posicao.VAZIO, posicao.pecaEm(capturada));
+        assertEquals(0, posicao.getHomensBrancos());
+
+        // Homem preto chega à linha 7 e vira dama
+        posicao.aplicar(Movimento.criar(Casas.indice(6, 1), Casas.indice(7, 0), 0));
+        assertEquals(Posicao.DAMA_PRETA, posicao.pecaEm(Casas.indice(7, 0)));
+        assertTrue(posicao.isVezBrancas());
+    }
+
+    @Test
+    void copiarDeNaoCompartilhaEstado() {
+        Posicao original = Posicao.inicial();
+        Posicao copia = new Posicao();
+        copia.copiarDe(original);
+        copia.aplicar(Movimento.criar(Casas.indice(5, 0), Casas.indice(4, 1), 0));
+
+        assertEquals(Posicao.inicial(), original);
+        assertNotEquals(original, copia);
+    }
+}
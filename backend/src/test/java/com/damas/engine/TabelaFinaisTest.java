@@ -0,0 +1,122 @@
+package com.damas.engine;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TabelaFinaisTest {
+
+    private static final int PECAS = 3;
+
+    private static final TabelaFinais tabela = new TabelaFinais();
+
+    @BeforeAll
+    static void gerar(@TempDir Path diretorio) throws IOException {
+        Path arquivo = diretorio.resolve("finais.db");
+        GeradorTabelaFinais.Estatisticas estatisticas = GeradorTabelaFinais.gerar(arquivo, PECAS, 2);
+        assertTrue(estatisticas.posicoes() > 0);
+        tabela.carregar(arquivo);
+    }
+
+    @Test
+    void capturaDaUltimaPecaVenceEmUmLance() {
+        // Dama branca em (5,2) e homem preto em (4,3), com (3,4) vazia
+        Posicao posicao = new Posicao(0, bit(4, 3), bit(5, 2), 0, true);
+
+        assertEquals(PECAS, tabela.getPecas());
+        assertEquals(1, tabela.consultar(posicao));
+        long melhor = tabela.melhorMovimento(posicao);
+        assertEquals(bit(4, 3), Movimento.capturadas(melhor));
+        posicao.aplicar(melhor);
+        assertEquals(0, posicao.getPecasPretas());
+    }
+
+    @Test
+    void posicaoComPecasDemaisFicaForaDaTabela() {
+        assertEquals(TabelaFinais.FORA, tabela.consultar(Posicao.inicial()));
+        assertEquals(Movimento.NENHUM, tabela.melhorMovimento(Posicao.inicial()));
+    }
+
+    /**
+     * Cada valor gravado bate com os filhos: vitória em d tem um lance para
+     * derrota em d - 1; derrota em d só tem lances para vitórias, a maior em
+     * d - 1; empate não tem lance para derrota e tem algum para empate
+     */
+    @Test
+    void valoresConsistentesComOsLances() {
+        GeradorMovimentos gerador = new GeradorMovimentos();
+        ListaMovimentos movimentos = new ListaMovimentos();
+        Posicao filho = new Posicao();
+        int conferidas = 0;
+
+        for (int total = 2; total <= PECAS; total++) {
+            for (int a = 0; a <= total; a++) {
+                for (int b = 0; a + b <= total; b++) {
+                    for (int c = 0; a + b + c <= total; c++) {
+                        int d = total - a - b - c;
+                        if (a + b == 0 || c + d == 0) {
+                            continue;
+                        }
+                        long tamanho = IndiceFinais.tamanho(a, b, c, d);
+                        for (int indice = 0; indice < tamanho; indice++) {
+                            Posicao posicao = IndiceFinais.posicao(a, b, c, d, indice);
+                            if (posicao == null) {
+                                continue;
+                            }
+                            movimentos.limpar();
+                            gerador.gerar(posicao, movimentos);
+                            conferirValor(posicao, movimentos, filho);
+                            conferidas++;
+                        }
+                    }
+                }
+            }
+        }
+        assertTrue(conferidas > 10_000);
+    }
+
+    private static void conferirValor(Posicao posicao, ListaMovimentos movimentos, Posicao filho) {
+        int valor = tabela.consultar(posicao);
+        assertNotEquals(TabelaFinais.FORA, valor);
+        if (movimentos.isVazia()) {
+            assertEquals(0, valor, "sem lances é derrota já");
+            return;
+        }
+        int menorDerrotaFilho = Integer.MAX_VALUE;
+        int maiorVitoriaFilho = -1;
+        boolean empateFilho = false;
+        for (int i = 0; i < movimentos.tamanho(); i++) {
+            filho.copiarDe(posicao);
+            filho.aplicar(movimentos.get(i));
+            int valorFilho = tabela.consultar(filho);
+            assertNotEquals(TabelaFinais.FORA, valorFilho);
+            if (valorFilho == TabelaFinais.EMPATE) {
+                empateFilho = true;
+            } else if (TabelaFinais.isDerrota(valorFilho)) {
+                menorDerrotaFilho = Math.min(menorDerrotaFilho, valorFilho);
+            } else {
+                maiorVitoriaFilho = Math.max(maiorVitoriaFilho, valorFilho);
+            }
+        }
+        if (TabelaFinais.isVitoria(valor)) {
+            assertEquals(valor - 1, menorDerrotaFilho);
+        } else if (TabelaFinais.isDerrota(valor)) {
+            assertEquals(Integer.MAX_VALUE, menorDerrotaFilho);
+            assertFalse(empateFilho);
+            assertEquals(valor - 1, maiorVitoriaFilho);
+        } else {
+            assertEquals(TabelaFinais.EMPATE, valor);
+            assertEquals(Integer.MAX_VALUE, menorDerrotaFilho);
+            assertTrue(empateFilho);
+        }
+    }
+
+    private static int bit(int linha, int coluna) {
+        return 1 << Casas.indice(linha, coluna);
+    }
+}
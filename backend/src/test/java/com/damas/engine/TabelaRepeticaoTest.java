@@ -0,0 +1,51 @@
+package com.damas.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TabelaRepeticaoTest {
+
+    @Test
+    void contaOcorrenciasIncluindoAAtual() {
+        TabelaRepeticao tabela = new TabelaRepeticao();
+        assertEquals(1, tabela.registrar(10L));
+        assertEquals(1, tabela.registrar(20L));
+        assertEquals(2, tabela.registrar(10L));
+        assertEquals(3, tabela.registrar(10L));
+        assertEquals(4, tabela.tamanho());
+    }
+
+    @Test
+    void limparDescartaAJanela() {
+        TabelaRepeticao tabela = new TabelaRepeticao();
+        tabela.registrar(10L);
+        tabela.registrar(10L);
+        tabela.limpar();
+        assertEquals(0, tabela.tamanho());
+        assertEquals(1, tabela.registrar(10L));
+    }
+
+    @Test
+    void bytesIdaEVolta() {
+        TabelaRepeticao tabela = new TabelaRepeticao();
+        for (long hash = 1; hash <= 40; hash++) {
+            tabela.registrar(hash * 0x9E3779B97F4A7C15L);
+        }
+        TabelaRepeticao lida = TabelaRepeticao.deBytes(tabela.paraBytes());
+        assertEquals(40, lida.tamanho());
+        assertEquals(2, lida.registrar(7 * 0x9E3779B97F4A7C15L));
+        assertEquals(0, TabelaRepeticao.deBytes(null).tamanho());
+    }
+
+    @Test
+    void janelaDescartaOsMaisAntigosNoLimite() {
+        TabelaRepeticao tabela = new TabelaRepeticao();
+        for (long hash = 0; hash < TabelaRepeticao.CAPACIDADE_MAXIMA + 1; hash++) {
+            tabela.registrar(hash);
+        }
+        assertEquals(TabelaRepeticao.CAPACIDADE_MAXIMA, tabela.tamanho());
+        assertEquals(1, tabela.registrar(0L));
+        assertEquals(2, tabela.registrar(TabelaRepeticao.CAPACIDADE_MAXIMA));
+    }
+}
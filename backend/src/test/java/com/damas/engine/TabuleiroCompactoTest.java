@@ -0,0 +1,36 @@
+package com.damas.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TabuleiroCompactoTest {
+
+    @Test
+    void bytesIdaEVolta() {
+        TabuleiroCompacto tabuleiro = new TabuleiroCompacto(0x00F00001, 0x80000F00, 0x00000010, 0x40000000);
+        byte[] bytes = tabuleiro.paraBytes();
+        assertEquals(TabuleiroCompacto.TAMANHO_BYTES, bytes.length);
+        assertEquals(tabuleiro, TabuleiroCompacto.deBytes(bytes));
+    }
+
+    @Test
+    void posicaoIdaEVolta() {
+        Posicao posicao = Posicao.inicial();
+        posicao.aplicar(Movimento.criar(Casas.indice(5, 0), Casas.indice(4, 1), 0));
+        TabuleiroCompacto tabuleiro = TabuleiroCompacto.de(posicao);
+        assertEquals(posicao, tabuleiro.paraPosicao(false));
+        assertEquals(posicao.getHash(), tabuleiro.paraPosicao(false).getHash());
+        assertArrayEquals(posicao.paraMatriz(), tabuleiro.paraMatriz());
+    }
+
+    @Test
+    void inicialIgualAPosicaoInicial() {
+        assertEquals(Posicao.inicial(), TabuleiroCompacto.inicial().paraPosicao(true));
+    }
+
+    @Test
+    void tamanhoErradoERecusado() {
+        assertThrows(IllegalArgumentException.class, () -> TabuleiroCompacto.deBytes(new byte[15]));
+    }
+}
@@ -0,0 +1,54 @@
+package com.damas.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZobristTest {
+
+    @Test
+    void hashIncrementalIgualAoCalculadoDoZero() {
+        GeradorMovimentos gerador = new GeradorMovimentos();
+        ListaMovimentos lista = new ListaMovimentos();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int partida = 0; partida < 200; partida++) {
+            Posicao posicao = Posicao.inicial();
+            for (int lance = 0; lance < 150 && gerador.gerar(posicao, lista) > 0; lance++) {
+                posicao.aplicar(lista.get(random.nextInt(lista.tamanho())));
+                assertEquals(recalcular(posicao), posicao.getHash());
+            }
+        }
+    }
+
+    @Test
+    void vezFazParteDoHash() {
+        Posicao brancas = Posicao.inicial();
+        Posicao pretas = brancas.copia();
+        pretas.setVezBrancas(false);
+        assertNotEquals(brancas.getHash(), pretas.getHash());
+        assertEquals(brancas.getHash() ^ Zobrist.VEZ_PRETAS, pretas.getHash());
+        pretas.setVezBrancas(true);
+        assertEquals(brancas.getHash(), pretas.getHash());
+    }
+
+    @Test
+    void hashNaoDependeDoCaminho() {
+        // Os dois lados vão e voltam: a posição e o hash são os do início
+        Posicao posicao = Posicao.inicial();
+        long inicial = posicao.getHash();
+        posicao.aplicar(Movimento.criar(Casas.indice(5, 0), Casas.indice(4, 1), 0));
+        posicao.aplicar(Movimento.criar(Casas.indice(2, 1), Casas.indice(3, 0), 0));
+        Posicao outra = Posicao.inicial();
+        outra.aplicar(Movimento.criar(Casas.indice(5, 0), Casas.indice(4, 1), 0));
+        outra.aplicar(Movimento.criar(Casas.indice(2, 1), Casas.indice(3, 0), 0));
+        assertEquals(posicao.getHash(), outra.getHash());
+        assertNotEquals(inicial, posicao.getHash());
+    }
+
+    private static long recalcular(Posicao posicao) {
+        return Zobrist.calcular(posicao.getHomensBrancos(), posicao.getHomensPretos(),
+                posicao.getDamasBrancas(), posicao.getDamasPretas(), posicao.isVezBrancas());
+    }
+}
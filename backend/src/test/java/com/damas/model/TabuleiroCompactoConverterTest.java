@@ -0,0 +1,23 @@
+package com.damas.model;
+
+import com.damas.engine.TabuleiroCompacto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TabuleiroCompactoConverterTest {
+
+    private final TabuleiroCompactoConverter converter = new TabuleiroCompactoConverter();
+
+    @Test
+    void colunaIdaEVolta() {
+        TabuleiroCompacto inicial = TabuleiroCompacto.inicial();
+        assertEquals(inicial, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(inicial)));
+    }
+
+    @Test
+    void nuloViraNulo() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,79 @@
+package com.damas.security;
+
+import com.damas.model.Usuario;
+import com.damas.repository.UsuarioRepository;
+import com.damas.service.UsuarioDesativadoEvent;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CacheAutenticacaoTest {
+
+    private final JwtService jwtService = new JwtService();
+    private final CacheAutenticacao cache;
+
+    CacheAutenticacaoTest() {
+        ReflectionTestUtils.setField(jwtService, "secretKey", "XX4FhYLrq/dT5gBPnEw/90BGHoR0fXSzEt8Vif+icIY=");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        jwtService.inicializar();
+        cache = new CacheAutenticacao(jwtService, mock(UsuarioRepository.class));
+    }
+
+    @Test
+    void tokenRepetidoVemDoCache() {
+        String token = token(1L);
+        UsuarioAutenticado primeiro = cache.autenticar(token);
+        assertSame(primeiro, cache.autenticar(token));
+    }
+
+    @Test
+    void desativacaoRecusaOsTokensJaEmitidosSoDaquelaConta() {
+        String noCache = token(1L);
+        cache.autenticar(noCache);
+        String foraDoCache = token(1L);
+        String deOutro = token(2L);
+        long emitidoEm = jwtService.parseToken(noCache).getEmitidoEm();
+
+        cache.aoDesativarUsuario(new UsuarioDesativadoEvent(1L, emitidoEm));
+
+        assertThrows(JwtException.class, () -> cache.autenticar(noCache));
+        assertThrows(JwtException.class, () -> cache.autenticar(foraDoCache));
+        assertEquals(2L, cache.autenticar(deOutro).getId());
+    }
+
+    @Test
+    void invalidacaoMaisAntigaNaoDesfazAMaisNova() {
+        String token = token(1L);
+        long emitidoEm = jwtService.parseToken(token).getEmitidoEm();
+
+        cache.invalidar(1L, emitidoEm);
+        // Uma desativação anterior chegando atrasada de outro nó
+        cache.invalidar(1L, emitidoEm - 1_000);
+
+        assertThrows(JwtException.class, () -> cache.autenticar(token));
+    }
+
+    @Test
+    void desativacoesGravadasValemDepoisDeReiniciar() {
+        String token = token(1L);
+        long emitidoEm = jwtService.parseToken(token).getEmitidoEm();
+        UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+        when(usuarioRepository.listarDesativadosDesde(anyLong()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, emitidoEm}));
+
+        CacheAutenticacao reiniciado = new CacheAutenticacao(jwtService, usuarioRepository);
+        reiniciado.carregarDesativados();
+
+        assertThrows(JwtException.class, () -> reiniciado.autenticar(token));
+        assertEquals(2L, reiniciado.autenticar(token(2L)).getId());
+    }
+
+    private String token(Long id) {
+        return jwtService.generateToken(Usuario.builder().id(id).username("u" + id).build());
+    }
+}
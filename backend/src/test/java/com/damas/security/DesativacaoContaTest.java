@@ -0,0 +1,60 @@
+package com.damas.security;
+
+import com.damas.model.Usuario;
+import com.damas.repository.UsuarioRepository;
+import com.damas.service.AuthService;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class DesativacaoContaTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private CacheAutenticacao cacheAutenticacao;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Test
+    void tokensDaContaDesativadaContinuamRecusadosDepoisDeReiniciar() {
+        Usuario desativado = criarUsuario();
+        Usuario ativo = criarUsuario();
+        String tokenDesativado = jwtService.generateToken(desativado);
+        String tokenAtivo = jwtService.generateToken(ativo);
+
+        authService.desativarUsuario(desativado.getId());
+
+        assertNotNull(usuarioRepository.findById(desativado.getId()).orElseThrow().getDesativadoEm());
+        assertThrows(JwtException.class, () -> cacheAutenticacao.autenticar(tokenDesativado));
+
+        // Um nó que sobe agora começa sem as invalidações recebidas pelo cluster
+        CacheAutenticacao reiniciado = new CacheAutenticacao(jwtService, usuarioRepository);
+        reiniciado.carregarDesativados();
+
+        assertThrows(JwtException.class, () -> reiniciado.autenticar(tokenDesativado));
+        assertEquals(ativo.getId(), reiniciado.autenticar(tokenAtivo).getId());
+    }
+
+    private Usuario criarUsuario() {
+        String username = "u" + UUID.randomUUID().toString().substring(0, 8);
+        return usuarioRepository.save(Usuario.builder()
+                .username(username)
+                .email(username + "@teste.local")
+                .senha("x")
+                .build());
+    }
+}
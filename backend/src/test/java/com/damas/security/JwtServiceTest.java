@@ -0,0 +1,53 @@
+package com.damas.security;
+
+import com.damas.model.Usuario;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SEGREDO = "XX4FhYLrq/dT5gBPnEw/90BGHoR0fXSzEt8Vif+icIY=";
+    private static final String OUTRO_SEGREDO = "EQ6LBHY3ymvQeX7XAVrlxAsUcYkm9CNO16+EHcrYOYQ=";
+
+    @Test
+    void semSegredoNaoInicializa() {
+        assertThrows(IllegalStateException.class, () -> criar("").inicializar());
+        assertThrows(IllegalStateException.class, () -> criar(null).inicializar());
+    }
+
+    @Test
+    void tokenIdaEVoltaComOsClaims() {
+        JwtService jwtService = criar(SEGREDO);
+        jwtService.inicializar();
+        Usuario usuario = Usuario.builder().id(42L).username("ana").roles(Set.of("USER")).build();
+
+        UsuarioAutenticado autenticado = jwtService.parseToken(jwtService.generateToken(usuario));
+
+        assertEquals(42L, autenticado.getId());
+        assertEquals("ana", autenticado.getUsername());
+        assertEquals("ROLE_USER", autenticado.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void tokenAssinadoComOutraChaveERecusado() {
+        JwtService emissor = criar(OUTRO_SEGREDO);
+        emissor.inicializar();
+        JwtService verificador = criar(SEGREDO);
+        verificador.inicializar();
+        String token = emissor.generateToken(Usuario.builder().id(1L).username("ana").build());
+
+        assertThrows(JwtException.class, () -> verificador.parseToken(token));
+    }
+
+    private static JwtService criar(String segredo) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", segredo);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        return jwtService;
+    }
+}
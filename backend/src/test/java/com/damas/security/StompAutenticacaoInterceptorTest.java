@@ -0,0 +1,96 @@
+package com.damas.security;
+
+import com.damas.model.Usuario;
+import com.damas.repository.PartidaRepository;
+import com.damas.repository.UsuarioRepository;
+import com.damas.service.RegistroSessoes;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Principal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StompAutenticacaoInterceptorTest {
+
+    private final JwtService jwtService = new JwtService();
+    private final RegistroSessoes registroSessoes = new RegistroSessoes();
+    private final PartidaRepository partidaRepository = mock(PartidaRepository.class);
+    private final StompAutenticacaoInterceptor interceptor;
+
+    StompAutenticacaoInterceptorTest() {
+        ReflectionTestUtils.setField(jwtService, "secretKey", "XX4FhYLrq/dT5gBPnEw/90BGHoR0fXSzEt8Vif+icIY=");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        jwtService.inicializar();
+        interceptor = new StompAutenticacaoInterceptor(new CacheAutenticacao(jwtService, mock(UsuarioRepository.class)), registroSessoes,
+                partidaRepository);
+    }
+
+    @Test
+    void connectSemTokenOuComTokenInvalidoERecusado() {
+        assertThrows(MessageDeliveryException.class, () -> enviar(connect(null)));
+        assertThrows(MessageDeliveryException.class, () -> enviar(connect("Bearer nao-e-um-token")));
+        assertEquals(0, registroSessoes.contarConexoes());
+    }
+
+    @Test
+    void connectAutenticadoRegistraASessaoComOUsuario() {
+        Message<?> resultado = enviar(connect("Bearer " + token(7L)));
+
+        Principal principal = StompHeaderAccessor.wrap(resultado).getUser();
+        assertInstanceOf(UsernamePasswordAuthenticationToken.class, principal);
+        assertEquals(7L, ((UsuarioAutenticado) ((UsernamePasswordAuthenticationToken) principal).getPrincipal()).getId());
+        assertTrue(registroSessoes.isConectado(7L));
+    }
+
+    @Test
+    void inscricaoNoTopicoDaPartidaSoParaJogadores() {
+        when(partidaRepository.isJogador(10L, 7L)).thenReturn(true);
+        UsernamePasswordAuthenticationToken usuario = autenticado(7L);
+
+        assertDoesNotThrow(() -> enviar(subscribe("/topic/partida/10", usuario)));
+        assertThrows(MessageDeliveryException.class, () -> enviar(subscribe("/topic/partida/11", usuario)));
+        assertThrows(MessageDeliveryException.class, () -> enviar(subscribe("/topic/partida/x", usuario)));
+        assertThrows(MessageDeliveryException.class, () -> enviar(subscribe("/queue/eventos", usuario)));
+        assertDoesNotThrow(() -> enviar(subscribe("/topic/lobby", usuario)));
+    }
+
+    private Message<?> enviar(Message<?> mensagem) {
+        return interceptor.preSend(mensagem, null);
+    }
+
+    private String token(Long id) {
+        return jwtService.generateToken(Usuario.builder().id(id).username("u" + id).build());
+    }
+
+    private UsernamePasswordAuthenticationToken autenticado(Long id) {
+        UsuarioAutenticado usuario = jwtService.parseToken(token(id));
+        return new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+    }
+
+    private static Message<byte[]> connect(String autorizacao) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId("s1");
+        if (autorizacao != null) {
+            accessor.addNativeHeader("Authorization", autorizacao);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> subscribe(String destino, Principal usuario) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId("s1");
+        accessor.setDestination(destino);
+        accessor.setUser(usuario);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,47 @@
+package com.damas.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalculoEloTest {
+
+    private final CalculoElo calculoElo = new CalculoElo();
+
+    @Test
+    void iguaisGanhamMetadeDoFatorK() {
+        // Esperado 0,5: vitória vale K/2, empate nada
+        assertEquals(16, calculoElo.variacao(1200, 1200, 1));
+        assertEquals(-16, calculoElo.variacao(1200, 1200, 0));
+        assertEquals(0, calculoElo.variacao(1200, 1200, 0.5));
+    }
+
+    @Test
+    void diferencaDe400PontosDaEsperadoDeDezParaUm() {
+        // Esperado do mais forte: 10/11 = 0,909
+        assertEquals(3, calculoElo.variacao(1600, 1200, 1));
+        assertEquals(-29, calculoElo.variacao(1600, 1200, 0));
+        assertEquals(29, calculoElo.variacao(1200, 1600, 1));
+        assertEquals(-13, calculoElo.variacao(1600, 1200, 0.5));
+    }
+
+    @Test
+    void oQueUmGanhaOOutroPerde() {
+        for (int diferenca = -500; diferenca <= 500; diferenca += 25) {
+            for (double resultado : new double[]{0, 0.5, 1}) {
+                assertEquals(-calculoElo.variacao(1200 + diferenca, 1200, resultado),
+                        calculoElo.variacao(1200, 1200 + diferenca, 1 - resultado));
+            }
+        }
+    }
+
+    @Test
+    void fatorKConfigurado() {
+        ReflectionTestUtils.setField(calculoElo, "fatorK", 10);
+
+        assertEquals(5, calculoElo.variacao(1200, 1200, 1));
+        // Esperado 1/(1 + 10^(-100/400)) = 0,640
+        assertEquals(4, calculoElo.variacao(1300, 1200, 1));
+    }
+}
@@ -0,0 +1,75 @@
+package com.damas.service;
+
+import com.damas.engine.MotorBusca;
+import com.damas.engine.TabelaTransposicao;
+import com.damas.repository.UsuarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ComputadorServiceTest {
+
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), tarefa -> new Thread(tarefa, "computador-busca-teste"));
+    private final PartidasAtivasService partidasAtivasService = mock(PartidasAtivasService.class);
+    private final Set<String> threadsQueJogaram = ConcurrentHashMap.newKeySet();
+    private final ComputadorService computadorService = new ComputadorService(mock(UsuarioRepository.class),
+            mock(PartidaService.class), partidasAtivasService, new TravasPartidas(16),
+            new MotorBusca(new TabelaTransposicao(10), pool, 1), pool,
+            new MetricasPartidas(new SimpleMeterRegistry()));
+
+    @AfterEach
+    void encerrarPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void jogadaRecusadaPeloPoolFicaPendenteENaoRodaNaThreadDaRequisicao() throws InterruptedException {
+        CountDownLatch ocupada = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(partidasAtivasService.obterSeCarregada(anyLong())).thenAnswer(chamada -> {
+            threadsQueJogaram.add(Thread.currentThread().getName());
+            if (chamada.getArgument(0, Long.class) == 1L) {
+                ocupada.countDown();
+                liberar.await();
+            }
+            return null;
+        });
+
+        // A jogada 1 ocupa a única thread e a 2 a única vaga da fila
+        computadorService.aoChegarVezDoComputador(new VezDoComputadorEvent(1L));
+        ocupada.await();
+        computadorService.aoChegarVezDoComputador(new VezDoComputadorEvent(2L));
+
+        computadorService.aoChegarVezDoComputador(new VezDoComputadorEvent(7L));
+        computadorService.aoChegarVezDoComputador(new VezDoComputadorEvent(8L));
+        assertEquals(2, computadorService.contarPendentes());
+        verify(partidasAtivasService, never()).obterSeCarregada(7L);
+        verify(partidasAtivasService, never()).obterSeCarregada(8L);
+
+        // Quando as jogadas em curso terminam, as pendentes são reenviadas ao pool
+        liberar.countDown();
+        verify(partidasAtivasService, timeout(5_000)).obterSeCarregada(7L);
+        verify(partidasAtivasService, timeout(5_000)).obterSeCarregada(8L);
+        assertEquals(0, computadorService.contarPendentes());
+        assertEquals(Set.of("computador-busca-teste"), threadsQueJogaram);
+    }
+
+    @Test
+    void tempoDeBuscaDivideORelogioDentroDosLimites() {
+        assertEquals(3000, computadorService.calcularTempoDeBusca(null));
+        assertEquals(100, computadorService.calcularTempoDeBusca(1));
+        assertEquals(2000, computadorService.calcularTempoDeBusca(60));
+        assertEquals(3000, computadorService.calcularTempoDeBusca(600));
+    }
+}
@@ -0,0 +1,99 @@
+package com.damas.service;
+
+import com.damas.dto.NovaPartidaRequest;
+import com.damas.model.Partida;
+import com.damas.model.Usuario;
+import com.damas.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class GravacaoPartidasServiceTest {
+
+    @Autowired
+    private PartidaService partidaService;
+
+    @Autowired
+    private PartidasAtivasService partidasAtivasService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void partidasDoMesmoJogadorNoMesmoLoteSomamAsEstatisticas() {
+        Usuario campeao = criarUsuario();
+        Usuario primeiro = criarUsuario();
+        Usuario segundo = criarUsuario();
+        Long partida1 = iniciarPartida(campeao, primeiro);
+        Long partida2 = iniciarPartida(campeao, segundo);
+
+        // Outra gravação (de outro nó, por exemplo) depois de as partidas carregarem os usuários
+        jdbcTemplate.update("UPDATE usuarios SET partidas_jogadas = 5, partidas_vencidas = 3 WHERE id = ?",
+                campeao.getId());
+
+        // As duas terminam antes da descarga e são gravadas no mesmo lote
+        encerrarComVitoriaDasBrancas(partida1);
+        encerrarComVitoriaDasBrancas(partida2);
+        partidasAtivasService.descarregar();
+
+        Usuario gravado = usuarioRepository.findById(campeao.getId()).orElseThrow();
+        assertEquals(7, gravado.getPartidasJogadas());
+        assertEquals(5, gravado.getPartidasVencidas());
+        // 1200 x 1200 vale 16; a segunda partida já parte de 1216 e vale 15
+        assertEquals(1231, gravado.getElo());
+
+        Usuario perdedor1 = usuarioRepository.findById(primeiro.getId()).orElseThrow();
+        assertEquals(1, perdedor1.getPartidasJogadas());
+        assertEquals(0, perdedor1.getPartidasVencidas());
+        assertEquals(1184, perdedor1.getElo());
+        assertEquals(1185, usuarioRepository.findById(segundo.getId()).orElseThrow().getElo());
+    }
+
+    @Test
+    void fimRegravadoNaoContaDuasVezes() {
+        Usuario brancas = criarUsuario();
+        Usuario pretas = criarUsuario();
+        Long id = iniciarPartida(brancas, pretas);
+
+        PartidaAtiva partida = partidasAtivasService.obterSeCarregada(id);
+        encerrarComVitoriaDasBrancas(id);
+        partidasAtivasService.gravarAgora(partida);
+        partida.marcarAlterada();
+        partidasAtivasService.gravarAgora(partida);
+
+        assertEquals(1, usuarioRepository.findById(brancas.getId()).orElseThrow().getPartidasJogadas());
+        assertEquals(1216, usuarioRepository.findById(brancas.getId()).orElseThrow().getElo());
+    }
+
+    private void encerrarComVitoriaDasBrancas(Long id) {
+        PartidaAtiva partida = partidasAtivasService.obterSeCarregada(id);
+        partida.encerrar(Partida.StatusPartida.FINALIZADA, Partida.ResultadoPartida.VITORIA_BRANCAS);
+        partida.marcarAlterada();
+    }
+
+    private Long iniciarPartida(Usuario brancas, Usuario pretas) {
+        Long id = partidaService.criarPartida(new NovaPartidaRequest(), brancas.getId()).getId();
+        partidaService.entrarPartida(id, pretas.getId());
+        return id;
+    }
+
+    private Usuario criarUsuario() {
+        String username = "u" + UUID.randomUUID().toString().substring(0, 8);
+        return usuarioRepository.save(Usuario.builder()
+                .username(username)
+                .email(username + "@teste.local")
+                .senha("x")
+                .build());
+    }
+}
@@ -0,0 +1,110 @@
+package com.damas.service;
+
+import com.damas.dto.ClassificacaoDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceRankingTest {
+
+    private final IndiceRanking indice = new IndiceRanking();
+
+    @Test
+    void empateFicaComOIdMenorNaFrente() {
+        indice.definir(3, "c", 1200);
+        indice.definir(1, "a", 1200);
+        indice.definir(2, "b", 1300);
+        indice.definir(4, "d", 1100);
+
+        assertEquals(List.of(2L, 1L, 3L, 4L), ids(indice.listar(0, 10)));
+        assertEquals(0, indice.posicao(2));
+        assertEquals(1, indice.posicao(1));
+        assertEquals(2, indice.posicao(3));
+        assertEquals(3, indice.posicao(4));
+        assertEquals(-1, indice.posicao(99));
+    }
+
+    @Test
+    void listarNumeraAsPosicoesAPartirDoInicioPedido() {
+        for (long id = 1; id <= 10; id++) {
+            indice.definir(id, "u" + id, 1000 + (int) id * 10);
+        }
+
+        // Vizinhos do jogador 5 (posição 5, a partir de 0): os dois acima e os dois abaixo
+        List<ClassificacaoDTO> vizinhos = indice.listar(indice.posicao(5) - 2, 5);
+
+        assertEquals(List.of(7L, 6L, 5L, 4L, 3L), ids(vizinhos));
+        assertEquals(4, vizinhos.get(0).getPosicao());
+        assertEquals(1050, vizinhos.get(2).getElo());
+        assertEquals("u5", vizinhos.get(2).getUsername());
+        assertEquals(List.of(2L, 1L), ids(indice.listar(8, 5)));
+        assertTrue(indice.listar(10, 5).isEmpty());
+        assertTrue(indice.listar(-1, 5).isEmpty());
+    }
+
+    @Test
+    void trocarOEloReposicionaOJogador() {
+        indice.definir(1, "a", 1200);
+        indice.definir(2, "b", 1210);
+        indice.definir(3, "c", 1220);
+
+        indice.definir(1, "a", 1215);
+
+        assertEquals(3, indice.tamanho());
+        assertEquals(1215, indice.elo(1));
+        assertEquals(List.of(3L, 1L, 2L), ids(indice.listar(0, 3)));
+    }
+
+    @Test
+    void removidoSaiEVoltaNaPosicaoDoNovoElo() {
+        indice.definir(1, "a", 1200);
+        indice.definir(2, "b", 1210);
+        indice.definir(3, "c", 1220);
+
+        indice.remover(3);
+        indice.remover(3);
+        assertNull(indice.elo(3));
+        assertEquals(-1, indice.posicao(3));
+        assertEquals(List.of(2L, 1L), ids(indice.listar(0, 3)));
+
+        indice.definir(3, "c", 1205);
+        assertEquals(1, indice.posicao(3));
+        assertEquals(List.of(2L, 3L, 1L), ids(indice.listar(0, 3)));
+    }
+
+    @Test
+    void concordaComAOrdenacaoDepoisDeMuitasAlteracoes() {
+        Random aleatorio = new Random(42);
+        Map<Long, Integer> elos = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long id = aleatorio.nextInt(500);
+            if (aleatorio.nextInt(5) == 0) {
+                indice.remover(id);
+                elos.remove(id);
+            } else {
+                // Faixa estreita para haver muitos empates
+                int elo = 1150 + aleatorio.nextInt(100);
+                indice.definir(id, "u" + id, elo);
+                elos.put(id, elo);
+            }
+        }
+
+        List<Long> esperado = new ArrayList<>(elos.keySet());
+        esperado.sort(Comparator.<Long>comparingInt(elos::get).reversed().thenComparing(Comparator.naturalOrder()));
+        assertEquals(esperado, ids(indice.listar(0, esperado.size())));
+        for (int posicao = 0; posicao < esperado.size(); posicao++) {
+            assertEquals(posicao, indice.posicao(esperado.get(posicao)));
+        }
+    }
+
+    private static List<Long> ids(List<ClassificacaoDTO> lista) {
+        return lista.stream().map(ClassificacaoDTO::getUsuarioId).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.damas.service;
+
+import com.damas.engine.Posicao;
+import com.damas.engine.TabelaFinais;
+import com.damas.model.Usuario;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JogoDamasServiceTest {
+
+    private final JogoDamasService jogoDamasService = new JogoDamasService(new TabelaFinais());
+
+    @Test
+    void tabuleiroNovoIgualAPosicaoInicial() {
+        assertArrayEquals(jogoDamasService.criarNovoTabuleiro(), Posicao.inicial().paraMatriz());
+    }
+
+    @Test
+    void jsonDoFormatoAntigoIdaEVolta() {
+        Posicao inicial = jogoDamasService.criarPosicaoInicial();
+        String json = jogoDamasService.posicaoParaJson(inicial);
+        assertEquals(inicial, jogoDamasService.jsonParaPosicao(json, true));
+    }
+
+    @Test
+    void executarMovimentoNaMatriz() {
+        int[][] depois = jogoDamasService.executarMovimento(jogoDamasService.criarNovoTabuleiro(), 5, 0, 4, 1, true);
+        assertEquals(Posicao.VAZIO, depois[5][0]);
+        assertEquals(Posicao.PECA_BRANCA, depois[4][1]);
+        assertThrows(IllegalArgumentException.class,
+                () -> jogoDamasService.executarMovimento(jogoDamasService.criarNovoTabuleiro(), 5, 0, 3, 2, true));
+    }
+
+    @Test
+    void fimDeJogoNaMatrizConsideraQuemEstaNaVez() {
+        // Só as pretas estão bloqueadas: o homem em (2,1) não anda nem captura
+        int[][] tabuleiro = new int[8][8];
+        tabuleiro[2][1] = Posicao.PECA_PRETA;
+        tabuleiro[3][0] = Posicao.PECA_BRANCA;
+        tabuleiro[3][2] = Posicao.PECA_BRANCA;
+        tabuleiro[4][3] = Posicao.PECA_BRANCA;
+        Usuario brancas = Usuario.builder().username("brancas").build();
+        Usuario pretas = Usuario.builder().username("pretas").build();
+
+        assertTrue(jogoDamasService.isJogoAcabou(tabuleiro, false));
+        assertSame(brancas, jogoDamasService.determinarVencedor(tabuleiro, false, brancas, pretas));
+
+        assertFalse(jogoDamasService.isJogoAcabou(tabuleiro, true));
+        assertNull(jogoDamasService.determinarVencedor(tabuleiro, true, brancas, pretas));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void assinaturasAntigasContinuamComAsBrancasNaVez() {
+        int[][] tabuleiro = new int[8][8];
+        tabuleiro[2][1] = Posicao.PECA_PRETA;
+        tabuleiro[3][0] = Posicao.PECA_BRANCA;
+        tabuleiro[3][2] = Posicao.PECA_BRANCA;
+        tabuleiro[4][3] = Posicao.PECA_BRANCA;
+        int[][] semPretas = new int[8][8];
+        semPretas[5][0] = Posicao.PECA_BRANCA;
+        Usuario brancas = Usuario.builder().username("brancas").build();
+        Usuario pretas = Usuario.builder().username("pretas").build();
+
+        assertFalse(jogoDamasService.isJogoAcabou(tabuleiro));
+        assertNull(jogoDamasService.determinarVencedor(tabuleiro, brancas, pretas));
+        assertTrue(jogoDamasService.isJogoAcabou(semPretas));
+        assertSame(brancas, jogoDamasService.determinarVencedor(semPretas, brancas, pretas));
+    }
+
+    @Test
+    void empatePorRepeticaoOuLancesDeDama() {
+        assertFalse(jogoDamasService.isEmpate(2, 39));
+        assertTrue(jogoDamasService.isEmpate(3, 0));
+        assertTrue(jogoDamasService.isEmpate(1, 40));
+    }
+}
@@ -0,0 +1,106 @@
+package com.damas.service;
+
+import com.damas.engine.GeradorMovimentos;
+import com.damas.engine.ListaMovimentos;
+import com.damas.engine.Movimento;
+import com.damas.engine.Posicao;
+import com.damas.model.Lance;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinhaDoTempoTest {
+
+    @Test
+    void posicaoDeCadaLanceIgualAReproducaoDesdeOInicio() {
+        List<Lance> lances = new ArrayList<>();
+        List<Posicao> esperadas = partidaSorteada(80, lances);
+
+        for (int intervalo : new int[]{1, 3, 16, 1000}) {
+            LinhaDoTempo linha = LinhaDoTempo.de(lances, intervalo);
+            assertEquals(lances.size(), linha.getTotalLances());
+            for (int ply = 0; ply <= lances.size(); ply++) {
+                assertMesmaPosicao(esperadas.get(ply), linha.posicao(ply), "intervalo " + intervalo + ", lance " + ply);
+            }
+        }
+    }
+
+    @Test
+    void estenderEquivaleAMontarComTodosOsLances() {
+        List<Lance> lances = new ArrayList<>();
+        List<Posicao> esperadas = partidaSorteada(50, lances);
+
+        LinhaDoTempo linha = LinhaDoTempo.de(lances.subList(0, 7), 4)
+                .estender(lances.subList(7, 30))
+                .estender(List.of())
+                .estender(lances.subList(30, lances.size()));
+
+        assertEquals(lances.size(), linha.getTotalLances());
+        for (int ply = 0; ply <= lances.size(); ply++) {
+            assertMesmaPosicao(esperadas.get(ply), linha.posicao(ply), "lance " + ply);
+        }
+        assertSame(lances.get(9), linha.lance(10));
+    }
+
+    @Test
+    void posicaoDevolveCopiaNova() {
+        List<Lance> lances = new ArrayList<>();
+        partidaSorteada(10, lances);
+        LinhaDoTempo linha = LinhaDoTempo.de(lances, 4);
+
+        Posicao alterada = linha.posicao(4);
+        alterada.aplicar(linha.movimento(5));
+
+        assertNotEquals(alterada.getHash(), linha.posicao(4).getHash());
+    }
+
+    @Test
+    void lanceForaDeOrdemOuForaDaPartida() {
+        List<Lance> lances = new ArrayList<>();
+        partidaSorteada(6, lances);
+        LinhaDoTempo linha = LinhaDoTempo.de(lances.subList(0, 3), 2);
+
+        assertThrows(IllegalStateException.class, () -> linha.estender(lances.subList(4, 6)));
+        assertThrows(IndexOutOfBoundsException.class, () -> linha.posicao(4));
+        assertThrows(IndexOutOfBoundsException.class, () -> linha.posicao(-1));
+    }
+
+    // Partida de lances legais sorteados com semente fixa; devolve a posição depois de cada lance
+    private static List<Posicao> partidaSorteada(int maximo, List<Lance> lances) {
+        Random sorteio = new Random(20240607L);
+        GeradorMovimentos gerador = new GeradorMovimentos();
+        ListaMovimentos movimentos = new ListaMovimentos();
+        Posicao posicao = Posicao.inicial();
+        List<Posicao> posicoes = new ArrayList<>();
+        posicoes.add(posicao.copia());
+
+        for (int ply = 1; ply <= maximo; ply++) {
+            movimentos.limpar();
+            gerador.gerar(posicao, movimentos);
+            if (movimentos.isVazia()) {
+                break;
+            }
+            long movimento = movimentos.get(sorteio.nextInt(movimentos.tamanho()));
+            lances.add(Lance.builder()
+                    .ply(ply)
+                    .origem((byte) Movimento.origem(movimento))
+                    .destino((byte) Movimento.destino(movimento))
+                    .capturadas(Movimento.capturadas(movimento))
+                    .promocao(posicao.isPromocao(movimento))
+                    .build());
+            posicao.aplicar(movimento);
+            posicoes.add(posicao.copia());
+        }
+        return posicoes;
+    }
+
+    private static void assertMesmaPosicao(Posicao esperada, Posicao obtida, String mensagem) {
+        assertEquals(esperada.isVezBrancas(), obtida.isVezBrancas(), mensagem);
+        assertEquals(esperada.getHash(), obtida.getHash(), mensagem);
+        assertArrayEquals(esperada.paraMatriz(), obtida.paraMatriz(), mensagem);
+    }
+}
@@ -0,0 +1,96 @@
+package com.damas.service;
+
+import com.damas.dto.EntradaLobbyDTO;
+import com.damas.dto.PartidaDTO;
+import com.damas.model.Partida;
+import com.damas.model.Usuario;
+import com.damas.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class LobbyServiceTest {
+
+    // Cada teste usa um controle de tempo próprio para não ver as partidas dos outros
+    private static final AtomicInteger TEMPOS = new AtomicInteger(90_000);
+
+    @Autowired
+    private LobbyService lobbyService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private int tempo;
+
+    @BeforeEach
+    void escolherTempo() {
+        tempo = TEMPOS.incrementAndGet();
+    }
+
+    @Test
+    void semAdversarioAbrePartidaEOProximoDaFaixaEntra() {
+        Usuario primeiro = criarUsuario(1200);
+        Usuario segundo = criarUsuario(1250);
+
+        PartidaDTO aberta = lobbyService.buscarPartida(primeiro.getId(), tempo);
+        assertEquals(Partida.StatusPartida.AGUARDANDO, aberta.getStatus());
+        assertEquals(1, lobbyService.listar(tempo).size());
+        EntradaLobbyDTO entrada = lobbyService.listar(tempo).get(0);
+        assertEquals(aberta.getId(), entrada.getId());
+        assertEquals(12, entrada.getFaixa());
+
+        // Quem já espera continua na mesma partida
+        assertEquals(aberta.getId(), lobbyService.buscarPartida(primeiro.getId(), tempo).getId());
+
+        PartidaDTO pareada = lobbyService.buscarPartida(segundo.getId(), tempo);
+        assertEquals(aberta.getId(), pareada.getId());
+        assertEquals(Partida.StatusPartida.EM_ANDAMENTO, pareada.getStatus());
+        assertTrue(lobbyService.listar(tempo).isEmpty());
+    }
+
+    @Test
+    void faixaDistanteAbreOutraPartida() {
+        Usuario iniciante = criarUsuario(1200);
+        Usuario forte = criarUsuario(1600); // 4 faixas acima, tolerância de 2
+
+        PartidaDTO primeira = lobbyService.buscarPartida(iniciante.getId(), tempo);
+        PartidaDTO segunda = lobbyService.buscarPartida(forte.getId(), tempo);
+
+        assertNotEquals(primeira.getId(), segunda.getId());
+        assertEquals(Partida.StatusPartida.AGUARDANDO, segunda.getStatus());
+        assertEquals(2, lobbyService.listar(tempo).size());
+    }
+
+    @Test
+    void faixaMaisProximaVemAntesDaPartidaMaisAntiga() {
+        Usuario distante = criarUsuario(1420); // faixa 14
+        Usuario proximo = criarUsuario(1150); // faixa 11, fora do alcance da 14
+        Usuario jogador = criarUsuario(1250); // faixa 12: alcança as duas
+
+        Long maisAntiga = lobbyService.buscarPartida(distante.getId(), tempo).getId();
+        Long maisProxima = lobbyService.buscarPartida(proximo.getId(), tempo).getId();
+        assertNotEquals(maisAntiga, maisProxima);
+
+        assertEquals(maisProxima, lobbyService.buscarPartida(jogador.getId(), tempo).getId());
+        assertEquals(maisAntiga, lobbyService.listar(tempo).get(0).getId());
+    }
+
+    private Usuario criarUsuario(int elo) {
+        String username = "u" + UUID.randomUUID().toString().substring(0, 8);
+        return usuarioRepository.save(Usuario.builder()
+                .username(username)
+                .email(username + "@teste.local")
+                .senha("x")
+                .elo(elo)
+                .build());
+    }
+}
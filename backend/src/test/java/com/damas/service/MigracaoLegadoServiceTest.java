@@ -0,0 +1,106 @@
+package com.damas.service;
+
+import com.damas.dto.NovaPartidaRequest;
+import com.damas.engine.Casas;
+import com.damas.model.Lance;
+import com.damas.model.Usuario;
+import com.damas.repository.LanceRepository;
+import com.damas.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class MigracaoLegadoServiceTest {
+
+    @Autowired
+    private MigracaoLegadoService migracaoLegadoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PartidaService partidaService;
+
+    @Autowired
+    private LanceRepository lanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void contasNovasEAntigasComecamComEloInicial() {
+        String padrao = jdbcTemplate.queryForObject("SELECT COLUMN_DEFAULT FROM INFORMATION_SCHEMA.COLUMNS "
+                + "WHERE TABLE_NAME = 'USUARIOS' AND COLUMN_NAME = 'ELO'", String.class);
+        assertEquals(String.valueOf(Usuario.ELO_INICIAL), padrao);
+    }
+
+    @Test
+    void pontuacaoAntigaEGuardadaSemVirarElo() {
+        Usuario veterano = criarUsuario();
+        // Esquema antigo: 10 pontos por vitória numa coluna NOT NULL sem padrão
+        jdbcTemplate.execute("ALTER TABLE usuarios ADD COLUMN pontuacao INTEGER DEFAULT 0 NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE usuarios ALTER COLUMN pontuacao DROP DEFAULT");
+        try {
+            jdbcTemplate.update("UPDATE usuarios SET pontuacao = 350 WHERE id = ?", veterano.getId());
+
+            migracaoLegadoService.migrar();
+
+            assertEquals(350, jdbcTemplate.queryForObject("SELECT pontuacao_legada FROM usuarios WHERE id = ?",
+                    Integer.class, veterano.getId()));
+            assertEquals(Usuario.ELO_INICIAL, usuarioRepository.findById(veterano.getId()).orElseThrow().getElo());
+            // A coluna guardada não impede novos cadastros
+            assertEquals(Usuario.ELO_INICIAL, criarUsuario().getElo());
+
+            // Já renomeada, rodar de novo não faz nada
+            assertDoesNotThrow(migracaoLegadoService::migrar);
+            assertEquals(350, jdbcTemplate.queryForObject("SELECT pontuacao_legada FROM usuarios WHERE id = ?",
+                    Integer.class, veterano.getId()));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE usuarios DROP COLUMN IF EXISTS pontuacao");
+            jdbcTemplate.execute("ALTER TABLE usuarios DROP COLUMN IF EXISTS pontuacao_legada");
+        }
+    }
+
+    @Test
+    void historicoCorrompidoIgnoraOsLancesRuinsSemImpedirASubida() {
+        Long id = partidaService.criarPartida(new NovaPartidaRequest(), criarUsuario().getId()).getId();
+        jdbcTemplate.execute("ALTER TABLE partidas ADD COLUMN movimento_historico TEXT");
+        try {
+            jdbcTemplate.update("UPDATE partidas SET movimento_historico = ? WHERE id = ?",
+                    "5,0:4,1;x,1:3,0;2,1:3,0;9,9:8,8;4,4:3,3;", id);
+
+            assertDoesNotThrow(migracaoLegadoService::migrar);
+
+            // Depois do primeiro lance ruim os seguintes são gravados sem refazer as regras
+            List<Lance> lances = lanceRepository.findByPartidaIdOrderByPly(id);
+            assertEquals(2, lances.size());
+            assertEquals(Casas.indice(5, 0), lances.get(0).getOrigem());
+            assertEquals(Casas.indice(4, 1), lances.get(0).getDestino());
+            assertEquals(2, lances.get(1).getPly());
+            assertEquals(Casas.indice(2, 1), lances.get(1).getOrigem());
+            assertEquals(Casas.indice(3, 0), lances.get(1).getDestino());
+            assertNull(jdbcTemplate.queryForObject("SELECT movimento_historico FROM partidas WHERE id = ?",
+                    String.class, id));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE partidas DROP COLUMN movimento_historico");
+        }
+    }
+
+    private Usuario criarUsuario() {
+        String username = "u" + UUID.randomUUID().toString().substring(0, 8);
+        return usuarioRepository.save(Usuario.builder()
+                .username(username)
+                .email(username + "@teste.local")
+                .senha("x")
+                .build());
+    }
+}
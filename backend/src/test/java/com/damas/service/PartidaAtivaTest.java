@@ -0,0 +1,65 @@
+package com.damas.service;
+
+import com.damas.engine.TabuleiroCompacto;
+import com.damas.model.Partida;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartidaAtivaTest {
+
+    private static final long INICIO = 1_000_000L;
+
+    @Test
+    void lanceDescontaOTempoESomaOIncremento() {
+        PartidaAtiva partida = partidaComRelogio(60, 2);
+
+        assertEquals(60_000, partida.tempoRestanteDaVez(INICIO));
+        assertEquals(45_000, partida.tempoRestanteDaVez(INICIO + 15_000));
+
+        partida.registrarTempoDoLance(INICIO + 15_000);
+
+        // As brancas ficam com 45 s + 2 s e o relógio das pretas começa a contar agora
+        assertEquals(47_000L, ReflectionTestUtils.getField(partida, "restanteBrancas"));
+        assertEquals(60_000L, ReflectionTestUtils.getField(partida, "restantePretas"));
+        assertEquals(INICIO + 15_000, ReflectionTestUtils.getField(partida, "inicioDaVez"));
+    }
+
+    @Test
+    void lanceDepoisDoTempoNaoGanhaIncremento() {
+        PartidaAtiva partida = partidaComRelogio(60, 5);
+
+        assertEquals(0, partida.tempoRestanteDaVez(INICIO + 60_000));
+        assertThrows(IllegalStateException.class, () -> partida.registrarTempoDoLance(INICIO + 60_000));
+        assertThrows(IllegalStateException.class, () -> partida.registrarTempoDoLance(INICIO + 61_000));
+
+        assertEquals(60_000L, ReflectionTestUtils.getField(partida, "restanteBrancas"));
+        assertEquals(INICIO, ReflectionTestUtils.getField(partida, "inicioDaVez"));
+    }
+
+    @Test
+    void partidaSemRelogioIgnoraOTempo() {
+        Partida partida = new Partida();
+        partida.setEstadoTabuleiro(TabuleiroCompacto.inicial());
+        partida.setTempoJogadorBrancas(null);
+        partida.setTempoJogadorPretas(null);
+        PartidaAtiva ativa = new PartidaAtiva(partida, List.of());
+
+        assertFalse(ativa.isComRelogio());
+        assertDoesNotThrow(() -> ativa.registrarTempoDoLance(Long.MAX_VALUE));
+    }
+
+    private static PartidaAtiva partidaComRelogio(int segundos, int incremento) {
+        Partida partida = new Partida();
+        partida.setEstadoTabuleiro(TabuleiroCompacto.inicial());
+        partida.setTempoJogadorBrancas(segundos);
+        partida.setTempoJogadorPretas(segundos);
+        partida.setIncremento(incremento);
+        PartidaAtiva ativa = new PartidaAtiva(partida, List.of());
+        ReflectionTestUtils.setField(ativa, "inicioDaVez", INICIO);
+        return ativa;
+    }
+}
@@ -0,0 +1,189 @@
+package com.damas.service;
+
+import com.damas.dto.AtualizacaoPartidaDTO;
+import com.damas.dto.FiltroPartidas;
+import com.damas.dto.MovimentoRequest;
+import com.damas.dto.NovaPartidaRequest;
+import com.damas.dto.PaginaDTO;
+import com.damas.dto.PartidaDTO;
+import com.damas.dto.PartidaResumoDTO;
+import com.damas.engine.Posicao;
+import com.damas.model.Partida;
+import com.damas.model.Usuario;
+import com.damas.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class PartidaServiceTest {
+
+    @Autowired
+    private PartidaService partidaService;
+
+    @Autowired
+    private PartidasAtivasService partidasAtivasService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario brancas;
+    private Usuario pretas;
+
+    @BeforeEach
+    void criarJogadores() {
+        brancas = criarUsuario();
+        pretas = criarUsuario();
+    }
+
+    @Test
+    void lanceDevolveSoODelta() {
+        Long id = iniciarPartida(new NovaPartidaRequest());
+
+        AtualizacaoPartidaDTO atualizacao = partidaService.realizarMovimento(id, lance(5, 0, 4, 1, 1), brancas.getId());
+
+        assertEquals(AtualizacaoPartidaDTO.Tipo.LANCE, atualizacao.getTipo());
+        assertEquals(id, atualizacao.getPartidaId());
+        assertEquals(1, atualizacao.getSequencia());
+        assertFalse(atualizacao.isJogadorAtualBrancas());
+        assertEquals(Partida.StatusPartida.EM_ANDAMENTO, atualizacao.getStatus());
+        assertNull(atualizacao.getPartida());
+        assertEquals(5, atualizacao.getLance().getLinhaOrigem());
+        assertEquals(1, atualizacao.getLance().getColunaDestino());
+        assertEquals(0, atualizacao.getLance().getCapturas().length);
+
+        PartidaDTO partida = partidaService.obterPartida(id);
+        assertEquals(1, partida.getTotalLances());
+        assertEquals("5,0:4,1;", partida.getMovimentoHistorico());
+    }
+
+    @Test
+    void deltaDeCapturaTrazAsCasasCapturadas() {
+        Long id = iniciarPartida(new NovaPartidaRequest());
+        partidaService.realizarMovimento(id, lance(5, 2, 4, 3, 1), brancas.getId());
+        partidaService.realizarMovimento(id, lance(2, 5, 3, 4, 2), pretas.getId());
+
+        AtualizacaoPartidaDTO atualizacao = partidaService.realizarMovimento(id, lance(4, 3, 2, 5, 3), brancas.getId());
+
+        assertEquals(3, atualizacao.getSequencia());
+        assertArrayEquals(new int[][]{{3, 4}}, atualizacao.getLance().getCapturas());
+        assertFalse(atualizacao.getLance().isPromocao());
+        assertEquals(Posicao.VAZIO, partidaService.obterPartida(id).getTabuleiro()[3][4]);
+    }
+
+    @Test
+    void lanceRepetidoOuForaDeSequenciaEConflito() {
+        Long id = iniciarPartida(new NovaPartidaRequest());
+        partidaService.realizarMovimento(id, lance(5, 0, 4, 1, 1), brancas.getId());
+
+        // Reenvio do mesmo lance (clique duplo) e lance sobre um estado adiantado
+        assertThrows(ConflitoPartidaException.class,
+                () -> partidaService.realizarMovimento(id, lance(5, 0, 4, 1, 1), brancas.getId()));
+        assertThrows(ConflitoPartidaException.class,
+                () -> partidaService.realizarMovimento(id, lance(2, 1, 3, 0, 5), pretas.getId()));
+
+        assertEquals(1, partidaService.obterPartida(id).getTotalLances());
+        partidaService.realizarMovimento(id, lance(2, 1, 3, 0, 2), pretas.getId());
+        assertEquals(2, partidaService.obterPartida(id).getTotalLances());
+    }
+
+    @Test
+    void lanceDeQuemNaoEstaNaVezERecusado() {
+        Long id = iniciarPartida(new NovaPartidaRequest());
+        RuntimeException erro = assertThrows(RuntimeException.class,
+                () -> partidaService.realizarMovimento(id, lance(2, 1, 3, 0, 1), pretas.getId()));
+        assertEquals("Não é sua vez de jogar", erro.getMessage());
+    }
+
+    @Test
+    void lanceDepoisDoTempoEncerraAPartida() {
+        NovaPartidaRequest request = new NovaPartidaRequest();
+        request.setTempoPartida(60);
+        request.setIncremento(5);
+        Long id = iniciarPartida(request);
+
+        // O tempo das brancas acabou, mas o prazo ainda não foi processado pela roda de temporizadores
+        PartidaAtiva ativa = partidasAtivasService.obterSeCarregada(id);
+        ReflectionTestUtils.setField(ativa, "inicioDaVez", System.currentTimeMillis() - 61_000);
+
+        RuntimeException erro = assertThrows(RuntimeException.class,
+                () -> partidaService.realizarMovimento(id, lance(5, 0, 4, 1, 1), brancas.getId()));
+        assertEquals("O tempo acabou e a partida foi encerrada", erro.getMessage());
+
+        PartidaDTO partida = partidaService.obterPartida(id);
+        assertEquals(Partida.StatusPartida.FINALIZADA, partida.getStatus());
+        assertEquals(Partida.ResultadoPartida.VITORIA_PRETAS, partida.getResultado());
+        assertEquals(0, partida.getTotalLances());
+    }
+
+    @Test
+    void listagemPaginadaPorChave() {
+        Usuario outro = criarUsuario();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Long id = partidaService.criarPartida(new NovaPartidaRequest(), brancas.getId()).getId();
+            partidaService.entrarPartida(id, i % 2 == 0 ? pretas.getId() : outro.getId());
+            ids.add(0, id); // mais recentes primeiro
+        }
+        partidaService.criarPartida(new NovaPartidaRequest(), brancas.getId()); // esperando adversário
+
+        FiltroPartidas filtro = new FiltroPartidas();
+        filtro.setStatus(Partida.StatusPartida.EM_ANDAMENTO);
+        filtro.setTamanho(2);
+        List<Long> vistos = new ArrayList<>();
+        int paginas = 0;
+        PaginaDTO<PartidaResumoDTO> pagina;
+        do {
+            pagina = partidaService.listarPartidasDoUsuario(brancas.getId(), filtro);
+            assertTrue(pagina.getItens().size() <= 2);
+            pagina.getItens().forEach(resumo -> vistos.add(resumo.getId()));
+            filtro.setAntesDe(pagina.getProximo());
+            paginas++;
+        } while (pagina.getProximo() != null);
+        assertEquals(ids, vistos);
+        assertEquals(3, paginas);
+
+        FiltroPartidas contraOutro = new FiltroPartidas();
+        contraOutro.setAdversario(outro.getUsername());
+        PaginaDTO<PartidaResumoDTO> partidasContraOutro = partidaService.listarPartidasDoUsuario(brancas.getId(), contraOutro);
+        assertEquals(List.of(ids.get(1), ids.get(3)),
+                partidasContraOutro.getItens().stream().map(PartidaResumoDTO::getId).toList());
+        assertNull(partidasContraOutro.getProximo());
+        assertEquals(outro.getUsername(), partidasContraOutro.getItens().get(0).getJogadorPretas().getUsername());
+    }
+
+    private Long iniciarPartida(NovaPartidaRequest request) {
+        Long id = partidaService.criarPartida(request, brancas.getId()).getId();
+        partidaService.entrarPartida(id, pretas.getId());
+        return id;
+    }
+
+    private Usuario criarUsuario() {
+        String username = "u" + UUID.randomUUID().toString().substring(0, 8);
+        return usuarioRepository.save(Usuario.builder()
+                .username(username)
+                .email(username + "@teste.local")
+                .senha("x")
+                .build());
+    }
+
+    static MovimentoRequest lance(int linhaOrigem, int colunaOrigem, int linhaDestino, int colunaDestino, int ply) {
+        return MovimentoRequest.builder()
+                .linhaOrigem(linhaOrigem)
+                .colunaOrigem(colunaOrigem)
+                .linhaDestino(linhaDestino)
+                .colunaDestino(colunaDestino)
+                .ply(ply)
+                .build();
+    }
+}
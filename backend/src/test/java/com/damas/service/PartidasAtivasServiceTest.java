@@ -0,0 +1,110 @@
+package com.damas.service;
+
+import com.damas.dto.NovaPartidaRequest;
+import com.damas.model.Partida;
+import com.damas.model.Usuario;
+import com.damas.repository.LanceRepository;
+import com.damas.repository.PartidaRepository;
+import com.damas.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static com.damas.service.PartidaServiceTest.lance;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class PartidasAtivasServiceTest {
+
+    @Autowired
+    private PartidaService partidaService;
+
+    @Autowired
+    private PartidasAtivasService partidasAtivasService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PartidaRepository partidaRepository;
+
+    @Autowired
+    private LanceRepository lanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Usuario brancas;
+    private Usuario pretas;
+    private Long id;
+
+    @BeforeEach
+    void iniciarPartida() {
+        brancas = criarUsuario();
+        pretas = criarUsuario();
+        id = partidaService.criarPartida(new NovaPartidaRequest(), brancas.getId()).getId();
+        partidaService.entrarPartida(id, pretas.getId());
+    }
+
+    @Test
+    void lancesFicamEmMemoriaAteADescarga() {
+        partidaService.realizarMovimento(id, lance(5, 0, 4, 1, 1), brancas.getId());
+        partidaService.realizarMovimento(id, lance(2, 1, 3, 0, 2), pretas.getId());
+
+        assertEquals(0, partidaRepository.findById(id).orElseThrow().getTotalLances());
+        assertTrue(lanceRepository.findByPartidaIdOrderByPly(id).isEmpty());
+        assertEquals(2, partidasAtivasService.obterSeCarregada(id).getTotalLances());
+
+        partidasAtivasService.descarregar();
+
+        assertEquals(2, partidaRepository.findById(id).orElseThrow().getTotalLances());
+        assertEquals(2, lanceRepository.findByPartidaIdOrderByPly(id).size());
+        assertFalse(partidasAtivasService.obterSeCarregada(id).isAlterada());
+    }
+
+    @Test
+    void fimDaPartidaEGravadoNaHoraESaiDaMemoria() {
+        partidaService.realizarMovimento(id, lance(5, 0, 4, 1, 1), brancas.getId());
+        partidaService.desistirPartida(id, brancas.getId());
+
+        Partida gravada = partidaRepository.findById(id).orElseThrow();
+        assertEquals(Partida.StatusPartida.ABANDONADA, gravada.getStatus());
+        assertEquals(Partida.ResultadoPartida.VITORIA_PRETAS, gravada.getResultado());
+        assertEquals(1, lanceRepository.findByPartidaIdOrderByPly(id).size());
+        assertNull(partidasAtivasService.obterSeCarregada(id));
+    }
+
+    @Test
+    void escritaPorForaDescartaACopiaEmMemoria() {
+        partidaService.realizarMovimento(id, lance(5, 0, 4, 1, 1), brancas.getId());
+        PartidaAtiva antiga = partidasAtivasService.obterSeCarregada(id);
+
+        // Outra escrita na partida muda a versão: a gravação em lote dá conflito
+        jdbcTemplate.update("UPDATE partidas SET versao = versao + 1 WHERE id = ?", id);
+        partidasAtivasService.descarregar();
+
+        assertTrue(antiga.isDescartada());
+        assertNull(partidasAtivasService.obterSeCarregada(id));
+        // O lance feito sobre o estado descartado é recusado
+        assertThrows(ConflitoPartidaException.class,
+                () -> partidaService.realizarMovimento(id, lance(2, 1, 3, 0, 2), pretas.getId()));
+
+        // O próximo acesso recarrega o estado do banco
+        assertEquals(0, partidaService.obterPartida(id).getTotalLances());
+    }
+
+    private Usuario criarUsuario() {
+        String username = "u" + UUID.randomUUID().toString().substring(0, 8);
+        return usuarioRepository.save(Usuario.builder()
+                .username(username)
+                .email(username + "@teste.local")
+                .senha("x")
+                .build());
+    }
+}
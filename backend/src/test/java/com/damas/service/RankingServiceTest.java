@@ -0,0 +1,64 @@
+package com.damas.service;
+
+import com.damas.dto.ClassificacaoDTO;
+import com.damas.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RankingServiceTest {
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final RankingService rankingService = new RankingService(usuarioRepository);
+
+    @Test
+    void subidaMontaORankingDoBanco() {
+        when(usuarioRepository.listarParaRanking()).thenReturn(List.of(
+                new ClassificacaoDTO(1L, "a", 1200),
+                new ClassificacaoDTO(2L, "b", 1250),
+                new ClassificacaoDTO(3L, "c", 1200)));
+
+        rankingService.carregar();
+
+        assertEquals(3, rankingService.contarJogadores());
+        assertEquals(List.of(2L, 1L, 3L), ids(rankingService.listar(1, 10)));
+        assertEquals(3, rankingService.obterPosicao(3L).getPosicao());
+    }
+
+    @Test
+    void recarregarDescartaOQueEstavaEmMemoria() {
+        rankingService.aoAlterarJogador(new JogadorRankingEvent(9L, "velho", 1500, true));
+        when(usuarioRepository.listarParaRanking()).thenReturn(List.of(new ClassificacaoDTO(1L, "a", 1200)));
+
+        rankingService.carregar();
+
+        assertEquals(List.of(1L), ids(rankingService.listar(1, 10)));
+        assertThrows(RuntimeException.class, () -> rankingService.obterPosicao(9L));
+    }
+
+    @Test
+    void variacoesSaoSomadasEContaDesativadaSai() {
+        when(usuarioRepository.listarParaRanking()).thenReturn(List.of(
+                new ClassificacaoDTO(1L, "a", 1200),
+                new ClassificacaoDTO(2L, "b", 1210)));
+        rankingService.carregar();
+
+        rankingService.aoAlterarPontuacao(new PontuacaoAlteradaEvent(1L, "a", 16));
+        rankingService.aoAlterarPontuacao(new PontuacaoAlteradaEvent(2L, "b", -16));
+        assertEquals(List.of(1L, 2L), ids(rankingService.listarVizinhos(1L, 1)));
+        assertEquals(1216, rankingService.obterPosicao(1L).getElo());
+
+        rankingService.aoAlterarJogador(new JogadorRankingEvent(1L, "a", 1216, false));
+        assertEquals(1, rankingService.contarJogadores());
+        // Variação atrasada de quem já saiu não o traz de volta
+        rankingService.aoAlterarPontuacao(new PontuacaoAlteradaEvent(1L, "a", 5));
+        assertEquals(1, rankingService.contarJogadores());
+    }
+
+    private static List<Long> ids(List<ClassificacaoDTO> lista) {
+        return lista.stream().map(ClassificacaoDTO::getUsuarioId).toList();
+    }
+}
@@ -0,0 +1,40 @@
+package com.damas.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroSessoesTest {
+
+    private final RegistroSessoes registro = new RegistroSessoes();
+
+    @Test
+    void recusaAcimaDoLimitePorUsuario() {
+        ReflectionTestUtils.setField(registro, "maximoPorUsuario", 2);
+        assertTrue(registro.registrar(1L, "a"));
+        assertTrue(registro.registrar(1L, "b"));
+        assertFalse(registro.registrar(1L, "c"));
+        // Outro usuário tem o próprio limite, e a mesma sessão pode se registrar de novo
+        assertTrue(registro.registrar(2L, "d"));
+        assertTrue(registro.registrar(1L, "a"));
+        assertEquals(2, registro.contarConexoes(1L));
+        assertEquals(3, registro.contarConexoes());
+        assertEquals(2, registro.contarUsuarios());
+    }
+
+    @Test
+    void removerLiberaVagaEDesconectaOUsuario() {
+        ReflectionTestUtils.setField(registro, "maximoPorUsuario", 1);
+        registro.registrar(1L, "a");
+        assertFalse(registro.registrar(1L, "b"));
+
+        registro.remover("a");
+        assertFalse(registro.isConectado(1L));
+        assertTrue(registro.registrar(1L, "b"));
+        assertTrue(registro.isConectado(1L));
+
+        registro.remover("desconhecida");
+        assertEquals(1, registro.contarConexoes());
+    }
+}
@@ -0,0 +1,97 @@
+package com.damas.service;
+
+import com.damas.dto.NovaPartidaRequest;
+import com.damas.dto.PosicaoDTO;
+import com.damas.model.Usuario;
+import com.damas.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.damas.service.PartidaServiceTest.lance;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("teste")
+class ReproducaoServiceTest {
+
+    @Autowired
+    private ReproducaoService reproducaoService;
+
+    @Autowired
+    private PartidaService partidaService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario brancas;
+    private Usuario pretas;
+    private Long id;
+
+    @BeforeEach
+    void iniciarPartida() {
+        brancas = criarUsuario();
+        pretas = criarUsuario();
+        id = partidaService.criarPartida(new NovaPartidaRequest(), brancas.getId()).getId();
+        partidaService.entrarPartida(id, pretas.getId());
+    }
+
+    @Test
+    void posicaoDepoisDeCadaLance() {
+        int[][] inicial = reproducaoService.obterPosicao(id, 0).getTabuleiro();
+        partidaService.realizarMovimento(id, lance(5, 0, 4, 1, 1), brancas.getId());
+        partidaService.realizarMovimento(id, lance(2, 1, 3, 0, 2), pretas.getId());
+
+        PosicaoDTO depoisDoPrimeiro = reproducaoService.obterPosicao(id, 1);
+        assertEquals(1, depoisDoPrimeiro.getPly());
+        assertEquals(2, depoisDoPrimeiro.getTotalLances());
+        assertFalse(depoisDoPrimeiro.isJogadorAtualBrancas());
+        assertEquals(5, depoisDoPrimeiro.getLance().getLinhaOrigem());
+        assertEquals(inicial[5][0], depoisDoPrimeiro.getTabuleiro()[4][1]);
+
+        assertArrayEquals(partidaService.obterPartida(id).getTabuleiro(), reproducaoService.obterPosicao(id, 2).getTabuleiro());
+        assertThrows(RuntimeException.class, () -> reproducaoService.obterPosicao(id, 3));
+    }
+
+    @Test
+    void linhaDoTempoGuardadaRecebeOsLancesNovos() {
+        partidaService.realizarMovimento(id, lance(5, 0, 4, 1, 1), brancas.getId());
+        assertEquals(1, reproducaoService.obterPosicao(id, 1).getTotalLances());
+
+        partidaService.realizarMovimento(id, lance(2, 1, 3, 0, 2), pretas.getId());
+        partidaService.realizarMovimento(id, lance(5, 2, 4, 3, 3), brancas.getId());
+
+        PosicaoDTO ultima = reproducaoService.obterPosicao(id, 3);
+        assertEquals(3, ultima.getTotalLances());
+        assertArrayEquals(partidaService.obterPartida(id).getTabuleiro(), ultima.getTabuleiro());
+    }
+
+    @Test
+    void reproducaoDeUmTrecho() {
+        partidaService.realizarMovimento(id, lance(5, 0, 4, 1, 1), brancas.getId());
+        partidaService.realizarMovimento(id, lance(2, 1, 3, 0, 2), pretas.getId());
+        partidaService.realizarMovimento(id, lance(5, 2, 4, 3, 3), brancas.getId());
+
+        List<PosicaoDTO> trecho = reproducaoService.reproduzir(id, 1, null).toList();
+
+        assertEquals(List.of(1, 2, 3), trecho.stream().map(PosicaoDTO::getPly).toList());
+        for (PosicaoDTO posicao : trecho) {
+            assertArrayEquals(reproducaoService.obterPosicao(id, posicao.getPly()).getTabuleiro(), posicao.getTabuleiro());
+        }
+        assertThrows(RuntimeException.class, () -> reproducaoService.reproduzir(id, 0, 4));
+    }
+
+    private Usuario criarUsuario() {
+        String username = "u" + UUID.randomUUID().toString().substring(0, 8);
+        return usuarioRepository.save(Usuario.builder()
+                .username(username)
+                .email(username + "@teste.local")
+                .senha("x")
+                .build());
+    }
+}
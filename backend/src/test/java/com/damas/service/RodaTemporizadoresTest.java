@@ -0,0 +1,137 @@
+package com.damas.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Roda pequena (4 baldes de 10 ms = 40 ms por volta) e tarefas rodando na própria thread da roda
+class RodaTemporizadoresTest {
+
+    private static final long TIQUE_MS = 10;
+    private static final int BALDES = 4;
+
+    private final RodaTemporizadores roda = new RodaTemporizadores("roda-teste", TIQUE_MS, BALDES, Runnable::run);
+    private final List<String> disparos = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> disparadoEm = new ConcurrentHashMap<>();
+
+    @AfterEach
+    void parar() {
+        roda.parar();
+    }
+
+    @Test
+    void prazosNoMesmoBaldeDisparamTodosSemAdiantar() throws Exception {
+        CountDownLatch feitos = new CountDownLatch(3);
+        long inicio = System.nanoTime();
+        for (String nome : List.of("a", "b", "c")) {
+            roda.agendar(30, registrar(nome, feitos));
+        }
+        assertEquals(3, roda.getPendentes());
+
+        assertTrue(feitos.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("a", "b", "c"), disparos);
+        for (long quando : disparadoEm.values()) {
+            assertTrue(quando - inicio >= TimeUnit.MILLISECONDS.toNanos(30));
+        }
+        assertEquals(0, roda.getPendentes());
+    }
+
+    @Test
+    void prazoAlemDeUmaVoltaEsperaAsVoltasQueFaltam() throws Exception {
+        CountDownLatch feitos = new CountDownLatch(2);
+        long inicio = System.nanoTime();
+        // 130 ms são três voltas e um quarto: cai num balde que a roda visita antes disso
+        roda.agendar(130, registrar("longe", feitos));
+        roda.agendar(10, registrar("perto", feitos));
+
+        assertTrue(feitos.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("perto", "longe"), disparos);
+        assertTrue(disparadoEm.get("longe") - inicio >= TimeUnit.MILLISECONDS.toNanos(130));
+    }
+
+    @Test
+    void canceladoNaoDisparaEReagendadoDisparaUmaVez() throws Exception {
+        CountDownLatch feitos = new CountDownLatch(1);
+        RodaTemporizadores.Temporizador antesDeDistribuir = roda.agendar(20, registrar("cancelado", feitos));
+        antesDeDistribuir.cancelar();
+        RodaTemporizadores.Temporizador jaNoBalde = roda.agendar(60, registrar("adiado", feitos));
+        TimeUnit.MILLISECONDS.sleep(3 * TIQUE_MS);
+
+        // Como o relógio da partida faz a cada lance: cancela o prazo e agenda o novo
+        jaNoBalde.cancelar();
+        jaNoBalde.cancelar();
+        roda.agendar(80, registrar("reagendado", feitos));
+        assertEquals(1, roda.getPendentes());
+
+        assertTrue(feitos.await(2, TimeUnit.SECONDS));
+        TimeUnit.MILLISECONDS.sleep(BALDES * TIQUE_MS * 2);
+        assertEquals(List.of("reagendado"), disparos);
+        assertTrue(antesDeDistribuir.isCancelado());
+        assertTrue(jaNoBalde.isCancelado());
+        assertEquals(0, roda.getPendentes());
+    }
+
+    @Test
+    void cancelarDepoisDeDispararNaoMexeNosPendentes() throws Exception {
+        CountDownLatch feitos = new CountDownLatch(1);
+        RodaTemporizadores.Temporizador temporizador = roda.agendar(0, registrar("a", feitos));
+        assertTrue(feitos.await(2, TimeUnit.SECONDS));
+
+        temporizador.cancelar();
+
+        assertFalse(temporizador.isCancelado());
+        assertEquals(0, roda.getPendentes());
+    }
+
+    @Test
+    void tiqueAtrasadoDisparaOsVencidosEmOrdemAoRecuperar() throws Exception {
+        CountDownLatch travada = new CountDownLatch(1);
+        CountDownLatch feitos = new CountDownLatch(3);
+        // Uma tarefa lenta na thread da roda segura os tiques por várias voltas
+        roda.agendar(0, () -> {
+            travada.countDown();
+            dormir(200);
+        });
+        assertTrue(travada.await(2, TimeUnit.SECONDS));
+        long inicio = System.nanoTime();
+        roda.agendar(90, registrar("segundo", feitos));
+        roda.agendar(50, registrar("primeiro", feitos));
+        roda.agendar(400, registrar("depois", feitos));
+
+        assertTrue(feitos.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("primeiro", "segundo", "depois"), disparos);
+        assertTrue(disparadoEm.get("depois") - inicio >= TimeUnit.MILLISECONDS.toNanos(400));
+    }
+
+    @Test
+    void rodaParadaRecusaAgendamentos() {
+        roda.parar();
+
+        assertThrows(RejectedExecutionException.class, () -> roda.agendar(10, () -> { }));
+    }
+
+    private Runnable registrar(String nome, CountDownLatch feitos) {
+        return () -> {
+            disparadoEm.put(nome, System.nanoTime());
+            disparos.add(nome);
+            feitos.countDown();
+        };
+    }
+
+    private static void dormir(long ms) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
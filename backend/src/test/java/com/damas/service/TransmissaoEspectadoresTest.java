@@ -0,0 +1,159 @@
+package com.damas.service;
+
+import com.damas.dto.AtualizacaoPartidaDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+// Sem iniciar o agendador: cada passagem é chamada pelo teste
+class TransmissaoEspectadoresTest {
+
+    private static final long PARTIDA = 7L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SimpMessagingTemplate messagingTemplate;
+    private TransmissaoEspectadores transmissao;
+
+    @BeforeEach
+    void criar() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        transmissao = new TransmissaoEspectadores(messagingTemplate, objectMapper);
+    }
+
+    @Test
+    void partidaSemEspectadoresNaoAcumula() throws Exception {
+        transmissao.registrar("/topic/partida/" + PARTIDA, lance(1));
+        transmissao.transmitir();
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void atualizacaoUnicaVaiComoEsta() throws Exception {
+        inscrever("s1", "i1");
+        transmissao.registrar("/topic/partida/" + PARTIDA, lance(1));
+
+        transmissao.transmitir();
+
+        AtualizacaoPartidaDTO enviada = enviadaUmaVez();
+        assertEquals(AtualizacaoPartidaDTO.Tipo.LANCE, enviada.getTipo());
+        assertEquals(1, enviada.getSequencia());
+    }
+
+    @Test
+    void variasAtualizacoesNoIntervaloVaoNumLote() throws Exception {
+        inscrever("s1", "i1");
+        inscrever("s2", "i1");
+        for (int sequencia = 1; sequencia <= 3; sequencia++) {
+            transmissao.registrar("/topic/partida/" + PARTIDA, lance(sequencia));
+        }
+
+        transmissao.transmitir();
+        transmissao.transmitir();
+
+        // Uma mensagem por passagem e por partida, qualquer que seja o número de espectadores
+        AtualizacaoPartidaDTO lote = enviadaUmaVez();
+        assertEquals(AtualizacaoPartidaDTO.Tipo.LOTE, lote.getTipo());
+        assertEquals(PARTIDA, lote.getPartidaId());
+        assertEquals(3, lote.getSequencia());
+        assertEquals(3, lote.getAtualizacoes().size());
+    }
+
+    @Test
+    void loteCheioDescartaAsMaisAntigas() throws Exception {
+        ReflectionTestUtils.setField(transmissao, "loteMaximo", 2);
+        inscrever("s1", "i1");
+        for (int sequencia = 1; sequencia <= 5; sequencia++) {
+            transmissao.registrar("/topic/partida/" + PARTIDA, lance(sequencia));
+        }
+
+        transmissao.transmitir();
+
+        AtualizacaoPartidaDTO lote = enviadaUmaVez();
+        assertEquals(4, lote.getAtualizacoes().get(0).getSequencia());
+        assertEquals(5, lote.getSequencia());
+    }
+
+    @Test
+    void retratoReaproveitadoAteAProximaAtualizacao() throws Exception {
+        inscrever("s1", "i1");
+        AtomicInteger leituras = new AtomicInteger();
+
+        transmissao.retrato(PARTIDA, id -> carregar(leituras));
+        transmissao.retrato(PARTIDA, id -> carregar(leituras));
+        assertEquals(1, leituras.get());
+
+        transmissao.registrar("/topic/partida/" + PARTIDA, lance(1));
+        transmissao.retrato(PARTIDA, id -> carregar(leituras));
+        assertEquals(2, leituras.get());
+    }
+
+    @Test
+    void ultimoEspectadorASairEncerraATransmissao() throws Exception {
+        inscrever("s1", "i1");
+        inscrever("s2", "i1");
+        inscrever("s2", "i2");
+        assertEquals(3, transmissao.contarEspectadores());
+
+        transmissao.aoCancelarInscricao(new SessionUnsubscribeEvent(this, mensagem(SimpMessageType.UNSUBSCRIBE, "s1", "i1")));
+        assertEquals(2, transmissao.contarEspectadores());
+
+        transmissao.aoDesconectar(new SessionDisconnectEvent(this, mensagem(SimpMessageType.DISCONNECT, "s2", null),
+                "s2", CloseStatus.NORMAL));
+        assertEquals(0, transmissao.contarEspectadores());
+
+        transmissao.registrar("/topic/partida/" + PARTIDA, lance(1));
+        transmissao.transmitir();
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    private AtualizacaoPartidaDTO enviadaUmaVez() {
+        ArgumentCaptor<Object> mensagem = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, times(1)).convertAndSend(eq(TransmissaoEspectadores.TOPICO + PARTIDA), mensagem.capture());
+        return (AtualizacaoPartidaDTO) mensagem.getValue();
+    }
+
+    private void inscrever(String sessao, String inscricao) {
+        transmissao.aoInscrever(new SessionSubscribeEvent(this, mensagem(SimpMessageType.SUBSCRIBE, sessao, inscricao)));
+    }
+
+    private static Message<byte[]> mensagem(SimpMessageType tipo, String sessao, String inscricao) {
+        SimpMessageHeaderAccessor cabecalhos = SimpMessageHeaderAccessor.create(tipo);
+        cabecalhos.setSessionId(sessao);
+        cabecalhos.setSubscriptionId(inscricao);
+        if (tipo == SimpMessageType.SUBSCRIBE) {
+            cabecalhos.setDestination(TransmissaoEspectadores.TOPICO + PARTIDA);
+        }
+        return MessageBuilder.createMessage(new byte[0], cabecalhos.getMessageHeaders());
+    }
+
+    private String lance(int sequencia) throws Exception {
+        return objectMapper.writeValueAsString(AtualizacaoPartidaDTO.builder()
+                .tipo(AtualizacaoPartidaDTO.Tipo.LANCE)
+                .partidaId(PARTIDA)
+                .sequencia(sequencia)
+                .build());
+    }
+
+    private static AtualizacaoPartidaDTO carregar(AtomicInteger leituras) {
+        leituras.incrementAndGet();
+        return AtualizacaoPartidaDTO.builder().tipo(AtualizacaoPartidaDTO.Tipo.ESTADO).partidaId(PARTIDA).build();
+    }
+}
@@ -33,10 +33,12 @@ import SportsCricketIcon from '@mui/icons-material/SportsCricket';
 import { 
   fetchMyGames, 
   fetchAvailableGames, 
+  enterQueue, 
   createGame, 
   joinGame 
 } from '../redux/slices/gameSlice';
 import { fetchUserProfile } from '../redux/slices/userSlice';
+import websocketService from '../services/websocketService';
 
 // Componente de TabPanel para as tabs
 function TabPanel(props) {
@@ -78,6 +80,12 @@ const DashboardPage = () => {
     dispatch(fetchUserProfile());
   }, [dispatch]);
   
+  // As partidas disponíveis chegam pelo lobby em tempo real
+  useEffect(() => {
+    websocketService.connectLobby(dispatch);
+    return () => websocketService.disconnectLobby();
+  }, [dispatch]);
+  
   const handleTabChange = (event, newValue) => {
     setTabIndex(newValue);
   };
@@ -107,6 +115,17 @@ const DashboardPage = () => {
       });
   };
   
+  const handleEnterQueue = () => {
+    dispatch(enterQueue())
+      .unwrap()
+      .then((game) => {
+        navigate(`/game/${game.id}`);
+      })
+      .catch((err) => {
+        console.error('Erro ao buscar adversário:', err);
+      });
+  };
+  
   const handleOpenJoinGameDialog = () => {
     setJoinGameCode('');
     setError(null);
@@ -258,6 +277,14 @@ const DashboardPage = () => {
               >
                 Nova Partida
               </Button>
+              <Button
+                variant="contained"
+                startIcon={<PlayArrowIcon />}
+                onClick={handleEnterQueue}
+                disabled={isLoading}
+              >
+                Jogar Agora
+              </Button>
               <Button
                 variant="contained"
                 color="secondary"
@@ -291,10 +318,10 @@ const DashboardPage = () => {
                 </Grid>
                 <Grid item xs={12} sm={4}>
                   <Typography variant="body2" color="text.secondary">
-                    Pontuação:
+                    Elo:
                   </Typography>
                   <Typography variant="h6" fontWeight="medium">
-                    {profile.pontuacao || 0}
+                    {profile.elo || 0}
                   </Typography>
                 </Grid>
               </Grid>
@@ -37,22 +37,25 @@ const GamePage = () => {
     };
   }, [gameId, dispatch]);
   
-  // Conectar ao WebSocket
+  // Verifica se o jogador atual é um dos jogadores da partida
+  const isPlayerInGame = currentGame && user && (
+    user.id === currentGame?.jogadorBrancas?.id || 
+    user.id === currentGame?.jogadorPretas?.id
+  );
+  
+  // Conectar ao WebSocket depois de carregar a partida: o tópico dos jogadores
+  // só aceita os jogadores dela, os demais acompanham pelo tópico dos espectadores
+  const partidaCarregada = Boolean(currentGame) && String(currentGame.id) === String(gameId);
+  const espectador = !isPlayerInGame;
   useEffect(() => {
-    if (gameId) {
-      websocketService.connect(gameId, dispatch);
+    if (gameId && partidaCarregada) {
+      websocketService.connect(gameId, dispatch, espectador);
       
       return () => {
         websocketService.disconnect();
       };
     }
-  }, [gameId, dispatch]);
-  
-  // Verifica se o jogador atual é um dos jogadores da partida
-  const isPlayerInGame = currentGame && user && (
-    user.id === currentGame?.jogadorBrancas?.id || 
-    user.id === currentGame?.jogadorPretas?.id
-  );
+  }, [gameId, dispatch, partidaCarregada, espectador]);
   
   // Verifica se é a vez do jogador atual
   const isPlayerTurn = currentGame && isPlayerInGame && (
@@ -304,10 +304,10 @@ const ProfilePage = () => {
                   <Card variant="outlined">
                     <CardContent>
                       <Typography variant="h3" align="center" fontWeight="bold" color="info.main">
-                        {profile?.pontuacao || 0}
+                        {profile?.elo || 0}
                       </Typography>
                       <Typography variant="body2" align="center" color="text.secondary">
-                        Pontuação Total
+                        Elo
                       </Typography>
                     </CardContent>
                   </Card>
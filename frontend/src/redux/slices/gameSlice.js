@@ -59,6 +59,20 @@ export const fetchAvailableGames = createAsyncThunk(
   }
 );
 
+export const enterQueue = createAsyncThunk(
+  'game/enterQueue',
+  async (tempoPartida, { rejectWithValue }) => {
+    try {
+      const response = await gameService.enterQueue(tempoPartida);
+      return response;
+    } catch (error) {
+      return rejectWithValue(
+        error.response?.data?.message || 'Falha ao buscar adversário. Tente novamente.'
+      );
+    }
+  }
+);
+
 export const fetchMyGames = createAsyncThunk(
   'game/fetchMyGames',
   async (_, { rejectWithValue }) => {
@@ -101,6 +115,88 @@ export const resignGame = createAsyncThunk(
   }
 );
 
+// Atualizações recebidas pelo websocket: deltas de lance são aplicados sobre a
+// partida atual; se alguma se perdeu (salto na sequência), busca a partida inteira
+export const receberAtualizacao = (atualizacao) => (dispatch, getState) => {
+  const { currentGame } = getState().game;
+  
+  // Espectadores recebem os lances acumulados num lote, aplicados em ordem. Um lote
+  // que começa depois do último lance conhecido foi truncado: busca a partida uma vez
+  if (atualizacao.tipo === 'LOTE') {
+    const [primeira] = atualizacao.atualizacoes;
+    if (currentGame && currentGame.id === atualizacao.partidaId
+        && primeira.tipo === 'LANCE' && primeira.sequencia > currentGame.totalLances + 1) {
+      dispatch(fetchGameById(atualizacao.partidaId));
+      return;
+    }
+    atualizacao.atualizacoes.forEach((item) => dispatch(receberAtualizacao(item)));
+    return;
+  }
+  
+  const mesmaPartida = currentGame && currentGame.id === atualizacao.partidaId;
+  
+  if (atualizacao.tipo === 'ESTADO') {
+    if (!mesmaPartida || atualizacao.sequencia >= currentGame.totalLances) {
+      dispatch(updateGameState(atualizacao.partida));
+    }
+    return;
+  }
+  
+  if (!mesmaPartida) {
+    return;
+  }
+  
+  const esperada = atualizacao.tipo === 'LANCE' ? currentGame.totalLances + 1 : currentGame.totalLances;
+  if (atualizacao.sequencia < esperada) {
+    return; // já aplicada (resposta da própria jogada ou estado mais novo)
+  }
+  if (atualizacao.sequencia > esperada) {
+    dispatch(fetchGameById(atualizacao.partidaId));
+    return;
+  }
+  
+  dispatch(aplicarAtualizacao(atualizacao));
+};
+
+// Eventos individuais recebidos em /user/queue/eventos
+export const receberEvento = (evento) => (dispatch) => {
+  if (evento.tipo === 'PARTIDA_INICIADA') {
+    toast.info(evento.mensagem);
+    dispatch(fetchMyGames());
+  } else if (evento.tipo === 'TEMPO_ACABANDO') {
+    toast.warning(evento.mensagem);
+  }
+};
+
+// Aplica um delta (LANCE ou FIM) sobre a partida: move a peça, remove as
+// capturadas, promove e atualiza vez, relógios e situação
+const aplicarLance = (game, atualizacao) => {
+  const { lance } = atualizacao;
+  
+  if (lance) {
+    const tabuleiro = game.tabuleiro;
+    let peca = tabuleiro[lance.linhaOrigem][lance.colunaOrigem];
+    tabuleiro[lance.linhaOrigem][lance.colunaOrigem] = 0;
+    lance.capturas.forEach(([linha, coluna]) => {
+      tabuleiro[linha][coluna] = 0;
+    });
+    if (lance.promocao) {
+      peca = peca === 1 ? 3 : 4; // homem vira dama
+    }
+    tabuleiro[lance.linhaDestino][lance.colunaDestino] = peca;
+    
+    game.movimentoHistorico = (game.movimentoHistorico || '') +
+      `${lance.linhaOrigem},${lance.colunaOrigem}:${lance.linhaDestino},${lance.colunaDestino};`;
+  }
+  
+  game.totalLances = atualizacao.sequencia;
+  game.jogadorAtualBrancas = atualizacao.jogadorAtualBrancas;
+  game.tempoJogadorBrancas = atualizacao.tempoJogadorBrancas;
+  game.tempoJogadorPretas = atualizacao.tempoJogadorPretas;
+  game.status = atualizacao.status;
+  game.resultado = atualizacao.resultado;
+};
+
 // Slice
 const gameSlice = createSlice({
   name: 'game',
@@ -131,6 +227,21 @@ const gameSlice = createSlice({
     updateGameState: (state, action) => {
       state.currentGame = action.payload;
     },
+    // Lista completa do lobby, recebida ao se inscrever
+    definirLobby: (state, action) => {
+      state.availableGames = action.payload;
+    },
+    // Partida que entrou (ABERTA) ou saiu (FECHADA) do lobby
+    atualizarLobby: (state, action) => {
+      const { tipo, partidaId, entrada } = action.payload;
+      state.availableGames = state.availableGames.filter((game) => game.id !== partidaId);
+      if (tipo === 'ABERTA') {
+        state.availableGames.push(entrada);
+      }
+    },
+    aplicarAtualizacao: (state, action) => {
+      aplicarLance(state.currentGame, action.payload);
+    },
   },
   extraReducers: (builder) => {
     builder
@@ -196,6 +307,21 @@ const gameSlice = createSlice({
         toast.error(action.payload);
       })
       
+      // Enter Queue
+      .addCase(enterQueue.pending, (state) => {
+        state.isLoading = true;
+        state.error = null;
+      })
+      .addCase(enterQueue.fulfilled, (state, action) => {
+        state.isLoading = false;
+        state.currentGame = action.payload;
+      })
+      .addCase(enterQueue.rejected, (state, action) => {
+        state.isLoading = false;
+        state.error = action.payload;
+        toast.error(action.payload);
+      })
+      
       // Fetch My Games
       .addCase(fetchMyGames.pending, (state) => {
         state.isLoading = true;
@@ -218,7 +344,11 @@ const gameSlice = createSlice({
       })
       .addCase(makeMove.fulfilled, (state, action) => {
         state.isLoading = false;
-        state.currentGame = action.payload;
+        // A resposta é o delta do lance; pode já ter chegado pelo websocket
+        const game = state.currentGame;
+        if (game && game.id === action.payload.partidaId && action.payload.sequencia === game.totalLances + 1) {
+          aplicarLance(game, action.payload);
+        }
         state.selectedPiece = null;
         state.possibleMoves = [];
       })
@@ -246,5 +376,13 @@ const gameSlice = createSlice({
   },
 });
 
-export const { resetGame, selectPiece, clearSelection, updateGameState } = gameSlice.actions;
+export const {
+  resetGame,
+  selectPiece,
+  clearSelection,
+  updateGameState,
+  aplicarAtualizacao,
+  definirLobby,
+  atualizarLobby,
+} = gameSlice.actions;
 export default gameSlice.reducer;
\ No newline at end of file
@@ -25,18 +25,30 @@ const gameService = {
     return response.data;
   },
 
-  // Função para buscar partidas disponíveis (aguardando jogadores)
-  getAvailableGames: async () => {
-    const response = await api.get('/partidas/aguardando');
+  // Função para buscar partidas disponíveis (aguardando jogadores), servidas da memória pelo lobby
+  getAvailableGames: async (tempo) => {
+    const response = await api.get('/lobby', { params: { tempo } });
     return response.data;
   },
 
-  // Função para buscar minhas partidas
-  getMyGames: async () => {
-    const response = await api.get('/partidas');
+  // Função para entrar na fila: devolve a partida pareada ou a aberta para esperar adversário
+  enterQueue: async (tempoPartida) => {
+    const response = await api.post('/lobby/fila', { tempoPartida });
     return response.data;
   },
 
+  // Função para cancelar uma partida que ainda espera adversário
+  cancelGame: async (gameId) => {
+    const response = await api.post(`/partidas/${gameId}/cancelar`);
+    return response.data;
+  },
+
+  // Função para buscar minhas partidas (filtros: adversario, status, desde, ate, antesDe, tamanho)
+  getMyGames: async (filtros = {}) => {
+    const response = await api.get('/partidas', { params: filtros });
+    return response.data.itens;
+  },
+
   // Função para realizar um movimento
   makeMove: async (gameId, move) => {
     const response = await api.post(`/partidas/${gameId}/movimento`, move);
@@ -48,6 +60,18 @@ const gameService = {
     const response = await api.post(`/partidas/${gameId}/desistir`);
     return response.data;
   },
+
+  // Posição da partida depois do lance ply (0 = posição inicial), montada pelo servidor
+  getPosition: async (gameId, ply) => {
+    const response = await api.get(`/partidas/${gameId}/posicao`, { params: { ply } });
+    return response.data;
+  },
+
+  // Posições de cada lance entre desde e ate (até o último, se omitido), para rever a partida
+  getReplay: async (gameId, desde = 0, ate) => {
+    const response = await api.get(`/partidas/${gameId}/replay`, { params: { desde, ate } });
+    return response.data;
+  },
 };
 
 export default gameService;
\ No newline at end of file
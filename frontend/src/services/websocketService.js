@@ -1,34 +1,45 @@
 import SockJS from 'sockjs-client';
 import { Stomp } from '@stomp/stompjs';
-import { updateGameState } from '../redux/slices/gameSlice';
+import { receberAtualizacao, definirLobby, atualizarLobby, receberEvento } from '../redux/slices/gameSlice';
 
 let stompClient = null;
 let gameSubscription = null;
+let estadoSubscription = null;
+
+// Conexão separada para o lobby, aberta enquanto o painel está na tela
+let lobbyClient = null;
+let lobbyAtivo = false;
+
+const getWsUrl = () => (process.env.NODE_ENV === 'production'
+  ? 'https://api.jogo-damas-online.herokuapp.com/ws'
+  : 'http://localhost:8080/ws');
+
+// O servidor autentica a sessão no CONNECT com o mesmo token da API
+const getConnectHeaders = () => {
+  const token = localStorage.getItem('token');
+  return token ? { Authorization: `Bearer ${token}` } : {};
+};
 
 const websocketService = {
-  // Conecta ao websocket
-  connect: (gameId, dispatch) => {
-    const wsUrl = process.env.NODE_ENV === 'production'
-      ? 'https://api.jogo-damas-online.herokuapp.com/ws'
-      : 'http://localhost:8080/ws';
-    
-    const socket = new SockJS(wsUrl);
+  // Conecta ao websocket; espectadores acompanham a partida pelo tópico próprio
+  connect: (gameId, dispatch, espectador = false) => {
+    const socket = new SockJS(getWsUrl());
     stompClient = Stomp.over(socket);
     
     stompClient.connect(
-      {},
+      getConnectHeaders(),
       () => {
         console.log('WebSocket conectado');
         
         // Inscreve-se no tópico da partida específica
         if (gameId) {
-          websocketService.subscribeToGame(gameId, dispatch);
+          websocketService.subscribeToGame(gameId, dispatch, espectador);
         }
       },
       (error) => {
         console.error('Erro na conexão WebSocket:', error);
         setTimeout(() => {
-          websocketService.connect(gameId, dispatch);
+          websocketService.connect(gameId, dispatch, espectador);
         }, 5000); // Tenta reconectar após 5 segundos
       }
     );
@@ -42,25 +53,41 @@ const websocketService = {
       if (gameSubscription) {
         gameSubscription.unsubscribe();
       }
+      if (estadoSubscription) {
+        estadoSubscription.unsubscribe();
+      }
       stompClient.disconnect();
       console.log('WebSocket desconectado');
     }
   },
   
-  // Inscreve-se para receber atualizações de uma partida específica
-  subscribeToGame: (gameId, dispatch) => {
+  // Inscreve-se para receber atualizações de uma partida específica. Os jogadores recebem
+  // cada lance; os espectadores recebem os lances acumulados em lotes
+  subscribeToGame: (gameId, dispatch, espectador = false) => {
     if (stompClient !== null && stompClient.connected) {
       // Cancela inscrição anterior, se houver
       if (gameSubscription) {
         gameSubscription.unsubscribe();
       }
+      if (estadoSubscription) {
+        estadoSubscription.unsubscribe();
+      }
+      
+      const prefixo = espectador ? 'espectadores/partida' : 'partida';
       
-      // Inscreve-se no tópico da partida
+      // Inscreve-se no tópico da partida, que envia só os deltas de cada lance
       gameSubscription = stompClient.subscribe(
-        `/topic/partida/${gameId}`,
+        `/topic/${prefixo}/${gameId}`,
+        (message) => {
+          dispatch(receberAtualizacao(JSON.parse(message.body)));
+        }
+      );
+      
+      // Pede o estado completo uma vez, depois de já estar recebendo os deltas
+      estadoSubscription = stompClient.subscribe(
+        `/app/${prefixo}/${gameId}`,
         (message) => {
-          const gameState = JSON.parse(message.body);
-          dispatch(updateGameState(gameState));
+          dispatch(receberAtualizacao(JSON.parse(message.body)));
         }
       );
       
@@ -68,17 +95,46 @@ const websocketService = {
     }
   },
   
-  // Envia uma notificação de movimento realizado
-  sendMoveNotification: (gameId, move) => {
-    if (stompClient !== null && stompClient.connected) {
-      stompClient.send(
-        '/app/partida.movimento',
-        {},
-        JSON.stringify({
-          partidaId: gameId,
-          ...move
-        })
-      );
+  // Conecta ao lobby: recebe a lista de partidas abertas uma vez e depois só as mudanças
+  connectLobby: (dispatch) => {
+    lobbyAtivo = true;
+    lobbyClient = Stomp.over(new SockJS(getWsUrl()));
+    
+    lobbyClient.connect(
+      getConnectHeaders(),
+      () => {
+        // Primeiro as mudanças, depois a lista completa, para não perder nada entre as duas
+        lobbyClient.subscribe('/topic/lobby', (message) => {
+          dispatch(atualizarLobby(JSON.parse(message.body)));
+        });
+        lobbyClient.subscribe('/app/lobby', (message) => {
+          dispatch(definirLobby(JSON.parse(message.body)));
+        });
+        
+        // Eventos só deste usuário (por exemplo, alguém entrou na partida que ele abriu)
+        lobbyClient.subscribe('/user/queue/eventos', (message) => {
+          dispatch(receberEvento(JSON.parse(message.body)));
+        });
+      },
+      (error) => {
+        console.error('Erro na conexão WebSocket do lobby:', error);
+        if (lobbyAtivo) {
+          setTimeout(() => {
+            if (lobbyAtivo) {
+              websocketService.connectLobby(dispatch);
+            }
+          }, 5000);
+        }
+      }
+    );
+  },
+  
+  // Desconecta do lobby
+  disconnectLobby: () => {
+    lobbyAtivo = false;
+    if (lobbyClient !== null) {
+      lobbyClient.disconnect();
+      lobbyClient = null;
     }
   },
 };